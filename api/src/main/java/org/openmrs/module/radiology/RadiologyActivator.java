@@ -9,7 +9,14 @@
  */
 package org.openmrs.module.radiology;
 
+import java.util.List;
+
+import org.openmrs.api.context.Context;
 import org.openmrs.module.BaseModuleActivator;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateHtmlBodyCache;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateSearchCriteria;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +37,43 @@ public class RadiologyActivator extends BaseModuleActivator {
     @Override
     public void started() {
         log.info("Radiology Module successfully started");
+        warmMrrtReportTemplateHtmlBodyCache();
+    }
+    
+    /**
+     * Caches the html bodies of all report templates if global property warmReportTemplateCacheOnStartup is set to
+     * true. A failure to do so is logged and does not prevent the module from starting.
+     * <p>
+     * The report templates are read with a proxy privilege since no user is authenticated while the module starts.
+     * </p>
+     * 
+     * @should cache the html bodies of all report templates without an authenticated user
+     * @should not cache the html bodies of the report templates if warm report template cache is false
+     */
+    void warmMrrtReportTemplateHtmlBodyCache() {
+        
+        try {
+            if (!Context.getRegisteredComponent("radiologyProperties", RadiologyProperties.class)
+                    .getWarmMrrtReportTemplateCache()) {
+                return;
+            }
+            final List<MrrtReportTemplate> mrrtReportTemplates;
+            try {
+                Context.addProxyPrivilege(RadiologyPrivileges.GET_RADIOLOGY_REPORT_TEMPLATES);
+                mrrtReportTemplates = Context.getService(MrrtReportTemplateService.class)
+                        .getMrrtReportTemplates(new MrrtReportTemplateSearchCriteria.Builder().build());
+            }
+            finally {
+                Context.removeProxyPrivilege(RadiologyPrivileges.GET_RADIOLOGY_REPORT_TEMPLATES);
+            }
+            final int warmed = Context.getRegisteredComponent("mrrtReportTemplateHtmlBodyCache",
+                MrrtReportTemplateHtmlBodyCache.class)
+                    .warm(mrrtReportTemplates);
+            log.info("Cached the html bodies of " + warmed + " report templates");
+        }
+        catch (Exception exception) {
+            log.warn("Could not cache the html bodies of the report templates", exception);
+        }
     }
     
     @Override
@@ -0,0 +1,98 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology;
+
+/**
+ * A snapshot of the statistics of a cache region.
+ */
+public class RadiologyCacheRegionStatistics {
+    
+    
+    private final String regionName;
+    
+    private final long hitCount;
+    
+    private final long missCount;
+    
+    private final long putCount;
+    
+    private final long elementCountInMemory;
+    
+    /**
+     * Creates a snapshot of the statistics of a cache region.
+     * 
+     * @param regionName the name of the cache region
+     * @param hitCount the number of lookups served from the cache region
+     * @param missCount the number of lookups not found in the cache region
+     * @param putCount the number of entries put into the cache region
+     * @param elementCountInMemory the number of entries currently held in memory by the cache region
+     */
+    public RadiologyCacheRegionStatistics(String regionName, long hitCount, long missCount, long putCount,
+            long elementCountInMemory) {
+        this.regionName = regionName;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.elementCountInMemory = elementCountInMemory;
+    }
+    
+    /**
+     * @return the name of the cache region
+     */
+    public String getRegionName() {
+        
+        return regionName;
+    }
+    
+    /**
+     * @return the number of lookups served from the cache region
+     */
+    public long getHitCount() {
+        
+        return hitCount;
+    }
+    
+    /**
+     * @return the number of lookups not found in the cache region
+     */
+    public long getMissCount() {
+        
+        return missCount;
+    }
+    
+    /**
+     * @return the number of entries put into the cache region
+     */
+    public long getPutCount() {
+        
+        return putCount;
+    }
+    
+    /**
+     * @return the number of entries currently held in memory by the cache region
+     */
+    public long getElementCountInMemory() {
+        
+        return elementCountInMemory;
+    }
+    
+    /**
+     * Gets the share of lookups which were served from the cache region.
+     * 
+     * @return the hit ratio between 0 and 1 or 0 if there were no lookups
+     * @should return the share of lookups served from the cache region
+     * @should return zero if there were no lookups
+     */
+    public double getHitRatio() {
+        
+        final long lookupCount = hitCount + missCount;
+        return lookupCount == 0 ? 0 : (double) hitCount / lookupCount;
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.internal.StandardQueryCache;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateHtmlBodyCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the statistics of the second-level cache regions of this module, the query cache, the global property
+ * cache of {@link RadiologyProperties} and the report template html body cache.
+ * <p>
+ * Hibernate only collects second-level and query cache statistics while statistics are enabled, which they are not by
+ * default since collecting them has a cost.
+ * </p>
+ */
+@Component
+public class RadiologyCacheStatistics {
+    
+    
+    private static final String RADIOLOGY_CACHE_REGION_PREFIX = "org.openmrs.module.radiology.";
+    
+    @Autowired
+    @Qualifier("sessionFactory")
+    private SessionFactory sessionFactory;
+    
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    @Autowired
+    private MrrtReportTemplateHtmlBodyCache mrrtReportTemplateHtmlBodyCache;
+    
+    /**
+     * Gets whether Hibernate collects statistics.
+     * 
+     * @return true if statistics are collected and false otherwise
+     */
+    public boolean isStatisticsEnabled() {
+        return getStatistics().isStatisticsEnabled();
+    }
+    
+    /**
+     * Enables or disables the collection of statistics. Statistics collected so far are reset when the collection is
+     * enabled.
+     * 
+     * @param statisticsEnabled true to collect statistics and false otherwise
+     * @should enable the collection of statistics
+     * @should disable the collection of statistics
+     */
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        
+        final Statistics statistics = getStatistics();
+        if (statisticsEnabled && !statistics.isStatisticsEnabled()) {
+            statistics.clear();
+        }
+        statistics.setStatisticsEnabled(statisticsEnabled);
+    }
+    
+    /**
+     * Gets the statistics of the second-level cache regions of this module ordered by region name.
+     * 
+     * @return the statistics of the radiology cache regions
+     * @should return only the statistics of radiology cache regions
+     */
+    public List<RadiologyCacheRegionStatistics> getCacheRegionStatistics() {
+        
+        final List<RadiologyCacheRegionStatistics> result = new ArrayList<RadiologyCacheRegionStatistics>();
+        final Statistics statistics = getStatistics();
+        final String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            if (regionName.contains(RADIOLOGY_CACHE_REGION_PREFIX)) {
+                result.add(toCacheRegionStatistics(regionName, statistics.getSecondLevelCacheStatistics(regionName)));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the statistics of the query cache.
+     * 
+     * @return the statistics of the query cache or null if the query cache is disabled
+     */
+    public RadiologyCacheRegionStatistics getQueryCacheStatistics() {
+        
+        final Statistics statistics = getStatistics();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            if (regionName.endsWith(StandardQueryCache.class.getName())) {
+                return toCacheRegionStatistics(regionName, statistics.getSecondLevelCacheStatistics(regionName));
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Gets the statistics of the global property cache of {@link RadiologyProperties}, which are always collected.
+     * 
+     * @return the statistics of the global property cache
+     * @should return the hit and miss count of the global property cache
+     */
+    public RadiologyCacheRegionStatistics getGlobalPropertyCacheStatistics() {
+        
+        return new RadiologyCacheRegionStatistics(RadiologyProperties.class.getName(),
+                radiologyProperties.getCacheHitCount(), radiologyProperties.getCacheMissCount(), 0, 0);
+    }
+    
+    /**
+     * Gets the statistics of the report template html body cache, which are always collected.
+     * 
+     * @return the statistics of the report template html body cache
+     * @should return the hit, miss and put count and the number of html bodies of the report template cache
+     */
+    public RadiologyCacheRegionStatistics getMrrtReportTemplateCacheStatistics() {
+        
+        return new RadiologyCacheRegionStatistics(MrrtReportTemplateHtmlBodyCache.class.getName(),
+                mrrtReportTemplateHtmlBodyCache.getHitCount(), mrrtReportTemplateHtmlBodyCache.getMissCount(),
+                mrrtReportTemplateHtmlBodyCache.getPutCount(), mrrtReportTemplateHtmlBodyCache.getEntryCount());
+    }
+    
+    /**
+     * Gets the average time it took to extract a report template html body from its template file.
+     * 
+     * @return the average load time in milliseconds
+     */
+    public double getMrrtReportTemplateCacheAverageLoadTimeMillis() {
+        return mrrtReportTemplateHtmlBodyCache.getAverageLoadTimeMillis();
+    }
+    
+    /**
+     * Gets the approximate number of bytes held by the report template html body cache.
+     * 
+     * @return the size of the cached report template html bodies in bytes
+     */
+    public long getMrrtReportTemplateCacheByteCount() {
+        return mrrtReportTemplateHtmlBodyCache.getByteCount();
+    }
+    
+    private Statistics getStatistics() {
+        return sessionFactory.getStatistics();
+    }
+    
+    private static RadiologyCacheRegionStatistics toCacheRegionStatistics(String regionName,
+            SecondLevelCacheStatistics regionStatistics) {
+        
+        if (regionStatistics == null) {
+            return new RadiologyCacheRegionStatistics(regionName, 0, 0, 0, 0);
+        }
+        return new RadiologyCacheRegionStatistics(regionName, regionStatistics.getHitCount(),
+                regionStatistics.getMissCount(), regionStatistics.getPutCount(),
+                regionStatistics.getElementCountInMemory());
+    }
+}
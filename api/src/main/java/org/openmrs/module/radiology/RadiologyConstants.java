@@ -93,12 +93,83 @@ public class RadiologyConstants {
      */
     public static final String GP_NEXT_ACCESSION_NUMBER_SEED = "radiology.nextAccessionNumberSeed";
     
+    /**
+     * {@code GlobalProperty} property for the number of accession number seeds reserved at once by a node.
+     *
+     * @see org.openmrs.module.radiology.order.BlockAccessionNumberGenerator
+     */
+    public static final String GP_ACCESSION_NUMBER_BLOCK_SIZE = "radiology.accessionNumberBlockSize";
+    
+    /**
+     * {@code GlobalProperty} property for the name of the strategy used to generate new {@code Order.accessionNumber's}.
+     *
+     * @see org.openmrs.module.radiology.order.AccessionNumberGenerator
+     */
+    public static final String GP_ACCESSION_NUMBER_GENERATOR = "radiology.accessionNumberGenerator";
+    
+    /**
+     * Name of the default {@code AccessionNumberGenerator} which uses the seed stored in
+     * {@link #GP_NEXT_ACCESSION_NUMBER_SEED}.
+     */
+    public static final String DEFAULT_ACCESSION_NUMBER_GENERATOR = "globalProperty";
+    
+    /**
+     * {@code GlobalProperty} property for the prefix of accession numbers generated per day.
+     */
+    public static final String GP_ACCESSION_NUMBER_PREFIX = "radiology.accessionNumberPrefix";
+    
+    /**
+     * {@code GlobalProperty} property indicating if the bodies of radiology reports are stored compressed.
+     */
+    public static final String GP_COMPRESS_REPORT_BODIES = "radiology.compressReportBodies";
+    
     /**
      * {@code GlobalProperty} property for the directory where report templates are stored.
      * Allowable values are absolute and relative paths.
      */
     public static final String GP_MRRT_REPORT_TEMPLATE_DIR = "radiology.reportTemplatesHome";
     
+    /**
+     * {@code GlobalProperty} property for the maximum number of report template html bodies held in memory.
+     *
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateHtmlBodyCache
+     */
+    public static final String GP_MRRT_REPORT_TEMPLATE_CACHE_MAX_ENTRIES = "radiology.reportTemplateCacheMaxEntries";
+    
+    /**
+     * {@code GlobalProperty} property for the maximum number of bytes of report template html bodies held in memory.
+     *
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateHtmlBodyCache
+     */
+    public static final String GP_MRRT_REPORT_TEMPLATE_CACHE_MAX_BYTES = "radiology.reportTemplateCacheMaxBytes";
+    
+    /**
+     * {@code GlobalProperty} property indicating if the report template html bodies are cached when the module starts.
+     */
+    public static final String GP_WARM_MRRT_REPORT_TEMPLATE_CACHE = "radiology.warmReportTemplateCacheOnStartup";
+    
+    /**
+     * {@code GlobalProperty} property for the number of threads validating report templates of an imported archive.
+     */
+    public static final String GP_MRRT_REPORT_TEMPLATE_IMPORT_THREADS = "radiology.reportTemplateImportThreads";
+    
+    /**
+     * {@code GlobalProperty} property for the number of report templates of an imported archive saved per transaction.
+     */
+    public static final String GP_MRRT_REPORT_TEMPLATE_IMPORT_BATCH_SIZE = "radiology.reportTemplateImportBatchSize";
+    
+    /**
+     * {@code GlobalProperty} property for the maximum uncompressed size in bytes of a report template of an imported
+     * archive.
+     */
+    public static final String GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_ENTRY_BYTES = "radiology.reportTemplateImportMaxEntryBytes";
+    
+    /**
+     * {@code GlobalProperty} property for the maximum uncompressed size in bytes of all entries of an imported report
+     * template archive.
+     */
+    public static final String GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_TOTAL_BYTES = "radiology.reportTemplateImportMaxTotalBytes";
+    
     private RadiologyConstants() {
         // Utility class not meant to be instantiated.
     }
@@ -12,17 +12,27 @@ package org.openmrs.module.radiology;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.CareSetting;
 import org.openmrs.ConceptClass;
 import org.openmrs.EncounterRole;
 import org.openmrs.EncounterType;
+import org.openmrs.GlobalProperty;
 import org.openmrs.OrderType;
 import org.openmrs.VisitType;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.ConceptService;
 import org.openmrs.api.EncounterService;
+import org.openmrs.api.GlobalPropertyListener;
 import org.openmrs.api.OrderService;
 import org.openmrs.api.VisitService;
 import org.openmrs.util.OpenmrsUtil;
@@ -32,10 +42,37 @@ import org.springframework.stereotype.Component;
 
 /**
  * Properties, mostly configured via GPs for this module.
+ * <p>
+ * Values resolved from global properties which are needed on every radiology order are cached. Metadata like care
+ * settings or encounter types are cached by their primary key and loaded through the Hibernate session so that no
+ * detached objects are handed out. Cached values are evicted when the underlying global property changes.
+ * </p>
+ * <p>
+ * Caching the primary key only saves the lookup by uuid, every call still loads the metadata by its primary key. The
+ * first call of a session selects it from the database, further calls of that session are served from the session.
+ * The metadata objects are not cached themselves since they would be detached from every later session, failing on
+ * access to their lazy associations such as the concept classes of an order type.
+ * </p>
+ * <p>
+ * The cache is held per node. Since the change of a global property is only signalled to the listeners of the node it
+ * is changed on, cached values expire after a time to live so that other nodes of a cluster pick up the change.
+ * </p>
  */
 @Component
-public class RadiologyProperties {
+public class RadiologyProperties implements GlobalPropertyListener {
+    
+    
+    private static final String RADIOLOGY_GLOBAL_PROPERTY_PREFIX = "radiology.";
+    
+    private static final long DEFAULT_CACHE_TIME_TO_LIVE_SECONDS = 60;
+    
+    private final Map<String, CachedValue> cachedValues = new ConcurrentHashMap<String, CachedValue>();
     
+    private volatile long cacheTimeToLiveNanos = TimeUnit.SECONDS.toNanos(DEFAULT_CACHE_TIME_TO_LIVE_SECONDS);
+    
+    private final AtomicLong cacheHitCount = new AtomicLong();
+    
+    private final AtomicLong cacheMissCount = new AtomicLong();
     
     @Autowired
     @Qualifier("adminService")
@@ -62,7 +99,8 @@ public class RadiologyProperties {
      * @should throw illegal state exception if global property for dicom uid org root cannot be found
      */
     public String getDicomUIDOrgRoot() {
-        return getGlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, true);
+        return getCachedValue(RadiologyConstants.GP_DICOM_UID_ORG_ROOT,
+            () -> getGlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, true));
     }
     
     /**
@@ -125,13 +163,16 @@ public class RadiologyProperties {
      * @should throw illegal state exception if radiology care setting cannot be found
      */
     public CareSetting getRadiologyCareSetting() {
-        final CareSetting result =
-                orderService.getCareSettingByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, true));
-        if (result == null) {
-            throw new IllegalStateException(
-                    "No existing care setting for uuid: " + RadiologyConstants.GP_RADIOLOGY_CARE_SETTING);
-        }
-        return result;
+        final Integer careSettingId = getCachedValue(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, () -> {
+            final CareSetting careSetting =
+                    orderService.getCareSettingByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, true));
+            if (careSetting == null) {
+                throw new IllegalStateException(
+                        "No existing care setting for uuid: " + RadiologyConstants.GP_RADIOLOGY_CARE_SETTING);
+            }
+            return careSetting.getCareSettingId();
+        });
+        return orderService.getCareSetting(careSettingId);
     }
     
     /**
@@ -142,7 +183,12 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing radiology test order type
      */
     public OrderType getRadiologyTestOrderType() {
-        return orderService.getOrderTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_TEST_ORDER_TYPE, true));
+        final Integer orderTypeId = getCachedValue(RadiologyConstants.GP_RADIOLOGY_TEST_ORDER_TYPE, () -> {
+            final OrderType orderType = orderService
+                    .getOrderTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_TEST_ORDER_TYPE, true));
+            return orderType == null ? null : orderType.getOrderTypeId();
+        });
+        return orderTypeId == null ? null : orderService.getOrderType(orderTypeId);
     }
     
     /**
@@ -153,8 +199,12 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing radiology encounter type
      */
     public EncounterType getRadiologyOrderEncounterType() {
-        return encounterService
-                .getEncounterTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDER_ENCOUNTER_TYPE, true));
+        final Integer encounterTypeId = getCachedValue(RadiologyConstants.GP_RADIOLOGY_ORDER_ENCOUNTER_TYPE, () -> {
+            final EncounterType encounterType = encounterService
+                    .getEncounterTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDER_ENCOUNTER_TYPE, true));
+            return encounterType == null ? null : encounterType.getEncounterTypeId();
+        });
+        return encounterTypeId == null ? null : encounterService.getEncounterType(encounterTypeId);
     }
     
     /**
@@ -165,8 +215,13 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing ordering provider encounter role
      */
     public EncounterRole getRadiologyOrderingProviderEncounterRole() {
-        return encounterService.getEncounterRoleByUuid(
-            getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDERING_PROVIDER_ENCOUNTER_ROLE, true));
+        final String globalPropertyName = RadiologyConstants.GP_RADIOLOGY_ORDERING_PROVIDER_ENCOUNTER_ROLE;
+        final Integer encounterRoleId = getCachedValue(globalPropertyName, () -> {
+            final EncounterRole encounterRole = encounterService.getEncounterRoleByUuid(
+                getGlobalProperty(globalPropertyName, true));
+            return encounterRole == null ? null : encounterRole.getEncounterRoleId();
+        });
+        return encounterRoleId == null ? null : encounterService.getEncounterRole(encounterRoleId);
     }
     
     /**
@@ -177,7 +232,12 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing radiology visit type
      */
     public VisitType getRadiologyVisitType() {
-        return visitService.getVisitTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_VISIT_TYPE, true));
+        final Integer visitTypeId = getCachedValue(RadiologyConstants.GP_RADIOLOGY_VISIT_TYPE, () -> {
+            final VisitType visitType =
+                    visitService.getVisitTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_VISIT_TYPE, true));
+            return visitType == null ? null : visitType.getVisitTypeId();
+        });
+        return visitTypeId == null ? null : visitService.getVisitType(visitTypeId);
     }
     
     /**
@@ -200,6 +260,16 @@ public class RadiologyProperties {
      *         in global property radiology concept classes
      */
     public String getRadiologyConceptClassNames() {
+        return getCachedValue(RadiologyConstants.GP_RADIOLOGY_CONCEPT_CLASSES, this::resolveRadiologyConceptClassNames);
+    }
+    
+    /**
+     * Resolves the names of the concept classes for the UUIDs in global property radiologyConceptClasses.
+     *
+     * @return a string that contains the names of the concept classes seperated by a comma
+     * @see #getRadiologyConceptClassNames()
+     */
+    private String resolveRadiologyConceptClassNames() {
         
         String radiologyConceptClassUuidSetting = getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CONCEPT_CLASSES, true);
         radiologyConceptClassUuidSetting = radiologyConceptClassUuidSetting.replace(" ", "");
@@ -244,6 +314,17 @@ public class RadiologyProperties {
      *         radiology order reason concept classes
      */
     public String getRadiologyOrderReasonConceptClassNames() {
+        return getCachedValue(RadiologyConstants.GP_RADIOLOGY_ORDER_REASON_CONCEPT_CLASSES,
+            this::resolveRadiologyOrderReasonConceptClassNames);
+    }
+    
+    /**
+     * Resolves the names of the concept classes for the UUIDs in global property radiologyOrderReasonConceptClasses.
+     *
+     * @return a string that contains the names of the concept classes for radiology order reason seperated by a comma
+     * @see #getRadiologyOrderReasonConceptClassNames()
+     */
+    private String resolveRadiologyOrderReasonConceptClassNames() {
         
         String radiologyReasonConceptClassUuidSetting =
                 getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDER_REASON_CONCEPT_CLASSES, false);
@@ -276,6 +357,191 @@ public class RadiologyProperties {
         return result;
     }
     
+    /**
+     * Gets the number of accession number seeds which are reserved at once.
+     *
+     * @return the accession number block size or 1 if the global property is not configured
+     * @throws IllegalStateException if global property accessionNumberBlockSize is not a positive integer
+     * @should return accession number block size
+     * @should return one if global property accession number block size is not configured
+     * @should throw illegal state exception if global property accession number block size is not a positive integer
+     */
+    public int getAccessionNumberBlockSize() {
+        return getCachedValue(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, this::resolveAccessionNumberBlockSize);
+    }
+    
+    /**
+     * Resolves the accession number block size from global property accessionNumberBlockSize.
+     *
+     * @return the accession number block size
+     * @see #getAccessionNumberBlockSize()
+     */
+    private Integer resolveAccessionNumberBlockSize() {
+        return resolvePositiveInteger(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, 1);
+    }
+    
+    /**
+     * Resolves a positive integer from given global property.
+     *
+     * @param globalPropertyName the name of the global property
+     * @param defaultValue the value returned if the global property is not configured
+     * @return the value of the global property or given default value if the global property is not configured
+     * @throws IllegalStateException if the global property is not a positive integer
+     */
+    private Integer resolvePositiveInteger(String globalPropertyName, int defaultValue) {
+        
+        final String setting = getGlobalProperty(globalPropertyName, false);
+        if (StringUtils.isBlank(setting)) {
+            return defaultValue;
+        }
+        
+        int result;
+        try {
+            result = Integer.parseInt(setting.trim());
+        }
+        catch (NumberFormatException e) {
+            result = 0;
+        }
+        if (result < 1) {
+            throw new IllegalStateException("Property " + globalPropertyName + " needs to be a positive integer");
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the name of the strategy used to generate accession numbers.
+     *
+     * @return the accession number generator name or {@code globalProperty} if the global property is not configured
+     * @should return accession number generator
+     * @should return global property if global property accession number generator is not configured
+     */
+    public String getAccessionNumberGenerator() {
+        return getCachedValue(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, () -> {
+            final String result = getGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, false);
+            return StringUtils.isBlank(result) ? RadiologyConstants.DEFAULT_ACCESSION_NUMBER_GENERATOR : result.trim();
+        });
+    }
+    
+    /**
+     * Gets the prefix of accession numbers generated per day.
+     *
+     * @return the accession number prefix or an empty string if the global property is not configured
+     * @should return accession number prefix
+     * @should return an empty string if global property accession number prefix is not configured
+     */
+    public String getAccessionNumberPrefix() {
+        return getCachedValue(RadiologyConstants.GP_ACCESSION_NUMBER_PREFIX, () -> {
+            final String result = getGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_PREFIX, false);
+            return StringUtils.isBlank(result) ? "" : result.trim();
+        });
+    }
+    
+    /**
+     * Gets whether the bodies of radiology reports are stored compressed when they are saved.
+     *
+     * @return true if global property compressReportBodies is set to true and false otherwise
+     * @should return true if global property compress report bodies is set to true
+     * @should return false if global property compress report bodies is not configured
+     */
+    public boolean getCompressReportBodies() {
+        return getCachedValue(RadiologyConstants.GP_COMPRESS_REPORT_BODIES,
+            () -> Boolean.valueOf(StringUtils.trim(getGlobalProperty(RadiologyConstants.GP_COMPRESS_REPORT_BODIES, false))));
+    }
+    
+    /**
+     * Gets the maximum number of report template html bodies held in memory.
+     *
+     * @return the maximum number of cached report template html bodies or 256 if the global property is not configured
+     * @throws IllegalStateException if global property reportTemplateCacheMaxEntries is not a positive integer
+     * @should return report template cache max entries
+     * @should return 256 if global property report template cache max entries is not configured
+     */
+    public int getMrrtReportTemplateCacheMaxEntries() {
+        return getCachedValue(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_CACHE_MAX_ENTRIES,
+            () -> resolvePositiveInteger(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_CACHE_MAX_ENTRIES, 256));
+    }
+    
+    /**
+     * Gets the maximum number of bytes of report template html bodies held in memory.
+     *
+     * @return the maximum size of the cached report template html bodies in bytes or 16 MiB if the global property is
+     *         not configured
+     * @throws IllegalStateException if global property reportTemplateCacheMaxBytes is not a positive integer
+     * @should return report template cache max bytes
+     * @should return 16 MiB if global property report template cache max bytes is not configured
+     */
+    public int getMrrtReportTemplateCacheMaxBytes() {
+        return getCachedValue(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_CACHE_MAX_BYTES,
+            () -> resolvePositiveInteger(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_CACHE_MAX_BYTES, 16 * 1024 * 1024));
+    }
+    
+    /**
+     * Gets the number of report templates of an imported archive validated in parallel.
+     *
+     * @return the number of report template import threads or 4 if the global property is not configured
+     * @throws IllegalStateException if global property reportTemplateImportThreads is not a positive integer
+     * @should return report template import threads
+     * @should return 4 if global property report template import threads is not configured
+     */
+    public int getMrrtReportTemplateImportThreads() {
+        return getCachedValue(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_THREADS,
+            () -> resolvePositiveInteger(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_THREADS, 4));
+    }
+    
+    /**
+     * Gets the number of report templates of an imported archive which are saved in one transaction.
+     *
+     * @return the report template import batch size or 50 if the global property is not configured
+     * @throws IllegalStateException if global property reportTemplateImportBatchSize is not a positive integer
+     * @should return report template import batch size
+     * @should return 50 if global property report template import batch size is not configured
+     */
+    public int getMrrtReportTemplateImportBatchSize() {
+        return getCachedValue(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_BATCH_SIZE,
+            () -> resolvePositiveInteger(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_BATCH_SIZE, 50));
+    }
+    
+    /**
+     * Gets the maximum uncompressed size of a report template of an imported archive.
+     *
+     * @return the maximum size of an imported report template in bytes or 1 MiB if the global property is not
+     *         configured
+     * @throws IllegalStateException if global property reportTemplateImportMaxEntryBytes is not a positive integer
+     * @should return report template import max entry bytes
+     * @should return 1 MiB if global property report template import max entry bytes is not configured
+     */
+    public int getMrrtReportTemplateImportMaxEntryBytes() {
+        return getCachedValue(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_ENTRY_BYTES,
+            () -> resolvePositiveInteger(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_ENTRY_BYTES, 1024 * 1024));
+    }
+    
+    /**
+     * Gets the maximum uncompressed size of all entries of an imported report template archive.
+     *
+     * @return the maximum uncompressed size of an imported archive in bytes or 256 MiB if the global property is not
+     *         configured
+     * @throws IllegalStateException if global property reportTemplateImportMaxTotalBytes is not a positive integer
+     * @should return report template import max total bytes
+     * @should return 256 MiB if global property report template import max total bytes is not configured
+     */
+    public int getMrrtReportTemplateImportMaxTotalBytes() {
+        return getCachedValue(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_TOTAL_BYTES,
+            () -> resolvePositiveInteger(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_TOTAL_BYTES,
+                256 * 1024 * 1024));
+    }
+    
+    /**
+     * Gets whether the report template html bodies are cached when the module starts.
+     *
+     * @return true if global property warmReportTemplateCacheOnStartup is set to true and false otherwise
+     * @should return true if global property warm report template cache on startup is set to true
+     * @should return false if global property warm report template cache on startup is not configured
+     */
+    public boolean getWarmMrrtReportTemplateCache() {
+        return getCachedValue(RadiologyConstants.GP_WARM_MRRT_REPORT_TEMPLATE_CACHE, () -> Boolean
+                .valueOf(StringUtils.trim(getGlobalProperty(RadiologyConstants.GP_WARM_MRRT_REPORT_TEMPLATE_CACHE, false))));
+    }
+    
     /**
      * Gets a global property by its name.
      * 
@@ -295,6 +561,110 @@ public class RadiologyProperties {
         return result;
     }
     
+    /**
+     * Gets the value cached for given global property, resolving and caching it if it is not cached or its time to live
+     * expired. Values resolved to null are not cached.
+     * 
+     * @param globalPropertyName the name of the global property the value is resolved from
+     * @param resolver resolves the value from the global property
+     * @return the value for given global property
+     * @should return the cached value until its time to live expired
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getCachedValue(String globalPropertyName, Supplier<T> resolver) {
+        
+        final CachedValue cached = cachedValues.get(globalPropertyName);
+        if (cached != null && System.nanoTime() - cached.cachedAt < cacheTimeToLiveNanos) {
+            cacheHitCount.incrementAndGet();
+            return (T) cached.value;
+        }
+        cacheMissCount.incrementAndGet();
+        final T result = resolver.get();
+        if (result != null) {
+            cachedValues.put(globalPropertyName, new CachedValue(result, System.nanoTime()));
+        } else {
+            cachedValues.remove(globalPropertyName);
+        }
+        return result;
+    }
+    
+    /**
+     * Sets the time to live of cached values, which is 60 seconds by default.
+     * 
+     * @param timeToLive the time to live of cached values
+     * @param unit the unit of given time to live
+     */
+    void setCacheTimeToLive(long timeToLive, TimeUnit unit) {
+        cacheTimeToLiveNanos = unit.toNanos(timeToLive);
+    }
+    
+    /**
+     * Gets the number of lookups served from the cache.
+     * 
+     * @return the number of cache hits
+     */
+    public long getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+    
+    /**
+     * Gets the number of lookups which had to read the global property.
+     * 
+     * @return the number of cache misses
+     */
+    public long getCacheMissCount() {
+        return cacheMissCount.get();
+    }
+    
+    /**
+     * Evicts all cached values.
+     */
+    public void clearCache() {
+        cachedValues.clear();
+    }
+    
+    /**
+     * Registers this as listener for global property changes.
+     */
+    @PostConstruct
+    public void registerGlobalPropertyListener() {
+        administrationService.addGlobalPropertyListener(this);
+    }
+    
+    /**
+     * Unregisters this as listener for global property changes.
+     */
+    @PreDestroy
+    public void unregisterGlobalPropertyListener() {
+        administrationService.removeGlobalPropertyListener(this);
+    }
+    
+    /**
+     * @see GlobalPropertyListener#supportsPropertyName(String)
+     */
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return propertyName != null && propertyName.startsWith(RADIOLOGY_GLOBAL_PROPERTY_PREFIX);
+    }
+    
+    /**
+     * @see GlobalPropertyListener#globalPropertyChanged(GlobalProperty)
+     * @should evict the cached value of the changed global property
+     */
+    @Override
+    public void globalPropertyChanged(GlobalProperty newValue) {
+        cachedValues.remove(newValue.getProperty());
+    }
+    
+    /**
+     * @see GlobalPropertyListener#globalPropertyDeleted(String)
+     * @should evict the cached value of the deleted global property
+     */
+    @Override
+    public void globalPropertyDeleted(String propertyName) {
+        cachedValues.remove(propertyName);
+    }
+    
     /**
      * Gets folder to store {@code MRRT} templates.
      * 
@@ -319,4 +689,20 @@ public class RadiologyProperties {
         
         return templatesPath.toFile();
     }
+    
+    /**
+     * A value resolved from a global property and the time it was cached at.
+     */
+    private static class CachedValue {
+        
+        
+        private final Object value;
+        
+        private final long cachedAt;
+        
+        CachedValue(Object value, long cachedAt) {
+            this.value = value;
+            this.cachedAt = cachedAt;
+        }
+    }
 }
@@ -64,6 +64,7 @@ class HibernateRadiologyModalityDAO implements RadiologyModalityDAO {
         return (RadiologyModality) sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyModality.class)
                 .add(Restrictions.eq("uuid", uuid))
+                .setCacheable(true)
                 .uniqueResult();
     }
     
@@ -73,8 +74,10 @@ class HibernateRadiologyModalityDAO implements RadiologyModalityDAO {
     @Override
     public List<RadiologyModality> getRadiologyModalities(boolean includeRetired) {
         
+        // modalities rarely change, the query cache is invalidated whenever the radiology_modality table is written
         final Criteria criteria = sessionFactory.getCurrentSession()
-                .createCriteria(RadiologyModality.class);
+                .createCriteria(RadiologyModality.class)
+                .setCacheable(true);
         if (!includeRetired) {
             criteria.add(Restrictions.eq("retired", false));
         }
@@ -9,6 +9,9 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Generate new unique accession numbers.
  */
@@ -23,4 +26,21 @@ public interface AccessionNumberGenerator {
      * @should always return a unique accession number when called multiple times
      */
     public String getNewAccessionNumber();
+    
+    /**
+     * Generates the given number of new accession numbers at once. Implementations which can reserve several accession
+     * numbers in one step should override this method.
+     * 
+     * @param count the number of accession numbers to generate
+     * @return the new accession numbers
+     * @should return given number of unique accession numbers
+     */
+    public default List<String> getNewAccessionNumbers(int count) {
+        
+        final List<String> result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(getNewAccessionNumber());
+        }
+        return result;
+    }
 }
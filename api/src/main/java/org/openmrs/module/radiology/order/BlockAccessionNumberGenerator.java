@@ -0,0 +1,108 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * An {@link AccessionNumberGenerator} which reserves blocks of accession number seeds (hi/lo) and hands them out from
+ * memory.
+ * <p>
+ * Only one locked update of the global property {@code radiology.nextAccessionNumberSeed} is needed per block whose size
+ * is configured via the global property {@code radiology.accessionNumberBlockSize}. Accession numbers are unique across
+ * nodes and increase within a node. Seeds of a block which are not handed out before shutdown are lost and reported in
+ * the log.
+ * </p>
+ */
+class BlockAccessionNumberGenerator implements AccessionNumberGenerator, DisposableBean {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(BlockAccessionNumberGenerator.class);
+    
+    private RadiologyProperties radiologyProperties;
+    
+    /**
+     * The next accession number seed of the current block.
+     */
+    private long next;
+    
+    /**
+     * The first accession number seed after the current block.
+     */
+    private long limit;
+    
+    public void setRadiologyProperties(RadiologyProperties radiologyProperties) {
+        this.radiologyProperties = radiologyProperties;
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     * @should return consecutive accession numbers from a reserved block
+     * @should reserve a new block once the current block is exhausted
+     * @should return unique accession numbers across generators called concurrently
+     */
+    @Override
+    public synchronized String getNewAccessionNumber() {
+        
+        if (next >= limit) {
+            final int blockSize = radiologyProperties.getAccessionNumberBlockSize();
+            next = Context.getService(RadiologyOrderService.class)
+                    .reserveAccessionNumberSeedBlock(blockSize);
+            limit = next + blockSize;
+        }
+        return String.valueOf(next++);
+    }
+    
+    /**
+     * Hands out the remaining accession number seeds of the current block and reserves a single new block for the rest.
+     * 
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     * @should reserve at most one new block for given number of accession numbers
+     */
+    @Override
+    public synchronized List<String> getNewAccessionNumbers(int count) {
+        
+        final List<String> result = new ArrayList<String>(count);
+        while (result.size() < count && next < limit) {
+            result.add(String.valueOf(next++));
+        }
+        if (result.size() < count) {
+            final int blockSize = Math.max(radiologyProperties.getAccessionNumberBlockSize(), count - result.size());
+            next = Context.getService(RadiologyOrderService.class)
+                    .reserveAccessionNumberSeedBlock(blockSize);
+            limit = next + blockSize;
+            while (result.size() < count) {
+                result.add(String.valueOf(next++));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Reports the accession number seeds of the current block which have not been handed out.
+     * 
+     * @see DisposableBean#destroy()
+     */
+    @Override
+    public synchronized void destroy() {
+        
+        if (next < limit) {
+            log.info("Discarding {} unused accession number(s) from {} to {}", limit - next, next, limit - 1);
+        }
+        next = limit;
+    }
+}
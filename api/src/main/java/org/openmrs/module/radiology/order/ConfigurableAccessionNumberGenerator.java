@@ -0,0 +1,75 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.RadiologyProperties;
+
+/**
+ * An {@link AccessionNumberGenerator} which delegates to the strategy selected via the global property
+ * {@code radiology.accessionNumberGenerator}.
+ */
+class ConfigurableAccessionNumberGenerator implements AccessionNumberGenerator {
+    
+    
+    private RadiologyProperties radiologyProperties;
+    
+    private Map<String, AccessionNumberGenerator> accessionNumberGenerators;
+    
+    public void setRadiologyProperties(RadiologyProperties radiologyProperties) {
+        this.radiologyProperties = radiologyProperties;
+    }
+    
+    public void setAccessionNumberGenerators(Map<String, AccessionNumberGenerator> accessionNumberGenerators) {
+        this.accessionNumberGenerators = accessionNumberGenerators;
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     * @throws IllegalStateException if configured accession number generator does not exist
+     * @should return accession number of configured accession number generator
+     * @should throw illegal state exception if configured accession number generator does not exist
+     */
+    @Override
+    public String getNewAccessionNumber() {
+        return getConfiguredAccessionNumberGenerator().getNewAccessionNumber();
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     * @throws IllegalStateException if configured accession number generator does not exist
+     * @should return accession numbers of configured accession number generator
+     */
+    @Override
+    public List<String> getNewAccessionNumbers(int count) {
+        return getConfiguredAccessionNumberGenerator().getNewAccessionNumbers(count);
+    }
+    
+    /**
+     * Gets the accession number generator configured via global property {@code radiology.accessionNumberGenerator}.
+     * 
+     * @return the configured accession number generator
+     * @throws IllegalStateException if configured accession number generator does not exist
+     */
+    private AccessionNumberGenerator getConfiguredAccessionNumberGenerator() {
+        
+        final String name = radiologyProperties.getAccessionNumberGenerator();
+        final AccessionNumberGenerator result = accessionNumberGenerators.get(name);
+        if (result == null) {
+            throw new IllegalStateException("Property " + RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR
+                    + " contains unknown accession number generator " + name + ", valid are "
+                    + accessionNumberGenerators.keySet());
+        }
+        return result;
+    }
+}
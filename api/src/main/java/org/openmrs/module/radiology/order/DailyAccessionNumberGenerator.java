@@ -0,0 +1,83 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * An {@link AccessionNumberGenerator} which keeps one counter per day and accession number prefix, producing accession
+ * numbers like {@code CT261016-000123}.
+ * <p>
+ * The prefix is configured via the global property {@code radiology.accessionNumberPrefix}. Since every day has its own
+ * counter row numbers stay short and contention is spread across rows. The prefix is limited to
+ * {@value #MAX_PREFIX_LENGTH} characters so that accession numbers fit the 16 characters DICOM allows.
+ * </p>
+ */
+class DailyAccessionNumberGenerator implements AccessionNumberGenerator {
+    
+    
+    static final int MAX_PREFIX_LENGTH = 3;
+    
+    private static final String DATE_FORMAT = "yyMMdd";
+    
+    private static final String COUNTER_FORMAT = "%06d";
+    
+    private RadiologyProperties radiologyProperties;
+    
+    public void setRadiologyProperties(RadiologyProperties radiologyProperties) {
+        this.radiologyProperties = radiologyProperties;
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     * @throws IllegalStateException if the accession number prefix is longer than {@value #MAX_PREFIX_LENGTH}
+     *         characters
+     * @should return accession number composed of prefix date and zero padded counter
+     * @should return consecutive accession numbers on the same day
+     * @should return accession numbers of at most sixteen characters given a prefix of maximum length
+     * @should throw illegal state exception if the accession number prefix is too long
+     */
+    @Override
+    public String getNewAccessionNumber() {
+        
+        final String prefix = radiologyProperties.getAccessionNumberPrefix();
+        if (prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalStateException("Property " + RadiologyConstants.GP_ACCESSION_NUMBER_PREFIX
+                    + " cannot be longer than " + MAX_PREFIX_LENGTH + " characters");
+        }
+        final String counterKey = prefix + new SimpleDateFormat(DATE_FORMAT).format(new Date());
+        return counterKey + "-" + String.format(COUNTER_FORMAT, getNextCounterValue(counterKey));
+    }
+    
+    /**
+     * Gets the next value of the counter with given key, retrying once if another node created the counter of a new day
+     * concurrently.
+     * 
+     * @param counterKey the key of the counter
+     * @return the next value of the counter
+     */
+    private Long getNextCounterValue(String counterKey) {
+        
+        final RadiologyOrderService radiologyOrderService = Context.getService(RadiologyOrderService.class);
+        try {
+            return radiologyOrderService.getNextAccessionNumberCounterValue(counterKey);
+        }
+        catch (ConstraintViolationException | DataIntegrityViolationException e) {
+            return radiologyOrderService.getNextAccessionNumberCounterValue(counterKey);
+        }
+    }
+}
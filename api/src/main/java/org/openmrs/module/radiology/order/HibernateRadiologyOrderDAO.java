@@ -9,18 +9,32 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.CacheMode;
 import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
 import org.hibernate.LockOptions;
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
-import org.hibernate.criterion.Disjunction;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.openmrs.GlobalProperty;
-import org.openmrs.Order.Urgency;
 import org.openmrs.api.APIException;
+import org.openmrs.api.ConceptNameType;
 import org.openmrs.module.radiology.RadiologyConstants;
 
 /**
@@ -33,6 +47,12 @@ import org.openmrs.module.radiology.RadiologyConstants;
 class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
     
     
+    private static final String ACCESSION_NUMBER_SEQUENCE = "radiology_accession_number_seq";
+    
+    private static final String ACCESSION_NUMBER_COUNTER = "radiology_accession_number_counter";
+    
+    private static final int WORKLIST_SCROLL_FETCH_SIZE = 100;
+    
     private SessionFactory sessionFactory;
     
     /**
@@ -59,6 +79,18 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
      */
     @Override
     public Long getNextAccessionNumberSeedSequenceValue() {
+        return reserveAccessionNumberSeedBlock(1);
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#reserveAccessionNumberSeedBlock(int)
+     * @throws APIException if global property radiology.nextAccessionNumberSeed is missing
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value is empty or only contains whitespaces
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value cannot be parsed to Long
+     * @should return the next accession number seed and increment the global property value by given block size
+     */
+    @Override
+    public Long reserveAccessionNumberSeedBlock(int blockSize) {
         
         final GlobalProperty globalProperty = (GlobalProperty) sessionFactory.getCurrentSession()
                 .get(GlobalProperty.class, RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED, LockOptions.UPGRADE);
@@ -83,7 +115,7 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
                     new Object[] { RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED });
         }
         
-        globalProperty.setPropertyValue(String.valueOf(globalPropertyValue + 1));
+        globalProperty.setPropertyValue(String.valueOf(globalPropertyValue + blockSize));
         
         sessionFactory.getCurrentSession()
                 .save(globalProperty);
@@ -91,6 +123,55 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
         return globalPropertyValue;
     }
     
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSequenceValue()
+     * @should return increasing values from the accession number sequence
+     */
+    @Override
+    public Long getNextAccessionNumberSequenceValue() {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final Dialect dialect = ((SessionFactoryImplementor) sessionFactory).getDialect();
+        if (dialect.supportsSequences()) {
+            return ((Number) session.createSQLQuery(dialect.getSequenceNextValString(ACCESSION_NUMBER_SEQUENCE))
+                    .uniqueResult()).longValue();
+        }
+        
+        // databases without sequences (MySQL) increment the single row of a table instead, LAST_INSERT_ID(expr) makes
+        // the incremented value available to this connection only
+        session.createSQLQuery("UPDATE " + ACCESSION_NUMBER_SEQUENCE + " SET seq_id = LAST_INSERT_ID(seq_id + 1)")
+                .executeUpdate();
+        return ((Number) session.createSQLQuery("SELECT LAST_INSERT_ID()")
+                .uniqueResult()).longValue();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberCounterValue(String)
+     * @should return one and create the counter given a new counter key
+     * @should return the next value of the counter and increment it given an existing counter key
+     */
+    @Override
+    public Long getNextAccessionNumberCounterValue(String counterKey) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final int updated = session
+                .createSQLQuery("UPDATE " + ACCESSION_NUMBER_COUNTER
+                        + " SET next_value = next_value + 1 WHERE counter_key = :counterKey")
+                .setString("counterKey", counterKey)
+                .executeUpdate();
+        if (updated == 0) {
+            session.createSQLQuery(
+                "INSERT INTO " + ACCESSION_NUMBER_COUNTER + " (counter_key, next_value) VALUES (:counterKey, 2)")
+                    .setString("counterKey", counterKey)
+                    .executeUpdate();
+            return 1L;
+        }
+        return ((Number) session
+                .createSQLQuery("SELECT next_value FROM " + ACCESSION_NUMBER_COUNTER + " WHERE counter_key = :counterKey")
+                .setString("counterKey", counterKey)
+                .uniqueResult()).longValue() - 1;
+    }
+    
     /**
      * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrder(Integer)
      */
@@ -119,6 +200,176 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
     @Override
     public List<RadiologyOrder> getRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria) {
         
+        final Criteria crit = createRadiologyOrderCriteria(searchCriteria);
+        // the study is a one-to-one via property-ref which cannot be proxied, without the join every order would need
+        // its own select for the study
+        crit.setFetchMode("study", FetchMode.JOIN);
+        
+        if (StringUtils.isNotBlank(searchCriteria.getAfterAccessionNumber())) {
+            crit.add(Restrictions.gt("accessionNumber", searchCriteria.getAfterAccessionNumber()));
+        }
+        
+        crit.addOrder(Order.asc("accessionNumber"));
+        
+        if (searchCriteria.getFirstResult() != null) {
+            crit.setFirstResult(searchCriteria.getFirstResult());
+        }
+        if (searchCriteria.getMaxResults() != null) {
+            crit.setMaxResults(searchCriteria.getMaxResults());
+        }
+        return crit.list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#countRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    @Override
+    public long countRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createRadiologyOrderCriteria(searchCriteria);
+        crit.setProjection(Projections.rowCount());
+        return ((Number) crit.uniqueResult()).longValue();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyOrderWorklistItem> getRadiologyOrderWorklist(RadiologyOrderSearchCriteria searchCriteria,
+            Locale locale) {
+        
+        return createRadiologyOrderWorklistQuery(searchCriteria, locale).list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#scrollRadiologyOrderWorklist(RadiologyOrderSearchCriteria,
+     *      Consumer)
+     */
+    @Override
+    public long scrollRadiologyOrderWorklist(RadiologyOrderSearchCriteria searchCriteria, Locale locale,
+            Consumer<RadiologyOrderWorklistItem> consumer) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final Query query = createRadiologyOrderWorklistQuery(searchCriteria, locale);
+        query.setReadOnly(true);
+        query.setCacheMode(CacheMode.IGNORE);
+        // the mysql driver only streams a result set given this fetch size, any other fetch size reads all rows into
+        // memory upfront
+        final Dialect dialect = ((SessionFactoryImplementor) sessionFactory).getDialect();
+        query.setFetchSize(dialect instanceof MySQLDialect ? Integer.MIN_VALUE : WORKLIST_SCROLL_FETCH_SIZE);
+        
+        long result = 0;
+        final ScrollableResults scrollableResults = query.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (scrollableResults.next()) {
+                consumer.accept((RadiologyOrderWorklistItem) scrollableResults.get(0));
+                result++;
+                // the consumer might load entities, keep the session from growing with the number of rows
+                if (result % WORKLIST_SCROLL_FETCH_SIZE == 0) {
+                    session.clear();
+                }
+            }
+        }
+        finally {
+            scrollableResults.close();
+        }
+        return result;
+    }
+    
+    /**
+     * Create a query projecting the radiology orders matching given search criteria onto worklist items ordered by
+     * accession number.
+     * 
+     * @param searchCriteria the object containing search parameters
+     * @param locale the locale in which the procedure names shall be returned
+     * @return the query projecting the matching radiology orders onto worklist items
+     */
+    private Query createRadiologyOrderWorklistQuery(RadiologyOrderSearchCriteria searchCriteria, Locale locale) {
+        
+        // the patients preferred name and identifier are joined restricted to the one with the lowest id, since a
+        // patient might have several preferred ones, the procedure name and the active report status are selected via
+        // single value subqueries so that every radiology order results in exactly one row
+        final StringBuilder hql = new StringBuilder();
+        hql.append("select new org.openmrs.module.radiology.order.RadiologyOrderWorklistItem(o.uuid, o.accessionNumber, ")
+                .append("pn.givenName, pn.middleName, pn.familyName, pi.identifier, ")
+                .append("coalesce((select min(cn.name) from ConceptName cn where cn.concept = o.concept ")
+                .append("and cn.voided = false and cn.localePreferred = true and cn.locale in (:locales)), ")
+                .append("(select min(cn.name) from ConceptName cn where cn.concept = o.concept ")
+                .append("and cn.voided = false and cn.conceptNameType = :fullySpecified)), ")
+                .append("o.urgency, o.effectiveStartDate, s.performedStatus, ")
+                .append("(select max(r.status) from RadiologyReport r where r.radiologyOrder = o and r.voided = false)) ")
+                .append("from RadiologyOrder o ")
+                .append("join o.patient p ")
+                .append("left join p.names pn with pn.preferred = true and pn.voided = false ")
+                .append("left join p.identifiers pi with pi.preferred = true and pi.voided = false ")
+                .append("left join o.study s ")
+                .append("where (pn.personNameId is null or pn.personNameId = (select min(pn2.personNameId) ")
+                .append("from PersonName pn2 where pn2.person = p and pn2.preferred = true and pn2.voided = false)) ")
+                .append("and (pi.patientIdentifierId is null or pi.patientIdentifierId = ")
+                .append("(select min(pi2.patientIdentifierId) from PatientIdentifier pi2 where pi2.patient = p ")
+                .append("and pi2.preferred = true and pi2.voided = false)) ");
+        
+        final Map<String, Object> parameters = new HashMap<String, Object>();
+        if (searchCriteria.getPatient() != null) {
+            hql.append("and o.patient = :patient ");
+            parameters.put("patient", searchCriteria.getPatient());
+        }
+        if (!searchCriteria.getIncludeVoided()) {
+            hql.append("and o.voided = false ");
+        }
+        if (searchCriteria.getUrgency() != null) {
+            hql.append("and o.urgency = :urgency ");
+            parameters.put("urgency", searchCriteria.getUrgency());
+        }
+        if (searchCriteria.getFromEffectiveStartDate() != null) {
+            hql.append("and o.effectiveStartDate >= :fromEffectiveStartDate ");
+            parameters.put("fromEffectiveStartDate", searchCriteria.getFromEffectiveStartDate());
+        }
+        if (searchCriteria.getToEffectiveStartDate() != null) {
+            hql.append("and o.effectiveStartDate <= :toEffectiveStartDate ");
+            parameters.put("toEffectiveStartDate", searchCriteria.getToEffectiveStartDate());
+        }
+        if (StringUtils.isNotBlank(searchCriteria.getAccessionNumber())) {
+            hql.append("and o.accessionNumber = :accessionNumber ");
+            parameters.put("accessionNumber", searchCriteria.getAccessionNumber());
+        }
+        if (searchCriteria.getOrderer() != null) {
+            hql.append("and o.orderer = :orderer ");
+            parameters.put("orderer", searchCriteria.getOrderer());
+        }
+        if (StringUtils.isNotBlank(searchCriteria.getAfterAccessionNumber())) {
+            hql.append("and o.accessionNumber > :afterAccessionNumber ");
+            parameters.put("afterAccessionNumber", searchCriteria.getAfterAccessionNumber());
+        }
+        hql.append("order by o.accessionNumber asc");
+        
+        final Query query = sessionFactory.getCurrentSession()
+                .createQuery(hql.toString());
+        query.setParameterList("locales", Arrays.asList(locale, new Locale(locale.getLanguage())));
+        query.setParameter("fullySpecified", ConceptNameType.FULLY_SPECIFIED);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            query.setParameter(parameter.getKey(), parameter.getValue());
+        }
+        
+        if (searchCriteria.getFirstResult() != null) {
+            query.setFirstResult(searchCriteria.getFirstResult());
+        }
+        if (searchCriteria.getMaxResults() != null) {
+            query.setMaxResults(searchCriteria.getMaxResults());
+        }
+        return query;
+    }
+    
+    /**
+     * Create a criteria restricting radiology orders to the filters of given search criteria. Paging parameters of the
+     * search criteria are not applied.
+     * 
+     * @param searchCriteria the object containing search parameters
+     * @return the criteria matching radiology orders to given search criteria
+     */
+    private Criteria createRadiologyOrderCriteria(RadiologyOrderSearchCriteria searchCriteria) {
+        
         final Criteria crit = sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyOrder.class);
         
@@ -134,25 +385,11 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
             crit.add(Restrictions.eq("urgency", searchCriteria.getUrgency()));
         }
         if (searchCriteria.getFromEffectiveStartDate() != null) {
-            final Disjunction disjunction = Restrictions.disjunction();
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE))
-                    .add(Restrictions.ge("scheduledDate", searchCriteria.getFromEffectiveStartDate())));
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.not(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE)))
-                    .add(Restrictions.ge("dateActivated", searchCriteria.getFromEffectiveStartDate())));
-            crit.add(disjunction);
+            crit.add(Restrictions.ge("effectiveStartDate", searchCriteria.getFromEffectiveStartDate()));
         }
         
         if (searchCriteria.getToEffectiveStartDate() != null) {
-            final Disjunction disjunction = Restrictions.disjunction();
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE))
-                    .add(Restrictions.le("scheduledDate", searchCriteria.getToEffectiveStartDate())));
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.not(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE)))
-                    .add(Restrictions.le("dateActivated", searchCriteria.getToEffectiveStartDate())));
-            crit.add(disjunction);
+            crit.add(Restrictions.le("effectiveStartDate", searchCriteria.getToEffectiveStartDate()));
         }
         
         if (StringUtils.isNotBlank(searchCriteria.getAccessionNumber())) {
@@ -163,7 +400,6 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
             crit.add(Restrictions.eq("orderer", searchCriteria.getOrderer()));
         }
         
-        crit.addOrder(Order.asc("accessionNumber"));
-        return crit.list();
+        return crit;
     }
 }
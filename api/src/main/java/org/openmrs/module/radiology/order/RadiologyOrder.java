@@ -9,6 +9,8 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.Date;
+
 import org.openmrs.TestOrder;
 import org.openmrs.module.radiology.study.RadiologyStudy;
 
@@ -40,6 +42,17 @@ public class RadiologyOrder extends TestOrder {
         this.study = radiologyStudy;
     }
     
+    /**
+     * Does nothing. The effective start date is persisted so it can be queried efficiently, but it is always derived
+     * from the urgency, scheduled date and date activated (see {@link #getEffectiveStartDate()}). Hibernate calls this
+     * method when loading a radiology order.
+     *
+     * @param effectiveStartDate the persisted effective start date
+     */
+    @SuppressWarnings("unused")
+    private void setEffectiveStartDate(Date effectiveStartDate) {
+    }
+    
     /**
      * Returns true if study is in progress and false otherwise.
      * 
@@ -10,6 +10,8 @@
 package org.openmrs.module.radiology.order;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
 
 /**
  * {@code RadiologyOrder} related database methods.
@@ -25,6 +27,21 @@ interface RadiologyOrderDAO {
      */
     public Long getNextAccessionNumberSeedSequenceValue();
     
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#reserveAccessionNumberSeedBlock(int)
+     */
+    public Long reserveAccessionNumberSeedBlock(int blockSize);
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSequenceValue()
+     */
+    public Long getNextAccessionNumberSequenceValue();
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberCounterValue(String)
+     */
+    public Long getNextAccessionNumberCounterValue(String counterKey);
+    
     /**
      * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrder(Integer)
      */
@@ -39,4 +56,23 @@ interface RadiologyOrderDAO {
      * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrders(RadiologyOrderSearchCriteria)
      */
     List<RadiologyOrder> getRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#countRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    long countRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria);
+    
+    /**
+     * @param locale the locale in which the procedure names shall be returned
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)
+     */
+    List<RadiologyOrderWorklistItem> getRadiologyOrderWorklist(RadiologyOrderSearchCriteria searchCriteria, Locale locale);
+    
+    /**
+     * @param locale the locale in which the procedure names shall be returned
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#scrollRadiologyOrderWorklist(RadiologyOrderSearchCriteria,
+     *      Consumer)
+     */
+    long scrollRadiologyOrderWorklist(RadiologyOrderSearchCriteria searchCriteria, Locale locale,
+            Consumer<RadiologyOrderWorklistItem> consumer);
 }
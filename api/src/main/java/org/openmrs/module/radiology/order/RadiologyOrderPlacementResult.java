@@ -0,0 +1,73 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import org.springframework.validation.Errors;
+
+/**
+ * Result of placing a single {@link RadiologyOrder} via {@link RadiologyOrderService#placeRadiologyOrders(java.util.List)}.
+ */
+public class RadiologyOrderPlacementResult {
+    
+    
+    private final RadiologyOrder radiologyOrder;
+    
+    private final Errors errors;
+    
+    private RadiologyOrderPlacementResult(RadiologyOrder radiologyOrder, Errors errors) {
+        this.radiologyOrder = radiologyOrder;
+        this.errors = errors;
+    }
+    
+    /**
+     * Creates the result of a radiology order which was placed.
+     * 
+     * @param radiologyOrder the placed radiology order
+     * @return the result of the placed radiology order
+     */
+    public static RadiologyOrderPlacementResult placed(RadiologyOrder radiologyOrder) {
+        return new RadiologyOrderPlacementResult(radiologyOrder, null);
+    }
+    
+    /**
+     * Creates the result of a radiology order which was not placed.
+     * 
+     * @param radiologyOrder the radiology order which was not placed
+     * @param errors the reasons why the radiology order was not placed
+     * @return the result of the radiology order which was not placed
+     */
+    public static RadiologyOrderPlacementResult failed(RadiologyOrder radiologyOrder, Errors errors) {
+        return new RadiologyOrderPlacementResult(radiologyOrder, errors);
+    }
+    
+    /**
+     * @return the radiology order
+     */
+    public RadiologyOrder getRadiologyOrder() {
+        
+        return radiologyOrder;
+    }
+    
+    /**
+     * @return the reasons why the radiology order was not placed or null if it was placed
+     */
+    public Errors getErrors() {
+        
+        return errors;
+    }
+    
+    /**
+     * @return true if the radiology order was placed and false otherwise
+     */
+    public boolean isPlaced() {
+        
+        return errors == null;
+    }
+}
@@ -24,6 +24,8 @@ import org.openmrs.Provider;
  * ({@link Builder#withPatient(Patient)}, {@link Builder#includeVoided()}, {@link Builder#withUrgency(Urgency)}, 
  * {@link Builder#fromEffectiveStartDate(Date)}, {@link Builder#toEffectiveStartDate(Date)},
  * {@link Builder#withAccessionNumber(String)} and {@link Builder#withOrderer(Provider)}).</li>
+ * <li>Optionally restrict the result to a page through {@link Builder#withFirstResult(Integer)},
+ * {@link Builder#withMaxResults(Integer)} and {@link Builder#afterAccessionNumber(String)}.</li>
  * <li>Build the {@link RadiolologyOrderSearchCriteria} instance with the {@link Builder#build()} method.</li>
  * <li>Get the search parameters through the getter methods (such as {@link #getPatient()} or {@link #getUrgency()}).</li>
  * </ol>
@@ -45,6 +47,12 @@ public class RadiologyOrderSearchCriteria {
     
     private final Provider orderer;
     
+    private final Integer firstResult;
+    
+    private final Integer maxResults;
+    
+    private final String afterAccessionNumber;
+    
     /**
      * @return the order patient
      */
@@ -101,6 +109,30 @@ public class RadiologyOrderSearchCriteria {
         return orderer;
     }
     
+    /**
+     * @return the index of the first radiology order to return
+     */
+    public Integer getFirstResult() {
+        
+        return firstResult;
+    }
+    
+    /**
+     * @return the maximum number of radiology orders to return
+     */
+    public Integer getMaxResults() {
+        
+        return maxResults;
+    }
+    
+    /**
+     * @return the accession number after which radiology orders are returned
+     */
+    public String getAfterAccessionNumber() {
+        
+        return afterAccessionNumber;
+    }
+    
     public static class Builder {
         
         
@@ -118,6 +150,12 @@ public class RadiologyOrderSearchCriteria {
         
         private Provider orderer;
         
+        private Integer firstResult;
+        
+        private Integer maxResults;
+        
+        private String afterAccessionNumber;
+        
         /**
          * @param patient the order patient
          * @return this builder instance
@@ -189,6 +227,48 @@ public class RadiologyOrderSearchCriteria {
             return this;
         }
         
+        /**
+         * @param firstResult the index of the first radiology order to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if given negative first result
+         */
+        public Builder withFirstResult(Integer firstResult) {
+            
+            if (firstResult != null && firstResult < 0) {
+                throw new IllegalArgumentException("firstResult cannot be negative");
+            }
+            this.firstResult = firstResult;
+            return this;
+        }
+        
+        /**
+         * @param maxResults the maximum number of radiology orders to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if given max results smaller than 1
+         */
+        public Builder withMaxResults(Integer maxResults) {
+            
+            if (maxResults != null && maxResults < 1) {
+                throw new IllegalArgumentException("maxResults must be greater than 0");
+            }
+            this.maxResults = maxResults;
+            return this;
+        }
+        
+        /**
+         * Only returns radiology orders with an accession number greater than given accession number. Radiology orders are
+         * ordered by accession number, so passing the accession number of the last radiology order of a page returns the
+         * next page without having to skip over the previous ones.
+         * 
+         * @param afterAccessionNumber the accession number after which radiology orders are returned
+         * @return this builder instance
+         */
+        public Builder afterAccessionNumber(String afterAccessionNumber) {
+            
+            this.afterAccessionNumber = afterAccessionNumber;
+            return this;
+        }
+        
         /**
          * Create an {@link RadiologyOrderSearchCriteria} with the properties of this builder instance.
          * 
@@ -200,6 +280,8 @@ public class RadiologyOrderSearchCriteria {
          * @should create a new radiology order search criteria instance with to effective start date if to effective start date is set
          * @should create a new radiology order search criteria instance with accession number if accession number is set
          * @should create a new radiology order search criteria instance with orderer if orderer is set
+         * @should create a new radiology order search criteria instance with first result and max results if set
+         * @should create a new radiology order search criteria instance with after accession number if set
          */
         public RadiologyOrderSearchCriteria build() {
             
@@ -216,5 +298,8 @@ public class RadiologyOrderSearchCriteria {
         this.toEffectiveStartDate = builder.toEffectiveStartDate;
         this.accessionNumber = builder.accessionNumber;
         this.orderer = builder.orderer;
+        this.firstResult = builder.firstResult;
+        this.maxResults = builder.maxResults;
+        this.afterAccessionNumber = builder.afterAccessionNumber;
     }
 }
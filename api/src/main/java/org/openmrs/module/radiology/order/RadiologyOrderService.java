@@ -10,6 +10,7 @@
 package org.openmrs.module.radiology.order;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.openmrs.Order;
 import org.openmrs.Provider;
@@ -35,6 +36,40 @@ public interface RadiologyOrderService extends OpenmrsService {
      */
     public Long getNextAccessionNumberSeedSequenceValue();
     
+    /**
+     * Reserves a block of consecutive accession number seeds by advancing the next accession number seed by the given
+     * block size in a single update.
+     * 
+     * @param blockSize the number of accession number seeds to reserve
+     * @return the first accession number seed of the reserved block
+     * @throws IllegalArgumentException if given block size is smaller than 1
+     * @throws APIException
+     * @should return the first accession number seed of the reserved block
+     * @should advance the next accession number seed by given block size
+     * @should throw illegal argument exception if given block size is smaller than one
+     */
+    public Long reserveAccessionNumberSeedBlock(int blockSize);
+    
+    /**
+     * Gets the next value of the native database sequence for accession numbers.
+     * 
+     * @return the next accession number sequence value
+     * @should return a new value on every call
+     */
+    public Long getNextAccessionNumberSequenceValue();
+    
+    /**
+     * Gets the next value of the accession number counter with the given key and increments the counter. Counters start
+     * at 1 and are created on first use.
+     * 
+     * @param counterKey the key of the accession number counter
+     * @return the next value of the accession number counter
+     * @throws IllegalArgumentException if given counter key is null or empty
+     * @should return the next value of the counter for given counter key
+     * @should throw illegal argument exception if given counter key is null or empty
+     */
+    public Long getNextAccessionNumberCounterValue(String counterKey);
+    
     /**
      * Saves a new {@code RadiologyOrder} and its {@code RadiologyStudy} to the
      * database.
@@ -47,13 +82,39 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @should create new radiology order and study from given radiology order
      * @should create radiology order encounter
      * @should set the radiology order accession number
+     * @should record an ordered lifecycle event of given radiology order
      * @should throw illegal argument exception given null
      * @should throw illegal argument exception if given radiology order has no study
      * @should throw api exception on saving an existing radiology order
+     * @should create unique accession numbers and study instance uids when called concurrently
      */
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_ORDERS)
     public RadiologyOrder placeRadiologyOrder(RadiologyOrder radiologyOrder);
     
+    /**
+     * Saves a batch of new {@code RadiologyOrder's} and their {@code RadiologyStudy's} to the database.
+     * <p>
+     * Radiology orders of the same patient and orderer share one encounter and all accession numbers are reserved at once.
+     * Every radiology order is validated like by {@link #placeRadiologyOrder(RadiologyOrder)} and placed in a
+     * transaction of its own. Radiology orders failing validation or failing to be saved are not placed and reported in
+     * their result without affecting the other radiology orders of the batch.
+     * </p>
+     *
+     * @param radiologyOrders the radiology orders to be created
+     * @return the placement results in the order of the given radiology orders
+     * @throws IllegalArgumentException if radiologyOrders is null
+     * @should create new radiology orders and studies from given radiology orders
+     * @should create one radiology order encounter per patient and orderer
+     * @should set unique accession numbers of the radiology orders
+     * @should record an ordered lifecycle event of each placed radiology order
+     * @should report radiology orders failing validation and place the others
+     * @should report existing radiology orders and radiology orders without study
+     * @should report radiology orders failing to be saved and keep the others placed
+     * @should throw illegal argument exception given null
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_ORDERS)
+    public List<RadiologyOrderPlacementResult> placeRadiologyOrders(List<RadiologyOrder> radiologyOrders);
+    
     /**
      * Discontinues an existing {@code RadiologyOrder}.
      *
@@ -128,8 +189,63 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @should return all radiology orders for given accession number if accession number is specified
      * @should return all radiology orders for given orderer
      * @should return all radiology orders for given urgency and orderer
+     * @should return radiology orders starting at first result limited to max results ordered by accession number
+     * @should return radiology orders with accession number after given accession number
+     * @should load the studies of the radiology orders without additional queries
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
     public List<RadiologyOrder> getRadiologyOrders(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria);
+    
+    /**
+     * Count the {@code RadiologyOrder's} matching a variety of (nullable) criteria.
+     * The paging parameters first result, max results and after accession number of the criteria are ignored.
+     *
+     * @param radiologyOrderSearchCriteria the object containing search parameters
+     * @return the number of radiology orders matching given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the number of radiology orders matching given criteria
+     * @should ignore paging parameters of given criteria
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public long countRadiologyOrders(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria);
+    
+    /**
+     * Get the worklist items of the {@code RadiologyOrder's} matching a variety of (nullable) criteria.
+     * The worklist items are projected by a single query without loading the radiology orders, so use this instead of
+     * {@link #getRadiologyOrders(RadiologyOrderSearchCriteria)} when only the worklist columns are needed.
+     *
+     * @param radiologyOrderSearchCriteria the object containing search parameters
+     * @return the worklist items of the radiology orders matching given criteria ordered by accession number
+     * @throws IllegalArgumentException if given null
+     * @should return the worklist items of all radiology orders matching given criteria
+     * @should return worklist items holding the worklist columns of the radiology order
+     * @should return worklist items holding the status of the active radiology report
+     * @should return worklist items starting at first result limited to max results ordered by accession number
+     * @should return worklist items with accession number after given accession number
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public List<RadiologyOrderWorklistItem>
+            getRadiologyOrderWorklist(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria);
+    
+    /**
+     * Pass the worklist items of the {@code RadiologyOrder's} matching a variety of (nullable) criteria one by one to
+     * given consumer, ordered by accession number.
+     * The worklist items are scrolled through instead of being loaded at once and the session is cleared periodically,
+     * so the memory used does not grow with the number of matching radiology orders. Use this to export large numbers
+     * of radiology orders. The consumer must not access the database since the connection is busy streaming the rows.
+     *
+     * @param radiologyOrderSearchCriteria the object containing search parameters
+     * @param consumer the consumer accepting the worklist items
+     * @return the number of worklist items passed to the consumer
+     * @throws IllegalArgumentException if given null
+     * @should pass the worklist items of all radiology orders matching given criteria to given consumer
+     * @should throw illegal argument exception if given radiology order search criteria is null
+     * @should throw illegal argument exception if given consumer is null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public long scrollRadiologyOrderWorklist(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria,
+            Consumer<RadiologyOrderWorklistItem> consumer);
 }
@@ -9,9 +9,16 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import org.apache.commons.lang3.StringUtils;
 import org.openmrs.Encounter;
 import org.openmrs.Order;
 import org.openmrs.Patient;
@@ -24,23 +31,42 @@ import org.openmrs.api.context.Context;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.module.radiology.study.RadiologyStudyService;
+import org.openmrs.module.radiology.turnaround.RadiologyLifecycleEventType;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.BindException;
+import org.springframework.validation.Errors;
 
 @Transactional(readOnly = true)
 class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyOrderService, AccessionNumberGenerator {
     
     
+    private static final Logger log = LoggerFactory.getLogger(RadiologyOrderServiceImpl.class);
+    
     private RadiologyOrderDAO radiologyOrderDAO;
     
     private RadiologyStudyService radiologyStudyService;
     
+    private RadiologyTurnaroundService radiologyTurnaroundService;
+    
     private OrderService orderService;
     
     private EncounterService encounterService;
     
     private RadiologyProperties radiologyProperties;
     
+    private AccessionNumberGenerator accessionNumberGenerator;
+    
+    private RadiologyOrderValidator radiologyOrderValidator;
+    
+    private PlatformTransactionManager transactionManager;
+    
     public void setRadiologyOrderDAO(RadiologyOrderDAO radiologyOrderDAO) {
         this.radiologyOrderDAO = radiologyOrderDAO;
     }
@@ -49,6 +75,10 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         this.radiologyStudyService = radiologyStudyService;
     }
     
+    public void setRadiologyTurnaroundService(RadiologyTurnaroundService radiologyTurnaroundService) {
+        this.radiologyTurnaroundService = radiologyTurnaroundService;
+    }
+    
     public void setOrderService(OrderService orderService) {
         this.orderService = orderService;
     }
@@ -61,12 +91,24 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         this.radiologyProperties = radiologyProperties;
     }
     
+    public void setAccessionNumberGenerator(AccessionNumberGenerator accessionNumberGenerator) {
+        this.accessionNumberGenerator = accessionNumberGenerator;
+    }
+    
+    public void setRadiologyOrderValidator(RadiologyOrderValidator radiologyOrderValidator) {
+        this.radiologyOrderValidator = radiologyOrderValidator;
+    }
+    
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+    
     /**
      * @see RadiologyOrderService#placeRadiologyOrder(RadiologyOrder)
      */
     @Override
     @Transactional
-    public synchronized RadiologyOrder placeRadiologyOrder(RadiologyOrder radiologyOrder) {
+    public RadiologyOrder placeRadiologyOrder(RadiologyOrder radiologyOrder) {
         
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
@@ -84,6 +126,87 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         
         final Encounter encounter =
                 saveRadiologyOrderEncounter(radiologyOrder.getPatient(), radiologyOrder.getOrderer(), new Date());
+        return saveRadiologyOrderInEncounter(radiologyOrder, encounter);
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<RadiologyOrderPlacementResult> placeRadiologyOrders(List<RadiologyOrder> radiologyOrders) {
+        
+        if (radiologyOrders == null) {
+            throw new IllegalArgumentException("radiologyOrders cannot be null");
+        }
+        
+        final RadiologyOrderPlacementResult[] results = new RadiologyOrderPlacementResult[radiologyOrders.size()];
+        final List<Integer> validIndexes = new ArrayList<Integer>(radiologyOrders.size());
+        for (int i = 0; i < radiologyOrders.size(); i++) {
+            final Errors errors = validateForPlacement(radiologyOrders.get(i));
+            if (errors.hasErrors()) {
+                results[i] = RadiologyOrderPlacementResult.failed(radiologyOrders.get(i), errors);
+            } else {
+                validIndexes.add(i);
+            }
+        }
+        if (validIndexes.isEmpty()) {
+            return Arrays.asList(results);
+        }
+        
+        // every radiology order is placed in a transaction of its own, so that a radiology order failing to be saved is
+        // rolled back without the radiology orders placed before it
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        final Iterator<String> accessionNumbers = getNewAccessionNumbers(validIndexes.size()).iterator();
+        final Date encounterDateTime = new Date();
+        final Map<String, Integer> encounterIds = new HashMap<String, Integer>();
+        for (final Integer index : validIndexes) {
+            final RadiologyOrder radiologyOrder = radiologyOrders.get(index);
+            radiologyOrder.setAccessionNumber(accessionNumbers.next());
+            
+            final String encounterKey = radiologyOrder.getPatient()
+                    .getUuid()
+                    + radiologyOrder.getOrderer()
+                            .getUuid();
+            final Integer encounterId = encounterIds.get(encounterKey);
+            try {
+                final RadiologyOrder placed = transactionTemplate.execute(status -> {
+                    // a rolled back radiology order clears the session, so the shared encounter is loaded by its id
+                    final Encounter encounter = encounterId == null
+                            ? saveRadiologyOrderEncounter(radiologyOrder.getPatient(), radiologyOrder.getOrderer(),
+                                encounterDateTime)
+                            : encounterService.getEncounter(encounterId);
+                    return saveRadiologyOrderInEncounter(radiologyOrder, encounter);
+                });
+                encounterIds.put(encounterKey, placed.getEncounter()
+                        .getEncounterId());
+                results[index] = RadiologyOrderPlacementResult.placed(placed);
+            }
+            catch (RuntimeException e) {
+                log.warn("Failed to place radiology order with accession number {}", radiologyOrder.getAccessionNumber(),
+                    e);
+                if (radiologyOrder.getEncounter() != null) {
+                    radiologyOrder.getEncounter()
+                            .removeOrder(radiologyOrder);
+                }
+                final Errors errors = new BindException(radiologyOrder, "radiologyOrder");
+                errors.reject("error.general", e.getMessage());
+                results[index] = RadiologyOrderPlacementResult.failed(radiologyOrder, errors);
+            }
+        }
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * Saves given radiology order in given encounter together with its study and records its ordered lifecycle event.
+     * 
+     * @param radiologyOrder the radiology order to save whose accession number is set
+     * @param encounter the encounter of the radiology order
+     * @return the saved radiology order
+     */
+    private RadiologyOrder saveRadiologyOrderInEncounter(RadiologyOrder radiologyOrder, Encounter encounter) {
+        
         encounter.addOrder(radiologyOrder);
         
         final OrderContext orderContext = new OrderContext();
@@ -91,7 +214,32 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         orderContext.setOrderType(radiologyProperties.getRadiologyTestOrderType());
         
         final RadiologyOrder result = (RadiologyOrder) orderService.saveOrder(radiologyOrder, orderContext);
-        this.radiologyStudyService.saveRadiologyStudy(result.getStudy());
+        radiologyStudyService.saveRadiologyStudy(result.getStudy());
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(result, RadiologyLifecycleEventType.ORDERED,
+            result.getDateActivated(), null);
+        return result;
+    }
+    
+    /**
+     * Validates given radiology order for placement.
+     * 
+     * @param radiologyOrder the radiology order to validate
+     * @return the validation errors of given radiology order
+     */
+    private Errors validateForPlacement(RadiologyOrder radiologyOrder) {
+        
+        final Errors result = new BindException(radiologyOrder, "radiologyOrder");
+        if (radiologyOrder == null) {
+            result.reject("error.general");
+            return result;
+        }
+        if (radiologyOrder.getOrderId() != null) {
+            result.reject("Order.cannot.edit.existing");
+        }
+        if (radiologyOrder.getStudy() == null) {
+            result.rejectValue("study", "error.null");
+        }
+        radiologyOrderValidator.validate(radiologyOrder, result);
         return result;
     }
     
@@ -178,9 +326,15 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
      */
     @Override
     public String getNewAccessionNumber() {
-        return Context.getService(RadiologyOrderService.class)
-                .getNextAccessionNumberSeedSequenceValue()
-                .toString();
+        return accessionNumberGenerator.getNewAccessionNumber();
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Override
+    public List<String> getNewAccessionNumbers(int count) {
+        return accessionNumberGenerator.getNewAccessionNumbers(count);
     }
     
     /**
@@ -188,11 +342,49 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
      */
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public synchronized Long getNextAccessionNumberSeedSequenceValue() {
+    public Long getNextAccessionNumberSeedSequenceValue() {
         
         return radiologyOrderDAO.getNextAccessionNumberSeedSequenceValue();
     }
     
+    /**
+     * @see RadiologyOrderService#reserveAccessionNumberSeedBlock(int)
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Long reserveAccessionNumberSeedBlock(int blockSize) {
+        
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be greater than 0");
+        }
+        
+        return radiologyOrderDAO.reserveAccessionNumberSeedBlock(blockSize);
+    }
+    
+    /**
+     * @see RadiologyOrderService#getNextAccessionNumberSequenceValue()
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Long getNextAccessionNumberSequenceValue() {
+        
+        return radiologyOrderDAO.getNextAccessionNumberSequenceValue();
+    }
+    
+    /**
+     * @see RadiologyOrderService#getNextAccessionNumberCounterValue(String)
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Long getNextAccessionNumberCounterValue(String counterKey) {
+        
+        if (StringUtils.isBlank(counterKey)) {
+            throw new IllegalArgumentException("counterKey cannot be null or empty");
+        }
+        
+        return radiologyOrderDAO.getNextAccessionNumberCounterValue(counterKey);
+    }
+    
     /**
      * @see RadiologyOrderService#getRadiologyOrders(RadiologyOrderSearchCriteria)
      */
@@ -204,4 +396,45 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         }
         return radiologyOrderDAO.getRadiologyOrders(radiologyOrderSearchCriteria);
     }
+    
+    /**
+     * @see RadiologyOrderService#countRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    @Override
+    public long countRadiologyOrders(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria) {
+        
+        if (radiologyOrderSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyOrderSearchCriteria cannot be null");
+        }
+        return radiologyOrderDAO.countRadiologyOrders(radiologyOrderSearchCriteria);
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)
+     */
+    @Override
+    public List<RadiologyOrderWorklistItem>
+            getRadiologyOrderWorklist(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria) {
+        
+        if (radiologyOrderSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyOrderSearchCriteria cannot be null");
+        }
+        return radiologyOrderDAO.getRadiologyOrderWorklist(radiologyOrderSearchCriteria, Context.getLocale());
+    }
+    
+    /**
+     * @see RadiologyOrderService#scrollRadiologyOrderWorklist(RadiologyOrderSearchCriteria, Consumer)
+     */
+    @Override
+    public long scrollRadiologyOrderWorklist(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria,
+            Consumer<RadiologyOrderWorklistItem> consumer) {
+        
+        if (radiologyOrderSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyOrderSearchCriteria cannot be null");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("consumer cannot be null");
+        }
+        return radiologyOrderDAO.scrollRadiologyOrderWorklist(radiologyOrderSearchCriteria, Context.getLocale(), consumer);
+    }
 }
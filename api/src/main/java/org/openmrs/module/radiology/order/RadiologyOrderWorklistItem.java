@@ -0,0 +1,151 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.Date;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.Order.Urgency;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+
+/**
+ * A flat, read-only view of a {@link RadiologyOrder} holding only what a worklist needs to display.
+ * <p>
+ * Worklist items are projected by a single query via
+ * {@link RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)} so that neither the radiology
+ * order nor its patient, concept, study or report have to be loaded.
+ * </p>
+ */
+public class RadiologyOrderWorklistItem {
+    
+    
+    private final String uuid;
+    
+    private final String accessionNumber;
+    
+    private final String patientName;
+    
+    private final String patientIdentifier;
+    
+    private final String procedureName;
+    
+    private final Urgency urgency;
+    
+    private final Date effectiveStartDate;
+    
+    private final PerformedProcedureStepStatus performedStatus;
+    
+    private final RadiologyReportStatus reportStatus;
+    
+    /**
+     * Creates a worklist item. The patient name is built from the non blank parts of the given, middle and family name.
+     * 
+     * @param uuid the uuid of the radiology order
+     * @param accessionNumber the accession number of the radiology order
+     * @param patientGivenName the given name of the patients preferred name
+     * @param patientMiddleName the middle name of the patients preferred name
+     * @param patientFamilyName the family name of the patients preferred name
+     * @param patientIdentifier the preferred identifier of the patient
+     * @param procedureName the name of the radiology orders concept
+     * @param urgency the urgency of the radiology order
+     * @param effectiveStartDate the effective start date of the radiology order
+     * @param performedStatus the performed status of the radiology orders study
+     * @param reportStatus the status of the radiology orders active report or null if there is none
+     */
+    public RadiologyOrderWorklistItem(String uuid, String accessionNumber, String patientGivenName,
+            String patientMiddleName, String patientFamilyName, String patientIdentifier, String procedureName,
+            Urgency urgency, Date effectiveStartDate, PerformedProcedureStepStatus performedStatus,
+            RadiologyReportStatus reportStatus) {
+        this.uuid = uuid;
+        this.accessionNumber = accessionNumber;
+        this.patientName =
+                StringUtils.normalizeSpace(StringUtils.join(new String[] { patientGivenName, patientMiddleName,
+                        patientFamilyName }, ' '));
+        this.patientIdentifier = patientIdentifier;
+        this.procedureName = procedureName;
+        this.urgency = urgency;
+        this.effectiveStartDate = effectiveStartDate == null ? null : new Date(effectiveStartDate.getTime());
+        this.performedStatus = performedStatus;
+        this.reportStatus = reportStatus;
+    }
+    
+    /**
+     * @return the uuid of the radiology order
+     */
+    public String getUuid() {
+        
+        return uuid;
+    }
+    
+    /**
+     * @return the accession number of the radiology order
+     */
+    public String getAccessionNumber() {
+        
+        return accessionNumber;
+    }
+    
+    /**
+     * @return the full preferred name of the patient
+     */
+    public String getPatientName() {
+        
+        return patientName;
+    }
+    
+    /**
+     * @return the preferred identifier of the patient
+     */
+    public String getPatientIdentifier() {
+        
+        return patientIdentifier;
+    }
+    
+    /**
+     * @return the name of the imaging procedure ordered
+     */
+    public String getProcedureName() {
+        
+        return procedureName;
+    }
+    
+    /**
+     * @return the urgency of the radiology order
+     */
+    public Urgency getUrgency() {
+        
+        return urgency;
+    }
+    
+    /**
+     * @return the effective start date of the radiology order
+     */
+    public Date getEffectiveStartDate() {
+        
+        return effectiveStartDate == null ? null : new Date(effectiveStartDate.getTime());
+    }
+    
+    /**
+     * @return the performed status of the radiology orders study
+     */
+    public PerformedProcedureStepStatus getPerformedStatus() {
+        
+        return performedStatus;
+    }
+    
+    /**
+     * @return the status of the radiology orders active report or null if the radiology order has no active report
+     */
+    public RadiologyReportStatus getReportStatus() {
+        
+        return reportStatus;
+    }
+}
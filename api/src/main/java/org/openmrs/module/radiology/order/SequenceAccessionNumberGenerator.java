@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import org.openmrs.api.context.Context;
+
+/**
+ * An {@link AccessionNumberGenerator} backed by the native database sequence {@code radiology_accession_number_seq}
+ * (a single row table incremented in place on databases without sequences), which needs no pessimistic lock.
+ */
+class SequenceAccessionNumberGenerator implements AccessionNumberGenerator {
+    
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     * @should return increasing numeric accession numbers
+     */
+    @Override
+    public String getNewAccessionNumber() {
+        return Context.getService(RadiologyOrderService.class)
+                .getNextAccessionNumberSequenceValue()
+                .toString();
+    }
+}
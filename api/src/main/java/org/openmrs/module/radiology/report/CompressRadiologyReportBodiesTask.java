@@ -0,0 +1,61 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.scheduler.tasks.AbstractTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduler task compressing the bodies of {@code RadiologyReport's} which are stored uncompressed.
+ * <p>
+ * Radiology reports are compressed in batches each running in its own transaction, so that the task can be stopped
+ * and run again at any time. Radiology reports saved while the global property
+ * {@link org.openmrs.module.radiology.RadiologyConstants#GP_COMPRESS_REPORT_BODIES} is false are stored uncompressed
+ * again and compressed on the next run.
+ * </p>
+ */
+public class CompressRadiologyReportBodiesTask extends AbstractTask {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(CompressRadiologyReportBodiesTask.class);
+    
+    static final int BATCH_SIZE = 100;
+    
+    /**
+     * @see org.openmrs.scheduler.tasks.AbstractTask#execute()
+     */
+    @Override
+    public void execute() {
+        
+        if (isExecuting) {
+            return;
+        }
+        startExecuting();
+        try {
+            final RadiologyReportService radiologyReportService = Context.getService(RadiologyReportService.class);
+            int batches = 0;
+            Integer lastReportId = radiologyReportService.compressRadiologyReportBodies(null, BATCH_SIZE);
+            while (lastReportId != null) {
+                batches++;
+                Context.clearSession();
+                lastReportId = radiologyReportService.compressRadiologyReportBodies(lastReportId, BATCH_SIZE);
+            }
+            log.info("Compressed the bodies of radiology reports in {} batches", batches);
+        }
+        catch (Exception e) {
+            log.error("Failed to compress the bodies of radiology reports", e);
+        }
+        finally {
+            stopExecuting();
+        }
+    }
+}
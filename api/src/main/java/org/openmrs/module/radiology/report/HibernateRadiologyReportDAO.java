@@ -9,12 +9,27 @@
  */
 package org.openmrs.module.radiology.report;
 
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
+import org.hibernate.NullPrecedence;
+import org.hibernate.Query;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.openmrs.module.radiology.order.RadiologyOrder;
 
 /**
@@ -27,6 +42,14 @@ import org.openmrs.module.radiology.order.RadiologyOrder;
 class HibernateRadiologyReportDAO implements RadiologyReportDAO {
     
     
+    /**
+     * Upper bound for the number of radiology orders bound to a single in restriction, since databases limit the number
+     * of parameters a statement can have.
+     */
+    private static final int MAX_RADIOLOGY_ORDERS_PER_QUERY = 500;
+    
+    private static final String ACTIVE_ORDER_ID_UNIQUE_CONSTRAINT = "radiology_report_active_order_id_uk";
+    
     private SessionFactory sessionFactory;
     
     /**
@@ -60,11 +83,31 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
     
     /**
      * @see org.openmrs.module.radiology.report.RadiologyReportService#saveRadiologyReportDraft(RadiologyReport)
+     * @should fail to save a second active report of a radiology order with a conflict
+     * @should rethrow constraint violations other than a second active report of a radiology order
      */
     @Override
     public RadiologyReport saveRadiologyReport(RadiologyReport radiologyReport) {
-        sessionFactory.getCurrentSession()
-                .saveOrUpdate(radiologyReport);
+        
+        final Session session = sessionFactory.getCurrentSession();
+        try {
+            session.saveOrUpdate(radiologyReport);
+            // flush so that conflicting concurrent changes are detected here instead of on commit
+            session.flush();
+        }
+        catch (StaleStateException staleStateException) {
+            throw new RadiologyReportConflictException("radiology.RadiologyReport.conflict.modified",
+                    staleStateException);
+        }
+        catch (ConstraintViolationException constraintViolationException) {
+            // databases report the violated constraint with different case and qualifiers
+            if (StringUtils.containsIgnoreCase(constraintViolationException.getConstraintName(),
+                ACTIVE_ORDER_ID_UNIQUE_CONSTRAINT)) {
+                throw new RadiologyReportConflictException("radiology.RadiologyReport.conflict.active",
+                        constraintViolationException);
+            }
+            throw constraintViolationException;
+        }
         return radiologyReport;
     }
     
@@ -72,29 +115,36 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
      * @see org.openmrs.module.radiology.report.RadiologyReportService#hasRadiologyOrderCompletedRadiologyReport(RadiologyOrder)
      *      (RadiologyReport)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public boolean hasRadiologyOrderCompletedRadiologyReport(RadiologyOrder radiologyOrder) {
-        final List<RadiologyReport> radiologyReports = sessionFactory.getCurrentSession()
-                .createCriteria(RadiologyReport.class)
-                .add(Restrictions.eq("radiologyOrder", radiologyOrder))
-                .add(Restrictions.eq("status", RadiologyReportStatus.COMPLETED))
-                .list();
-        return radiologyReports.size() == 1;
+        return existsRadiologyReport(radiologyOrder, RadiologyReportStatus.COMPLETED);
     }
     
     /**
      * @see org.openmrs.module.radiology.report.RadiologyReportService#hasRadiologyOrderClaimedRadiologyReport(RadiologyOrder)
      */
-    @SuppressWarnings("unchecked")
+    @Override
     public boolean hasRadiologyOrderClaimedRadiologyReport(RadiologyOrder radiologyOrder) {
-        final List<RadiologyReport> radiologyReports = sessionFactory.getCurrentSession()
+        return existsRadiologyReport(radiologyOrder, RadiologyReportStatus.DRAFT);
+    }
+    
+    /**
+     * Check if a non voided radiology report with given status exists for given radiology order. Only the id of at most
+     * one radiology report is selected so that no radiology report is loaded.
+     * 
+     * @param radiologyOrder the radiology order which should be checked for a radiology report
+     * @param status the status of the radiology report
+     * @return true if the radiology order has a non voided radiology report with given status and false otherwise
+     */
+    private boolean existsRadiologyReport(RadiologyOrder radiologyOrder, RadiologyReportStatus status) {
+        return sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyReport.class)
                 .add(Restrictions.eq("radiologyOrder", radiologyOrder))
-                .add(Restrictions.eq("status", RadiologyReportStatus.DRAFT))
+                .add(Restrictions.eq("status", status))
                 .add(Restrictions.eq("voided", false))
-                .list();
-        return radiologyReports.size() == 1;
+                .setProjection(Projections.id())
+                .setMaxResults(1)
+                .uniqueResult() != null;
     }
     
     /**
@@ -106,8 +156,27 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
                 .createCriteria(RadiologyReport.class)
                 .add(Restrictions.eq("radiologyOrder", radiologyOrder))
                 .add(Restrictions.eq("voided", false))
-                .list()
-                .get(0);
+                .setMaxResults(1)
+                .uniqueResult();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#getActiveRadiologyReportsByRadiologyOrders(List)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyReport> getActiveRadiologyReportsByRadiologyOrders(List<RadiologyOrder> radiologyOrders) {
+        
+        final List<RadiologyReport> result = new ArrayList<RadiologyReport>();
+        for (int i = 0; i < radiologyOrders.size(); i += MAX_RADIOLOGY_ORDERS_PER_QUERY) {
+            result.addAll(sessionFactory.getCurrentSession()
+                    .createCriteria(RadiologyReport.class)
+                    .add(Restrictions.in("radiologyOrder",
+                        radiologyOrders.subList(i, Math.min(i + MAX_RADIOLOGY_ORDERS_PER_QUERY, radiologyOrders.size()))))
+                    .add(Restrictions.eq("voided", false))
+                    .list());
+        }
+        return result;
     }
     
     /**
@@ -117,6 +186,238 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
     @Override
     public List<RadiologyReport> getRadiologyReports(RadiologyReportSearchCriteria searchCriteria) {
         
+        final Criteria crit = createRadiologyReportCriteria(searchCriteria);
+        final RadiologyReport afterRadiologyReport = searchCriteria.getAfterRadiologyReport();
+        if (afterRadiologyReport != null) {
+            // seek past the given report in the (report_date, report_id) order, which sorts reports without a date
+            // first on every database, see sortsNullsLast()
+            if (afterRadiologyReport.getDate() == null) {
+                crit.add(Restrictions.or(Restrictions.isNotNull("date"), Restrictions.gt("reportId",
+                    afterRadiologyReport.getReportId())));
+            } else {
+                crit.add(Restrictions.or(Restrictions.gt("date", afterRadiologyReport.getDate()), Restrictions.and(
+                    Restrictions.eq("date", afterRadiologyReport.getDate()),
+                    Restrictions.gt("reportId", afterRadiologyReport.getReportId()))));
+            }
+        }
+        if (sortsNullsLast()) {
+            crit.addOrder(Order.asc("date")
+                    .nulls(NullPrecedence.FIRST));
+        } else {
+            crit.addOrder(Order.asc("date"));
+        }
+        crit.addOrder(Order.asc("reportId"));
+        if (searchCriteria.getFirstResult() != null) {
+            crit.setFirstResult(searchCriteria.getFirstResult());
+        }
+        if (searchCriteria.getMaxResults() != null) {
+            crit.setMaxResults(searchCriteria.getMaxResults());
+        }
+        return crit.list();
+    }
+    
+    /**
+     * Check if the database sorts null values last in ascending order, so that reports without a date have to be
+     * explicitly ordered first. The null precedence is only rendered on these databases since others like MySQL emulate
+     * it with a computed sort key, which keeps the index on report_date from serving the order.
+     * 
+     * @return true if the database sorts null values after all other values in ascending order, false otherwise
+     */
+    private boolean sortsNullsLast() {
+        
+        final Dialect dialect = ((SessionFactoryImplementor) sessionFactory).getDialect();
+        return dialect instanceof PostgreSQL81Dialect || dialect instanceof Oracle8iDialect;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#getRadiologyReportListItems(RadiologyReportSearchCriteria)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyReportListItem> getRadiologyReportListItems(RadiologyReportSearchCriteria searchCriteria) {
+        
+        // only the columns shown in listings are selected so that the report body is never read, the preferred name of
+        // the principal results interpreter is restricted to the one with the lowest id so that every radiology report
+        // results in exactly one row even if the person has several preferred names
+        final StringBuilder hql = new StringBuilder();
+        hql.append("select new org.openmrs.module.radiology.report.RadiologyReportListItem(r.uuid, o.accessionNumber, ")
+                .append("pn.givenName, pn.middleName, pn.familyName, pri.name, r.date, r.dateCreated, ")
+                .append("coalesce(c.username, c.systemId), r.status, r.voided) ")
+                .append("from RadiologyReport r ")
+                .append("join r.radiologyOrder o ")
+                .append("join r.creator c ")
+                .append("left join r.principalResultsInterpreter pri ")
+                .append("left join pri.person pp ")
+                .append("left join pp.names pn with pn.preferred = true and pn.voided = false ")
+                .append("where (pn.personNameId is null or pn.personNameId = (select min(pn2.personNameId) ")
+                .append("from PersonName pn2 where pn2.person = pp and pn2.preferred = true and pn2.voided = false)) ");
+        
+        final Map<String, Object> parameters = new HashMap<String, Object>();
+        if (!searchCriteria.getIncludeVoided()) {
+            hql.append("and r.voided = false ");
+        }
+        if (searchCriteria.getFromDate() != null) {
+            hql.append("and r.date >= :fromDate ");
+            parameters.put("fromDate", searchCriteria.getFromDate());
+        }
+        if (searchCriteria.getToDate() != null) {
+            hql.append("and r.date <= :toDate ");
+            parameters.put("toDate", searchCriteria.getToDate());
+        }
+        if (searchCriteria.getPrincipalResultsInterpreter() != null) {
+            hql.append("and r.principalResultsInterpreter = :principalResultsInterpreter ");
+            parameters.put("principalResultsInterpreter", searchCriteria.getPrincipalResultsInterpreter());
+        }
+        if (searchCriteria.getStatus() != null) {
+            hql.append("and r.status = :status ");
+            parameters.put("status", searchCriteria.getStatus());
+        }
+        if (searchCriteria.getPatient() != null) {
+            hql.append("and o.patient = :patient ");
+            parameters.put("patient", searchCriteria.getPatient());
+        }
+        if (StringUtils.isNotBlank(searchCriteria.getAccessionNumber())) {
+            hql.append("and o.accessionNumber = :accessionNumber ");
+            parameters.put("accessionNumber", searchCriteria.getAccessionNumber());
+        }
+        if (searchCriteria.getProcedure() != null) {
+            hql.append("and o.concept = :procedure ");
+            parameters.put("procedure", searchCriteria.getProcedure());
+        }
+        final RadiologyReport afterRadiologyReport = searchCriteria.getAfterRadiologyReport();
+        if (afterRadiologyReport != null) {
+            // seek past the given report in the (report_date, report_id) order, which sorts reports without a date
+            // first on every database, see sortsNullsLast()
+            if (afterRadiologyReport.getDate() == null) {
+                hql.append("and (r.date is not null or r.reportId > :afterReportId) ");
+            } else {
+                hql.append("and (r.date > :afterDate or (r.date = :afterDate and r.reportId > :afterReportId)) ");
+                parameters.put("afterDate", afterRadiologyReport.getDate());
+            }
+            parameters.put("afterReportId", afterRadiologyReport.getReportId());
+        }
+        hql.append(sortsNullsLast() ? "order by r.date asc nulls first, r.reportId asc"
+                : "order by r.date asc, r.reportId asc");
+        
+        final Query query = sessionFactory.getCurrentSession()
+                .createQuery(hql.toString());
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            query.setParameter(parameter.getKey(), parameter.getValue());
+        }
+        if (searchCriteria.getFirstResult() != null) {
+            query.setFirstResult(searchCriteria.getFirstResult());
+        }
+        if (searchCriteria.getMaxResults() != null) {
+            query.setMaxResults(searchCriteria.getMaxResults());
+        }
+        return query.list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#countRadiologyReports(RadiologyReportSearchCriteria)
+     */
+    @Override
+    public long countRadiologyReports(RadiologyReportSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createRadiologyReportCriteria(searchCriteria);
+        crit.setProjection(Projections.rowCount());
+        return ((Number) crit.uniqueResult()).longValue();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#compressRadiologyReportBodies(Integer, int)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Integer compressRadiologyReportBodies(Integer afterReportId, int maxResults) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final Query query = session.createQuery("select r.reportId, r.version, r.bodyText from RadiologyReport r "
+                + "where r.bodyText is not null" + (afterReportId == null ? "" : " and r.reportId > :afterReportId")
+                + " order by r.reportId");
+        if (afterReportId != null) {
+            query.setParameter("afterReportId", afterReportId);
+        }
+        final List<Object[]> rows = query.setMaxResults(maxResults)
+                .list();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        
+        // rows are updated via jdbc since a bulk update through hibernate would evict all cached radiology reports even
+        // though their body does not change, the version guards against overwriting a concurrently saved body
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("UPDATE radiology_report "
+                    + "SET report_body_compressed = ?, report_body = NULL WHERE report_id = ? AND version = ?")) {
+                for (Object[] row : rows) {
+                    statement.setBytes(1, RadiologyReportBodyCodec.compress((String) row[2]));
+                    statement.setInt(2, (Integer) row[0]);
+                    statement.setInt(3, (Integer) row[1]);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        return (Integer) rows.get(rows.size() - 1)[0];
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportDAO#getRadiologyReportsByUuids(List)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyReport> getRadiologyReportsByUuids(List<String> uuids) {
+        
+        if (uuids.isEmpty()) {
+            return new ArrayList<RadiologyReport>();
+        }
+        return sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyReport.class)
+                .add(Restrictions.in("uuid", uuids))
+                .list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportDAO#getCompletedRadiologyReports(Integer, int)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyReport> getCompletedRadiologyReports(Integer afterReportId, int maxResults) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final Criteria crit = session.createCriteria(RadiologyReport.class)
+                .add(Restrictions.eq("status", RadiologyReportStatus.COMPLETED))
+                .add(Restrictions.eq("voided", false));
+        if (afterReportId != null) {
+            crit.add(Restrictions.gt("reportId", afterReportId));
+        }
+        return crit.addOrder(Order.asc("reportId"))
+                .setMaxResults(maxResults)
+                .list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportDAO#evictRadiologyReports(List)
+     */
+    @Override
+    public void evictRadiologyReports(List<RadiologyReport> radiologyReports) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        for (RadiologyReport radiologyReport : radiologyReports) {
+            session.evict(radiologyReport);
+            session.evict(radiologyReport.getRadiologyOrder());
+        }
+    }
+    
+    /**
+     * Create a criteria restricting radiology reports to the filters of given search criteria. Paging parameters of the
+     * search criteria are not applied. The radiology order is only joined if a filter on it is given.
+     * 
+     * @param searchCriteria the object containing search parameters
+     * @return the criteria matching radiology reports to given search criteria
+     */
+    private Criteria createRadiologyReportCriteria(RadiologyReportSearchCriteria searchCriteria) {
+        
         final Criteria crit = sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyReport.class);
         
@@ -135,8 +436,19 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
         if (searchCriteria.getStatus() != null) {
             crit.add(Restrictions.eq("status", searchCriteria.getStatus()));
         }
-        
-        crit.addOrder(Order.asc("date"));
-        return crit.list();
+        if (searchCriteria.getPatient() != null || StringUtils.isNotBlank(searchCriteria.getAccessionNumber())
+                || searchCriteria.getProcedure() != null) {
+            crit.createAlias("radiologyOrder", "o");
+        }
+        if (searchCriteria.getPatient() != null) {
+            crit.add(Restrictions.eq("o.patient", searchCriteria.getPatient()));
+        }
+        if (StringUtils.isNotBlank(searchCriteria.getAccessionNumber())) {
+            crit.add(Restrictions.eq("o.accessionNumber", searchCriteria.getAccessionNumber()));
+        }
+        if (searchCriteria.getProcedure() != null) {
+            crit.add(Restrictions.eq("o.concept", searchCriteria.getProcedure()));
+        }
+        return crit;
     }
 }
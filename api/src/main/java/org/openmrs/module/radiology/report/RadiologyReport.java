@@ -34,6 +34,12 @@ public class RadiologyReport extends BaseOpenmrsData {
     
     private String body;
     
+    private boolean bodyCompressed;
+    
+    private byte[] compressedBody;
+    
+    private Integer version;
+    
     /**
      * Creates a new instance of {@link RadiologyReport}.
      */
@@ -191,5 +197,119 @@ public class RadiologyReport extends BaseOpenmrsData {
      */
     public void setBody(String body) {
         this.body = body;
+        this.compressedBody = null;
+    }
+    
+    /**
+     * Get whether the body of RadiologyReport is stored compressed.
+     * 
+     * @return true if the body is stored compressed and false otherwise
+     */
+    public boolean isBodyCompressed() {
+        return bodyCompressed;
+    }
+    
+    /**
+     * Set whether the body of RadiologyReport is stored compressed the next time it is saved.
+     * 
+     * @param bodyCompressed true if the body shall be stored compressed and false otherwise
+     */
+    public void setBodyCompressed(boolean bodyCompressed) {
+        this.bodyCompressed = bodyCompressed;
+    }
+    
+    /**
+     * Get the body of RadiologyReport as it is stored if it is not stored compressed.
+     * 
+     * @return the body if it is not stored compressed and null otherwise
+     */
+    @SuppressWarnings("unused")
+    private String getBodyText() {
+        return bodyCompressed ? null : body;
+    }
+    
+    /**
+     * Set the body of RadiologyReport from its stored uncompressed form.
+     * 
+     * @param bodyText the body as it is stored uncompressed
+     */
+    @SuppressWarnings("unused")
+    private void setBodyText(String bodyText) {
+        if (bodyText != null) {
+            this.body = bodyText;
+            this.bodyCompressed = false;
+            this.compressedBody = null;
+        }
+    }
+    
+    /**
+     * Get the body of RadiologyReport as it is stored if it is stored compressed. The compressed body is kept until the
+     * body changes so that dirty checking does not compress it on every flush.
+     * 
+     * @return the compressed body if it is stored compressed and null otherwise
+     */
+    @SuppressWarnings("unused")
+    private byte[] getCompressedBody() {
+        if (!bodyCompressed || body == null) {
+            return null;
+        }
+        if (compressedBody == null) {
+            compressedBody = RadiologyReportBodyCodec.compress(body);
+        }
+        return compressedBody;
+    }
+    
+    /**
+     * Set the body of RadiologyReport from its stored compressed form.
+     * 
+     * @param compressedBody the body as it is stored compressed
+     */
+    @SuppressWarnings("unused")
+    private void setCompressedBody(byte[] compressedBody) {
+        if (compressedBody != null) {
+            this.body = RadiologyReportBodyCodec.decompress(compressedBody);
+            this.bodyCompressed = true;
+            this.compressedBody = compressedBody;
+        }
+    }
+    
+    /**
+     * Get version of RadiologyReport which is incremented on every update and used to detect concurrent modifications.
+     * 
+     * @return version of RadiologyReport
+     */
+    public Integer getVersion() {
+        return version;
+    }
+    
+    /**
+     * Set version of RadiologyReport.
+     * 
+     * @param version version of RadiologyReport
+     */
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+    
+    /**
+     * Get the order id of the RadiologyOrder this RadiologyReport is the active report of. The column it is mapped to is
+     * unique so that a RadiologyOrder cannot have more than one active report.
+     * 
+     * @return the order id of the RadiologyOrder if this RadiologyReport is not voided and null otherwise
+     */
+    @SuppressWarnings("unused")
+    private Integer getActiveOrderId() {
+        return Boolean.TRUE.equals(getVoided()) || radiologyOrder == null ? null : radiologyOrder.getOrderId();
+    }
+    
+    /**
+     * Set the order id of the RadiologyOrder this RadiologyReport is the active report of.
+     * 
+     * @param activeOrderId the order id of the RadiologyOrder which is ignored since it is derived from the
+     *        RadiologyOrder and the voided state of this RadiologyReport
+     */
+    @SuppressWarnings("unused")
+    private void setActiveOrderId(Integer activeOrderId) {
+        // needed by hibernate to hydrate the column
     }
 }
@@ -0,0 +1,108 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses and decompresses the body of {@code RadiologyReport's} when they are stored compressed.
+ * <p>
+ * A compressed body starts with one byte identifying the format followed by the body in that format. Only
+ * {@link #FORMAT_DEFLATE}, a zlib stream of the UTF-8 encoded body, is written for now; the format byte allows changing
+ * the codec later on without having to rewrite existing rows.
+ * </p>
+ */
+final class RadiologyReportBodyCodec {
+    
+    
+    static final byte FORMAT_DEFLATE = 1;
+    
+    private static final int BUFFER_SIZE = 4096;
+    
+    private RadiologyReportBodyCodec() {
+        // utility class
+    }
+    
+    /**
+     * Compresses given report body.
+     * 
+     * @param body the report body to compress
+     * @return the compressed report body or null if given body is null
+     * @should return null given null
+     * @should compress given body so that it can be decompressed
+     */
+    static byte[] compress(String body) {
+        
+        if (body == null) {
+            return null;
+        }
+        
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(body.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            final ByteArrayOutputStream result = new ByteArrayOutputStream();
+            result.write(FORMAT_DEFLATE);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                result.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return result.toByteArray();
+        }
+        finally {
+            deflater.end();
+        }
+    }
+    
+    /**
+     * Decompresses given compressed report body.
+     * 
+     * @param compressedBody the compressed report body
+     * @return the report body or null if given compressed body is null
+     * @throws IllegalStateException if given compressed body is not in a known format or corrupt
+     * @should return null given null
+     * @should throw illegal state exception given an unknown format
+     * @should throw illegal state exception given a corrupt body
+     */
+    static String decompress(byte[] compressedBody) {
+        
+        if (compressedBody == null) {
+            return null;
+        }
+        if (compressedBody.length == 0 || compressedBody[0] != FORMAT_DEFLATE) {
+            throw new IllegalStateException("Unknown format of compressed radiology report body");
+        }
+        
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressedBody, 1, compressedBody.length - 1);
+            final ByteArrayOutputStream result = new ByteArrayOutputStream(compressedBody.length * 4);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                final int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Compressed radiology report body is truncated");
+                }
+                result.write(buffer, 0, length);
+            }
+            return new String(result.toByteArray(), StandardCharsets.UTF_8);
+        }
+        catch (DataFormatException e) {
+            throw new IllegalStateException("Compressed radiology report body is corrupt", e);
+        }
+        finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import org.openmrs.api.APIException;
+
+/**
+ * Thrown if a {@code RadiologyReport} cannot be saved because it conflicts with a concurrent change, either because
+ * the report was modified since it was read or because its order already got another active report.
+ * <p>
+ * Radiology REST requests failing with this exception are answered with status 409 (Conflict) by the REST controller
+ * of the web layer.
+ * </p>
+ */
+public class RadiologyReportConflictException extends APIException {
+    
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Creates a new instance of {@link RadiologyReportConflictException}.
+     * 
+     * @param message the message code describing the conflict
+     * @param cause the exception signaling the conflict
+     */
+    public RadiologyReportConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
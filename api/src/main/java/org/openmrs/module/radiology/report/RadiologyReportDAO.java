@@ -52,8 +52,53 @@ interface RadiologyReportDAO {
      */
     RadiologyReport getActiveRadiologyReportByRadiologyOrder(RadiologyOrder radiologyOrder);
     
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#getActiveRadiologyReportsByRadiologyOrders(List)
+     */
+    List<RadiologyReport> getActiveRadiologyReportsByRadiologyOrders(List<RadiologyOrder> radiologyOrders);
+    
     /**
      * @see org.openmrs.module.radiology.report.RadiologyReportService#getRadiologyReports(RadiologyReportSearchCriteria)
      */
     List<RadiologyReport> getRadiologyReports(RadiologyReportSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#getRadiologyReportListItems(RadiologyReportSearchCriteria)
+     */
+    List<RadiologyReportListItem> getRadiologyReportListItems(RadiologyReportSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#countRadiologyReports(RadiologyReportSearchCriteria)
+     */
+    long countRadiologyReports(RadiologyReportSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#compressRadiologyReportBodies(Integer, int)
+     */
+    Integer compressRadiologyReportBodies(Integer afterReportId, int maxResults);
+    
+    /**
+     * Get the radiology reports with given uuids.
+     * 
+     * @param uuids the uuids of the radiology reports
+     * @return the radiology reports with given uuids in no particular order
+     */
+    List<RadiologyReport> getRadiologyReportsByUuids(List<String> uuids);
+    
+    /**
+     * Get the completed non voided radiology reports with a report id greater than given one, ordered by report id.
+     * 
+     * @param afterReportId the report id after which to start or null to start with the first radiology report
+     * @param maxResults the maximum number of radiology reports to return
+     * @return the completed radiology reports with a report id greater than given one
+     */
+    List<RadiologyReport> getCompletedRadiologyReports(Integer afterReportId, int maxResults);
+    
+    /**
+     * Evict given radiology reports and their radiology orders from the session, so that going through all radiology
+     * reports does not grow the session. Other objects in the session are kept.
+     * 
+     * @param radiologyReports the radiology reports to evict
+     */
+    void evictRadiologyReports(List<RadiologyReport> radiologyReports);
 }
@@ -0,0 +1,140 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import java.util.Date;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A flat, read-only view of a {@link RadiologyReport} holding only what a listing of reports needs to display.
+ * <p>
+ * List items are projected by a single query via
+ * {@link RadiologyReportService#getRadiologyReportListItems(RadiologyReportSearchCriteria)} so that the report body,
+ * which can be large, is never read.
+ * </p>
+ */
+public class RadiologyReportListItem {
+    
+    
+    private final String uuid;
+    
+    private final String accessionNumber;
+    
+    private final String principalResultsInterpreterName;
+    
+    private final Date date;
+    
+    private final Date dateCreated;
+    
+    private final String creatorName;
+    
+    private final RadiologyReportStatus status;
+    
+    private final boolean voided;
+    
+    /**
+     * Creates a list item. The principal results interpreter name is built from the non blank parts of the given, middle
+     * and family name falling back to the name of the provider if the provider is not a person.
+     * 
+     * @param uuid the uuid of the radiology report
+     * @param accessionNumber the accession number of the radiology reports order
+     * @param principalResultsInterpreterGivenName the given name of the principal results interpreters preferred name
+     * @param principalResultsInterpreterMiddleName the middle name of the principal results interpreters preferred name
+     * @param principalResultsInterpreterFamilyName the family name of the principal results interpreters preferred name
+     * @param principalResultsInterpreterProviderName the name of the principal results interpreters provider
+     * @param date the date the radiology report was completed
+     * @param dateCreated the date the radiology report was created
+     * @param creatorName the username of the user who created the radiology report
+     * @param status the status of the radiology report
+     * @param voided whether the radiology report is voided
+     */
+    public RadiologyReportListItem(String uuid, String accessionNumber, String principalResultsInterpreterGivenName,
+            String principalResultsInterpreterMiddleName, String principalResultsInterpreterFamilyName,
+            String principalResultsInterpreterProviderName, Date date, Date dateCreated, String creatorName,
+            RadiologyReportStatus status, Boolean voided) {
+        this.uuid = uuid;
+        this.accessionNumber = accessionNumber;
+        final String personName = StringUtils.normalizeSpace(StringUtils.join(new String[] {
+                principalResultsInterpreterGivenName, principalResultsInterpreterMiddleName,
+                principalResultsInterpreterFamilyName }, ' '));
+        this.principalResultsInterpreterName =
+                StringUtils.isBlank(personName) ? principalResultsInterpreterProviderName : personName;
+        this.date = date == null ? null : new Date(date.getTime());
+        this.dateCreated = dateCreated == null ? null : new Date(dateCreated.getTime());
+        this.creatorName = creatorName;
+        this.status = status;
+        this.voided = Boolean.TRUE.equals(voided);
+    }
+    
+    /**
+     * @return the uuid of the radiology report
+     */
+    public String getUuid() {
+        
+        return uuid;
+    }
+    
+    /**
+     * @return the accession number of the radiology reports order
+     */
+    public String getAccessionNumber() {
+        
+        return accessionNumber;
+    }
+    
+    /**
+     * @return the name of the principal results interpreter or null if the radiology report has none
+     */
+    public String getPrincipalResultsInterpreterName() {
+        
+        return principalResultsInterpreterName;
+    }
+    
+    /**
+     * @return the date the radiology report was completed
+     */
+    public Date getDate() {
+        
+        return date == null ? null : new Date(date.getTime());
+    }
+    
+    /**
+     * @return the date the radiology report was created
+     */
+    public Date getDateCreated() {
+        
+        return dateCreated == null ? null : new Date(dateCreated.getTime());
+    }
+    
+    /**
+     * @return the username of the user who created the radiology report
+     */
+    public String getCreatorName() {
+        
+        return creatorName;
+    }
+    
+    /**
+     * @return the status of the radiology report
+     */
+    public RadiologyReportStatus getStatus() {
+        
+        return status;
+    }
+    
+    /**
+     * @return true if the radiology report is voided and false otherwise
+     */
+    public boolean getVoided() {
+        
+        return voided;
+    }
+}
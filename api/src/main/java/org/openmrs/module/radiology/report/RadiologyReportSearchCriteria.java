@@ -11,6 +11,8 @@ package org.openmrs.module.radiology.report;
 
 import java.util.Date;
 
+import org.openmrs.Concept;
+import org.openmrs.Patient;
 import org.openmrs.Provider;
 
 /**
@@ -20,7 +22,10 @@ import org.openmrs.Provider;
  * <ol>
  * <li>Set the various search criteria parameters through the respective methods of the static builder class
  * ({@link Builder#fromDate(Date)}, {@link Builder#toDate(Date)}, {@link Builder#withPrincipalResultsInterpreter(Provider)}, 
- * {@link Builder#includeVoided()} and {@link Builder#withStatus(RadiologyReportStatus)}).</li>
+ * {@link Builder#includeVoided()}, {@link Builder#withStatus(RadiologyReportStatus)}, {@link Builder#withPatient(Patient)},
+ * {@link Builder#withAccessionNumber(String)} and {@link Builder#withProcedure(Concept)}).</li>
+ * <li>Optionally restrict the result to a page through {@link Builder#withFirstResult(Integer)} or
+ * {@link Builder#afterRadiologyReport(RadiologyReport)} and {@link Builder#withMaxResults(Integer)}.</li>
  * <li>Build the {@link RadiolologyReportSearchCriteria} instance with the {@link Builder#build()} method.</li>
  * <li>Get the search parameters through the getter methods (such as {@link #getFromDate()} or {@link #getStatus()}).</li>
  * </ol>
@@ -38,6 +43,18 @@ public class RadiologyReportSearchCriteria {
     
     private final RadiologyReportStatus status;
     
+    private final Patient patient;
+    
+    private final String accessionNumber;
+    
+    private final Concept procedure;
+    
+    private final Integer firstResult;
+    
+    private final Integer maxResults;
+    
+    private final RadiologyReport afterRadiologyReport;
+    
     /**
      * @return the minimum date (inclusive) the report date
      */
@@ -78,6 +95,54 @@ public class RadiologyReportSearchCriteria {
         return status;
     }
     
+    /**
+     * @return the patient of the radiology order of the report
+     */
+    public Patient getPatient() {
+        
+        return patient;
+    }
+    
+    /**
+     * @return the accession number of the radiology order of the report
+     */
+    public String getAccessionNumber() {
+        
+        return accessionNumber;
+    }
+    
+    /**
+     * @return the imaging procedure ordered by the radiology order of the report
+     */
+    public Concept getProcedure() {
+        
+        return procedure;
+    }
+    
+    /**
+     * @return the index of the first radiology report to return
+     */
+    public Integer getFirstResult() {
+        
+        return firstResult;
+    }
+    
+    /**
+     * @return the maximum number of radiology reports to return
+     */
+    public Integer getMaxResults() {
+        
+        return maxResults;
+    }
+    
+    /**
+     * @return the radiology report after which radiology reports are returned
+     */
+    public RadiologyReport getAfterRadiologyReport() {
+        
+        return afterRadiologyReport;
+    }
+    
     public static class Builder {
         
         
@@ -91,6 +156,18 @@ public class RadiologyReportSearchCriteria {
         
         private RadiologyReportStatus status;
         
+        private Patient patient;
+        
+        private String accessionNumber;
+        
+        private Concept procedure;
+        
+        private Integer firstResult;
+        
+        private Integer maxResults;
+        
+        private RadiologyReport afterRadiologyReport;
+        
         /**
          * @param fromDate the minimum date (inclusive) the report date
          * @return this builder instance
@@ -144,6 +221,78 @@ public class RadiologyReportSearchCriteria {
             return this;
         }
         
+        /**
+         * @param patient the patient of the radiology order of the report
+         * @return this builder instance
+         */
+        public Builder withPatient(Patient patient) {
+            
+            this.patient = patient;
+            return this;
+        }
+        
+        /**
+         * @param accessionNumber the accession number of the radiology order of the report
+         * @return this builder instance
+         */
+        public Builder withAccessionNumber(String accessionNumber) {
+            
+            this.accessionNumber = accessionNumber;
+            return this;
+        }
+        
+        /**
+         * @param procedure the imaging procedure ordered by the radiology order of the report
+         * @return this builder instance
+         */
+        public Builder withProcedure(Concept procedure) {
+            
+            this.procedure = procedure;
+            return this;
+        }
+        
+        /**
+         * @param firstResult the index of the first radiology report to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if given negative first result
+         */
+        public Builder withFirstResult(Integer firstResult) {
+            
+            if (firstResult != null && firstResult < 0) {
+                throw new IllegalArgumentException("firstResult cannot be negative");
+            }
+            this.firstResult = firstResult;
+            return this;
+        }
+        
+        /**
+         * @param maxResults the maximum number of radiology reports to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if given max results smaller than 1
+         */
+        public Builder withMaxResults(Integer maxResults) {
+            
+            if (maxResults != null && maxResults < 1) {
+                throw new IllegalArgumentException("maxResults must be greater than 0");
+            }
+            this.maxResults = maxResults;
+            return this;
+        }
+        
+        /**
+         * Only returns radiology reports ordered after given radiology report. Radiology reports are ordered by report
+         * date, with reports without a date first, and report id, so passing the last radiology report of a page
+         * returns the next page without having to skip over the previous ones.
+         * 
+         * @param afterRadiologyReport the radiology report after which radiology reports are returned
+         * @return this builder instance
+         */
+        public Builder afterRadiologyReport(RadiologyReport afterRadiologyReport) {
+            
+            this.afterRadiologyReport = afterRadiologyReport;
+            return this;
+        }
+        
         /**
          * Create an {@link RadiologyReportSearchCriteria} with the properties of this builder instance.
          * 
@@ -152,6 +301,9 @@ public class RadiologyReportSearchCriteria {
          * @should create a new radiology report search criteria instance with principal results interpreter specified if principal results interpreter is set
          * @should create a new radiology report search criteria instance with include voided set to true if voided reports should be included
          * @should create a new radiology report search criteria instance with report status specified if status is set to claimed or completed
+         * @should create a new radiology report search criteria instance with first result and max results if set
+         * @should create a new radiology report search criteria instance with patient, accession number and procedure if set
+         * @should create a new radiology report search criteria instance with after radiology report if set
          */
         public RadiologyReportSearchCriteria build() {
             
@@ -166,5 +318,11 @@ public class RadiologyReportSearchCriteria {
         this.principalResultsInterpreter = builder.principalResultsInterpreter;
         this.includeVoided = builder.inludeVoided;
         this.status = builder.status;
+        this.patient = builder.patient;
+        this.accessionNumber = builder.accessionNumber;
+        this.procedure = builder.procedure;
+        this.firstResult = builder.firstResult;
+        this.maxResults = builder.maxResults;
+        this.afterRadiologyReport = builder.afterRadiologyReport;
     }
 }
@@ -0,0 +1,63 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+/**
+ * A {@link RadiologyReport} matching a full-text query together with its relevance and highlighted text.
+ * 
+ * @see RadiologyReportService#searchRadiologyReports(String, RadiologyReportSearchCriteria)
+ */
+public class RadiologyReportSearchHit {
+    
+    
+    private final RadiologyReport radiologyReport;
+    
+    private final float score;
+    
+    private final String highlight;
+    
+    /**
+     * Creates a search hit.
+     * 
+     * @param radiologyReport the radiology report matching the query
+     * @param score the relevance of the radiology report for the query
+     * @param highlight the fragments of the radiology reports text matching the query
+     */
+    public RadiologyReportSearchHit(RadiologyReport radiologyReport, float score, String highlight) {
+        this.radiologyReport = radiologyReport;
+        this.score = score;
+        this.highlight = highlight;
+    }
+    
+    /**
+     * @return the radiology report matching the query
+     */
+    public RadiologyReport getRadiologyReport() {
+        
+        return radiologyReport;
+    }
+    
+    /**
+     * @return the relevance of the radiology report for the query, higher is more relevant
+     */
+    public float getScore() {
+        
+        return score;
+    }
+    
+    /**
+     * @return the fragments of the radiology reports text matching the query with the matching terms enclosed in
+     *         {@code <mark>} tags, the rest of the text is html escaped
+     */
+    public String getHighlight() {
+        
+        return highlight;
+    }
+}
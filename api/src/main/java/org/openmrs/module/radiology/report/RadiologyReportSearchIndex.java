@@ -0,0 +1,629 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.NumericRangeQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.jsoup.Jsoup;
+import org.openmrs.api.APIException;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.util.OpenmrsUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Embedded Lucene full-text index of completed {@code RadiologyReport's}.
+ * <p>
+ * Each completed, non voided radiology report is indexed with the text of its html body and its order metadata
+ * (accession number, procedure and principal results interpreter). The index lives in the directory
+ * {@code radiology/reportindex} of the application data directory and is opened on first use.
+ * </p>
+ * <p>
+ * Updates are visible to searches right away through near real-time readers of the index writer and are committed
+ * to the directory in the background every {@value #COMMIT_INTERVAL_SECONDS} seconds and when the index is closed.
+ * </p>
+ * <p>
+ * The index is local to the node it runs on and only receives the updates of radiology reports saved on that node.
+ * In a cluster of OpenMRS nodes each node has to be given its own application data directory, and the index of a node
+ * misses the radiology reports saved on other nodes until it is rebuilt. Searches are therefore only complete on a
+ * single node deployment.
+ * </p>
+ * 
+ * @see RadiologyReportService#searchRadiologyReports(String, RadiologyReportSearchCriteria)
+ */
+@Component
+public class RadiologyReportSearchIndex {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(RadiologyReportSearchIndex.class);
+    
+    static final String FIELD_UUID = "uuid";
+    
+    static final String FIELD_PRINCIPAL_RESULTS_INTERPRETER = "principalResultsInterpreter";
+    
+    static final String FIELD_DATE = "date";
+    
+    static final String FIELD_PATIENT = "patient";
+    
+    static final String FIELD_ACCESSION_NUMBER = "accessionNumber";
+    
+    static final String FIELD_PROCEDURE = "procedure";
+    
+    static final String FIELD_BODY = "body";
+    
+    static final String FIELD_METADATA = "metadata";
+    
+    private static final int MAX_HIGHLIGHT_FRAGMENTS = 3;
+    
+    private static final String HIGHLIGHT_FRAGMENT_SEPARATOR = " ... ";
+    
+    static final int COMMIT_INTERVAL_SECONDS = 10;
+    
+    private final Analyzer analyzer = new StandardAnalyzer();
+    
+    private Directory directory;
+    
+    private IndexWriter indexWriter;
+    
+    private SearcherManager searcherManager;
+    
+    private ScheduledExecutorService committer;
+    
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    
+    /**
+     * Held for reading while a radiology report is updated and for writing while a rebuild starts or is rolled back, so
+     * that every update is either committed before a rebuild starts or recorded in {@link #rebuildUpdates}.
+     */
+    private final ReentrantReadWriteLock updateLock = new ReentrantReadWriteLock();
+    
+    /**
+     * The documents of the radiology reports updated during a running rebuild by uuid, null for removed ones, which are
+     * applied again if the rebuild fails since rolling back the index writer discards them. Null if no rebuild runs.
+     */
+    private Map<String, Document> rebuildUpdates;
+    
+    /**
+     * A radiology report matching a query as found in the index.
+     */
+    static class Hit {
+        
+        
+        private final String uuid;
+        
+        private final float score;
+        
+        private final String highlight;
+        
+        Hit(String uuid, float score, String highlight) {
+            this.uuid = uuid;
+            this.score = score;
+            this.highlight = highlight;
+        }
+        
+        String getUuid() {
+            return uuid;
+        }
+        
+        float getScore() {
+            return score;
+        }
+        
+        String getHighlight() {
+            return highlight;
+        }
+    }
+    
+    /**
+     * Set the directory the index is stored in, closing the index if it is open.
+     * 
+     * @param directory the directory the index is stored in
+     */
+    synchronized void setDirectory(Directory directory) {
+        close();
+        this.directory = directory;
+    }
+    
+    /**
+     * Update given radiology report in the index once the current transaction commits, so that the index never contains
+     * changes which are rolled back. The radiology report is updated right away if there is no transaction.
+     * 
+     * @param radiologyReport the radiology report to update
+     * @should add given radiology report if it is completed
+     * @should remove given radiology report if it is voided
+     */
+    void updateRadiologyReportAfterCommit(RadiologyReport radiologyReport) {
+        
+        // the document is created right away since the radiology reports associations cannot be loaded after commit
+        final String uuid = radiologyReport.getUuid();
+        final Document document = isIndexed(radiologyReport) ? createDocument(radiologyReport) : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                
+                
+                @Override
+                public void afterCommit() {
+                    try {
+                        updateDocument(uuid, document);
+                    }
+                    catch (APIException e) {
+                        log.error("Failed to update radiology report " + uuid + " in the search index", e);
+                    }
+                }
+            });
+        } else {
+            updateDocument(uuid, document);
+        }
+    }
+    
+    /**
+     * Replace all radiology reports in the index with the ones loaded by given batch loader. Searches see the previous
+     * index until the rebuild is complete, radiology reports updated during the rebuild are kept even if it fails.
+     * 
+     * @param batchLoader loads the next batch of radiology reports to index after given report id, null is passed for
+     *            the first batch, an empty batch ends the rebuild
+     * @return the number of radiology reports indexed
+     * @should replace all radiology reports in the index with the radiology reports loaded by given batch loader
+     * @should keep radiology reports updated during a rebuild which fails
+     */
+    int rebuild(Function<Integer, List<RadiologyReport>> batchLoader) {
+        
+        int result = 0;
+        rebuildLock.lock();
+        try {
+            final SearcherManager manager = getSearcherManager();
+            final IndexWriter writer = getIndexWriter();
+            startRebuild(writer);
+            writer.deleteAll();
+            List<RadiologyReport> batch = batchLoader.apply(null);
+            while (!batch.isEmpty()) {
+                for (RadiologyReport radiologyReport : batch) {
+                    if (isIndexed(radiologyReport)) {
+                        // updated instead of added since the radiology report might have been updated concurrently
+                        writer.updateDocument(new Term(FIELD_UUID, radiologyReport.getUuid()),
+                            createDocument(radiologyReport));
+                        result++;
+                    }
+                }
+                batch = batchLoader.apply(batch.get(batch.size() - 1)
+                        .getReportId());
+            }
+            writer.commit();
+            manager.maybeRefresh();
+            setRebuildUpdates(null);
+        }
+        catch (IOException | RuntimeException e) {
+            rollbackRebuild();
+            throw e instanceof APIException ? (APIException) e
+                    : new APIException("radiology.RadiologyReport.searchIndex.failed", e);
+        }
+        finally {
+            rebuildLock.unlock();
+        }
+        return result;
+    }
+    
+    /**
+     * Search the index for radiology reports matching given query and the filters of given search criteria, ordered by
+     * decreasing relevance.
+     * 
+     * @param query the query in lucene query syntax
+     * @param searchCriteria the search criteria whose filters and paging parameters are applied
+     * @return the hits of the radiology reports matching given query and search criteria
+     * @throws IllegalArgumentException if given query cannot be parsed
+     * @should return hits ordered by decreasing relevance with highlighted matches
+     * @should return only hits matching the filters of given search criteria
+     */
+    List<Hit> search(String query, RadiologyReportSearchCriteria searchCriteria) {
+        
+        final Query textQuery = parseQuery(query);
+        final int firstResult = searchCriteria.getFirstResult() == null ? 0 : searchCriteria.getFirstResult();
+        final int maxResults = searchCriteria.getMaxResults() == null ? Integer.MAX_VALUE - firstResult
+                : searchCriteria.getMaxResults();
+        final List<Hit> result = new ArrayList<Hit>();
+        try {
+            final SearcherManager manager = getSearcherManager();
+            final IndexSearcher searcher = manager.acquire();
+            try {
+                final int numberOfHits = Math.min(firstResult + maxResults, Math.max(1, searcher.getIndexReader()
+                        .maxDoc()));
+                final ScoreDoc[] scoreDocs =
+                        searcher.search(createQuery(textQuery, searchCriteria), numberOfHits).scoreDocs;
+                final Highlighter highlighter = new Highlighter(new SimpleHTMLFormatter("<mark>", "</mark>"),
+                        new SimpleHTMLEncoder(), new QueryScorer(textQuery, FIELD_BODY));
+                for (int i = firstResult; i < scoreDocs.length; i++) {
+                    final Document document = searcher.doc(scoreDocs[i].doc);
+                    final String[] fragments = highlighter.getBestFragments(analyzer, FIELD_BODY,
+                        document.get(FIELD_BODY), MAX_HIGHLIGHT_FRAGMENTS);
+                    result.add(new Hit(document.get(FIELD_UUID), scoreDocs[i].score,
+                            StringUtils.join(fragments, HIGHLIGHT_FRAGMENT_SEPARATOR)));
+                }
+            }
+            finally {
+                manager.release(searcher);
+            }
+        }
+        catch (IOException | InvalidTokenOffsetsException e) {
+            throw new APIException("radiology.RadiologyReport.searchIndex.failed", e);
+        }
+        return result;
+    }
+    
+    /**
+     * Count the radiology reports in the index matching given query and the filters of given search criteria. The
+     * paging parameters of the search criteria are ignored.
+     * 
+     * @param query the query in lucene query syntax
+     * @param searchCriteria the search criteria whose filters are applied
+     * @return the number of radiology reports matching given query and search criteria
+     * @throws IllegalArgumentException if given query cannot be parsed
+     */
+    int count(String query, RadiologyReportSearchCriteria searchCriteria) {
+        
+        final Query textQuery = parseQuery(query);
+        try {
+            final SearcherManager manager = getSearcherManager();
+            final IndexSearcher searcher = manager.acquire();
+            try {
+                return searcher.count(createQuery(textQuery, searchCriteria));
+            }
+            finally {
+                manager.release(searcher);
+            }
+        }
+        catch (IOException e) {
+            throw new APIException("radiology.RadiologyReport.searchIndex.failed", e);
+        }
+    }
+    
+    /**
+     * Close the index committing all updates, it is opened again on next use.
+     */
+    @PreDestroy
+    synchronized void close() {
+        
+        stopCommitter();
+        try {
+            if (searcherManager != null) {
+                searcherManager.close();
+            }
+            if (indexWriter != null) {
+                indexWriter.close();
+            }
+        }
+        catch (IOException e) {
+            log.error("Failed to close the radiology report search index", e);
+        }
+        finally {
+            searcherManager = null;
+            indexWriter = null;
+        }
+    }
+    
+    private static boolean isIndexed(RadiologyReport radiologyReport) {
+        return radiologyReport.getStatus() == RadiologyReportStatus.COMPLETED && !radiologyReport.getVoided();
+    }
+    
+    private static Document createDocument(RadiologyReport radiologyReport) {
+        
+        final Document result = new Document();
+        result.add(new StringField(FIELD_UUID, radiologyReport.getUuid(), Field.Store.YES));
+        if (radiologyReport.getPrincipalResultsInterpreter() != null) {
+            result.add(new StringField(FIELD_PRINCIPAL_RESULTS_INTERPRETER, radiologyReport.getPrincipalResultsInterpreter()
+                    .getUuid(),
+                    Field.Store.NO));
+        }
+        if (radiologyReport.getDate() != null) {
+            result.add(new LongField(FIELD_DATE, radiologyReport.getDate()
+                    .getTime(),
+                    Field.Store.NO));
+        }
+        final RadiologyOrder radiologyOrder = radiologyReport.getRadiologyOrder();
+        result.add(new StringField(FIELD_PATIENT, radiologyOrder.getPatient()
+                .getUuid(),
+                Field.Store.NO));
+        if (radiologyOrder.getAccessionNumber() != null) {
+            result.add(new StringField(FIELD_ACCESSION_NUMBER, radiologyOrder.getAccessionNumber(), Field.Store.NO));
+        }
+        if (radiologyOrder.getConcept() != null) {
+            result.add(new StringField(FIELD_PROCEDURE, radiologyOrder.getConcept()
+                    .getUuid(),
+                    Field.Store.NO));
+        }
+        final String body = radiologyReport.getBody() == null ? "" : Jsoup.parse(radiologyReport.getBody())
+                .text();
+        result.add(new TextField(FIELD_BODY, body, Field.Store.YES));
+        result.add(new TextField(FIELD_METADATA, getMetadata(radiologyReport), Field.Store.NO));
+        return result;
+    }
+    
+    private static String getMetadata(RadiologyReport radiologyReport) {
+        
+        final List<String> result = new ArrayList<String>();
+        final RadiologyOrder radiologyOrder = radiologyReport.getRadiologyOrder();
+        result.add(radiologyOrder.getAccessionNumber());
+        if (radiologyOrder.getConcept() != null && radiologyOrder.getConcept()
+                .getName() != null) {
+            result.add(radiologyOrder.getConcept()
+                    .getName()
+                    .getName());
+        }
+        if (radiologyReport.getPrincipalResultsInterpreter() != null) {
+            result.add(radiologyReport.getPrincipalResultsInterpreter()
+                    .getName());
+        }
+        return StringUtils.join(result, ' ');
+    }
+    
+    private Query parseQuery(String query) {
+        
+        final QueryParser queryParser = new MultiFieldQueryParser(new String[] { FIELD_BODY, FIELD_METADATA }, analyzer);
+        queryParser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return queryParser.parse(query);
+        }
+        catch (ParseException e) {
+            throw new IllegalArgumentException("query cannot be parsed: " + e.getMessage(), e);
+        }
+    }
+    
+    private static Query createQuery(Query textQuery, RadiologyReportSearchCriteria searchCriteria) {
+        
+        final BooleanQuery.Builder result = new BooleanQuery.Builder().add(textQuery, Occur.MUST);
+        if (searchCriteria.getFromDate() != null || searchCriteria.getToDate() != null) {
+            result.add(NumericRangeQuery.newLongRange(FIELD_DATE,
+                searchCriteria.getFromDate() == null ? null : searchCriteria.getFromDate()
+                        .getTime(),
+                searchCriteria.getToDate() == null ? null : searchCriteria.getToDate()
+                        .getTime(),
+                true, true), Occur.FILTER);
+        }
+        if (searchCriteria.getPrincipalResultsInterpreter() != null) {
+            result.add(new TermQuery(new Term(FIELD_PRINCIPAL_RESULTS_INTERPRETER,
+                    searchCriteria.getPrincipalResultsInterpreter()
+                            .getUuid())),
+                Occur.FILTER);
+        }
+        if (searchCriteria.getPatient() != null) {
+            result.add(new TermQuery(new Term(FIELD_PATIENT, searchCriteria.getPatient()
+                    .getUuid())),
+                Occur.FILTER);
+        }
+        if (StringUtils.isNotBlank(searchCriteria.getAccessionNumber())) {
+            result.add(new TermQuery(new Term(FIELD_ACCESSION_NUMBER, searchCriteria.getAccessionNumber())), Occur.FILTER);
+        }
+        if (searchCriteria.getProcedure() != null) {
+            result.add(new TermQuery(new Term(FIELD_PROCEDURE, searchCriteria.getProcedure()
+                    .getUuid())),
+                Occur.FILTER);
+        }
+        return result.build();
+    }
+    
+    private void updateDocument(String uuid, Document document) {
+        
+        updateLock.readLock()
+                .lock();
+        try {
+            final SearcherManager manager = getSearcherManager();
+            final IndexWriter writer = getIndexWriter();
+            if (rebuildUpdates != null) {
+                rebuildUpdates.put(uuid, document);
+            }
+            if (document == null) {
+                writer.deleteDocuments(new Term(FIELD_UUID, uuid));
+            } else {
+                writer.updateDocument(new Term(FIELD_UUID, uuid), document);
+            }
+            // searches keep seeing the previous index until a running rebuild refreshes them once it is complete
+            if (!rebuildLock.isLocked()) {
+                manager.maybeRefresh();
+            }
+        }
+        catch (IOException | AlreadyClosedException e) {
+            throw new APIException("radiology.RadiologyReport.searchIndex.failed", e);
+        }
+        finally {
+            updateLock.readLock()
+                    .unlock();
+        }
+    }
+    
+    /**
+     * Commit the updates made before the rebuild, so that rolling back a failed rebuild keeps them, and start recording
+     * the updates made during the rebuild.
+     * 
+     * @param writer the index writer of the rebuild
+     * @throws IOException if the index cannot be committed
+     */
+    private void startRebuild(IndexWriter writer) throws IOException {
+        
+        updateLock.writeLock()
+                .lock();
+        try {
+            writer.commit();
+            rebuildUpdates = Collections.synchronizedMap(new LinkedHashMap<String, Document>());
+        }
+        finally {
+            updateLock.writeLock()
+                    .unlock();
+        }
+    }
+    
+    private void setRebuildUpdates(Map<String, Document> updates) {
+        
+        updateLock.writeLock()
+                .lock();
+        try {
+            rebuildUpdates = updates;
+        }
+        finally {
+            updateLock.writeLock()
+                    .unlock();
+        }
+    }
+    
+    /**
+     * Roll back the index to its last commit, discarding the deletions and additions of a failed rebuild, and apply the
+     * updates made during the rebuild again. Updates wait until they are applied so that none of them is overwritten
+     * by an older one.
+     */
+    private void rollbackRebuild() {
+        
+        updateLock.writeLock()
+                .lock();
+        try {
+            rollback();
+            final Map<String, Document> updates = rebuildUpdates;
+            rebuildUpdates = null;
+            if (updates != null && !updates.isEmpty()) {
+                for (Map.Entry<String, Document> update : updates.entrySet()) {
+                    updateDocument(update.getKey(), update.getValue());
+                }
+                getSearcherManager().maybeRefresh();
+            }
+        }
+        catch (IOException | APIException e) {
+            log.error("Failed to apply the updates made during a failed rebuild of the radiology report search index",
+                e);
+        }
+        finally {
+            updateLock.writeLock()
+                    .unlock();
+        }
+    }
+    
+    /**
+     * Commit the updates of the index to its directory unless the index is being rebuilt, the rebuild commits once it
+     * is complete.
+     */
+    void commit() {
+        
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            final IndexWriter writer;
+            synchronized (this) {
+                writer = indexWriter;
+            }
+            if (writer != null && writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        }
+        catch (IOException | AlreadyClosedException e) {
+            log.error("Failed to commit the radiology report search index", e);
+        }
+        finally {
+            rebuildLock.unlock();
+        }
+    }
+    
+    private synchronized void rollback() {
+        
+        stopCommitter();
+        try {
+            if (searcherManager != null) {
+                searcherManager.close();
+            }
+            if (indexWriter != null) {
+                indexWriter.rollback();
+            }
+        }
+        catch (IOException e) {
+            log.error("Failed to roll back the radiology report search index", e);
+        }
+        finally {
+            searcherManager = null;
+            indexWriter = null;
+        }
+    }
+    
+    private synchronized IndexWriter getIndexWriter() throws IOException {
+        
+        getSearcherManager();
+        return indexWriter;
+    }
+    
+    private synchronized SearcherManager getSearcherManager() throws IOException {
+        
+        if (searcherManager == null) {
+            if (directory == null) {
+                directory = FSDirectory.open(Paths.get(OpenmrsUtil.getApplicationDataDirectory(), "radiology",
+                    "reportindex"));
+            }
+            indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            searcherManager = new SearcherManager(indexWriter, true, null);
+            committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread result = new Thread(runnable, "radiology-report-search-index-committer");
+                result.setDaemon(true);
+                return result;
+            });
+            committer.scheduleWithFixedDelay(this::commit, COMMIT_INTERVAL_SECONDS, COMMIT_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+        }
+        return searcherManager;
+    }
+    
+    private synchronized void stopCommitter() {
+        
+        if (committer != null) {
+            committer.shutdown();
+            committer = null;
+        }
+    }
+}
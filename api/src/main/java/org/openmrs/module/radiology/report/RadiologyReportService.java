@@ -10,6 +10,7 @@
 package org.openmrs.module.radiology.report;
 
 import java.util.List;
+import java.util.Map;
 
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.APIException;
@@ -47,6 +48,8 @@ public interface RadiologyReportService extends OpenmrsService {
      * @throws APIException if RadiologyStudy of given radiologyOrder is not completed
      * @throws APIException if given radiologyOrder has a claimed RadiologyReport
      * @throws APIException if given radiologyOrder has a completed RadiologyReport
+     * @throws RadiologyReportConflictException if another active RadiologyReport was created concurrently for given
+     *         radiologyOrder
      * @should create a radiology order with report status claimed given a completed radiology order
      * @should throw illegal argument exception if given null
      * @should throw api exception if given radiology order is not completed
@@ -65,15 +68,20 @@ public interface RadiologyReportService extends OpenmrsService {
      * @return the saved radiology report
      * @throws IllegalArgumentException if given null
      * @throws IllegalArgumentException if radiologyReport reportId is null
+     * @throws IllegalArgumentException if radiologyReport version is null
      * @throws APIException if radiologyReport is completed
      * @throws APIException if radiologyReport is voided
      * @throws APIException if radiologyReport.radiologyOrder has a completed RadiologyReport
+     * @throws RadiologyReportConflictException if radiologyReport was modified since it was read
      * @should save existing radiology report to the database and return it
      * @should throw illegal argument exception if given null
      * @should throw illegal argument exception if given radiology report with reportId null
+     * @should throw illegal argument exception if given radiology report with version null
      * @should throw api exception if radiology report is completed
      * @should throw api exception if radiology report is voided
      * @should throw api exception if given radiology reports order has a completed radiology report
+     * @should throw radiology report conflict exception if given radiology report was modified since it was read
+     * @should store the body compressed if compress report bodies is enabled
      */
     @Authorized(RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS)
     public RadiologyReport saveRadiologyReportDraft(RadiologyReport radiologyReport);
@@ -86,11 +94,14 @@ public interface RadiologyReportService extends OpenmrsService {
      * @return the voided radiology report
      * @throws IllegalArgumentException if given null
      * @throws IllegalArgumentException if radiologyReport reportId is null
+     * @throws IllegalArgumentException if radiologyReport version is null
      * @throws IllegalArgumentException if voidReason is null or contains only whitespaces
      * @throws APIException if radiologyReport is completed
+     * @throws RadiologyReportConflictException if radiologyReport was modified since it was read
      * @should void the given radiology report
      * @should throw illegal argument exception if given radiology report is null
      * @should throw illegal argument exception if given radiology report with reportId null
+     * @should throw illegal argument exception if given radiology report with version null
      * @should throw illegal argument exception if given void reason is null or contains only whitespaces
      * @should throw api exception if radiology report is completed
      */
@@ -104,18 +115,22 @@ public interface RadiologyReportService extends OpenmrsService {
      * @return the saved radiology report
      * @throws IllegalArgumentException if radiologyReport is null
      * @throws IllegalArgumentException if radiologyReport reportId is null
+     * @throws IllegalArgumentException if radiologyReport version is null
      * @throws IllegalArgumentException if radiologyReport status is null
      * @throws APIException if radiologyReport is completed
      * @throws APIException if radiologyReport is voided
      * @throws APIException if radiologyReport is not valid
+     * @throws RadiologyReportConflictException if radiologyReport was modified since it was read
      * @should set the report date of the radiology report to the day the radiology report was completed
      * @should set the radiology report status to complete
      * @should throw illegal argument exception if given radiology report is null
      * @should throw illegal argument exception if given radiology report with reportId null
+     * @should throw illegal argument exception if given radiology report with version null
      * @should throw illegal argument exception if given radiology report with status null
      * @should throw api exception if radiology report is completed
      * @should throw api exception if radiology report is voided
      * @should throw api exception if radiology report is not valid
+     * @should record a reported lifecycle event of the radiology order of given radiology report
      */
     @Authorized(RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS)
     public RadiologyReport saveRadiologyReport(RadiologyReport radiologyReport);
@@ -186,12 +201,29 @@ public interface RadiologyReportService extends OpenmrsService {
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
     public RadiologyReport getActiveRadiologyReportByRadiologyOrder(RadiologyOrder radiologyOrder);
     
+    /**
+     * Get the active (can be a non-voided draft or completed) {@code RadiologyReport's} for a list of
+     * {@code RadiologyOrder's} at once.
+     *
+     * @param radiologyOrders the radiology orders for which the active reports should be returned
+     * @return the active radiology reports mapped by their radiology order, radiology orders without an active report
+     *         are not contained
+     * @throws IllegalArgumentException if given null
+     * @should return the active radiology reports of given radiology orders mapped by their radiology order
+     * @should not contain radiology orders which are only associated with a voided report
+     * @should return an empty map if given an empty list
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public Map<RadiologyOrder, RadiologyReport>
+            getActiveRadiologyReportsByRadiologyOrders(List<RadiologyOrder> radiologyOrders);
+    
     /**
      * Get all {@code RadiologyReport's} matching a variety of (nullable) criteria.
      * Each extra value for a parameter that is provided acts as an "and" and will reduce the number of results returned
      *
      * @param radiologyReportSearchCriteria the object containing search parameters
-     * @return the radiology reports matching given criteria ordered by increasing report date
+     * @return the radiology reports matching given criteria ordered by increasing report date and report id
      * @throws IllegalArgumentException if given null
      * @should return all radiology reports (including voided) matching the search query if include voided is set
      * @should return all radiology reports within given date range if date to and date from are specified
@@ -203,8 +235,120 @@ public interface RadiologyReportService extends OpenmrsService {
      * @should return empty search result if no report exists for principal results interpreter
      * @should return all radiology reports with given status
      * @should return empty search result if no report exists for given status
+     * @should return all radiology reports of given patient
+     * @should return all radiology reports with given accession number
+     * @should return all radiology reports of given procedure
+     * @should return the radiology reports ordered after given after radiology report
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
     public List<RadiologyReport> getRadiologyReports(RadiologyReportSearchCriteria radiologyReportSearchCriteria);
+    
+    /**
+     * Get the list items of the {@code RadiologyReport's} matching a variety of (nullable) criteria.
+     * <p>
+     * Applies the same criteria as {@link #getRadiologyReports(RadiologyReportSearchCriteria)} but only selects what a
+     * listing of reports displays, leaving out the report body.
+     * </p>
+     *
+     * @param radiologyReportSearchCriteria the object containing search parameters
+     * @return the list items of the radiology reports matching given criteria ordered by increasing report date and
+     *         report id
+     * @throws IllegalArgumentException if given null
+     * @should return list items of all radiology reports matching given criteria
+     * @should return list items with the principal results interpreters name and the radiology reports order
+     * @should return list items of voided radiology reports if include voided is set
+     * @should return list items of the radiology reports ordered after given after radiology report
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public List<RadiologyReportListItem>
+            getRadiologyReportListItems(RadiologyReportSearchCriteria radiologyReportSearchCriteria);
+    
+    /**
+     * Count the {@code RadiologyReport's} matching a variety of (nullable) criteria.
+     * The paging parameters first result, max results and after radiology report of the criteria are ignored.
+     *
+     * @param radiologyReportSearchCriteria the object containing search parameters
+     * @return the number of radiology reports matching given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the number of radiology reports matching given criteria
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public long countRadiologyReports(RadiologyReportSearchCriteria radiologyReportSearchCriteria);
+    
+    /**
+     * Compress the bodies of {@code RadiologyReport's} which are stored uncompressed.
+     * <p>
+     * At most given number of radiology reports are compressed, in increasing order of their report id starting after
+     * given report id, so that all radiology reports can be compressed in batches each running in its own transaction.
+     * A radiology report which is changed while its body is compressed is skipped.
+     * </p>
+     *
+     * @param afterReportId the report id after which to start or null to start with the first radiology report
+     * @param maxResults the maximum number of radiology reports to compress
+     * @return the report id of the last radiology report processed or null if there is none left to compress
+     * @throws IllegalArgumentException if given max results is not positive
+     * @should compress the bodies of radiology reports stored uncompressed
+     * @should return null if there is no radiology report left to compress
+     * @should throw illegal argument exception if given max results is not positive
+     */
+    @Authorized(RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS)
+    public Integer compressRadiologyReportBodies(Integer afterReportId, int maxResults);
+    
+    /**
+     * Search the completed {@code RadiologyReport's} for given full-text query.
+     * <p>
+     * The query is matched against the text of the report body and the order metadata (accession number, procedure and
+     * principal results interpreter) of the completed, non voided radiology reports in the search index. The from date,
+     * to date and principal results interpreter filters and the paging parameters of given criteria are applied, only
+     * completed radiology reports are found so a status other than completed yields no hits. The patient, accession
+     * number and procedure filters are applied as well, the after radiology report of given criteria is ignored since
+     * hits are ordered by relevance.
+     * </p>
+     *
+     * @param query the full-text query in lucene query syntax, terms are combined with and by default
+     * @param radiologyReportSearchCriteria the object containing search parameters
+     * @return the hits of the radiology reports matching given query and criteria ordered by decreasing relevance
+     * @throws IllegalArgumentException if given query is blank or cannot be parsed
+     * @throws IllegalArgumentException if given criteria is null
+     * @should return hits of completed radiology reports matching given query ordered by relevance
+     * @should return hits with the matching terms highlighted
+     * @should return hits matching the order metadata of radiology reports
+     * @should return no hits if given criteria has a status other than completed
+     * @should throw illegal argument exception if given query is blank
+     * @should throw illegal argument exception if given null criteria
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public List<RadiologyReportSearchHit> searchRadiologyReports(String query,
+            RadiologyReportSearchCriteria radiologyReportSearchCriteria);
+    
+    /**
+     * Count the completed {@code RadiologyReport's} matching given full-text query.
+     * The paging parameters first result and max results of the criteria are ignored.
+     *
+     * @param query the full-text query in lucene query syntax
+     * @param radiologyReportSearchCriteria the object containing search parameters
+     * @return the number of radiology reports matching given query and criteria
+     * @throws IllegalArgumentException if given query is blank or cannot be parsed
+     * @throws IllegalArgumentException if given criteria is null
+     * @see #searchRadiologyReports(String, RadiologyReportSearchCriteria)
+     * @should return the number of radiology reports matching given query and criteria
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public long countRadiologyReportSearchHits(String query, RadiologyReportSearchCriteria radiologyReportSearchCriteria);
+    
+    /**
+     * Rebuild the full-text search index from all completed, non voided {@code RadiologyReport's}.
+     * <p>
+     * Completed and voided radiology reports are added to and removed from the index as they are saved, a rebuild is
+     * only needed if the index was lost or got out of sync.
+     * </p>
+     *
+     * @return the number of radiology reports indexed
+     * @should index all completed non voided radiology reports
+     */
+    @Authorized(RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS)
+    public int rebuildRadiologyReportSearchIndex();
 }
@@ -9,13 +9,19 @@
  */
 package org.openmrs.module.radiology.report;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.api.APIException;
 import org.openmrs.api.impl.BaseOpenmrsService;
+import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.turnaround.RadiologyLifecycleEventType;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,18 +32,38 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
     
     private static final Logger log = LoggerFactory.getLogger(RadiologyReportServiceImpl.class);
     
+    private static final int SEARCH_INDEX_REBUILD_BATCH_SIZE = 100;
+    
     private RadiologyReportDAO radiologyReportDAO;
     
+    private RadiologyProperties radiologyProperties;
+    
+    private RadiologyReportSearchIndex radiologyReportSearchIndex;
+    
+    private RadiologyTurnaroundService radiologyTurnaroundService;
+    
     public void setRadiologyReportDAO(RadiologyReportDAO radiologyReportDAO) {
         this.radiologyReportDAO = radiologyReportDAO;
     }
     
+    public void setRadiologyProperties(RadiologyProperties radiologyProperties) {
+        this.radiologyProperties = radiologyProperties;
+    }
+    
+    public void setRadiologyReportSearchIndex(RadiologyReportSearchIndex radiologyReportSearchIndex) {
+        this.radiologyReportSearchIndex = radiologyReportSearchIndex;
+    }
+    
+    public void setRadiologyTurnaroundService(RadiologyTurnaroundService radiologyTurnaroundService) {
+        this.radiologyTurnaroundService = radiologyTurnaroundService;
+    }
+    
     /**
      * @see RadiologyReportService#createRadiologyReport(RadiologyOrder)
      */
     @Override
     @Transactional
-    public synchronized RadiologyReport createRadiologyReport(RadiologyOrder radiologyOrder) {
+    public RadiologyReport createRadiologyReport(RadiologyOrder radiologyOrder) {
         
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
@@ -60,7 +86,7 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
      */
     @Override
     @Transactional
-    public synchronized RadiologyReport saveRadiologyReportDraft(RadiologyReport radiologyReport) {
+    public RadiologyReport saveRadiologyReportDraft(RadiologyReport radiologyReport) {
         
         if (radiologyReport == null) {
             throw new IllegalArgumentException("radiologyReport cannot be null");
@@ -68,6 +94,9 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyReport.getReportId() == null) {
             throw new IllegalArgumentException("radiologyReport.reportId cannot be null");
         }
+        if (radiologyReport.getVersion() == null) {
+            throw new IllegalArgumentException("radiologyReport.version cannot be null");
+        }
         if (radiologyReport.getStatus() == RadiologyReportStatus.COMPLETED) {
             throw new APIException("radiology.RadiologyReport.cannot.saveDraft.already.completed");
         }
@@ -77,6 +106,7 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyReportDAO.hasRadiologyOrderCompletedRadiologyReport(radiologyReport.getRadiologyOrder())) {
             throw new APIException("radiology.RadiologyReport.cannot.saveDraft.already.reported");
         }
+        radiologyReport.setBodyCompressed(radiologyProperties.getCompressReportBodies());
         return radiologyReportDAO.saveRadiologyReport(radiologyReport);
     }
     
@@ -93,13 +123,18 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyReport.getReportId() == null) {
             throw new IllegalArgumentException("radiologyReport.reportId cannot be null");
         }
+        if (radiologyReport.getVersion() == null) {
+            throw new IllegalArgumentException("radiologyReport.version cannot be null");
+        }
         if (StringUtils.isBlank(voidReason)) {
             throw new IllegalArgumentException("voidReason cannot be null or empty");
         }
         if (radiologyReport.getStatus() == RadiologyReportStatus.COMPLETED) {
             throw new APIException("radiology.RadiologyReport.cannot.void.completed");
         }
-        return radiologyReportDAO.saveRadiologyReport(radiologyReport);
+        final RadiologyReport result = radiologyReportDAO.saveRadiologyReport(radiologyReport);
+        radiologyReportSearchIndex.updateRadiologyReportAfterCommit(result);
+        return result;
     }
     
     /**
@@ -107,7 +142,7 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
      */
     @Override
     @Transactional
-    public synchronized RadiologyReport saveRadiologyReport(RadiologyReport radiologyReport) {
+    public RadiologyReport saveRadiologyReport(RadiologyReport radiologyReport) {
         
         if (radiologyReport == null) {
             throw new IllegalArgumentException("radiologyReport cannot be null");
@@ -115,6 +150,9 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyReport.getReportId() == null) {
             throw new IllegalArgumentException("radiologyReport.reportId cannot be null");
         }
+        if (radiologyReport.getVersion() == null) {
+            throw new IllegalArgumentException("radiologyReport.version cannot be null");
+        }
         if (radiologyReport.getStatus() == null) {
             throw new IllegalArgumentException("radiologyReport.status cannot be null");
         }
@@ -126,7 +164,12 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         }
         radiologyReport.setDate(new Date());
         radiologyReport.setStatus(RadiologyReportStatus.COMPLETED);
-        return radiologyReportDAO.saveRadiologyReport(radiologyReport);
+        radiologyReport.setBodyCompressed(radiologyProperties.getCompressReportBodies());
+        final RadiologyReport result = radiologyReportDAO.saveRadiologyReport(radiologyReport);
+        radiologyReportSearchIndex.updateRadiologyReportAfterCommit(result);
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(result.getRadiologyOrder(),
+            RadiologyLifecycleEventType.REPORTED, result.getDate(), result.getPrincipalResultsInterpreter());
+        return result;
     }
     
     /**
@@ -186,13 +229,28 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
         }
-        if (hasRadiologyOrderCompletedRadiologyReport(radiologyOrder)) {
-            return radiologyReportDAO.getActiveRadiologyReportByRadiologyOrder(radiologyOrder);
+        return radiologyReportDAO.getActiveRadiologyReportByRadiologyOrder(radiologyOrder);
+    }
+    
+    /**
+     * @see RadiologyReportService#getActiveRadiologyReportsByRadiologyOrders(List)
+     */
+    @Override
+    public Map<RadiologyOrder, RadiologyReport>
+            getActiveRadiologyReportsByRadiologyOrders(List<RadiologyOrder> radiologyOrders) {
+        
+        if (radiologyOrders == null) {
+            throw new IllegalArgumentException("radiologyOrders cannot be null");
+        }
+        final Map<RadiologyOrder, RadiologyReport> result = new HashMap<RadiologyOrder, RadiologyReport>();
+        if (radiologyOrders.isEmpty()) {
+            return result;
         }
-        if (hasRadiologyOrderClaimedRadiologyReport(radiologyOrder)) {
-            return radiologyReportDAO.getActiveRadiologyReportByRadiologyOrder(radiologyOrder);
+        for (RadiologyReport radiologyReport : radiologyReportDAO
+                .getActiveRadiologyReportsByRadiologyOrders(radiologyOrders)) {
+            result.put(radiologyReport.getRadiologyOrder(), radiologyReport);
         }
-        return null;
+        return result;
     }
     
     /**
@@ -206,4 +264,126 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         }
         return radiologyReportDAO.getRadiologyReports(radiologyReportSearchCriteria);
     }
+    
+    /**
+     * @see RadiologyReportService#getRadiologyReportListItems(RadiologyReportSearchCriteria)
+     */
+    @Override
+    public List<RadiologyReportListItem>
+            getRadiologyReportListItems(RadiologyReportSearchCriteria radiologyReportSearchCriteria) {
+        
+        if (radiologyReportSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyReportSearchCriteria cannot be null");
+        }
+        return radiologyReportDAO.getRadiologyReportListItems(radiologyReportSearchCriteria);
+    }
+    
+    /**
+     * @see RadiologyReportService#countRadiologyReports(RadiologyReportSearchCriteria)
+     */
+    @Override
+    public long countRadiologyReports(RadiologyReportSearchCriteria radiologyReportSearchCriteria) {
+        
+        if (radiologyReportSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyReportSearchCriteria cannot be null");
+        }
+        return radiologyReportDAO.countRadiologyReports(radiologyReportSearchCriteria);
+    }
+    
+    /**
+     * @see RadiologyReportService#compressRadiologyReportBodies(Integer, int)
+     */
+    @Override
+    @Transactional
+    public Integer compressRadiologyReportBodies(Integer afterReportId, int maxResults) {
+        
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("maxResults must be positive");
+        }
+        return radiologyReportDAO.compressRadiologyReportBodies(afterReportId, maxResults);
+    }
+    
+    /**
+     * @see RadiologyReportService#searchRadiologyReports(String, RadiologyReportSearchCriteria)
+     */
+    @Override
+    public List<RadiologyReportSearchHit> searchRadiologyReports(String query,
+            RadiologyReportSearchCriteria radiologyReportSearchCriteria) {
+        
+        if (StringUtils.isBlank(query)) {
+            throw new IllegalArgumentException("query cannot be empty");
+        }
+        if (radiologyReportSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyReportSearchCriteria cannot be null");
+        }
+        final List<RadiologyReportSearchHit> result = new ArrayList<RadiologyReportSearchHit>();
+        if (!isCompletedStatus(radiologyReportSearchCriteria)) {
+            return result;
+        }
+        
+        final List<RadiologyReportSearchIndex.Hit> hits =
+                radiologyReportSearchIndex.search(query, radiologyReportSearchCriteria);
+        final List<String> uuids = new ArrayList<String>(hits.size());
+        for (RadiologyReportSearchIndex.Hit hit : hits) {
+            uuids.add(hit.getUuid());
+        }
+        final Map<String, RadiologyReport> radiologyReports = new HashMap<String, RadiologyReport>();
+        for (RadiologyReport radiologyReport : radiologyReportDAO.getRadiologyReportsByUuids(uuids)) {
+            radiologyReports.put(radiologyReport.getUuid(), radiologyReport);
+        }
+        for (RadiologyReportSearchIndex.Hit hit : hits) {
+            final RadiologyReport radiologyReport = radiologyReports.get(hit.getUuid());
+            // the index is updated after commit, skip radiology reports which were purged in the meantime
+            if (radiologyReport != null) {
+                result.add(new RadiologyReportSearchHit(radiologyReport, hit.getScore(), hit.getHighlight()));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * @see RadiologyReportService#countRadiologyReportSearchHits(String, RadiologyReportSearchCriteria)
+     */
+    @Override
+    public long countRadiologyReportSearchHits(String query, RadiologyReportSearchCriteria radiologyReportSearchCriteria) {
+        
+        if (StringUtils.isBlank(query)) {
+            throw new IllegalArgumentException("query cannot be empty");
+        }
+        if (radiologyReportSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyReportSearchCriteria cannot be null");
+        }
+        if (!isCompletedStatus(radiologyReportSearchCriteria)) {
+            return 0;
+        }
+        return radiologyReportSearchIndex.count(query, radiologyReportSearchCriteria);
+    }
+    
+    /**
+     * @see RadiologyReportService#rebuildRadiologyReportSearchIndex()
+     */
+    @Override
+    public int rebuildRadiologyReportSearchIndex() {
+        
+        // the previous batch is evicted once it is indexed, instead of clearing the session of the caller
+        final List<RadiologyReport> previousBatch = new ArrayList<RadiologyReport>();
+        return radiologyReportSearchIndex.rebuild(afterReportId -> {
+            radiologyReportDAO.evictRadiologyReports(previousBatch);
+            previousBatch.clear();
+            previousBatch.addAll(radiologyReportDAO.getCompletedRadiologyReports(afterReportId,
+                SEARCH_INDEX_REBUILD_BATCH_SIZE));
+            return new ArrayList<RadiologyReport>(previousBatch);
+        });
+    }
+    
+    /**
+     * Check if given search criteria matches completed radiology reports, which are the only ones in the search index.
+     * 
+     * @param radiologyReportSearchCriteria the search criteria to check
+     * @return true if given search criteria has no status or status completed and false otherwise
+     */
+    private static boolean isCompletedStatus(RadiologyReportSearchCriteria radiologyReportSearchCriteria) {
+        return radiologyReportSearchCriteria.getStatus() == null
+                || radiologyReportSearchCriteria.getStatus() == RadiologyReportStatus.COMPLETED;
+    }
 }
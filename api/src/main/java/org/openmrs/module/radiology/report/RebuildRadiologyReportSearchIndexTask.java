@@ -0,0 +1,49 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.scheduler.tasks.AbstractTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduler task rebuilding the full-text search index of {@code RadiologyReport's}.
+ * 
+ * @see RadiologyReportService#rebuildRadiologyReportSearchIndex()
+ */
+public class RebuildRadiologyReportSearchIndexTask extends AbstractTask {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(RebuildRadiologyReportSearchIndexTask.class);
+    
+    /**
+     * @see org.openmrs.scheduler.tasks.AbstractTask#execute()
+     */
+    @Override
+    public void execute() {
+        
+        if (isExecuting) {
+            return;
+        }
+        startExecuting();
+        try {
+            final int indexed = Context.getService(RadiologyReportService.class)
+                    .rebuildRadiologyReportSearchIndex();
+            log.info("Rebuilt the radiology report search index with {} radiology reports", indexed);
+        }
+        catch (Exception e) {
+            log.error("Failed to rebuild the radiology report search index", e);
+        }
+        finally {
+            stopExecuting();
+        }
+    }
+}
@@ -9,30 +9,21 @@
  */
 package org.openmrs.module.radiology.report.template;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.openmrs.ConceptReferenceTerm;
 import org.openmrs.ConceptSource;
-import org.openmrs.api.APIException;
-import org.openmrs.api.ConceptService;
 import org.openmrs.api.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 /**
  * A parser to parse MRRT report templates and and return an MrrtReportTemplate object.
@@ -74,30 +65,47 @@ class DefaultMrrtReportTemplateFileParser implements MrrtReportTemplateFileParse
     @Override
     public MrrtReportTemplate parse(String mrrtTemplate) throws IOException {
         
-        validator.validate(mrrtTemplate);
+        return parse(validate(mrrtTemplate));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileParser#validate(String)
+     */
+    @Override
+    public Document validate(String mrrtTemplate) throws IOException {
+        
+        return validator.validate(mrrtTemplate);
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileParser#parse(Document)
+     */
+    @Override
+    public MrrtReportTemplate parse(Document mrrtTemplateDocument) {
         
-        final Document doc = Jsoup.parse(mrrtTemplate, "");
         final MrrtReportTemplate result = new MrrtReportTemplate();
-        initializeTemplate(result, doc);
-        try {
-            addTermsToTemplate(result, doc.getElementsByTag("script")
-                    .get(0)
-                    .toString());
-        }
-        catch (ParserConfigurationException | SAXException e) {
-            throw new APIException("radiology.report.template.parser.error", null, e);
-        }
+        initializeTemplate(result, mrrtTemplateDocument);
+        addTermsToTemplate(result, (Element) mrrtTemplateDocument.getElementsByTagName("script")
+                .item(0));
         return result;
     }
     
     private final void initializeTemplate(MrrtReportTemplate template, Document doc) {
-        final Elements metaTags = doc.getElementsByTag("meta");
+        final NodeList metaTags = doc.getElementsByTagName("meta");
         
-        template.setPath(doc.baseUri());
-        template.setCharset(metaTags.attr("charset"));
-        for (Element metaTag : metaTags) {
-            final String name = metaTag.attr("name");
-            final String content = metaTag.attr("content");
+        template.setPath("");
+        template.setCharset("");
+        for (int i = 0; i < metaTags.getLength(); i++) {
+            final Element metaTag = (Element) metaTags.item(i);
+            if (metaTag.hasAttribute("charset")) {
+                template.setCharset(metaTag.getAttribute("charset"));
+                break;
+            }
+        }
+        for (int i = 0; i < metaTags.getLength(); i++) {
+            final Element metaTag = (Element) metaTags.item(i);
+            final String name = metaTag.getAttribute("name");
+            final String content = metaTag.getAttribute("content");
             
             switch (name) {
                 case DCTERMS_TITLE:
@@ -136,48 +144,49 @@ class DefaultMrrtReportTemplateFileParser implements MrrtReportTemplateFileParse
         }
     }
     
-    private final void addTermsToTemplate(MrrtReportTemplate template, String script)
-            throws ParserConfigurationException, SAXException, IOException {
+    private final void addTermsToTemplate(MrrtReportTemplate template, Element script) {
         
-        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        final DocumentBuilder builder = factory.newDocumentBuilder();
-        try (InputStream in = new ByteArrayInputStream(script.getBytes())) {
-            final org.w3c.dom.Document scriptPartAsDocument = builder.parse(in);
-            scriptPartAsDocument.getDocumentElement()
-                    .normalize();
-            final NodeList terms = scriptPartAsDocument.getElementsByTagName("term");
-            final ConceptService conceptService = Context.getService(ConceptService.class);
-            final Set<ConceptReferenceTerm> referenceTerms = new HashSet<>();
-            
-            for (int i = 0; i < terms.getLength(); i++) {
-                final org.w3c.dom.Element termElement = (org.w3c.dom.Element) terms.item(i);
-                final org.w3c.dom.Element codeElement = (org.w3c.dom.Element) termElement.getElementsByTagName("code")
-                        .item(0);
-                final ConceptSource conceptSource =
-                        getConceptSourceByName(codeElement.getAttribute("scheme"), conceptService);
-                if (conceptSource != null) {
-                    final ConceptReferenceTerm referenceTerm =
-                            conceptService.getConceptReferenceTermByCode(codeElement.getAttribute("value"), conceptSource);
-                    if (referenceTerm != null) {
-                        referenceTerms.add(referenceTerm);
-                    }
-                }
-            }
-            if (!referenceTerms.isEmpty()) {
-                template.setTerms(referenceTerms);
+        final NodeList terms = script.getElementsByTagName("term");
+        if (terms.getLength() == 0) {
+            return;
+        }
+        
+        final Map<String, ConceptSource> conceptSourcesByName = getConceptSourcesByName();
+        final Map<ConceptSource, Set<String>> codesByConceptSource = new LinkedHashMap<>();
+        for (int i = 0; i < terms.getLength(); i++) {
+            final Element termElement = (Element) terms.item(i);
+            final Element codeElement = (Element) termElement.getElementsByTagName("code")
+                    .item(0);
+            final ConceptSource conceptSource = conceptSourcesByName.get(codeElement.getAttribute("scheme"));
+            if (conceptSource != null) {
+                codesByConceptSource.computeIfAbsent(conceptSource, source -> new HashSet<>())
+                        .add(codeElement.getAttribute("value"));
             }
         }
+        
+        final MrrtReportTemplateService mrrtReportTemplateService = Context.getService(MrrtReportTemplateService.class);
+        final Set<ConceptReferenceTerm> referenceTerms = new HashSet<>();
+        for (Map.Entry<ConceptSource, Set<String>> entry : codesByConceptSource.entrySet()) {
+            referenceTerms.addAll(mrrtReportTemplateService.getConceptReferenceTerms(entry.getKey(), entry.getValue()));
+        }
+        if (!referenceTerms.isEmpty()) {
+            template.setTerms(referenceTerms);
+        }
     }
     
-    private final ConceptSource getConceptSourceByName(String name, ConceptService conceptService) {
+    /**
+     * Get all unretired concept sources by their name ignoring the case of the name. If names only differ in case the
+     * first concept source wins.
+     * 
+     * @return the concept sources by their case insensitive name
+     */
+    private final Map<String, ConceptSource> getConceptSourcesByName() {
         
-        final List<ConceptSource> conceptSources = conceptService.getAllConceptSources(false);
-        for (ConceptSource conceptSource : conceptSources) {
-            if (conceptSource.getName()
-                    .equalsIgnoreCase(name)) {
-                return conceptSource;
-            }
+        final Map<String, ConceptSource> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (ConceptSource conceptSource : Context.getConceptService()
+                .getAllConceptSources(false)) {
+            result.putIfAbsent(conceptSource.getName(), conceptSource);
         }
-        return null;
+        return result;
     }
 }
@@ -10,13 +10,17 @@
 package org.openmrs.module.radiology.report.template;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.hibernate.Criteria;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
 
 /**
  * Hibernate specific MrrtReportTemplate related functions. This class should not be used directly. All
@@ -75,9 +79,40 @@ class HibernateMrrtReportTemplateDAO implements MrrtReportTemplateDAO {
     @Override
     public List<MrrtReportTemplate> getMrrtReportTemplates(MrrtReportTemplateSearchCriteria searchCriteria) {
         
+        final Criteria crit = createMrrtReportTemplateCriteria(searchCriteria);
+        crit.addOrder(Order.asc("dcTermsTitle"));
+        if (searchCriteria.getFirstResult() != null) {
+            crit.setFirstResult(searchCriteria.getFirstResult());
+        }
+        if (searchCriteria.getMaxResults() != null) {
+            crit.setMaxResults(searchCriteria.getMaxResults());
+        }
+        final List<MrrtReportTemplate> result = (List<MrrtReportTemplate>) crit.list();
+        return result == null ? new ArrayList<>() : result;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#countMrrtReportTemplates(MrrtReportTemplateSearchCriteria)
+     */
+    @Override
+    public long countMrrtReportTemplates(MrrtReportTemplateSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createMrrtReportTemplateCriteria(searchCriteria);
+        crit.setProjection(Projections.rowCount());
+        return ((Number) crit.uniqueResult()).longValue();
+    }
+    
+    /**
+     * Create a criteria restricting mrrt report templates to the filters of given search criteria. Paging parameters of
+     * the search criteria are not applied.
+     * 
+     * @param searchCriteria the object containing search parameters
+     * @return the criteria matching mrrt report templates to given search criteria
+     */
+    private Criteria createMrrtReportTemplateCriteria(MrrtReportTemplateSearchCriteria searchCriteria) {
+        
         final Criteria crit = sessionFactory.getCurrentSession()
                 .createCriteria(MrrtReportTemplate.class);
-        crit.addOrder(Order.asc("dcTermsTitle"));
         
         if (searchCriteria.getTitle() != null) {
             crit.add(Restrictions.ilike("dcTermsTitle", searchCriteria.getTitle() + "%", MatchMode.ANYWHERE));
@@ -91,8 +126,7 @@ class HibernateMrrtReportTemplateDAO implements MrrtReportTemplateDAO {
         if (searchCriteria.getCreator() != null) {
             crit.add(Restrictions.ilike("dcTermsCreator", searchCriteria.getCreator() + "%", MatchMode.ANYWHERE));
         }
-        final List<MrrtReportTemplate> result = (List<MrrtReportTemplate>) crit.list();
-        return result == null ? new ArrayList<>() : result;
+        return crit;
     }
     
     /**
@@ -114,6 +148,23 @@ class HibernateMrrtReportTemplateDAO implements MrrtReportTemplateDAO {
                 .delete(template);
     }
     
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateDAO#getConceptReferenceTerms(ConceptSource, Collection)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<ConceptReferenceTerm> getConceptReferenceTerms(ConceptSource conceptSource, Collection<String> codes) {
+        
+        if (codes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final Criteria crit = sessionFactory.getCurrentSession()
+                .createCriteria(ConceptReferenceTerm.class);
+        crit.add(Restrictions.eq("conceptSource", conceptSource));
+        crit.add(Restrictions.in("code", codes));
+        return (List<ConceptReferenceTerm>) crit.list();
+    }
+    
     /**
      * A utility method creating a criteria for MrrtReportTemplate
      *
@@ -0,0 +1,353 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.openmrs.api.APIException;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UserContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.w3c.dom.Document;
+
+/**
+ * Imports the {@code MrrtReportTemplate's} of a ZIP archive.
+ * <p>
+ * The html files of the archive are read one by one and handed to the executor validating templates, which is shared
+ * by all imports. At most twice as many files as there are threads are read ahead of the file being imported, so that
+ * only a bounded number of templates is held in memory whatever the size of the archive. Validated templates are
+ * imported in the order of the archive on the calling thread, since resolving their terms and saving them needs its
+ * session, and saved in batches with one transaction per batch.
+ * </p>
+ * <p>
+ * Every file is read up to a maximum size and files exceeding it are reported as invalid. The import fails once the
+ * uncompressed size of all entries read exceeds a maximum, so that an archive cannot exhaust memory or keep the import
+ * busy decompressing.
+ * </p>
+ * <p>
+ * An instance imports a single archive and is not thread-safe.
+ * </p>
+ */
+class MrrtReportTemplateArchiveImport {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(MrrtReportTemplateArchiveImport.class);
+    
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final MrrtReportTemplateFileParser parser;
+    
+    private final MrrtReportTemplateService mrrtReportTemplateService;
+    
+    private final File templateHome;
+    
+    private final ExecutorService executorService;
+    
+    private final int threads;
+    
+    private final int batchSize;
+    
+    private final long maxEntryBytes;
+    
+    private final long maxTotalBytes;
+    
+    private long totalBytes;
+    
+    private final List<MrrtReportTemplateImportResult> results = new ArrayList<>();
+    
+    private final Set<String> identifiers = new HashSet<>();
+    
+    private final List<PendingTemplate> batch = new ArrayList<>();
+    
+    /**
+     * Creates an import of a single archive.
+     * 
+     * @param parser the parser validating and parsing the templates
+     * @param mrrtReportTemplateService the service saving the templates, each call must run in a transaction of its own
+     * @param templateHome the directory the template files are stored in
+     * @param executorService the executor validating templates, which runs rejected validations on the calling thread
+     * @param threads the number of templates validated in parallel
+     * @param batchSize the number of templates saved per transaction
+     * @param maxEntryBytes the maximum uncompressed size of a template file in bytes
+     * @param maxTotalBytes the maximum uncompressed size of all entries of the archive in bytes
+     */
+    MrrtReportTemplateArchiveImport(MrrtReportTemplateFileParser parser,
+            MrrtReportTemplateService mrrtReportTemplateService, File templateHome, ExecutorService executorService,
+            int threads, int batchSize, long maxEntryBytes, long maxTotalBytes) {
+        this.parser = parser;
+        this.mrrtReportTemplateService = mrrtReportTemplateService;
+        this.templateHome = templateHome;
+        this.executorService = executorService;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxTotalBytes = maxTotalBytes;
+    }
+    
+    /**
+     * Imports the html files of given zip archive.
+     * 
+     * @param zipArchive the zip archive to import
+     * @return the import results of the html files of the archive in the order of the archive
+     * @throws IOException if the archive cannot be read, exceeds its maximum uncompressed size or a template file cannot
+     *         be stored
+     */
+    List<MrrtReportTemplateImportResult> run(InputStream zipArchive) throws IOException {
+        
+        final UserContext userContext = Context.getUserContext();
+        final Thread callingThread = Thread.currentThread();
+        final Deque<ValidatingTemplate> validatingTemplates = new ArrayDeque<>();
+        boolean completed = false;
+        try (ZipInputStream zipInputStream = new ZipInputStream(zipArchive, StandardCharsets.UTF_8)) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                if (!isTemplateFile(zipEntry)) {
+                    log.debug("Skipping " + zipEntry.getName() + " since it is not an html file");
+                    readEntry(zipInputStream, 0);
+                    continue;
+                }
+                final byte[] content = readEntry(zipInputStream, maxEntryBytes);
+                if (content == null) {
+                    addResult(zipEntry.getName(), MrrtReportTemplateImportStatus.INVALID, Collections.singletonList(
+                        new ValidationError("Template exceeds the maximum size of " + maxEntryBytes + " bytes", "")));
+                    continue;
+                }
+                final String mrrtTemplate = new String(content, StandardCharsets.UTF_8);
+                validatingTemplates.add(new ValidatingTemplate(zipEntry.getName(), mrrtTemplate,
+                        executorService.submit(() -> validate(mrrtTemplate, userContext, callingThread))));
+                if (validatingTemplates.size() >= 2 * threads) {
+                    importTemplate(validatingTemplates.remove());
+                }
+            }
+            while (!validatingTemplates.isEmpty()) {
+                importTemplate(validatingTemplates.remove());
+            }
+            saveBatch();
+            completed = true;
+            return results;
+        }
+        finally {
+            for (ValidatingTemplate validatingTemplate : validatingTemplates) {
+                validatingTemplate.document.cancel(true);
+            }
+            if (!completed) {
+                // the files of templates which were not saved would never be referenced
+                for (PendingTemplate pendingTemplate : batch) {
+                    FileUtils.deleteQuietly(new File(pendingTemplate.template.getPath()));
+                }
+                batch.clear();
+            }
+        }
+    }
+    
+    /**
+     * Reads the current entry of given zip stream up to given maximum size. All bytes of the entry count towards the
+     * maximum uncompressed size of the archive, also the ones which are not kept.
+     * 
+     * @param zipInputStream the zip stream positioned at the entry to read
+     * @param maxBytes the maximum number of bytes of the entry to keep
+     * @return the bytes of the entry or null if the entry exceeds given maximum size
+     * @throws IOException if the entry cannot be read or the archive exceeds its maximum uncompressed size
+     */
+    private byte[] readEntry(ZipInputStream zipInputStream, long maxBytes) throws IOException {
+        
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        boolean exceeded = false;
+        int read;
+        while ((read = zipInputStream.read(buffer)) != -1) {
+            totalBytes += read;
+            if (totalBytes > maxTotalBytes) {
+                throw new IOException("Archive exceeds the maximum uncompressed size of " + maxTotalBytes + " bytes");
+            }
+            if (!exceeded && result.size() + read <= maxBytes) {
+                result.write(buffer, 0, read);
+            } else if (!exceeded) {
+                exceeded = true;
+                result.reset();
+            }
+        }
+        return exceeded ? null : result.toByteArray();
+    }
+    
+    private static boolean isTemplateFile(ZipEntry zipEntry) {
+        
+        if (zipEntry.isDirectory()) {
+            return false;
+        }
+        final String name = FilenameUtils.getName(zipEntry.getName());
+        final String extension = FilenameUtils.getExtension(name)
+                .toLowerCase(Locale.ENGLISH);
+        return !name.startsWith(".") && ("html".equals(extension) || "htm".equals(extension));
+    }
+    
+    private Document validate(String mrrtTemplate, UserContext userContext, Thread callingThread) throws IOException {
+        
+        // a busy executor runs the validation on the calling thread whose user context must be kept
+        if (Thread.currentThread() == callingThread) {
+            return parser.validate(mrrtTemplate);
+        }
+        Context.setUserContext(userContext);
+        try {
+            return parser.validate(mrrtTemplate);
+        }
+        finally {
+            Context.clearUserContext();
+        }
+    }
+    
+    private void importTemplate(ValidatingTemplate validatingTemplate) throws IOException {
+        
+        final Document document;
+        try {
+            document = validatingTemplate.document.get();
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new InterruptedIOException("Interrupted while importing " + validatingTemplate.fileName);
+        }
+        catch (ExecutionException executionException) {
+            log.debug("Failed to validate " + validatingTemplate.fileName, executionException.getCause());
+            addResult(validatingTemplate.fileName, MrrtReportTemplateImportStatus.INVALID,
+                getErrors(executionException.getCause()));
+            return;
+        }
+        
+        final MrrtReportTemplate template = parser.parse(document);
+        final String identifier = template.getDcTermsIdentifier();
+        if (identifier == null) {
+            addResult(validatingTemplate.fileName, MrrtReportTemplateImportStatus.INVALID,
+                Collections.singletonList(new ValidationError("Template has no dcterms.identifier 'meta' element", "")));
+            return;
+        }
+        if (!identifiers.add(identifier)
+                || mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(identifier) != null) {
+            addResult(validatingTemplate.fileName, MrrtReportTemplateImportStatus.DUPLICATE_IDENTIFIER, Collections
+                    .singletonList(new ValidationError("Template with identifier " + identifier + " already exists", "")));
+            return;
+        }
+        
+        final File destination = new File(templateHome, UUID.randomUUID()
+                .toString());
+        FileUtils.writeStringToFile(destination, validatingTemplate.mrrtTemplate, StandardCharsets.UTF_8);
+        template.setPath(destination.getAbsolutePath());
+        
+        results.add(null);
+        batch.add(new PendingTemplate(results.size() - 1, validatingTemplate.fileName, template));
+        if (batch.size() >= batchSize) {
+            saveBatch();
+        }
+    }
+    
+    private static List<ValidationError> getErrors(Throwable throwable) {
+        
+        if (throwable instanceof MrrtReportTemplateValidationException) {
+            return ((MrrtReportTemplateValidationException) throwable).getValidationResult()
+                    .getErrors();
+        }
+        return Collections.singletonList(new ValidationError(throwable.getMessage(), ""));
+    }
+    
+    private void addResult(String fileName, MrrtReportTemplateImportStatus status, List<ValidationError> errors) {
+        
+        results.add(new MrrtReportTemplateImportResult(fileName, status, null, errors));
+    }
+    
+    private void saveBatch() {
+        
+        if (batch.isEmpty()) {
+            return;
+        }
+        final List<MrrtReportTemplate> templates = new ArrayList<>(batch.size());
+        for (PendingTemplate pendingTemplate : batch) {
+            templates.add(pendingTemplate.template);
+        }
+        try {
+            mrrtReportTemplateService.saveMrrtReportTemplates(templates);
+            for (PendingTemplate pendingTemplate : batch) {
+                results.set(pendingTemplate.resultIndex,
+                    new MrrtReportTemplateImportResult(pendingTemplate.fileName, MrrtReportTemplateImportStatus.IMPORTED,
+                            pendingTemplate.template, Collections.emptyList()));
+            }
+        }
+        catch (APIException | DataAccessException exception) {
+            log.error("Failed to save a batch of " + batch.size() + " report templates", exception);
+            for (PendingTemplate pendingTemplate : batch) {
+                FileUtils.deleteQuietly(new File(pendingTemplate.template.getPath()));
+                results.set(pendingTemplate.resultIndex,
+                    new MrrtReportTemplateImportResult(pendingTemplate.fileName, MrrtReportTemplateImportStatus.FAILED,
+                            null, Collections.singletonList(new ValidationError(exception.getMessage(), ""))));
+            }
+        }
+        batch.clear();
+    }
+    
+    /**
+     * An html file of the archive which is being validated.
+     */
+    private static class ValidatingTemplate {
+        
+        
+        private final String fileName;
+        
+        private final String mrrtTemplate;
+        
+        private final Future<Document> document;
+        
+        ValidatingTemplate(String fileName, String mrrtTemplate, Future<Document> document) {
+            this.fileName = fileName;
+            this.mrrtTemplate = mrrtTemplate;
+            this.document = document;
+        }
+    }
+    
+    /**
+     * A valid template whose file is stored and which waits for its batch to be saved.
+     */
+    private static class PendingTemplate {
+        
+        
+        private final int resultIndex;
+        
+        private final String fileName;
+        
+        private final MrrtReportTemplate template;
+        
+        PendingTemplate(int resultIndex, String fileName, MrrtReportTemplate template) {
+            this.resultIndex = resultIndex;
+            this.fileName = fileName;
+            this.template = template;
+        }
+    }
+}
@@ -9,8 +9,12 @@
  */
 package org.openmrs.module.radiology.report.template;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
+
 /**
  * {@code MrrTReportTemplate} related database methods.
  * 
@@ -40,6 +44,11 @@ interface MrrtReportTemplateDAO {
      */
     public List<MrrtReportTemplate> getMrrtReportTemplates(MrrtReportTemplateSearchCriteria searchCriteria);
     
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#countMrrtReportTemplates(MrrtReportTemplateSearchCriteria)
+     */
+    public long countMrrtReportTemplates(MrrtReportTemplateSearchCriteria searchCriteria);
+    
     /**
      * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#saveMrrtReportTemplate(MrrtReportTemplate)
      */
@@ -49,4 +58,9 @@ interface MrrtReportTemplateDAO {
      * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#purgeMrrtReportTemplate(MrrtReportTemplate)
      */
     public void purgeMrrtReportTemplate(MrrtReportTemplate template);
+    
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#getConceptReferenceTerms(ConceptSource, Collection)
+     */
+    public List<ConceptReferenceTerm> getConceptReferenceTerms(ConceptSource conceptSource, Collection<String> codes);
 }
@@ -11,6 +11,8 @@ package org.openmrs.module.radiology.report.template;
 
 import java.io.IOException;
 
+import org.w3c.dom.Document;
+
 /**
  * A parser that is responsible for parsing mrrt report templates and extract metadata.
  */
@@ -29,4 +31,27 @@ public interface MrrtReportTemplateFileParser {
      * @should ignore case when searching for a matching concept source
      */
     public MrrtReportTemplate parse(String mrrtTemplate) throws IOException;
+    
+    /**
+     * Validate an mrrt template and parse it into a document which can be passed to {@link #parse(Document)}.
+     * <p>
+     * Validation does not access the database so templates can be validated concurrently.
+     * </p>
+     * 
+     * @param mrrtTemplate the mrrt template to validate
+     * @return the parsed and validated mrrt template document
+     * @throws IOException if one is thrown during validation
+     * @should return the parsed template document if given template is valid
+     * @should throw mrrt report template validation exception if given template is invalid
+     */
+    public Document validate(String mrrtTemplate) throws IOException;
+    
+    /**
+     * Extract metadata of an mrrt template validated by {@link #validate(String)} into a {@code MrrtReportTemplate}.
+     * 
+     * @param mrrtTemplateDocument the validated mrrt template document
+     * @return the mrrt report template
+     * @should return an mrrt template object if given document is valid
+     */
+    public MrrtReportTemplate parse(Document mrrtTemplateDocument);
 }
@@ -0,0 +1,262 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jsoup.Jsoup;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Least recently used cache of the html bodies of {@code MrrtReportTemplate's}.
+ * <p>
+ * Template files are immutable after import, so the body extracted from a template file is cached by the id of its
+ * template and reused as long as the path and modification time of the file are unchanged. The cache is bounded by
+ * the number of templates and the size of their bodies as configured by the global properties
+ * reportTemplateCacheMaxEntries and reportTemplateCacheMaxBytes.
+ * </p>
+ * 
+ * @see MrrtReportTemplateService#getMrrtReportTemplateHtmlBody(MrrtReportTemplate)
+ */
+@Component
+public class MrrtReportTemplateHtmlBodyCache {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(MrrtReportTemplateHtmlBodyCache.class);
+    
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<Integer, Entry>(16, 0.75f, true);
+    
+    private long byteCount;
+    
+    private final AtomicLong hitCount = new AtomicLong();
+    
+    private final AtomicLong missCount = new AtomicLong();
+    
+    private final AtomicLong putCount = new AtomicLong();
+    
+    private final AtomicLong evictionCount = new AtomicLong();
+    
+    private final AtomicLong loadCount = new AtomicLong();
+    
+    private final AtomicLong totalLoadTime = new AtomicLong();
+    
+    /**
+     * The html body of a template file together with the path and modification time of the file it was extracted
+     * from.
+     */
+    private static final class Entry {
+        
+        
+        private final String path;
+        
+        private final long lastModified;
+        
+        private final String htmlBody;
+        
+        Entry(String path, long lastModified, String htmlBody) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.htmlBody = htmlBody;
+        }
+        
+        boolean isExtractedFrom(String path, long lastModified) {
+            return this.path.equals(path) && this.lastModified == lastModified;
+        }
+        
+        long getByteCount() {
+            return 2L * htmlBody.length();
+        }
+    }
+    
+    void setRadiologyProperties(RadiologyProperties radiologyProperties) {
+        this.radiologyProperties = radiologyProperties;
+    }
+    
+    /**
+     * Get the html body of given templates file, extracting it from the file if it is not cached or the file was
+     * modified since it was cached. The bodies of templates without id are never cached.
+     * 
+     * @param mrrtReportTemplate the mrrt report template for which to get the html body
+     * @return the html body of the template file
+     * @throws IOException if one is thrown while reading the template file
+     * @should return the html body of the template file
+     * @should return the cached html body if the template file was not modified
+     * @should extract the html body again if the template file was modified
+     * @should evict the least recently used html bodies if the max entries are exceeded
+     * @should evict the least recently used html bodies if the max bytes are exceeded
+     */
+    public String getHtmlBody(MrrtReportTemplate mrrtReportTemplate) throws IOException {
+        
+        final File templateFile = new File(mrrtReportTemplate.getPath());
+        final Integer templateId = mrrtReportTemplate.getTemplateId();
+        final long lastModified = templateFile.lastModified();
+        if (templateId != null) {
+            synchronized (this) {
+                final Entry entry = entries.get(templateId);
+                if (entry != null && entry.isExtractedFrom(mrrtReportTemplate.getPath(), lastModified)) {
+                    hitCount.incrementAndGet();
+                    return entry.htmlBody;
+                }
+            }
+        }
+        missCount.incrementAndGet();
+        
+        final long start = System.nanoTime();
+        final String result = Jsoup.parse(templateFile, null)
+                .select("body")
+                .html();
+        totalLoadTime.addAndGet(System.nanoTime() - start);
+        loadCount.incrementAndGet();
+        
+        if (templateId != null) {
+            put(templateId, new Entry(mrrtReportTemplate.getPath(), lastModified, result),
+                radiologyProperties.getMrrtReportTemplateCacheMaxEntries(),
+                radiologyProperties.getMrrtReportTemplateCacheMaxBytes());
+        }
+        return result;
+    }
+    
+    private synchronized void put(Integer templateId, Entry entry, int maxEntries, int maxBytes) {
+        
+        remove(templateId);
+        if (entry.getByteCount() > maxBytes) {
+            return;
+        }
+        entries.put(templateId, entry);
+        byteCount += entry.getByteCount();
+        putCount.incrementAndGet();
+        
+        final Iterator<Map.Entry<Integer, Entry>> leastRecentlyUsed = entries.entrySet()
+                .iterator();
+        while (entries.size() > maxEntries || byteCount > maxBytes) {
+            byteCount -= leastRecentlyUsed.next()
+                    .getValue()
+                    .getByteCount();
+            leastRecentlyUsed.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+    
+    private void remove(Integer templateId) {
+        
+        final Entry removed = entries.remove(templateId);
+        if (removed != null) {
+            byteCount -= removed.getByteCount();
+        }
+    }
+    
+    /**
+     * Evicts the html body of the template with given id.
+     * 
+     * @param templateId the id of the template to evict
+     * @should evict the html body of the template with given id
+     */
+    public synchronized void evict(Integer templateId) {
+        remove(templateId);
+    }
+    
+    /**
+     * Evicts all html bodies.
+     */
+    public synchronized void clear() {
+        
+        entries.clear();
+        byteCount = 0;
+    }
+    
+    /**
+     * Caches the html bodies of given templates. Templates whose files cannot be read are skipped.
+     * 
+     * @param mrrtReportTemplates the templates to cache the html bodies of
+     * @return the number of templates whose html body was cached
+     * @should cache the html bodies of given templates skipping templates whose files cannot be read
+     */
+    public int warm(Collection<MrrtReportTemplate> mrrtReportTemplates) {
+        
+        int result = 0;
+        for (MrrtReportTemplate mrrtReportTemplate : mrrtReportTemplates) {
+            try {
+                getHtmlBody(mrrtReportTemplate);
+                result++;
+            }
+            catch (IOException ioException) {
+                log.warn("Could not cache html body of report template " + mrrtReportTemplate.getTemplateId(),
+                    ioException);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * @return the number of lookups served from the cache
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+    
+    /**
+     * @return the number of lookups which had to extract the html body from the template file
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+    
+    /**
+     * @return the number of html bodies put into the cache
+     */
+    public long getPutCount() {
+        return putCount.get();
+    }
+    
+    /**
+     * @return the number of html bodies evicted to stay within the configured bounds
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+    
+    /**
+     * @return the number of html bodies currently held in the cache
+     */
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+    
+    /**
+     * @return the approximate number of bytes of the html bodies currently held in the cache
+     */
+    public synchronized long getByteCount() {
+        return byteCount;
+    }
+    
+    /**
+     * Gets the average time it took to extract an html body from its template file.
+     * 
+     * @return the average load time in milliseconds or 0 if no html body was extracted yet
+     */
+    public double getAverageLoadTimeMillis() {
+        
+        final long loads = loadCount.get();
+        return loads == 0 ? 0 : totalLoadTime.get() / 1000000.0 / loads;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of importing a single file of an {@code MrrtReportTemplate} archive.
+ * 
+ * @see MrrtReportTemplateService#importMrrtReportTemplates(java.io.InputStream)
+ */
+public class MrrtReportTemplateImportResult {
+    
+    
+    private final String fileName;
+    
+    private final MrrtReportTemplateImportStatus status;
+    
+    private final MrrtReportTemplate template;
+    
+    private final List<ValidationError> errors;
+    
+    /**
+     * Creates an import result.
+     * 
+     * @param fileName the name of the imported file within the archive
+     * @param status the outcome of the import
+     * @param template the imported template or null if the file was not imported
+     * @param errors the errors which prevented the import
+     */
+    public MrrtReportTemplateImportResult(String fileName, MrrtReportTemplateImportStatus status,
+            MrrtReportTemplate template, List<ValidationError> errors) {
+        this.fileName = fileName;
+        this.status = status;
+        this.template = template;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+    
+    /**
+     * @return the name of the imported file within the archive
+     */
+    public String getFileName() {
+        return fileName;
+    }
+    
+    /**
+     * @return the outcome of the import
+     */
+    public MrrtReportTemplateImportStatus getStatus() {
+        return status;
+    }
+    
+    /**
+     * @return the imported template or null if the file was not imported
+     */
+    public MrrtReportTemplate getTemplate() {
+        return template;
+    }
+    
+    /**
+     * @return the errors which prevented the import or an empty list if the file was imported
+     */
+    public List<ValidationError> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+/**
+ * Represents the outcomes of importing a single file of an {@code MrrtReportTemplate} archive.
+ */
+public enum MrrtReportTemplateImportStatus {
+    /**
+     * The template was valid and has been saved.
+     */
+    IMPORTED,
+    /**
+     * The template was valid but a template with its identifier already exists in the system or earlier in the archive.
+     */
+    DUPLICATE_IDENTIFIER,
+    /**
+     * The template is not a valid mrrt report template.
+     */
+    INVALID,
+    /**
+     * The template was valid but could not be saved.
+     */
+    FAILED,
+}
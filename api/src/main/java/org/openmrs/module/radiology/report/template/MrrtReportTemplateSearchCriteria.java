@@ -23,6 +23,10 @@ public class MrrtReportTemplateSearchCriteria {
     
     private final String creator;
     
+    private final Integer firstResult;
+    
+    private final Integer maxResults;
+    
     /**
      * @return the title of the mrrt report template
      */
@@ -53,6 +57,22 @@ public class MrrtReportTemplateSearchCriteria {
         return creator;
     }
     
+    /**
+     * @return the index of the first mrrt report template to return
+     */
+    public Integer getFirstResult() {
+        
+        return firstResult;
+    }
+    
+    /**
+     * @return the maximum number of mrrt report templates to return
+     */
+    public Integer getMaxResults() {
+        
+        return maxResults;
+    }
+    
     public static class Builder {
         
         
@@ -64,6 +84,10 @@ public class MrrtReportTemplateSearchCriteria {
         
         private String creator;
         
+        private Integer firstResult;
+        
+        private Integer maxResults;
+        
         /**
          * @param title the title of the mrrt report template
          * @return this builder instance
@@ -102,6 +126,34 @@ public class MrrtReportTemplateSearchCriteria {
             return this;
         }
         
+        /**
+         * @param firstResult the index of the first mrrt report template to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if given negative first result
+         */
+        public Builder withFirstResult(Integer firstResult) {
+            
+            if (firstResult != null && firstResult < 0) {
+                throw new IllegalArgumentException("firstResult cannot be negative");
+            }
+            this.firstResult = firstResult;
+            return this;
+        }
+        
+        /**
+         * @param maxResults the maximum number of mrrt report templates to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if given max results smaller than 1
+         */
+        public Builder withMaxResults(Integer maxResults) {
+            
+            if (maxResults != null && maxResults < 1) {
+                throw new IllegalArgumentException("maxResults must be greater than 0");
+            }
+            this.maxResults = maxResults;
+            return this;
+        }
+        
         /**
          * Creates an {@code MrrtReportTemplateSearchCriteria} with properties of this builder instance.
          * 
@@ -110,6 +162,7 @@ public class MrrtReportTemplateSearchCriteria {
          * @should create an mrrt report template search criteria instance with publisher if publisher is set
          * @should create an mrrt report template search criteria instance with license if license is set
          * @should create an mrrt report template search criteria instance with creator if creator is set
+         * @should create an mrrt report template search criteria instance with first result and max results if set
          */
         public MrrtReportTemplateSearchCriteria build() {
             return new MrrtReportTemplateSearchCriteria(this);
@@ -122,5 +175,7 @@ public class MrrtReportTemplateSearchCriteria {
         this.publisher = builder.publisher;
         this.license = builder.license;
         this.creator = builder.creator;
+        this.firstResult = builder.firstResult;
+        this.maxResults = builder.maxResults;
     }
 }
@@ -10,8 +10,12 @@
 package org.openmrs.module.radiology.report.template;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.APIException;
 import org.openmrs.api.OpenmrsService;
@@ -57,6 +61,48 @@ public interface MrrtReportTemplateService extends OpenmrsService {
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES)
     public MrrtReportTemplate importMrrtReportTemplate(String mrrtTemplate) throws IOException;
     
+    /**
+     * Saves new {@code MrrtReportTemplate's} in one transaction.
+     * 
+     * @param templates the mrrt report templates to be saved
+     * @return the saved templates
+     * @throws IllegalArgumentException if given null
+     * @throws APIException if saving an already saved template
+     * @should throw illegal argument exception if given null
+     * @should save given templates
+     * @should throw api exception if saving template that already exists
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES)
+    public List<MrrtReportTemplate> saveMrrtReportTemplates(List<MrrtReportTemplate> templates);
+    
+    /**
+     * Import all {@code MrrtReportTemplate's} of a ZIP archive into the system.
+     * <p>
+     * The html files of the archive are read one by one and validated in parallel by a bounded number of threads set by
+     * the global property reportTemplateImportThreads. Valid templates are imported like by
+     * {@link #importMrrtReportTemplate(String)} but saved in transactions of reportTemplateImportBatchSize templates,
+     * which are committed independently of any transaction of the caller.
+     * Other files of the archive are skipped. A file which cannot be imported or exceeds the size set by the global
+     * property reportTemplateImportMaxEntryBytes does not stop the import of the others.
+     * </p>
+     * 
+     * @param zipArchive the zip archive containing the mrrt templates to be imported
+     * @return the import results of the html files of the archive in the order of the archive
+     * @throws IllegalArgumentException if given null
+     * @throws IOException if the archive cannot be read, exceeds the maximum uncompressed size set by the global property
+     *         reportTemplateImportMaxTotalBytes or a template file cannot be stored
+     * @should import all valid templates of given archive
+     * @should report validation errors of invalid templates of given archive
+     * @should report templates with an identifier which already exists
+     * @should report templates with an identifier which occurs earlier in given archive
+     * @should skip files of given archive which are not html files
+     * @should report templates of given archive exceeding the maximum size as invalid
+     * @should fail to import templates if given archive exceeds the maximum uncompressed size and delete unsaved template files
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES)
+    public List<MrrtReportTemplateImportResult> importMrrtReportTemplates(InputStream zipArchive) throws IOException;
+    
     /**
      * Delete an {@code MrrtReportTemplate} from the database.
      *
@@ -65,6 +111,7 @@ public interface MrrtReportTemplateService extends OpenmrsService {
      * @should delete report template from database and also delete template file from the system
      * @should throw illegal argument exception if given null
      * @should catch file not found exception when the file been deleted is missing
+     * @should evict the html body of given template from the cache
      */
     @Authorized(RadiologyPrivileges.DELETE_RADIOLOGY_REPORT_TEMPLATES)
     public void purgeMrrtReportTemplate(MrrtReportTemplate template);
@@ -129,13 +176,48 @@ public interface MrrtReportTemplateService extends OpenmrsService {
     public List<MrrtReportTemplate>
             getMrrtReportTemplates(MrrtReportTemplateSearchCriteria mrrtReportTemplateSearchCriteria);
     
+    /**
+     * Count the {@code MrrtReportTemplate's} matching a variety of (nullable) criteria.
+     * The paging parameters first result and max results of the criteria are ignored.
+     * 
+     * @param mrrtReportTemplateSearchCriteria the object containing search parameters
+     * @return the number of mrrt report templates matching the given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the number of mrrt report templates matching given criteria
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORT_TEMPLATES)
+    public long countMrrtReportTemplates(MrrtReportTemplateSearchCriteria mrrtReportTemplateSearchCriteria);
+    
+    /**
+     * Get the {@code ConceptReferenceTerm's} of a concept source matching any of given codes with a single query.
+     * <p>
+     * Used to resolve the terms of a template while it is parsed.
+     * </p>
+     * 
+     * @param conceptSource the concept source of the concept reference terms
+     * @param codes the codes of the concept reference terms
+     * @return the concept reference terms of given concept source with one of given codes
+     * @throws IllegalArgumentException if given null
+     * @should return the concept reference terms of given concept source matching given codes
+     * @should return an empty list if given no codes
+     * @should throw illegal argument exception if given concept source is null
+     * @should throw illegal argument exception if given codes are null
+     */
+    @Authorized({ RadiologyPrivileges.GET_RADIOLOGY_REPORT_TEMPLATES, RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES })
+    public List<ConceptReferenceTerm> getConceptReferenceTerms(ConceptSource conceptSource, Collection<String> codes);
+    
     /**
      * Get the HTML body content of {@code MrrtReportTemplate's} file.
+     * <p>
+     * The body content is cached until the template is purged or its file is modified.
+     * </p>
      * 
      * @param mrrtReportTemplate the mrrt report template for which we want to get its html body content
      * @return the body content of the mrrt report template file
      * @throws IOException if one is thrown while reading the file
      * @should return the body content of the mrrt report template file
+     * @should return the cached body content if the mrrt report template file was not modified
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.VIEW_RADIOLOGY_REPORT_TEMPLATES)
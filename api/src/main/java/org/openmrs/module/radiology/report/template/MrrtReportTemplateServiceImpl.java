@@ -11,20 +11,26 @@ package org.openmrs.module.radiology.report.template;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.io.FileUtils;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
 import org.openmrs.api.APIException;
+import org.openmrs.api.context.Context;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.radiology.RadiologyProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Transactional(readOnly = true)
@@ -39,6 +45,10 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
     
     private MrrtReportTemplateDAO mrrtReportTemplateDAO;
     
+    private MrrtReportTemplateHtmlBodyCache mrrtReportTemplateHtmlBodyCache;
+    
+    private ExecutorService mrrtReportTemplateImportExecutor;
+    
     public void setMrrtReportTemplateDAO(MrrtReportTemplateDAO mrrtReportTemplateDAO) {
         this.mrrtReportTemplateDAO = mrrtReportTemplateDAO;
     }
@@ -51,6 +61,14 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         this.radiologyProperties = radiologyProperties;
     }
     
+    public void setMrrtReportTemplateHtmlBodyCache(MrrtReportTemplateHtmlBodyCache mrrtReportTemplateHtmlBodyCache) {
+        this.mrrtReportTemplateHtmlBodyCache = mrrtReportTemplateHtmlBodyCache;
+    }
+    
+    public void setMrrtReportTemplateImportExecutor(ExecutorService mrrtReportTemplateImportExecutor) {
+        this.mrrtReportTemplateImportExecutor = mrrtReportTemplateImportExecutor;
+    }
+    
     /**
      * @see MrrtReportTemplateService#importMrrtReportTemplate(String)
      */
@@ -84,6 +102,43 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         return mrrtReportTemplateDAO.saveMrrtReportTemplate(template);
     }
     
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#saveMrrtReportTemplates(List)
+     */
+    @Override
+    @Transactional
+    public List<MrrtReportTemplate> saveMrrtReportTemplates(List<MrrtReportTemplate> templates) {
+        if (templates == null) {
+            throw new IllegalArgumentException("templates cannot be null");
+        }
+        final List<MrrtReportTemplate> result = new ArrayList<>(templates.size());
+        for (MrrtReportTemplate template : templates) {
+            result.add(saveMrrtReportTemplate(template));
+        }
+        return result;
+    }
+    
+    /**
+     * Imports the templates of given archive outside of any transaction so that each batch of templates is saved and
+     * committed in a transaction of its own through the service proxy. A transaction of the caller is suspended during
+     * the import, a template saved is therefore not rolled back with it.
+     * 
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#importMrrtReportTemplates(InputStream)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MrrtReportTemplateImportResult> importMrrtReportTemplates(InputStream zipArchive) throws IOException {
+        if (zipArchive == null) {
+            throw new IllegalArgumentException("zipArchive cannot be null");
+        }
+        return new MrrtReportTemplateArchiveImport(parser, Context.getService(MrrtReportTemplateService.class),
+                radiologyProperties.getReportTemplateHome(), mrrtReportTemplateImportExecutor,
+                radiologyProperties.getMrrtReportTemplateImportThreads(),
+                radiologyProperties.getMrrtReportTemplateImportBatchSize(),
+                radiologyProperties.getMrrtReportTemplateImportMaxEntryBytes(),
+                radiologyProperties.getMrrtReportTemplateImportMaxTotalBytes()).run(zipArchive);
+    }
+    
     /**
      * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#purgeMrrtReportTemplate(MrrtReportTemplate)
      */
@@ -94,6 +149,7 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
             throw new IllegalArgumentException("template cannot be null");
         }
         mrrtReportTemplateDAO.purgeMrrtReportTemplate(template);
+        mrrtReportTemplateHtmlBodyCache.evict(template.getTemplateId());
         Path templatePath = Paths.get(template.getPath());
         try {
             Files.delete(templatePath);
@@ -151,6 +207,31 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         return mrrtReportTemplateDAO.getMrrtReportTemplates(mrrtReportTemplateSearchCriteria);
     }
     
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#countMrrtReportTemplates(MrrtReportTemplateSearchCriteria)
+     */
+    @Override
+    public long countMrrtReportTemplates(MrrtReportTemplateSearchCriteria mrrtReportTemplateSearchCriteria) {
+        if (mrrtReportTemplateSearchCriteria == null) {
+            throw new IllegalArgumentException("mrrtReportTemplateSearchCriteria cannot be null");
+        }
+        return mrrtReportTemplateDAO.countMrrtReportTemplates(mrrtReportTemplateSearchCriteria);
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#getConceptReferenceTerms(ConceptSource, Collection)
+     */
+    @Override
+    public List<ConceptReferenceTerm> getConceptReferenceTerms(ConceptSource conceptSource, Collection<String> codes) {
+        if (conceptSource == null) {
+            throw new IllegalArgumentException("conceptSource cannot be null");
+        }
+        if (codes == null) {
+            throw new IllegalArgumentException("codes cannot be null");
+        }
+        return mrrtReportTemplateDAO.getConceptReferenceTerms(conceptSource, codes);
+    }
+    
     /**
      * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#getMrrtReportTemplateHtmlBody(MrrtReportTemplate)
      */
@@ -159,10 +240,6 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         if (mrrtReportTemplate == null) {
             throw new IllegalArgumentException("mrrtReportTemplate cannot be null");
         }
-        final File templateFile = new File(mrrtReportTemplate.getPath());
-        final Document doc = Jsoup.parse(templateFile, null);
-        
-        return doc.select("body")
-                .html();
+        return mrrtReportTemplateHtmlBodyCache.getHtmlBody(mrrtReportTemplate);
     }
 }
@@ -12,6 +12,7 @@ package org.openmrs.module.radiology.report.template;
 import java.io.IOException;
 
 import org.openmrs.api.APIException;
+import org.w3c.dom.Document;
 
 /**
  * Validates an mrrt report template according to the IHE Management of Radiology Report Templates (MRRT).
@@ -23,8 +24,13 @@ public interface MrrtReportTemplateValidator {
     
     /**
      * Validate an mrrt template according to the IHE standard.
+     * <p>
+     * The template is parsed only once. The parsed document is returned so that metadata and terms can be extracted
+     * from it without parsing the template again.
+     * </p>
      *
      * @param mrrtTemplate the mrrt report template to be validated
+     * @return the parsed and validated mrrt report template document
      * @throws IOException
      * @throws APIException if the mrrt template fails validation
      * @should pass if template template follows mrrt standards
@@ -50,6 +56,9 @@ public interface MrrtReportTemplateValidator {
      * @should throw api exception if html element does not have a body element
      * @should throw api exception if html element has more than one body element 
      * @should catch all violation errors and throw an mrrt report template exception
+     * @should throw api exception if template is not well formed
+     * @should throw api exception if template declares a document type definition
+     * @should return the parsed template document
      */
-    public void validate(String mrrtTemplate) throws IOException;
+    public Document validate(String mrrtTemplate) throws IOException;
 }
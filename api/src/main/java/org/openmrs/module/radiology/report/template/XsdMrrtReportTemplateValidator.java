@@ -9,29 +9,48 @@
  */
 package org.openmrs.module.radiology.report.template;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.util.regex.Pattern;
 
 import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 
-import org.apache.commons.io.IOUtils;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Attributes;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Tag;
 import org.jsoup.select.Elements;
 import org.openmrs.api.APIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.NodeList;
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
 /**
  * Uses xsd with schema to validate {@code MrrtReportTemplate} files.
+ * <p>
+ * The schema is compiled from the classpath once, on first use, and shared by all validations since a compiled
+ * {@link Schema} is thread-safe. Each validation only creates a cheap {@link Validator} of its own.
+ * </p>
+ * <p>
+ * A template is parsed once into a DOM {@link Document}. The meta tags validation, the schema validation and the
+ * {@link MrrtReportTemplateFileParser} all work on that document.
+ * </p>
  */
 public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidator {
     
@@ -40,8 +59,20 @@ public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidat
     
     private static final String MRRT_REPORT_TEMPLATE_SCHEMA_FILE = "MrrtReportTemplateSchema.xsd";
     
+    private static final String DISALLOW_DOCTYPE_DECL_FEATURE = "http://apache.org/xml/features/disallow-doctype-decl";
+    
+    /**
+     * The html5 document type declaration a template starts with, optionally preceded by an xml declaration.
+     */
+    private static final Pattern HTML5_DOCTYPE =
+            Pattern.compile("^(\\s*(?:<\\?xml[^>]*\\?>)?\\s*)<!DOCTYPE\\s+html\\s*>", Pattern.CASE_INSENSITIVE);
+    
     MetaTagsValidationEngine metaTagsValidationEngine;
     
+    private volatile Schema schema;
+    
+    private final DocumentBuilderFactory documentBuilderFactory = newDocumentBuilderFactory();
+    
     public MetaTagsValidationEngine getMetaTagsValidationEngine() {
         return metaTagsValidationEngine;
     }
@@ -54,18 +85,15 @@ public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidat
      * @see MrrtReportTemplateValidator#validate(String)
      */
     @Override
-    public void validate(String mrrtTemplate) throws IOException {
-        
-        final Document document = Jsoup.parse(mrrtTemplate, "");
-        final Elements metatags = document.getElementsByTag("meta");
-        ValidationResult validationResult = metaTagsValidationEngine.run(metatags);
+    public Document validate(String mrrtTemplate) throws IOException {
         
-        final SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-        final Schema schema;
-        final Validator validator;
-        try (InputStream in = IOUtils.toInputStream(mrrtTemplate)) {
-            schema = factory.newSchema(getSchemaFile());
-            validator = schema.newValidator();
+        try {
+            final Document document = parseDocument(mrrtTemplate);
+            final ValidationResult validationResult = metaTagsValidationEngine.run(getMetaTags(document));
+            
+            final Validator validator = getSchema().newValidator();
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
             validator.setErrorHandler(new ErrorHandler() {
                 
                 
@@ -87,8 +115,9 @@ public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidat
                     validationResult.addError(exception.getMessage(), "");
                 }
             });
-            validator.validate(new StreamSource(in));
+            validator.validate(new DOMSource(document));
             validationResult.assertOk();
+            return document;
         }
         catch (SAXException e) {
             log.error(e.getMessage(), e);
@@ -96,9 +125,128 @@ public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidat
         }
     }
     
-    private File getSchemaFile() {
-        return new File(getClass().getClassLoader()
-                .getResource(MRRT_REPORT_TEMPLATE_SCHEMA_FILE)
-                .getFile());
+    /**
+     * Parses given mrrt template into a document which is shared by validation, metadata and term extraction.
+     * <p>
+     * Document type declarations are rejected so that a template cannot declare entities expanding to local files or
+     * urls or to an excessive amount of text. Only the html5 doctype {@code <!DOCTYPE html>}, which declares nothing, is
+     * removed before parsing since templates commonly start with it.
+     * </p>
+     * 
+     * @param mrrtTemplate the mrrt template to parse
+     * @return the parsed mrrt template document
+     * @throws SAXException if the mrrt template is not well formed
+     * @throws IOException if the mrrt template cannot be read
+     */
+    private Document parseDocument(String mrrtTemplate) throws SAXException, IOException {
+        
+        final DocumentBuilder documentBuilder;
+        try {
+            synchronized (documentBuilderFactory) {
+                documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            }
+        }
+        catch (ParserConfigurationException e) {
+            throw new APIException("radiology.report.template.parser.error", null, e);
+        }
+        documentBuilder.setErrorHandler(new ErrorHandler() {
+            
+            
+            @Override
+            public void warning(SAXParseException exception) throws SAXException {
+                log.debug(exception.getMessage(), exception);
+            }
+            
+            @Override
+            public void error(SAXParseException exception) throws SAXException {
+                log.debug(exception.getMessage(), exception);
+            }
+            
+            @Override
+            public void fatalError(SAXParseException exception) throws SAXException {
+                throw exception;
+            }
+        });
+        final String withoutHtml5Doctype = HTML5_DOCTYPE.matcher(mrrtTemplate)
+                .replaceFirst("$1");
+        return documentBuilder.parse(new InputSource(new StringReader(withoutHtml5Doctype)));
+    }
+    
+    /**
+     * Gets the meta tags of given document as the elements the {@link MetaTagsValidationEngine} runs on.
+     * 
+     * @param document the mrrt template document
+     * @return the meta tags of the document
+     */
+    private static Elements getMetaTags(Document document) {
+        
+        final Elements result = new Elements();
+        final NodeList metaTags = document.getElementsByTagName("meta");
+        for (int i = 0; i < metaTags.getLength(); i++) {
+            final NamedNodeMap metaTagAttributes = metaTags.item(i)
+                    .getAttributes();
+            final Attributes attributes = new Attributes();
+            for (int j = 0; j < metaTagAttributes.getLength(); j++) {
+                final Attr attribute = (Attr) metaTagAttributes.item(j);
+                attributes.put(attribute.getName(), attribute.getValue());
+            }
+            result.add(new Element(Tag.valueOf("meta"), "", attributes));
+        }
+        return result;
+    }
+    
+    /**
+     * Get the mrrt report template schema, compiling it from the classpath if it has not been compiled yet.
+     * <p>
+     * The schema is read as a stream so that it can be compiled when the module runs from a packed omod.
+     * </p>
+     * 
+     * @return the compiled mrrt report template schema
+     * @throws SAXException if the schema cannot be compiled
+     * @throws IOException if the schema cannot be read
+     * @should compile the schema only once
+     */
+    Schema getSchema() throws SAXException, IOException {
+        
+        Schema result = schema;
+        if (result == null) {
+            synchronized (this) {
+                result = schema;
+                if (result == null) {
+                    result = compileSchema();
+                    schema = result;
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static DocumentBuilderFactory newDocumentBuilderFactory() {
+        
+        final DocumentBuilderFactory result = DocumentBuilderFactory.newInstance();
+        result.setNamespaceAware(true);
+        try {
+            result.setFeature(DISALLOW_DOCTYPE_DECL_FEATURE, true);
+            result.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        }
+        catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Could not configure the parser of mrrt report templates securely", e);
+        }
+        result.setXIncludeAware(false);
+        result.setExpandEntityReferences(false);
+        return result;
+    }
+    
+    private Schema compileSchema() throws SAXException, IOException {
+        
+        final URL schemaUrl = getClass().getClassLoader()
+                .getResource(MRRT_REPORT_TEMPLATE_SCHEMA_FILE);
+        if (schemaUrl == null) {
+            throw new IOException("Could not find " + MRRT_REPORT_TEMPLATE_SCHEMA_FILE + " on the classpath");
+        }
+        try (InputStream schemaStream = schemaUrl.openStream()) {
+            return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                    .newSchema(new StreamSource(schemaStream, schemaUrl.toExternalForm()));
+        }
     }
 }
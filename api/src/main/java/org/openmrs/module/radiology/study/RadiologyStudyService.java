@@ -13,6 +13,7 @@ import org.openmrs.annotation.Authorized;
 import org.openmrs.api.APIException;
 import org.openmrs.api.OpenmrsService;
 import org.openmrs.module.radiology.RadiologyPrivileges;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
 
 /**
  * Service layer for {@code RadiologyStudy}.
@@ -43,6 +44,30 @@ public interface RadiologyStudyService extends OpenmrsService {
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_STUDIES)
     public RadiologyStudy saveRadiologyStudy(RadiologyStudy radiologyStudy);
     
+    /**
+     * Updates the performed status of an existing {@code RadiologyStudy}.
+     * <p>
+     * Completing the radiology study records the {@code RadiologyLifecycleEvent} ending the order to exam turnaround of
+     * its radiology order.
+     * </p>
+     * 
+     * @param radiologyStudy the radiology study to be updated
+     * @param performedStatus the new performed status of the radiology study
+     * @return the updated radiology study
+     * @throws IllegalArgumentException if given radiology study is null
+     * @throws IllegalArgumentException if given radiology study has no study id
+     * @throws IllegalArgumentException if given performed status is null
+     * @should update the performed status of given radiology study
+     * @should record a performed lifecycle event if given radiology study is completed
+     * @should not record a performed lifecycle event if given radiology study was completed already
+     * @should throw illegal argument exception if given radiology study is null
+     * @should throw illegal argument exception if given radiology study has no study id
+     * @should throw illegal argument exception if given performed status is null
+     */
+    @Authorized(RadiologyPrivileges.EDIT_RADIOLOGY_STUDIES)
+    public RadiologyStudy updateRadiologyStudyPerformedStatus(RadiologyStudy radiologyStudy,
+            PerformedProcedureStepStatus performedStatus);
+    
     /**
      * Get the {@code RadiologyStudy} by its {@code studyId}.
      *
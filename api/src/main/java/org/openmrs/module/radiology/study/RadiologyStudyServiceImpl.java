@@ -9,11 +9,16 @@
  */
 package org.openmrs.module.radiology.study;
 
+import java.util.Date;
+
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.api.APIException;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.module.radiology.dicom.DicomUidGenerator;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.turnaround.RadiologyLifecycleEventType;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +35,8 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
     
     private DicomUidGenerator dicomUidGenerator;
     
+    private RadiologyTurnaroundService radiologyTurnaroundService;
+    
     public void setRadiologyStudyDAO(RadiologyStudyDAO radiologyStudyDAO) {
         this.radiologyStudyDAO = radiologyStudyDAO;
     }
@@ -42,6 +49,10 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
         this.dicomUidGenerator = dicomUidGenerator;
     }
     
+    public void setRadiologyTurnaroundService(RadiologyTurnaroundService radiologyTurnaroundService) {
+        this.radiologyTurnaroundService = radiologyTurnaroundService;
+    }
+    
     /**
      * @see RadiologyStudyService#saveRadiologyStudy(RadiologyStudy)
      */
@@ -61,6 +72,35 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
         return radiologyStudyDAO.saveRadiologyStudy(radiologyStudy);
     }
     
+    /**
+     * @see RadiologyStudyService#updateRadiologyStudyPerformedStatus(RadiologyStudy, PerformedProcedureStepStatus)
+     */
+    @Override
+    @Transactional
+    public RadiologyStudy updateRadiologyStudyPerformedStatus(RadiologyStudy radiologyStudy,
+            PerformedProcedureStepStatus performedStatus) {
+        
+        if (radiologyStudy == null) {
+            throw new IllegalArgumentException("radiologyStudy cannot be null");
+        }
+        if (radiologyStudy.getStudyId() == null) {
+            throw new IllegalArgumentException("radiologyStudy.studyId cannot be null");
+        }
+        if (performedStatus == null) {
+            throw new IllegalArgumentException("performedStatus cannot be null");
+        }
+        
+        final boolean completed =
+                !radiologyStudy.isCompleted() && performedStatus == PerformedProcedureStepStatus.COMPLETED;
+        radiologyStudy.setPerformedStatus(performedStatus);
+        final RadiologyStudy result = radiologyStudyDAO.saveRadiologyStudy(radiologyStudy);
+        if (completed) {
+            radiologyTurnaroundService.recordRadiologyLifecycleEvent(result.getRadiologyOrder(),
+                RadiologyLifecycleEventType.PERFORMED, new Date(), null);
+        }
+        return result;
+    }
+    
     /**
      * Sets {@code studyInstanceUid} of given {@code radiologyStudy} if blank.
      * 
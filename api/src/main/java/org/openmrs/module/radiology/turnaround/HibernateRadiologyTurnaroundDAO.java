@@ -0,0 +1,181 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Disjunction;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.Subqueries;
+import org.openmrs.Concept;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Provider;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+
+/**
+ * Hibernate specific RadiologyLifecycleEvent and RadiologyTurnaroundRollup related functions. This class should not be
+ * used directly. All calls should go through the
+ * {@link org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService} methods.
+ *
+ * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDAO
+ * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService
+ */
+class HibernateRadiologyTurnaroundDAO implements RadiologyTurnaroundDAO {
+    
+    
+    private SessionFactory sessionFactory;
+    
+    /**
+     * Set session factory that allows us to connect to the database that Hibernate knows about.
+     *
+     * @param sessionFactory
+     */
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDAO#saveRadiologyLifecycleEvent(RadiologyLifecycleEvent)
+     */
+    @Override
+    public RadiologyLifecycleEvent saveRadiologyLifecycleEvent(RadiologyLifecycleEvent radiologyLifecycleEvent) {
+        sessionFactory.getCurrentSession()
+                .saveOrUpdate(radiologyLifecycleEvent);
+        return radiologyLifecycleEvent;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDAO#getRadiologyLifecycleEvents(RadiologyOrder)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyLifecycleEvent> getRadiologyLifecycleEvents(RadiologyOrder radiologyOrder) {
+        return (List<RadiologyLifecycleEvent>) sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyLifecycleEvent.class)
+                .add(Restrictions.eq("radiologyOrder", radiologyOrder))
+                .addOrder(Order.asc("eventDate"))
+                .addOrder(Order.asc("eventId"))
+                .list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDAO#getLatestRadiologyLifecycleEvent(RadiologyOrder,
+     *      RadiologyLifecycleEventType)
+     */
+    @Override
+    public RadiologyLifecycleEvent getLatestRadiologyLifecycleEvent(RadiologyOrder radiologyOrder,
+            RadiologyLifecycleEventType eventType) {
+        return (RadiologyLifecycleEvent) sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyLifecycleEvent.class)
+                .add(Restrictions.eq("radiologyOrder", radiologyOrder))
+                .add(Restrictions.eq("eventType", eventType))
+                .addOrder(Order.desc("eventDate"))
+                .addOrder(Order.desc("eventId"))
+                .setMaxResults(1)
+                .uniqueResult();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDAO#getRadiologyLifecycleEventsNotRolledUp(int)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyLifecycleEvent> getRadiologyLifecycleEventsNotRolledUp(int maxResults) {
+        
+        final Disjunction startRecorded = Restrictions.disjunction();
+        for (final RadiologyTurnaroundInterval interval : RadiologyTurnaroundInterval.values()) {
+            startRecorded.add(Restrictions.and(Restrictions.eq("event.eventType", interval.getEndEventType()),
+                Subqueries.exists(DetachedCriteria.forClass(RadiologyLifecycleEvent.class, "start")
+                        .add(Restrictions.eqProperty("start.radiologyOrder", "event.radiologyOrder"))
+                        .add(Restrictions.eq("start.eventType", interval.getStartEventType()))
+                        .setProjection(Projections.id()))));
+        }
+        return (List<RadiologyLifecycleEvent>) sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyLifecycleEvent.class, "event")
+                .add(Restrictions.eq("event.rolledUp", false))
+                .add(startRecorded)
+                .setFetchMode("event.radiologyOrder", FetchMode.JOIN)
+                .addOrder(Order.asc("event.eventId"))
+                .setMaxResults(maxResults)
+                .list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDAO#getRadiologyTurnaroundRollup(RadiologyTurnaroundGranularity,
+     *      RadiologyTurnaroundInterval, Date, Concept, Urgency, Provider)
+     */
+    @Override
+    public RadiologyTurnaroundRollup getRadiologyTurnaroundRollup(RadiologyTurnaroundGranularity granularity,
+            RadiologyTurnaroundInterval interval, Date periodStart, Concept procedure, Urgency urgency,
+            Provider principalResultsInterpreter) {
+        return (RadiologyTurnaroundRollup) sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyTurnaroundRollup.class)
+                .add(Restrictions.eq("granularity", granularity))
+                .add(Restrictions.eq("interval", interval))
+                .add(Restrictions.eq("periodStart", periodStart))
+                .add(Restrictions.eq("procedure", procedure))
+                .add(Restrictions.eq("urgency", urgency))
+                .add(Restrictions.eq("principalResultsInterpreterKey",
+                    RadiologyTurnaroundRollup.getPrincipalResultsInterpreterKey(principalResultsInterpreter)))
+                .uniqueResult();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDAO#saveRadiologyTurnaroundRollup(RadiologyTurnaroundRollup)
+     */
+    @Override
+    public RadiologyTurnaroundRollup saveRadiologyTurnaroundRollup(RadiologyTurnaroundRollup radiologyTurnaroundRollup) {
+        sessionFactory.getCurrentSession()
+                .saveOrUpdate(radiologyTurnaroundRollup);
+        return radiologyTurnaroundRollup;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDAO#getRadiologyTurnaroundRollups(RadiologyTurnaroundSearchCriteria)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyTurnaroundRollup>
+            getRadiologyTurnaroundRollups(RadiologyTurnaroundSearchCriteria radiologyTurnaroundSearchCriteria) {
+        
+        final RadiologyTurnaroundGranularity granularity = radiologyTurnaroundSearchCriteria.getGranularity();
+        final Criteria criteria = sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyTurnaroundRollup.class)
+                .add(Restrictions.eq("granularity", granularity))
+                .add(Restrictions.eq("interval", radiologyTurnaroundSearchCriteria.getInterval()));
+        if (radiologyTurnaroundSearchCriteria.getFromDate() != null) {
+            criteria.add(Restrictions.ge("periodStart",
+                granularity.getPeriodStart(radiologyTurnaroundSearchCriteria.getFromDate())));
+        }
+        if (radiologyTurnaroundSearchCriteria.getToDate() != null) {
+            criteria.add(Restrictions.le("periodStart", radiologyTurnaroundSearchCriteria.getToDate()));
+        }
+        if (radiologyTurnaroundSearchCriteria.getProcedure() != null) {
+            criteria.add(Restrictions.eq("procedure", radiologyTurnaroundSearchCriteria.getProcedure()));
+        }
+        if (radiologyTurnaroundSearchCriteria.getUrgency() != null) {
+            criteria.add(Restrictions.eq("urgency", radiologyTurnaroundSearchCriteria.getUrgency()));
+        }
+        if (radiologyTurnaroundSearchCriteria.getPrincipalResultsInterpreter() != null) {
+            criteria.add(Restrictions.eq("principalResultsInterpreter",
+                radiologyTurnaroundSearchCriteria.getPrincipalResultsInterpreter()));
+        }
+        return (List<RadiologyTurnaroundRollup>) criteria.addOrder(Order.asc("periodStart"))
+                .addOrder(Order.asc("rollupId"))
+                .list();
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.util.Date;
+
+import org.openmrs.Provider;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+
+/**
+ * Records when a {@code RadiologyOrder} went through a step of its lifecycle.
+ * <p>
+ * Lifecycle events are recorded as radiology orders are placed, their studies performed and their reports completed.
+ * They are rolled up into {@link RadiologyTurnaroundRollup}'s in the background, so that turnaround times can be
+ * answered without joining orders, studies and reports.
+ * </p>
+ * 
+ * @see RadiologyTurnaroundService#rollUpRadiologyLifecycleEvents(int)
+ */
+public class RadiologyLifecycleEvent {
+    
+    
+    private Integer eventId;
+    
+    private RadiologyOrder radiologyOrder;
+    
+    private RadiologyLifecycleEventType eventType;
+    
+    private Date eventDate;
+    
+    private Provider principalResultsInterpreter;
+    
+    private boolean rolledUp;
+    
+    private Integer version;
+    
+    public Integer getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(Integer eventId) {
+        this.eventId = eventId;
+    }
+    
+    public RadiologyOrder getRadiologyOrder() {
+        return radiologyOrder;
+    }
+    
+    public void setRadiologyOrder(RadiologyOrder radiologyOrder) {
+        this.radiologyOrder = radiologyOrder;
+    }
+    
+    public RadiologyLifecycleEventType getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(RadiologyLifecycleEventType eventType) {
+        this.eventType = eventType;
+    }
+    
+    public Date getEventDate() {
+        return eventDate;
+    }
+    
+    public void setEventDate(Date eventDate) {
+        this.eventDate = eventDate;
+    }
+    
+    /**
+     * @return the principal results interpreter of the completed report or null for other lifecycle events
+     */
+    public Provider getPrincipalResultsInterpreter() {
+        return principalResultsInterpreter;
+    }
+    
+    public void setPrincipalResultsInterpreter(Provider principalResultsInterpreter) {
+        this.principalResultsInterpreter = principalResultsInterpreter;
+    }
+    
+    /**
+     * @return true if this lifecycle event has been rolled up into the turnaround rollups and false otherwise
+     */
+    public boolean isRolledUp() {
+        return rolledUp;
+    }
+    
+    public void setRolledUp(boolean rolledUp) {
+        this.rolledUp = rolledUp;
+    }
+    
+    /**
+     * @return the version of this lifecycle event which is incremented on every update and used to detect concurrent
+     *         rollups of it
+     */
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
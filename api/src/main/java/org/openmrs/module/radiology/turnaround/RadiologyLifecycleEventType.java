@@ -0,0 +1,31 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+/**
+ * The steps in the lifecycle of a {@code RadiologyOrder} which are recorded as {@link RadiologyLifecycleEvent}'s.
+ */
+public enum RadiologyLifecycleEventType {
+    
+    /**
+     * The radiology order was placed.
+     */
+    ORDERED,
+    
+    /**
+     * The study of the radiology order was completed.
+     */
+    PERFORMED,
+    
+    /**
+     * The report of the radiology order was completed.
+     */
+    REPORTED;
+}
@@ -0,0 +1,93 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.util.Date;
+import java.util.List;
+
+import org.openmrs.Concept;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Provider;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+
+/**
+ * {@code RadiologyLifecycleEvent} and {@code RadiologyTurnaroundRollup} related database methods.
+ * 
+ * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService
+ * @see org.openmrs.module.radiology.turnaround.RadiologyLifecycleEvent
+ * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundRollup
+ */
+interface RadiologyTurnaroundDAO {
+    
+    
+    /**
+     * Saves given radiology lifecycle event.
+     * 
+     * @param radiologyLifecycleEvent the radiology lifecycle event to save
+     * @return the saved radiology lifecycle event
+     */
+    public RadiologyLifecycleEvent saveRadiologyLifecycleEvent(RadiologyLifecycleEvent radiologyLifecycleEvent);
+    
+    /**
+     * @see org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService#getRadiologyLifecycleEvents(RadiologyOrder)
+     */
+    public List<RadiologyLifecycleEvent> getRadiologyLifecycleEvents(RadiologyOrder radiologyOrder);
+    
+    /**
+     * Get the latest radiology lifecycle event of given type of given radiology order.
+     * 
+     * @param radiologyOrder the radiology order of the wanted lifecycle event
+     * @param eventType the type of the wanted lifecycle event
+     * @return the latest lifecycle event of given type of given radiology order or null if there is none
+     */
+    public RadiologyLifecycleEvent getLatestRadiologyLifecycleEvent(RadiologyOrder radiologyOrder,
+            RadiologyLifecycleEventType eventType);
+    
+    /**
+     * Get the radiology lifecycle events which have not been rolled up yet and for which the lifecycle event starting
+     * their turnaround interval has been recorded, in increasing order of their event id.
+     * 
+     * @param maxResults the maximum number of lifecycle events to return
+     * @return the lifecycle events which have not been rolled up yet
+     */
+    public List<RadiologyLifecycleEvent> getRadiologyLifecycleEventsNotRolledUp(int maxResults);
+    
+    /**
+     * Get the radiology turnaround rollup of given period and dimensions.
+     * 
+     * @param granularity the granularity of the wanted rollup
+     * @param interval the turnaround interval of the wanted rollup
+     * @param periodStart the period start of the wanted rollup
+     * @param procedure the procedure of the wanted rollup
+     * @param urgency the urgency of the wanted rollup
+     * @param principalResultsInterpreter the principal results interpreter of the wanted rollup, may be null
+     * @return the rollup of given period and dimensions or null if there is none
+     */
+    public RadiologyTurnaroundRollup getRadiologyTurnaroundRollup(RadiologyTurnaroundGranularity granularity,
+            RadiologyTurnaroundInterval interval, Date periodStart, Concept procedure, Urgency urgency,
+            Provider principalResultsInterpreter);
+    
+    /**
+     * Saves given radiology turnaround rollup.
+     * 
+     * @param radiologyTurnaroundRollup the radiology turnaround rollup to save
+     * @return the saved radiology turnaround rollup
+     */
+    public RadiologyTurnaroundRollup saveRadiologyTurnaroundRollup(RadiologyTurnaroundRollup radiologyTurnaroundRollup);
+    
+    /**
+     * Get the radiology turnaround rollups matching given search criteria, ordered by period start.
+     * 
+     * @param radiologyTurnaroundSearchCriteria the search criteria
+     * @return the rollups matching given search criteria
+     */
+    public List<RadiologyTurnaroundRollup>
+            getRadiologyTurnaroundRollups(RadiologyTurnaroundSearchCriteria radiologyTurnaroundSearchCriteria);
+}
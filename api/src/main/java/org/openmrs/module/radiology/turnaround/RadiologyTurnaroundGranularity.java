@@ -0,0 +1,43 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.commons.lang3.time.DateUtils;
+
+/**
+ * The length of the periods {@link RadiologyTurnaroundRollup}'s aggregate turnaround times over.
+ */
+public enum RadiologyTurnaroundGranularity {
+    
+    HOUR(Calendar.HOUR_OF_DAY),
+    DAY(Calendar.DATE);
+    
+    private final int calendarField;
+    
+    private RadiologyTurnaroundGranularity(int calendarField) {
+        this.calendarField = calendarField;
+    }
+    
+    /**
+     * Get the start of the period given date falls into, in the default time zone.
+     * 
+     * @param date the date to get the period start for
+     * @return the start of the period given date falls into
+     * @should return the start of the hour given date falls into for hour
+     * @should return the start of the day given date falls into for day
+     */
+    public Date getPeriodStart(Date date) {
+        
+        return DateUtils.truncate(date, calendarField);
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+/**
+ * The intervals between {@link RadiologyLifecycleEvent}'s of a {@code RadiologyOrder} turnaround times are measured for.
+ */
+public enum RadiologyTurnaroundInterval {
+    
+    /**
+     * From placing the radiology order until its study is completed.
+     */
+    ORDER_TO_EXAM(RadiologyLifecycleEventType.ORDERED, RadiologyLifecycleEventType.PERFORMED),
+    
+    /**
+     * From completing the study of the radiology order until its report is completed.
+     */
+    EXAM_TO_REPORT(RadiologyLifecycleEventType.PERFORMED, RadiologyLifecycleEventType.REPORTED);
+    
+    private final RadiologyLifecycleEventType startEventType;
+    
+    private final RadiologyLifecycleEventType endEventType;
+    
+    private RadiologyTurnaroundInterval(RadiologyLifecycleEventType startEventType,
+            RadiologyLifecycleEventType endEventType) {
+        this.startEventType = startEventType;
+        this.endEventType = endEventType;
+    }
+    
+    /**
+     * @return the type of the lifecycle event starting this interval
+     */
+    public RadiologyLifecycleEventType getStartEventType() {
+        return startEventType;
+    }
+    
+    /**
+     * @return the type of the lifecycle event ending this interval
+     */
+    public RadiologyLifecycleEventType getEndEventType() {
+        return endEventType;
+    }
+    
+    /**
+     * Get the interval ended by given lifecycle event type.
+     * 
+     * @param endEventType the type of the lifecycle event ending the wanted interval
+     * @return the interval ended by given lifecycle event type or null if it does not end any interval
+     * @should return the interval ended by given lifecycle event type
+     * @should return null given a lifecycle event type not ending any interval
+     */
+    public static RadiologyTurnaroundInterval getIntervalEndedBy(RadiologyLifecycleEventType endEventType) {
+        
+        for (final RadiologyTurnaroundInterval interval : values()) {
+            if (interval.endEventType == endEventType) {
+                return interval;
+            }
+        }
+        return null;
+    }
+}
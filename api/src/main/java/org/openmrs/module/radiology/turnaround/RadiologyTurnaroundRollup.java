@@ -0,0 +1,193 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.util.Date;
+
+import org.openmrs.Concept;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Provider;
+
+/**
+ * Aggregates the turnaround times of a {@link RadiologyTurnaroundInterval} which ended within an hour or a day, for one
+ * combination of procedure, urgency and principal results interpreter.
+ * <p>
+ * Rollups hold the count and the sum of the turnaround times and a {@link RadiologyTurnaroundSketch} of them, all of
+ * which can be merged so that statistics over any number of rollups are computed without going back to the
+ * {@link RadiologyLifecycleEvent}'s.
+ * </p>
+ */
+public class RadiologyTurnaroundRollup {
+    
+    
+    /**
+     * The principal results interpreter key of rollups of intervals not ending with a report.
+     */
+    static final int NO_PRINCIPAL_RESULTS_INTERPRETER_KEY = 0;
+    
+    private Integer rollupId;
+    
+    private RadiologyTurnaroundGranularity granularity;
+    
+    private RadiologyTurnaroundInterval interval;
+    
+    private Date periodStart;
+    
+    private Concept procedure;
+    
+    private Urgency urgency;
+    
+    private Provider principalResultsInterpreter;
+    
+    /**
+     * The id of the principal results interpreter or 0 if there is none, which takes the place of the nullable principal
+     * results interpreter in the unique key of rollups since databases do not consider null values equal in unique
+     * constraints.
+     */
+    private Integer principalResultsInterpreterKey = NO_PRINCIPAL_RESULTS_INTERPRETER_KEY;
+    
+    private long count;
+    
+    private long totalSeconds;
+    
+    private byte[] sketch;
+    
+    private Integer version;
+    
+    public Integer getRollupId() {
+        return rollupId;
+    }
+    
+    public void setRollupId(Integer rollupId) {
+        this.rollupId = rollupId;
+    }
+    
+    public RadiologyTurnaroundGranularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(RadiologyTurnaroundGranularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public RadiologyTurnaroundInterval getInterval() {
+        return interval;
+    }
+    
+    public void setInterval(RadiologyTurnaroundInterval interval) {
+        this.interval = interval;
+    }
+    
+    /**
+     * @return the start of the hour or day the aggregated turnaround times ended in
+     */
+    public Date getPeriodStart() {
+        return periodStart;
+    }
+    
+    public void setPeriodStart(Date periodStart) {
+        this.periodStart = periodStart;
+    }
+    
+    /**
+     * @return the imaging procedure ordered by the radiology orders
+     */
+    public Concept getProcedure() {
+        return procedure;
+    }
+    
+    public void setProcedure(Concept procedure) {
+        this.procedure = procedure;
+    }
+    
+    public Urgency getUrgency() {
+        return urgency;
+    }
+    
+    public void setUrgency(Urgency urgency) {
+        this.urgency = urgency;
+    }
+    
+    /**
+     * @return the principal results interpreter of the reports or null for intervals not ending with a report
+     */
+    public Provider getPrincipalResultsInterpreter() {
+        return principalResultsInterpreter;
+    }
+    
+    public void setPrincipalResultsInterpreter(Provider principalResultsInterpreter) {
+        this.principalResultsInterpreter = principalResultsInterpreter;
+        this.principalResultsInterpreterKey = getPrincipalResultsInterpreterKey(principalResultsInterpreter);
+    }
+    
+    /**
+     * Get the key the rollups of given principal results interpreter are unique by.
+     * 
+     * @param principalResultsInterpreter the principal results interpreter or null for intervals not ending with a
+     *        report
+     * @return the id of given principal results interpreter or {@link #NO_PRINCIPAL_RESULTS_INTERPRETER_KEY} if it is
+     *         null
+     * @should return the provider id of given principal results interpreter
+     * @should return no principal results interpreter key if given principal results interpreter is null
+     */
+    static Integer getPrincipalResultsInterpreterKey(Provider principalResultsInterpreter) {
+        return principalResultsInterpreter == null ? NO_PRINCIPAL_RESULTS_INTERPRETER_KEY
+                : principalResultsInterpreter.getProviderId();
+    }
+    
+    /**
+     * @return the version of this rollup which is incremented on every update and used to detect concurrent additions
+     *         to it
+     */
+    public Integer getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+    
+    /**
+     * @return the number of aggregated turnaround times
+     */
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * @return the sum of the aggregated turnaround times in seconds
+     */
+    public long getTotalSeconds() {
+        return totalSeconds;
+    }
+    
+    /**
+     * @return the sketch of the aggregated turnaround times
+     */
+    public RadiologyTurnaroundSketch getSketch() {
+        return RadiologyTurnaroundSketch.fromByteArray(sketch);
+    }
+    
+    /**
+     * Adds given turnaround times to this rollup.
+     * 
+     * @param turnaroundSketch the sketch of the turnaround times to add
+     * @param turnaroundSeconds the sum of the turnaround times to add in seconds
+     * @should add given turnaround times to count, total seconds and sketch
+     */
+    public void add(RadiologyTurnaroundSketch turnaroundSketch, long turnaroundSeconds) {
+        
+        final RadiologyTurnaroundSketch merged = getSketch();
+        merged.merge(turnaroundSketch);
+        this.sketch = merged.toByteArray();
+        this.count = merged.getCount();
+        this.totalSeconds += turnaroundSeconds;
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.openmrs.Concept;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Provider;
+
+/**
+ * Search parameter object for {@link RadiologyTurnaroundStatistics}.
+ *
+ * <p>Typical usage involves:
+ * <ol>
+ * <li>Set the turnaround interval through {@link Builder#withInterval(RadiologyTurnaroundInterval)} and optionally
+ * the granularity of the rollups to read through {@link Builder#withGranularity(RadiologyTurnaroundGranularity)}.</li>
+ * <li>Optionally restrict the rollups through the respective methods of the static builder class
+ * ({@link Builder#fromDate(Date)}, {@link Builder#toDate(Date)}, {@link Builder#withProcedure(Concept)},
+ * {@link Builder#withUrgency(Urgency)} and {@link Builder#withPrincipalResultsInterpreter(Provider)}).</li>
+ * <li>Optionally group the statistics through {@link Builder#groupBy(RadiologyTurnaroundDimension...)}.</li>
+ * <li>Build the {@link RadiologyTurnaroundSearchCriteria} instance with the {@link Builder#build()} method.</li>
+ * </ol>
+ */
+public class RadiologyTurnaroundSearchCriteria {
+    
+    
+    private final RadiologyTurnaroundInterval interval;
+    
+    private final RadiologyTurnaroundGranularity granularity;
+    
+    private final Date fromDate;
+    
+    private final Date toDate;
+    
+    private final Concept procedure;
+    
+    private final Urgency urgency;
+    
+    private final Provider principalResultsInterpreter;
+    
+    private final Set<RadiologyTurnaroundDimension> groupBy;
+    
+    /**
+     * @return the turnaround interval
+     */
+    public RadiologyTurnaroundInterval getInterval() {
+        
+        return interval;
+    }
+    
+    /**
+     * @return the granularity of the rollups to read
+     */
+    public RadiologyTurnaroundGranularity getGranularity() {
+        
+        return granularity;
+    }
+    
+    /**
+     * @return the minimum date (inclusive) the turnaround intervals ended
+     */
+    public Date getFromDate() {
+        
+        return fromDate;
+    }
+    
+    /**
+     * @return the maximum date (inclusive) the turnaround intervals ended
+     */
+    public Date getToDate() {
+        
+        return toDate;
+    }
+    
+    /**
+     * @return the imaging procedure ordered by the radiology orders
+     */
+    public Concept getProcedure() {
+        
+        return procedure;
+    }
+    
+    /**
+     * @return the urgency of the radiology orders
+     */
+    public Urgency getUrgency() {
+        
+        return urgency;
+    }
+    
+    /**
+     * @return the principal results interpreter of the reports
+     */
+    public Provider getPrincipalResultsInterpreter() {
+        
+        return principalResultsInterpreter;
+    }
+    
+    /**
+     * @return the dimensions the statistics are grouped by
+     */
+    public Set<RadiologyTurnaroundDimension> getGroupBy() {
+        
+        return groupBy;
+    }
+    
+    public static class Builder {
+        
+        
+        private RadiologyTurnaroundInterval interval;
+        
+        private RadiologyTurnaroundGranularity granularity = RadiologyTurnaroundGranularity.DAY;
+        
+        private Date fromDate;
+        
+        private Date toDate;
+        
+        private Concept procedure;
+        
+        private Urgency urgency;
+        
+        private Provider principalResultsInterpreter;
+        
+        private final Set<RadiologyTurnaroundDimension> groupBy = EnumSet.noneOf(RadiologyTurnaroundDimension.class);
+        
+        /**
+         * @param interval the turnaround interval
+         * @return this builder instance
+         */
+        public Builder withInterval(RadiologyTurnaroundInterval interval) {
+            
+            this.interval = interval;
+            return this;
+        }
+        
+        /**
+         * Sets the granularity of the rollups to read, which is the length of the periods when grouping by period.
+         * Defaults to {@link RadiologyTurnaroundGranularity#DAY}.
+         * 
+         * @param granularity the granularity of the rollups to read
+         * @return this builder instance
+         */
+        public Builder withGranularity(RadiologyTurnaroundGranularity granularity) {
+            
+            this.granularity = granularity == null ? RadiologyTurnaroundGranularity.DAY : granularity;
+            return this;
+        }
+        
+        /**
+         * @param fromDate the minimum date (inclusive) the turnaround intervals ended
+         * @return this builder instance
+         */
+        public Builder fromDate(Date fromDate) {
+            
+            this.fromDate = fromDate;
+            return this;
+        }
+        
+        /**
+         * @param toDate the maximum date (inclusive) the turnaround intervals ended
+         * @return this builder instance
+         */
+        public Builder toDate(Date toDate) {
+            
+            this.toDate = toDate;
+            return this;
+        }
+        
+        /**
+         * @param procedure the imaging procedure ordered by the radiology orders
+         * @return this builder instance
+         */
+        public Builder withProcedure(Concept procedure) {
+            
+            this.procedure = procedure;
+            return this;
+        }
+        
+        /**
+         * @param urgency the urgency of the radiology orders
+         * @return this builder instance
+         */
+        public Builder withUrgency(Urgency urgency) {
+            
+            this.urgency = urgency;
+            return this;
+        }
+        
+        /**
+         * @param principalResultsInterpreter the principal results interpreter of the reports
+         * @return this builder instance
+         */
+        public Builder withPrincipalResultsInterpreter(Provider principalResultsInterpreter) {
+            
+            this.principalResultsInterpreter = principalResultsInterpreter;
+            return this;
+        }
+        
+        /**
+         * Groups the statistics by given dimensions, statistics are computed over all matching rollups if none are
+         * given.
+         * 
+         * @param dimensions the dimensions to group the statistics by
+         * @return this builder instance
+         */
+        public Builder groupBy(RadiologyTurnaroundDimension... dimensions) {
+            
+            for (final RadiologyTurnaroundDimension dimension : dimensions) {
+                if (dimension != null) {
+                    this.groupBy.add(dimension);
+                }
+            }
+            return this;
+        }
+        
+        /**
+         * Create an {@link RadiologyTurnaroundSearchCriteria} with the properties of this builder instance.
+         * 
+         * @return a new search criteria instance
+         * @should create a new radiology turnaround search criteria instance with all properties if set
+         * @should create a new radiology turnaround search criteria instance with granularity day if not set
+         */
+        public RadiologyTurnaroundSearchCriteria build() {
+            
+            return new RadiologyTurnaroundSearchCriteria(this);
+        }
+    }
+    
+    private RadiologyTurnaroundSearchCriteria(Builder builder) {
+        
+        this.interval = builder.interval;
+        this.granularity = builder.granularity;
+        this.fromDate = builder.fromDate;
+        this.toDate = builder.toDate;
+        this.procedure = builder.procedure;
+        this.urgency = builder.urgency;
+        this.principalResultsInterpreter = builder.principalResultsInterpreter;
+        this.groupBy = Collections.unmodifiableSet(EnumSet.copyOf(builder.groupBy));
+    }
+}
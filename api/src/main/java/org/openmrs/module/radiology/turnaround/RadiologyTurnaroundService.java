@@ -0,0 +1,115 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.util.Date;
+import java.util.List;
+
+import org.openmrs.Provider;
+import org.openmrs.annotation.Authorized;
+import org.openmrs.api.OpenmrsService;
+import org.openmrs.module.radiology.RadiologyPrivileges;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+
+/**
+ * Service layer for the turnaround times of {@code RadiologyOrder's}.
+ * <p>
+ * {@link RadiologyLifecycleEvent}'s are recorded by the radiology services as radiology orders are placed, their
+ * studies performed and their reports completed. A scheduler task rolls them up into hourly and daily
+ * {@link RadiologyTurnaroundRollup}'s, from which {@link RadiologyTurnaroundStatistics} are merged.
+ * </p>
+ * 
+ * @see org.openmrs.module.radiology.turnaround.RollUpRadiologyLifecycleEventsTask
+ */
+public interface RadiologyTurnaroundService extends OpenmrsService {
+    
+    
+    /**
+     * Records a {@code RadiologyLifecycleEvent} of given radiology order.
+     * <p>
+     * Lifecycle events which do not end a {@link RadiologyTurnaroundInterval} are recorded as rolled up, since they only
+     * ever start one.
+     * </p>
+     * 
+     * @param radiologyOrder the radiology order which went through a step of its lifecycle
+     * @param eventType the lifecycle step
+     * @param eventDate the date the radiology order went through the lifecycle step
+     * @param principalResultsInterpreter the principal results interpreter of the completed report or null
+     * @return the recorded lifecycle event
+     * @throws IllegalArgumentException if given radiology order, event type or event date is null
+     * @should record a lifecycle event of given radiology order
+     * @should record lifecycle events not ending a turnaround interval as rolled up
+     * @should throw illegal argument exception if given radiology order is null
+     * @should throw illegal argument exception if given event type is null
+     * @should throw illegal argument exception if given event date is null
+     */
+    @Authorized({ RadiologyPrivileges.ADD_RADIOLOGY_ORDERS, RadiologyPrivileges.EDIT_RADIOLOGY_STUDIES,
+            RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS })
+    public RadiologyLifecycleEvent recordRadiologyLifecycleEvent(RadiologyOrder radiologyOrder,
+            RadiologyLifecycleEventType eventType, Date eventDate, Provider principalResultsInterpreter);
+    
+    /**
+     * Get the {@code RadiologyLifecycleEvent's} of given radiology order.
+     * 
+     * @param radiologyOrder the radiology order of which the lifecycle events are returned
+     * @return the lifecycle events of given radiology order ordered by event date
+     * @throws IllegalArgumentException if given null
+     * @should return the lifecycle events of given radiology order ordered by event date
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public List<RadiologyLifecycleEvent> getRadiologyLifecycleEvents(RadiologyOrder radiologyOrder);
+    
+    /**
+     * Rolls up the next {@code RadiologyLifecycleEvent's} which have not been rolled up yet into the hourly and daily
+     * {@code RadiologyTurnaroundRollup's}.
+     * <p>
+     * A lifecycle event ending a {@link RadiologyTurnaroundInterval} is added to the rollups of the hour and the day
+     * it happened in with the time since the latest lifecycle event of the same radiology order starting the interval.
+     * Lifecycle events without such a start are left as they are and rolled up by a later call once the start of
+     * their interval is recorded. The rollups and the rolled up lifecycle events are saved in the same transaction and
+     * are versioned, so that no lifecycle event is counted twice even if rollups run concurrently.
+     * </p>
+     * 
+     * @param maxResults the maximum number of lifecycle events to roll up
+     * @return the number of lifecycle events rolled up, which is smaller than given max results once all are rolled up
+     * @throws IllegalArgumentException if given max results is not positive
+     * @should add the turnaround times ended by the lifecycle events to the hourly and daily rollups
+     * @should add to existing rollups of the same period and dimensions
+     * @should not roll up lifecycle events until the start of their interval is recorded
+     * @should not roll up lifecycle events twice
+     * @should throw illegal argument exception if given max results is not positive
+     */
+    @Authorized(RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS)
+    public int rollUpRadiologyLifecycleEvents(int maxResults);
+    
+    /**
+     * Get the {@code RadiologyTurnaroundStatistics} matching given search criteria.
+     * <p>
+     * Statistics are merged from the rollups of the granularity of the search criteria, one for every combination of
+     * values of the dimensions they are grouped by, ordered by period start if grouped by period.
+     * </p>
+     * 
+     * @param radiologyTurnaroundSearchCriteria the search criteria
+     * @return the turnaround statistics matching given search criteria
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given search criteria has no interval
+     * @should return statistics merged over all rollups matching given search criteria
+     * @should return statistics grouped by period
+     * @should return statistics grouped by principal results interpreter
+     * @should return statistics of the rollups matching given urgency
+     * @should return an empty list if no rollups match given search criteria
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given search criteria has no interval
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public List<RadiologyTurnaroundStatistics>
+            getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria radiologyTurnaroundSearchCriteria);
+}
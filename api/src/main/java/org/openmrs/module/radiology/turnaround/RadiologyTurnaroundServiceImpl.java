@@ -0,0 +1,248 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.openmrs.Concept;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Provider;
+import org.openmrs.api.impl.BaseOpenmrsService;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+class RadiologyTurnaroundServiceImpl extends BaseOpenmrsService implements RadiologyTurnaroundService {
+    
+    
+    private RadiologyTurnaroundDAO radiologyTurnaroundDAO;
+    
+    public void setRadiologyTurnaroundDAO(RadiologyTurnaroundDAO radiologyTurnaroundDAO) {
+        this.radiologyTurnaroundDAO = radiologyTurnaroundDAO;
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#recordRadiologyLifecycleEvent(RadiologyOrder, RadiologyLifecycleEventType, Date,
+     *      Provider)
+     */
+    @Override
+    @Transactional
+    public RadiologyLifecycleEvent recordRadiologyLifecycleEvent(RadiologyOrder radiologyOrder,
+            RadiologyLifecycleEventType eventType, Date eventDate, Provider principalResultsInterpreter) {
+        
+        if (radiologyOrder == null) {
+            throw new IllegalArgumentException("radiologyOrder cannot be null");
+        }
+        if (eventType == null) {
+            throw new IllegalArgumentException("eventType cannot be null");
+        }
+        if (eventDate == null) {
+            throw new IllegalArgumentException("eventDate cannot be null");
+        }
+        
+        final RadiologyLifecycleEvent radiologyLifecycleEvent = new RadiologyLifecycleEvent();
+        radiologyLifecycleEvent.setRadiologyOrder(radiologyOrder);
+        radiologyLifecycleEvent.setEventType(eventType);
+        radiologyLifecycleEvent.setEventDate(eventDate);
+        radiologyLifecycleEvent.setPrincipalResultsInterpreter(principalResultsInterpreter);
+        radiologyLifecycleEvent.setRolledUp(RadiologyTurnaroundInterval.getIntervalEndedBy(eventType) == null);
+        return radiologyTurnaroundDAO.saveRadiologyLifecycleEvent(radiologyLifecycleEvent);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyLifecycleEvents(RadiologyOrder)
+     */
+    @Override
+    public List<RadiologyLifecycleEvent> getRadiologyLifecycleEvents(RadiologyOrder radiologyOrder) {
+        
+        if (radiologyOrder == null) {
+            throw new IllegalArgumentException("radiologyOrder cannot be null");
+        }
+        return radiologyTurnaroundDAO.getRadiologyLifecycleEvents(radiologyOrder);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#rollUpRadiologyLifecycleEvents(int)
+     */
+    @Override
+    @Transactional
+    public int rollUpRadiologyLifecycleEvents(int maxResults) {
+        
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("maxResults must be greater than 0");
+        }
+        
+        final List<RadiologyLifecycleEvent> radiologyLifecycleEvents =
+                radiologyTurnaroundDAO.getRadiologyLifecycleEventsNotRolledUp(maxResults);
+        final Map<RollupKey, RadiologyTurnaroundSketch> sketches = new LinkedHashMap<RollupKey, RadiologyTurnaroundSketch>();
+        final Map<RollupKey, Long> totalSeconds = new HashMap<RollupKey, Long>();
+        final List<RadiologyLifecycleEvent> rolledUp = new ArrayList<RadiologyLifecycleEvent>();
+        for (final RadiologyLifecycleEvent radiologyLifecycleEvent : radiologyLifecycleEvents) {
+            final RadiologyTurnaroundInterval interval =
+                    RadiologyTurnaroundInterval.getIntervalEndedBy(radiologyLifecycleEvent.getEventType());
+            if (interval == null) {
+                continue;
+            }
+            final RadiologyOrder radiologyOrder = radiologyLifecycleEvent.getRadiologyOrder();
+            final RadiologyLifecycleEvent start =
+                    radiologyTurnaroundDAO.getLatestRadiologyLifecycleEvent(radiologyOrder, interval.getStartEventType());
+            if (start == null) {
+                // left for a later run which rolls it up once the start of its interval is recorded
+                continue;
+            }
+            rolledUp.add(radiologyLifecycleEvent);
+            final long seconds = getTurnaroundSeconds(start.getEventDate(), radiologyLifecycleEvent.getEventDate());
+            for (final RadiologyTurnaroundGranularity granularity : RadiologyTurnaroundGranularity.values()) {
+                final RollupKey rollupKey = new RollupKey(granularity, interval,
+                        granularity.getPeriodStart(radiologyLifecycleEvent.getEventDate()), radiologyOrder.getConcept(),
+                        radiologyOrder.getUrgency(), radiologyLifecycleEvent.getPrincipalResultsInterpreter());
+                sketches.computeIfAbsent(rollupKey, key -> new RadiologyTurnaroundSketch())
+                        .add(seconds);
+                totalSeconds.merge(rollupKey, seconds, Long::sum);
+            }
+        }
+        
+        for (final Map.Entry<RollupKey, RadiologyTurnaroundSketch> sketch : sketches.entrySet()) {
+            final RollupKey rollupKey = sketch.getKey();
+            RadiologyTurnaroundRollup radiologyTurnaroundRollup = radiologyTurnaroundDAO.getRadiologyTurnaroundRollup(
+                rollupKey.granularity, rollupKey.interval, rollupKey.periodStart, rollupKey.procedure, rollupKey.urgency,
+                rollupKey.principalResultsInterpreter);
+            if (radiologyTurnaroundRollup == null) {
+                radiologyTurnaroundRollup = new RadiologyTurnaroundRollup();
+                radiologyTurnaroundRollup.setGranularity(rollupKey.granularity);
+                radiologyTurnaroundRollup.setInterval(rollupKey.interval);
+                radiologyTurnaroundRollup.setPeriodStart(rollupKey.periodStart);
+                radiologyTurnaroundRollup.setProcedure(rollupKey.procedure);
+                radiologyTurnaroundRollup.setUrgency(rollupKey.urgency);
+                radiologyTurnaroundRollup.setPrincipalResultsInterpreter(rollupKey.principalResultsInterpreter);
+            }
+            radiologyTurnaroundRollup.add(sketch.getValue(), totalSeconds.get(rollupKey));
+            radiologyTurnaroundDAO.saveRadiologyTurnaroundRollup(radiologyTurnaroundRollup);
+        }
+        
+        for (final RadiologyLifecycleEvent radiologyLifecycleEvent : rolledUp) {
+            radiologyLifecycleEvent.setRolledUp(true);
+            radiologyTurnaroundDAO.saveRadiologyLifecycleEvent(radiologyLifecycleEvent);
+        }
+        return rolledUp.size();
+    }
+    
+    /**
+     * Get the seconds between given dates, which is 0 if the end date is before the start date.
+     * 
+     * @param startDate the start date of a turnaround interval
+     * @param endDate the end date of a turnaround interval
+     * @return the seconds between given dates
+     */
+    private static long getTurnaroundSeconds(Date startDate, Date endDate) {
+        
+        return Math.max(0, (endDate.getTime() - startDate.getTime()) / 1000);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria)
+     */
+    @Override
+    public List<RadiologyTurnaroundStatistics>
+            getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria radiologyTurnaroundSearchCriteria) {
+        
+        if (radiologyTurnaroundSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyTurnaroundSearchCriteria cannot be null");
+        }
+        if (radiologyTurnaroundSearchCriteria.getInterval() == null) {
+            throw new IllegalArgumentException("radiologyTurnaroundSearchCriteria.interval cannot be null");
+        }
+        
+        final Set<RadiologyTurnaroundDimension> groupBy = radiologyTurnaroundSearchCriteria.getGroupBy();
+        final Map<RollupKey, RadiologyTurnaroundStatistics> result =
+                new LinkedHashMap<RollupKey, RadiologyTurnaroundStatistics>();
+        for (final RadiologyTurnaroundRollup radiologyTurnaroundRollup : radiologyTurnaroundDAO
+                .getRadiologyTurnaroundRollups(radiologyTurnaroundSearchCriteria)) {
+            final RollupKey statisticsKey = new RollupKey(radiologyTurnaroundRollup.getGranularity(),
+                    radiologyTurnaroundRollup.getInterval(),
+                    groupBy.contains(RadiologyTurnaroundDimension.PERIOD) ? radiologyTurnaroundRollup.getPeriodStart()
+                            : null,
+                    groupBy.contains(RadiologyTurnaroundDimension.PROCEDURE) ? radiologyTurnaroundRollup.getProcedure()
+                            : null,
+                    groupBy.contains(RadiologyTurnaroundDimension.URGENCY) ? radiologyTurnaroundRollup.getUrgency() : null,
+                    groupBy.contains(RadiologyTurnaroundDimension.PRINCIPAL_RESULTS_INTERPRETER)
+                            ? radiologyTurnaroundRollup.getPrincipalResultsInterpreter() : null);
+            result.computeIfAbsent(statisticsKey,
+                key -> new RadiologyTurnaroundStatistics(key.periodStart, key.procedure, key.urgency,
+                        key.principalResultsInterpreter))
+                    .add(radiologyTurnaroundRollup);
+        }
+        return new ArrayList<RadiologyTurnaroundStatistics>(result.values());
+    }
+    
+    /**
+     * Identifies a rollup by its period and dimensions.
+     */
+    private static final class RollupKey {
+        
+        
+        private final RadiologyTurnaroundGranularity granularity;
+        
+        private final RadiologyTurnaroundInterval interval;
+        
+        private final Date periodStart;
+        
+        private final Concept procedure;
+        
+        private final Urgency urgency;
+        
+        private final Provider principalResultsInterpreter;
+        
+        private RollupKey(RadiologyTurnaroundGranularity granularity, RadiologyTurnaroundInterval interval,
+                Date periodStart, Concept procedure, Urgency urgency, Provider principalResultsInterpreter) {
+            this.granularity = granularity;
+            this.interval = interval;
+            this.periodStart = periodStart;
+            this.procedure = procedure;
+            this.urgency = urgency;
+            this.principalResultsInterpreter = principalResultsInterpreter;
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof RollupKey)) {
+                return false;
+            }
+            final RollupKey that = (RollupKey) other;
+            return granularity == that.granularity && interval == that.interval
+                    && Objects.equals(getTime(periodStart), getTime(that.periodStart))
+                    && Objects.equals(procedure, that.procedure) && urgency == that.urgency
+                    && Objects.equals(principalResultsInterpreter, that.principalResultsInterpreter);
+        }
+        
+        @Override
+        public int hashCode() {
+            
+            return Objects.hash(granularity, interval, getTime(periodStart), procedure, urgency,
+                principalResultsInterpreter);
+        }
+        
+        private static Long getTime(Date date) {
+            
+            return date == null ? null : date.getTime();
+        }
+    }
+}
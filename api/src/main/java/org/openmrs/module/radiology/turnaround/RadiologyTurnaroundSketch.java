@@ -0,0 +1,187 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable sketch of turnaround times answering quantile queries within a relative accuracy of one percent.
+ * <p>
+ * Turnaround times are counted in buckets whose bounds grow geometrically, bucket {@code i} counting the turnaround
+ * times in seconds in {@code (gamma^(i-1), gamma^i]}. Two sketches are merged by adding the counts of their buckets,
+ * so the sketches of hourly rollups can be merged into the sketch of a day or a year without losing accuracy. A few
+ * hundred buckets cover turnaround times from a second to several years.
+ * </p>
+ */
+public class RadiologyTurnaroundSketch {
+    
+    
+    static final double RELATIVE_ACCURACY = 0.01;
+    
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    
+    private final TreeMap<Integer, Long> bucketCounts = new TreeMap<Integer, Long>();
+    
+    private long zeroCount;
+    
+    private long count;
+    
+    /**
+     * Adds given turnaround time to this sketch.
+     * 
+     * @param seconds the turnaround time in seconds
+     * @throws IllegalArgumentException if given seconds are negative
+     * @should add given turnaround time
+     * @should throw illegal argument exception if given seconds are negative
+     */
+    public void add(long seconds) {
+        
+        if (seconds < 0) {
+            throw new IllegalArgumentException("seconds cannot be negative");
+        }
+        if (seconds == 0) {
+            zeroCount++;
+        } else {
+            bucketCounts.merge(getBucketIndex(seconds), 1L, Long::sum);
+        }
+        count++;
+    }
+    
+    /**
+     * Adds the turnaround times of given sketch to this sketch.
+     * 
+     * @param other the sketch to merge into this sketch
+     * @throws IllegalArgumentException if given null
+     * @should add the turnaround times of given sketch to this sketch
+     * @should throw illegal argument exception if given null
+     */
+    public void merge(RadiologyTurnaroundSketch other) {
+        
+        if (other == null) {
+            throw new IllegalArgumentException("other cannot be null");
+        }
+        for (final Map.Entry<Integer, Long> bucketCount : other.bucketCounts.entrySet()) {
+            bucketCounts.merge(bucketCount.getKey(), bucketCount.getValue(), Long::sum);
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+    
+    /**
+     * @return the number of turnaround times added to this sketch
+     */
+    public long getCount() {
+        
+        return count;
+    }
+    
+    /**
+     * Get the turnaround time at given quantile.
+     * 
+     * @param quantile the quantile between 0 and 1, for example 0.5 for the median
+     * @return the turnaround time in seconds at given quantile within a relative accuracy of one percent or null if
+     *         this sketch is empty
+     * @throws IllegalArgumentException if given quantile is not between 0 and 1
+     * @should return the turnaround time at given quantile within the relative accuracy
+     * @should return null if this sketch is empty
+     * @should throw illegal argument exception if given quantile is not between 0 and 1
+     */
+    public Long getQuantile(double quantile) {
+        
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return null;
+        }
+        final long rank = (long) Math.floor(quantile * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0L;
+        }
+        for (final Map.Entry<Integer, Long> bucketCount : bucketCounts.entrySet()) {
+            seen += bucketCount.getValue();
+            if (rank < seen) {
+                return Math.round(2 * Math.pow(GAMMA, bucketCount.getKey()) / (GAMMA + 1));
+            }
+        }
+        throw new IllegalStateException("bucket counts do not add up to count");
+    }
+    
+    /**
+     * Serializes this sketch so that it can be stored with its {@link RadiologyTurnaroundRollup}.
+     * 
+     * @return the serialized sketch
+     * @should serialize this sketch so that it can be deserialized
+     */
+    public byte[] toByteArray() {
+        
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(12 + 12 * bucketCounts.size());
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeLong(zeroCount);
+            output.writeInt(bucketCounts.size());
+            for (final Map.Entry<Integer, Long> bucketCount : bucketCounts.entrySet()) {
+                output.writeInt(bucketCount.getKey());
+                output.writeLong(bucketCount.getValue());
+            }
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Deserializes a sketch serialized via {@link #toByteArray()}.
+     * 
+     * @param bytes the serialized sketch
+     * @return the deserialized sketch or an empty sketch if given null
+     * @throws IllegalArgumentException if given bytes are not a serialized sketch
+     * @should deserialize a serialized sketch
+     * @should return an empty sketch if given null
+     * @should throw illegal argument exception if given bytes are not a serialized sketch
+     */
+    public static RadiologyTurnaroundSketch fromByteArray(byte[] bytes) {
+        
+        final RadiologyTurnaroundSketch result = new RadiologyTurnaroundSketch();
+        if (bytes == null) {
+            return result;
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            result.zeroCount = input.readLong();
+            result.count = result.zeroCount;
+            final int buckets = input.readInt();
+            for (int i = 0; i < buckets; i++) {
+                final int index = input.readInt();
+                final long bucketCount = input.readLong();
+                result.bucketCounts.put(index, bucketCount);
+                result.count += bucketCount;
+            }
+        }
+        catch (IOException ioException) {
+            throw new IllegalArgumentException("bytes are not a serialized radiology turnaround sketch", ioException);
+        }
+        return result;
+    }
+    
+    private static int getBucketIndex(long seconds) {
+        
+        return (int) Math.ceil(Math.log(seconds) / LOG_GAMMA);
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import java.util.Date;
+
+import org.openmrs.Concept;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Provider;
+
+/**
+ * Turnaround time statistics of a {@link RadiologyTurnaroundInterval} merged from {@link RadiologyTurnaroundRollup}'s.
+ * <p>
+ * Only the dimensions the statistics are grouped by are set, the others are null.
+ * </p>
+ * 
+ * @see RadiologyTurnaroundService#getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria)
+ */
+public class RadiologyTurnaroundStatistics {
+    
+    
+    private final Date periodStart;
+    
+    private final Concept procedure;
+    
+    private final Urgency urgency;
+    
+    private final Provider principalResultsInterpreter;
+    
+    private final RadiologyTurnaroundSketch sketch = new RadiologyTurnaroundSketch();
+    
+    private long totalSeconds;
+    
+    /**
+     * Creates empty statistics for given dimensions.
+     * 
+     * @param periodStart the start of the period or null if not grouped by period
+     * @param procedure the imaging procedure or null if not grouped by procedure
+     * @param urgency the urgency or null if not grouped by urgency
+     * @param principalResultsInterpreter the principal results interpreter or null if not grouped by it
+     */
+    RadiologyTurnaroundStatistics(Date periodStart, Concept procedure, Urgency urgency,
+            Provider principalResultsInterpreter) {
+        this.periodStart = periodStart == null ? null : new Date(periodStart.getTime());
+        this.procedure = procedure;
+        this.urgency = urgency;
+        this.principalResultsInterpreter = principalResultsInterpreter;
+    }
+    
+    /**
+     * Merges given rollup into these statistics.
+     * 
+     * @param radiologyTurnaroundRollup the rollup to merge
+     */
+    void add(RadiologyTurnaroundRollup radiologyTurnaroundRollup) {
+        
+        sketch.merge(radiologyTurnaroundRollup.getSketch());
+        totalSeconds += radiologyTurnaroundRollup.getTotalSeconds();
+    }
+    
+    /**
+     * @return the start of the period or null if not grouped by period
+     */
+    public Date getPeriodStart() {
+        
+        return periodStart == null ? null : new Date(periodStart.getTime());
+    }
+    
+    /**
+     * @return the imaging procedure or null if not grouped by procedure
+     */
+    public Concept getProcedure() {
+        
+        return procedure;
+    }
+    
+    /**
+     * @return the urgency or null if not grouped by urgency
+     */
+    public Urgency getUrgency() {
+        
+        return urgency;
+    }
+    
+    /**
+     * @return the principal results interpreter or null if not grouped by it
+     */
+    public Provider getPrincipalResultsInterpreter() {
+        
+        return principalResultsInterpreter;
+    }
+    
+    /**
+     * @return the number of turnaround times
+     */
+    public long getCount() {
+        
+        return sketch.getCount();
+    }
+    
+    /**
+     * @return the sum of the turnaround times in seconds
+     */
+    public long getTotalSeconds() {
+        
+        return totalSeconds;
+    }
+    
+    /**
+     * @return the mean turnaround time in seconds or null if there are no turnaround times
+     */
+    public Double getMeanSeconds() {
+        
+        return sketch.getCount() == 0 ? null : (double) totalSeconds / sketch.getCount();
+    }
+    
+    /**
+     * @return the median turnaround time in seconds or null if there are no turnaround times
+     */
+    public Long getMedianSeconds() {
+        
+        return sketch.getQuantile(0.5);
+    }
+    
+    /**
+     * @return the 90th percentile of the turnaround times in seconds or null if there are no turnaround times
+     */
+    public Long getPercentile90Seconds() {
+        
+        return sketch.getQuantile(0.9);
+    }
+    
+    /**
+     * @return the 95th percentile of the turnaround times in seconds or null if there are no turnaround times
+     */
+    public Long getPercentile95Seconds() {
+        
+        return sketch.getQuantile(0.95);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.scheduler.tasks.AbstractTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduler task rolling up the {@code RadiologyLifecycleEvent's} recorded since its last run into the hourly and daily
+ * {@code RadiologyTurnaroundRollup's}.
+ * <p>
+ * Lifecycle events are rolled up in batches each running in its own transaction, so that the task can be stopped and
+ * run again at any time.
+ * </p>
+ * 
+ * @see RadiologyTurnaroundService#rollUpRadiologyLifecycleEvents(int)
+ */
+public class RollUpRadiologyLifecycleEventsTask extends AbstractTask {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(RollUpRadiologyLifecycleEventsTask.class);
+    
+    static final int BATCH_SIZE = 500;
+    
+    /**
+     * @see org.openmrs.scheduler.tasks.AbstractTask#execute()
+     */
+    @Override
+    public void execute() {
+        
+        if (isExecuting) {
+            return;
+        }
+        startExecuting();
+        try {
+            final RadiologyTurnaroundService radiologyTurnaroundService =
+                    Context.getService(RadiologyTurnaroundService.class);
+            int rolledUp = radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(BATCH_SIZE);
+            int total = rolledUp;
+            while (rolledUp == BATCH_SIZE) {
+                Context.clearSession();
+                rolledUp = radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(BATCH_SIZE);
+                total += rolledUp;
+            }
+            log.debug("Rolled up {} radiology lifecycle events", total);
+        }
+        catch (Exception e) {
+            log.error("Failed to roll up radiology lifecycle events", e);
+        }
+        finally {
+            stopExecuting();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateHtmlBodyCache;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+/**
+ * Tests {@link RadiologyActivator}.
+ */
+public class RadiologyActivatorComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/MrrtReportTemplateServiceComponentTestDataset.xml";
+    
+    private static final int EXISTING_TEMPLATE_ID = 1;
+    
+    @Autowired
+    @Qualifier("adminService")
+    private AdministrationService administrationService;
+    
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    @Autowired
+    private MrrtReportTemplateService mrrtReportTemplateService;
+    
+    @Autowired
+    private MrrtReportTemplateHtmlBodyCache mrrtReportTemplateHtmlBodyCache;
+    
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        executeDataSet(TEST_DATASET);
+        mrrtReportTemplateHtmlBodyCache.clear();
+        
+        // only the existing template with id 1 has a template file, the file of the other template cannot be read
+        File templateFile = temporaryFolder.newFile();
+        FileUtils.writeStringToFile(templateFile, "<html><body><p>Sample Template</p></body></html>");
+        MrrtReportTemplate mrrtReportTemplate = mrrtReportTemplateService.getMrrtReportTemplate(EXISTING_TEMPLATE_ID);
+        mrrtReportTemplate.setPath(templateFile.getAbsolutePath());
+    }
+    
+    /**
+     * Sets the global property deciding if the report template cache is warmed and logs out, since no user is
+     * authenticated while the module starts.
+     */
+    private void prepareStartup(boolean warmMrrtReportTemplateCache) {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_WARM_MRRT_REPORT_TEMPLATE_CACHE,
+                String.valueOf(warmMrrtReportTemplateCache)));
+        radiologyProperties.clearCache();
+        Context.flushSession();
+        Context.logout();
+    }
+    
+    /**
+     * @see RadiologyActivator#warmMrrtReportTemplateHtmlBodyCache()
+     */
+    @Test
+    public void shouldCacheTheHtmlBodiesOfAllReportTemplatesWithoutAnAuthenticatedUser() throws Exception {
+        
+        prepareStartup(true);
+        
+        new RadiologyActivator().warmMrrtReportTemplateHtmlBodyCache();
+        
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEntryCount(), is(1));
+        assertFalse(Context.hasPrivilege(RadiologyPrivileges.GET_RADIOLOGY_REPORT_TEMPLATES));
+    }
+    
+    /**
+     * @see RadiologyActivator#warmMrrtReportTemplateHtmlBodyCache()
+     */
+    @Test
+    public void shouldNotCacheTheHtmlBodiesOfTheReportTemplatesIfWarmReportTemplateCacheIsFalse() throws Exception {
+        
+        prepareStartup(false);
+        
+        new RadiologyActivator().warmMrrtReportTemplateHtmlBodyCache();
+        
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEntryCount(), is(0));
+    }
+}
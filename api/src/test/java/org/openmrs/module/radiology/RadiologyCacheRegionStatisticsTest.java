@@ -0,0 +1,44 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link RadiologyCacheRegionStatistics}.
+ */
+public class RadiologyCacheRegionStatisticsTest {
+    
+    
+    /**
+     * @see RadiologyCacheRegionStatistics#getHitRatio()
+     */
+    @Test
+    public void shouldReturnTheShareOfLookupsServedFromTheCacheRegion() throws Exception {
+        
+        RadiologyCacheRegionStatistics statistics = new RadiologyCacheRegionStatistics("region", 3, 1, 1, 1);
+        
+        assertThat(statistics.getHitRatio(), is(0.75));
+    }
+    
+    /**
+     * @see RadiologyCacheRegionStatistics#getHitRatio()
+     */
+    @Test
+    public void shouldReturnZeroIfThereWereNoLookups() throws Exception {
+        
+        RadiologyCacheRegionStatistics statistics = new RadiologyCacheRegionStatistics("region", 0, 0, 0, 0);
+        
+        assertThat(statistics.getHitRatio(), is(0.0));
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateHtmlBodyCache;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+/**
+ * Tests {@link RadiologyCacheStatistics}.
+ */
+public class RadiologyCacheStatisticsComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    @Autowired
+    @Qualifier("adminService")
+    private AdministrationService administrationService;
+    
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    @Autowired
+    private RadiologyCacheStatistics radiologyCacheStatistics;
+    
+    @Autowired
+    private MrrtReportTemplateHtmlBodyCache mrrtReportTemplateHtmlBodyCache;
+    
+    @After
+    public void disableStatistics() {
+        radiologyCacheStatistics.setStatisticsEnabled(false);
+    }
+    
+    /**
+     * @see RadiologyCacheStatistics#setStatisticsEnabled(boolean)
+     */
+    @Test
+    public void shouldEnableTheCollectionOfStatistics() throws Exception {
+        
+        radiologyCacheStatistics.setStatisticsEnabled(true);
+        
+        assertThat(radiologyCacheStatistics.isStatisticsEnabled(), is(true));
+    }
+    
+    /**
+     * @see RadiologyCacheStatistics#setStatisticsEnabled(boolean)
+     */
+    @Test
+    public void shouldDisableTheCollectionOfStatistics() throws Exception {
+        
+        radiologyCacheStatistics.setStatisticsEnabled(true);
+        
+        radiologyCacheStatistics.setStatisticsEnabled(false);
+        
+        assertThat(radiologyCacheStatistics.isStatisticsEnabled(), is(false));
+    }
+    
+    /**
+     * @see RadiologyCacheStatistics#getCacheRegionStatistics()
+     */
+    @Test
+    public void shouldReturnOnlyTheStatisticsOfRadiologyCacheRegions() throws Exception {
+        
+        for (RadiologyCacheRegionStatistics statistics : radiologyCacheStatistics.getCacheRegionStatistics()) {
+            assertThat(statistics.getRegionName(), containsString("org.openmrs.module.radiology."));
+        }
+    }
+    
+    /**
+     * @see RadiologyCacheStatistics#getGlobalPropertyCacheStatistics()
+     */
+    @Test
+    public void shouldReturnTheHitAndMissCountOfTheGlobalPropertyCache() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, "1.2.826.0.1.3680043.8.2186"));
+        radiologyProperties.getDicomUIDOrgRoot();
+        radiologyProperties.getDicomUIDOrgRoot();
+        
+        RadiologyCacheRegionStatistics statistics = radiologyCacheStatistics.getGlobalPropertyCacheStatistics();
+        
+        assertThat(statistics.getHitCount(), is(radiologyProperties.getCacheHitCount()));
+        assertThat(statistics.getMissCount(), is(radiologyProperties.getCacheMissCount()));
+    }
+    
+    /**
+     * @see RadiologyCacheStatistics#getMrrtReportTemplateCacheStatistics()
+     */
+    @Test
+    public void shouldReturnTheHitMissAndPutCountAndTheNumberOfHtmlBodiesOfTheReportTemplateCache() throws Exception {
+        
+        RadiologyCacheRegionStatistics statistics = radiologyCacheStatistics.getMrrtReportTemplateCacheStatistics();
+        
+        assertThat(statistics.getRegionName(), is(MrrtReportTemplateHtmlBodyCache.class.getName()));
+        assertThat(statistics.getHitCount(), is(mrrtReportTemplateHtmlBodyCache.getHitCount()));
+        assertThat(statistics.getMissCount(), is(mrrtReportTemplateHtmlBodyCache.getMissCount()));
+        assertThat(statistics.getPutCount(), is(mrrtReportTemplateHtmlBodyCache.getPutCount()));
+        assertThat(statistics.getElementCountInMemory(), is((long) mrrtReportTemplateHtmlBodyCache.getEntryCount()));
+    }
+}
@@ -19,7 +19,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.hibernate.SessionFactory;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -36,6 +38,7 @@ import org.openmrs.api.ConceptService;
 import org.openmrs.api.EncounterService;
 import org.openmrs.api.OrderService;
 import org.openmrs.api.VisitService;
+import org.openmrs.api.context.Context;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.openmrs.util.OpenmrsUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -66,6 +69,9 @@ public class RadiologyPropertiesComponentTest extends BaseModuleContextSensitive
     @Autowired
     private VisitService visitService;
     
+    @Autowired
+    private SessionFactory sessionFactory;
+    
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
@@ -80,6 +86,7 @@ public class RadiologyPropertiesComponentTest extends BaseModuleContextSensitive
         getGlobalPropertyMethod = RadiologyProperties.class.getDeclaredMethod("getGlobalProperty",
             new Class[] { String.class, boolean.class });
         getGlobalPropertyMethod.setAccessible(true);
+        radiologyProperties.clearCache();
     }
     
     /**
@@ -106,6 +113,88 @@ public class RadiologyPropertiesComponentTest extends BaseModuleContextSensitive
         radiologyProperties.getDicomUIDOrgRoot();
     }
     
+    /**
+     * @see RadiologyProperties#getDicomUIDOrgRoot()
+     */
+    @Test
+    public void shouldReturnCachedDicomUidOrgRootWithoutReadingTheGlobalPropertyAgain() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, "1.2.826.0.1.3680043.8.2186"));
+        long hitCount = radiologyProperties.getCacheHitCount();
+        long missCount = radiologyProperties.getCacheMissCount();
+        
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.826.0.1.3680043.8.2186"));
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.826.0.1.3680043.8.2186"));
+        
+        assertThat(radiologyProperties.getCacheMissCount(), is(missCount + 1));
+        assertThat(radiologyProperties.getCacheHitCount(), is(hitCount + 1));
+    }
+    
+    /**
+     * @see RadiologyProperties#globalPropertyChanged(GlobalProperty)
+     */
+    @Test
+    public void shouldEvictTheCachedValueOfTheChangedGlobalProperty() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, "1.2.826.0.1.3680043.8.2186"));
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.826.0.1.3680043.8.2186"));
+        
+        administrationService.setGlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, "1.2.826.0.1.3680043.8.2187");
+        
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.826.0.1.3680043.8.2187"));
+    }
+    
+    /**
+     * @see RadiologyProperties#getCachedValue(String, java.util.function.Supplier)
+     */
+    @Test
+    public void shouldReturnTheCachedValueUntilItsTimeToLiveExpired() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, "1.2.826.0.1.3680043.8.2186"));
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.826.0.1.3680043.8.2186"));
+        
+        // change the global property like another node of a cluster would, without notifying the listeners of this node
+        Context.flushSession();
+        getConnection().createStatement()
+                .executeUpdate("UPDATE global_property SET property_value = '1.2.826.0.1.3680043.8.2187' WHERE property = '"
+                        + RadiologyConstants.GP_DICOM_UID_ORG_ROOT + "'");
+        Context.clearSession();
+        sessionFactory.getCache()
+                .evictEntityRegion(GlobalProperty.class);
+        
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.826.0.1.3680043.8.2186"));
+        
+        try {
+            radiologyProperties.setCacheTimeToLive(0, TimeUnit.SECONDS);
+            
+            assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.826.0.1.3680043.8.2187"));
+        }
+        finally {
+            radiologyProperties.setCacheTimeToLive(60, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * @see RadiologyProperties#globalPropertyDeleted(String)
+     */
+    @Test
+    public void shouldEvictTheCachedValueOfTheDeletedGlobalProperty() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, "1.2.826.0.1.3680043.8.2186"));
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.826.0.1.3680043.8.2186"));
+        
+        administrationService.purgeGlobalProperty(
+            administrationService.getGlobalPropertyObject(RadiologyConstants.GP_DICOM_UID_ORG_ROOT));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Configuration required: " + RadiologyConstants.GP_DICOM_UID_ORG_ROOT);
+        radiologyProperties.getDicomUIDOrgRoot();
+    }
+    
     /**
      * @see RadiologyProperties#getDicomWebViewerAddress()
      */
@@ -546,6 +635,249 @@ public class RadiologyPropertiesComponentTest extends BaseModuleContextSensitive
         assertThat(radiologyProperties.getRadiologyOrderReasonConceptClassNames(), is(expectedNames));
     }
     
+    /**
+     * @see RadiologyProperties#getAccessionNumberBlockSize()
+     */
+    @Test
+    public void shouldReturnAccessionNumberBlockSize() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, "20"));
+        
+        assertThat(radiologyProperties.getAccessionNumberBlockSize(), is(20));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberBlockSize()
+     */
+    @Test
+    public void shouldReturnOneIfGlobalPropertyAccessionNumberBlockSizeIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getAccessionNumberBlockSize(), is(1));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberBlockSize()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyAccessionNumberBlockSizeIsNotAPositiveInteger() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, "0"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(
+            "Property " + RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE + " needs to be a positive integer");
+        radiologyProperties.getAccessionNumberBlockSize();
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberGenerator()
+     */
+    @Test
+    public void shouldReturnAccessionNumberGenerator() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, "sequence"));
+        
+        assertThat(radiologyProperties.getAccessionNumberGenerator(), is("sequence"));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberGenerator()
+     */
+    @Test
+    public void shouldReturnGlobalPropertyIfGlobalPropertyAccessionNumberGeneratorIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getAccessionNumberGenerator(),
+            is(RadiologyConstants.DEFAULT_ACCESSION_NUMBER_GENERATOR));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberPrefix()
+     */
+    @Test
+    public void shouldReturnAccessionNumberPrefix() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_PREFIX, "CT"));
+        
+        assertThat(radiologyProperties.getAccessionNumberPrefix(), is("CT"));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberPrefix()
+     */
+    @Test
+    public void shouldReturnAnEmptyStringIfGlobalPropertyAccessionNumberPrefixIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getAccessionNumberPrefix(), is(""));
+    }
+    
+    /**
+     * @see RadiologyProperties#getCompressReportBodies()
+     */
+    @Test
+    public void shouldReturnTrueIfGlobalPropertyCompressReportBodiesIsSetToTrue() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_COMPRESS_REPORT_BODIES, "true"));
+        
+        assertThat(radiologyProperties.getCompressReportBodies(), is(true));
+    }
+    
+    /**
+     * @see RadiologyProperties#getCompressReportBodies()
+     */
+    @Test
+    public void shouldReturnFalseIfGlobalPropertyCompressReportBodiesIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getCompressReportBodies(), is(false));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateCacheMaxEntries()
+     */
+    @Test
+    public void shouldReturnReportTemplateCacheMaxEntries() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_CACHE_MAX_ENTRIES, "50"));
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateCacheMaxEntries(), is(50));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateCacheMaxEntries()
+     */
+    @Test
+    public void shouldReturn256IfGlobalPropertyReportTemplateCacheMaxEntriesIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateCacheMaxEntries(), is(256));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateCacheMaxBytes()
+     */
+    @Test
+    public void shouldReturnReportTemplateCacheMaxBytes() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_CACHE_MAX_BYTES, "1024"));
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateCacheMaxBytes(), is(1024));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateCacheMaxBytes()
+     */
+    @Test
+    public void shouldReturn16MiBIfGlobalPropertyReportTemplateCacheMaxBytesIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateCacheMaxBytes(), is(16 * 1024 * 1024));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateImportThreads()
+     */
+    @Test
+    public void shouldReturnReportTemplateImportThreads() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_THREADS, "8"));
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateImportThreads(), is(8));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateImportThreads()
+     */
+    @Test
+    public void shouldReturn4IfGlobalPropertyReportTemplateImportThreadsIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateImportThreads(), is(4));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateImportBatchSize()
+     */
+    @Test
+    public void shouldReturnReportTemplateImportBatchSize() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_BATCH_SIZE, "10"));
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateImportBatchSize(), is(10));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateImportBatchSize()
+     */
+    @Test
+    public void shouldReturn50IfGlobalPropertyReportTemplateImportBatchSizeIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateImportBatchSize(), is(50));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateImportMaxEntryBytes()
+     */
+    @Test
+    public void shouldReturnReportTemplateImportMaxEntryBytes() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_ENTRY_BYTES, "2048"));
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateImportMaxEntryBytes(), is(2048));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateImportMaxEntryBytes()
+     */
+    @Test
+    public void shouldReturn1MiBIfGlobalPropertyReportTemplateImportMaxEntryBytesIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateImportMaxEntryBytes(), is(1024 * 1024));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateImportMaxTotalBytes()
+     */
+    @Test
+    public void shouldReturnReportTemplateImportMaxTotalBytes() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_TOTAL_BYTES, "4096"));
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateImportMaxTotalBytes(), is(4096));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMrrtReportTemplateImportMaxTotalBytes()
+     */
+    @Test
+    public void shouldReturn256MiBIfGlobalPropertyReportTemplateImportMaxTotalBytesIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getMrrtReportTemplateImportMaxTotalBytes(), is(256 * 1024 * 1024));
+    }
+    
+    /**
+     * @see RadiologyProperties#getWarmMrrtReportTemplateCache()
+     */
+    @Test
+    public void shouldReturnTrueIfGlobalPropertyWarmReportTemplateCacheOnStartupIsSetToTrue() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_WARM_MRRT_REPORT_TEMPLATE_CACHE, "true"));
+        
+        assertThat(radiologyProperties.getWarmMrrtReportTemplateCache(), is(true));
+    }
+    
+    /**
+     * @see RadiologyProperties#getWarmMrrtReportTemplateCache()
+     */
+    @Test
+    public void shouldReturnFalseIfGlobalPropertyWarmReportTemplateCacheOnStartupIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getWarmMrrtReportTemplateCache(), is(false));
+    }
+    
     /**
      * @see RadiologyProperties#getGlobalProperty(String)
      */
@@ -0,0 +1,191 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.cfg.Environment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+/**
+ * Tests {@link BlockAccessionNumberGenerator}.
+ */
+public class BlockAccessionNumberGeneratorComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/BlockAccessionNumberGeneratorComponentTestDataset.xml";
+    
+    @Qualifier("adminService")
+    @Autowired
+    private AdministrationService administrationService;
+    
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    /**
+     * Enables MVCC which is disabled by default in DB h2 used for the component tests, so that concurrent transactions
+     * reserving accession number seed blocks lock rows instead of the whole global property table.
+     */
+    @Override
+    public Properties getRuntimeProperties() {
+        Properties result = super.getRuntimeProperties();
+        String url = result.getProperty(Environment.URL);
+        if (url.contains("jdbc:h2:") && !url.contains(";MVCC=TRUE")) {
+            result.setProperty(Environment.URL, url + ";MVCC=TRUE");
+        }
+        return result;
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        // the global properties need to be committed to be visible in the transactions reserving accession number seed
+        // blocks since they are opened separately
+        if (!Context.isSessionOpen()) {
+            Context.openSession();
+        }
+        executeDataSet(TEST_DATASET);
+        getConnection().commit();
+        Context.clearSession();
+        radiologyProperties.clearCache();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        // delete all committed data otherwise this will influence other test classes and break isolation
+        this.deleteAllData();
+    }
+    
+    private BlockAccessionNumberGenerator newBlockAccessionNumberGenerator() {
+        
+        BlockAccessionNumberGenerator result = new BlockAccessionNumberGenerator();
+        result.setRadiologyProperties(radiologyProperties);
+        return result;
+    }
+    
+    private String getNextAccessionNumberSeed() {
+        
+        Context.clearSession();
+        return administrationService.getGlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED);
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnConsecutiveAccessionNumbersFromAReservedBlock() throws Exception {
+        
+        BlockAccessionNumberGenerator blockAccessionNumberGenerator = newBlockAccessionNumberGenerator();
+        
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumber(), is("1"));
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumber(), is("2"));
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumber(), is("3"));
+        assertThat(getNextAccessionNumberSeed(), is("6"));
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReserveANewBlockOnceTheCurrentBlockIsExhausted() throws Exception {
+        
+        BlockAccessionNumberGenerator blockAccessionNumberGenerator = newBlockAccessionNumberGenerator();
+        for (int i = 1; i <= 5; i++) {
+            assertThat(blockAccessionNumberGenerator.getNewAccessionNumber(), is(String.valueOf(i)));
+        }
+        assertThat(getNextAccessionNumberSeed(), is("6"));
+        
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumber(), is("6"));
+        assertThat(getNextAccessionNumberSeed(), is("11"));
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Test
+    public void shouldReserveAtMostOneNewBlockForGivenNumberOfAccessionNumbers() throws Exception {
+        
+        BlockAccessionNumberGenerator blockAccessionNumberGenerator = newBlockAccessionNumberGenerator();
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumbers(2), is(Arrays.asList("1", "2")));
+        
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumbers(12),
+            is(Arrays.asList("3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14")));
+        assertThat(getNextAccessionNumberSeed(), is("15"));
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnUniqueAccessionNumbersAcrossGeneratorsCalledConcurrently() throws Exception {
+        
+        // every generator stands for one node sharing the next accession number seed
+        final List<BlockAccessionNumberGenerator> generators =
+                Arrays.asList(newBlockAccessionNumberGenerator(), newBlockAccessionNumberGenerator());
+        final int threads = 10;
+        final int accessionNumbersPerThread = 50;
+        final Set<String> accessionNumbers = Collections.synchronizedSet(new HashSet<String>());
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            final BlockAccessionNumberGenerator generator = generators.get(i % generators.size());
+            executorService.execute(new Runnable() {
+                
+                
+                @Override
+                public void run() {
+                    try {
+                        Context.openSession();
+                        Context.authenticate("admin", "test");
+                        for (int j = 0; j < accessionNumbersPerThread; j++) {
+                            accessionNumbers.add(generator.getNewAccessionNumber());
+                        }
+                    }
+                    catch (Throwable t) {
+                        failures.add(t);
+                    }
+                    finally {
+                        Context.closeSession();
+                    }
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5, TimeUnit.MINUTES));
+        
+        assertThat(failures, is(empty()));
+        // since we used a set we should have the size as the number of accession numbers indicating no duplicates
+        assertThat(accessionNumbers.size(), is(threads * accessionNumbersPerThread));
+    }
+}
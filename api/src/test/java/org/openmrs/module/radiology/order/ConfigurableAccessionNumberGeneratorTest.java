@@ -0,0 +1,81 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mock;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.test.BaseContextMockTest;
+
+/**
+ * Tests {@link ConfigurableAccessionNumberGenerator}.
+ */
+public class ConfigurableAccessionNumberGeneratorTest extends BaseContextMockTest {
+    
+    
+    @Mock
+    private RadiologyProperties radiologyProperties;
+    
+    @Mock
+    private AccessionNumberGenerator sequenceAccessionNumberGenerator;
+    
+    private ConfigurableAccessionNumberGenerator configurableAccessionNumberGenerator;
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Before
+    public void setUp() {
+        
+        Map<String, AccessionNumberGenerator> accessionNumberGenerators = new HashMap<String, AccessionNumberGenerator>();
+        accessionNumberGenerators.put("sequence", sequenceAccessionNumberGenerator);
+        
+        configurableAccessionNumberGenerator = new ConfigurableAccessionNumberGenerator();
+        configurableAccessionNumberGenerator.setRadiologyProperties(radiologyProperties);
+        configurableAccessionNumberGenerator.setAccessionNumberGenerators(accessionNumberGenerators);
+    }
+    
+    /**
+     * @see ConfigurableAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnAccessionNumberOfConfiguredAccessionNumberGenerator() throws Exception {
+        
+        when(radiologyProperties.getAccessionNumberGenerator()).thenReturn("sequence");
+        when(sequenceAccessionNumberGenerator.getNewAccessionNumber()).thenReturn("42");
+        
+        assertThat(configurableAccessionNumberGenerator.getNewAccessionNumber(), is("42"));
+    }
+    
+    /**
+     * @see ConfigurableAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldThrowIllegalStateExceptionIfConfiguredAccessionNumberGeneratorDoesNotExist() throws Exception {
+        
+        when(radiologyProperties.getAccessionNumberGenerator()).thenReturn("unknown");
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Property " + RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR
+                + " contains unknown accession number generator unknown");
+        configurableAccessionNumberGenerator.getNewAccessionNumber();
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+/**
+ * Tests {@link DailyAccessionNumberGenerator}.
+ */
+public class DailyAccessionNumberGeneratorComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final int MAX_ACCESSION_NUMBER_LENGTH = 16;
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Qualifier("adminService")
+    @Autowired
+    private AdministrationService administrationService;
+    
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    private DailyAccessionNumberGenerator dailyAccessionNumberGenerator;
+    
+    @Before
+    public void setUp() {
+        
+        radiologyProperties.clearCache();
+        dailyAccessionNumberGenerator = new DailyAccessionNumberGenerator();
+        dailyAccessionNumberGenerator.setRadiologyProperties(radiologyProperties);
+    }
+    
+    private void setAccessionNumberPrefix(String prefix) {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_PREFIX, prefix));
+        radiologyProperties.clearCache();
+    }
+    
+    /**
+     * @see DailyAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnAccessionNumberComposedOfPrefixDateAndZeroPaddedCounter() throws Exception {
+        
+        setAccessionNumberPrefix("CT");
+        
+        assertThat(dailyAccessionNumberGenerator.getNewAccessionNumber(),
+            is("CT" + new SimpleDateFormat("yyMMdd").format(new Date()) + "-000001"));
+    }
+    
+    /**
+     * @see DailyAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnConsecutiveAccessionNumbersOnTheSameDay() throws Exception {
+        
+        setAccessionNumberPrefix("MR");
+        String today = new SimpleDateFormat("yyMMdd").format(new Date());
+        
+        assertThat(dailyAccessionNumberGenerator.getNewAccessionNumber(), is("MR" + today + "-000001"));
+        assertThat(dailyAccessionNumberGenerator.getNewAccessionNumber(), is("MR" + today + "-000002"));
+        assertThat(dailyAccessionNumberGenerator.getNewAccessionNumber(), is("MR" + today + "-000003"));
+    }
+    
+    /**
+     * @see DailyAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnAccessionNumbersOfAtMostSixteenCharactersGivenAPrefixOfMaximumLength() throws Exception {
+        
+        setAccessionNumberPrefix("MRI");
+        
+        assertThat(dailyAccessionNumberGenerator.getNewAccessionNumber()
+                .length(),
+            is(lessThanOrEqualTo(MAX_ACCESSION_NUMBER_LENGTH)));
+    }
+    
+    /**
+     * @see DailyAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldThrowIllegalStateExceptionIfTheAccessionNumberPrefixIsTooLong() throws Exception {
+        
+        setAccessionNumberPrefix("CTMR");
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(
+            "Property " + RadiologyConstants.GP_ACCESSION_NUMBER_PREFIX + " cannot be longer than 3 characters");
+        dailyAccessionNumberGenerator.getNewAccessionNumber();
+    }
+}
@@ -74,6 +74,44 @@ public class HibernateRadiologyOrderDAOComponentTest extends BaseModuleContextSe
         }
     }
     
+    @Test
+    public void shouldReturnTheNextAccessionNumberSeedAndIncrementTheGlobalPropertyValueByGivenBlockSize() throws Exception {
+        
+        GlobalProperty nextAccessionNumberGlobalProperty =
+                new GlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED);
+        nextAccessionNumberGlobalProperty.setPropertyValue("1");
+        administrationService.saveGlobalProperty(nextAccessionNumberGlobalProperty);
+        
+        assertThat(hibernateRadiologyOrderDAO.reserveAccessionNumberSeedBlock(20), is(1L));
+        assertThat(hibernateRadiologyOrderDAO.reserveAccessionNumberSeedBlock(20), is(21L));
+        assertThat(administrationService.getGlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED), is("41"));
+    }
+    
+    @Test
+    public void shouldReturnIncreasingValuesFromTheAccessionNumberSequence() throws Exception {
+        
+        Long first = hibernateRadiologyOrderDAO.getNextAccessionNumberSequenceValue();
+        Long second = hibernateRadiologyOrderDAO.getNextAccessionNumberSequenceValue();
+        
+        assertThat(second > first, is(true));
+    }
+    
+    @Test
+    public void shouldReturnOneAndCreateTheCounterGivenANewCounterKey() throws Exception {
+        
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberCounterValue("CT20161016"), is(1L));
+    }
+    
+    @Test
+    public void shouldReturnTheNextValueOfTheCounterAndIncrementItGivenAnExistingCounterKey() throws Exception {
+        
+        hibernateRadiologyOrderDAO.getNextAccessionNumberCounterValue("CT20161016");
+        
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberCounterValue("CT20161016"), is(2L));
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberCounterValue("CT20161016"), is(3L));
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberCounterValue("MR20161016"), is(1L));
+    }
+    
     @Test
     public void shouldFailIfGlobalPropertyRadiologyNextAccessionNumberSeedIsMissing() throws Exception {
         
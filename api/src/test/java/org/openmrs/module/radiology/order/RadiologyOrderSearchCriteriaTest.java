@@ -155,4 +155,41 @@ public class RadiologyOrderSearchCriteriaTest {
         assertNull(radiologyOrderSearchCriteria.getToEffectiveStartDate());
         assertNull(radiologyOrderSearchCriteria.getAccessionNumber());
     }
+    
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithFirstResultAndMaxResultsIfSet() throws Exception {
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().withFirstResult(10)
+                .withMaxResults(20)
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getFirstResult(), is(10));
+        assertThat(radiologyOrderSearchCriteria.getMaxResults(), is(20));
+        assertNull(radiologyOrderSearchCriteria.getAfterAccessionNumber());
+        assertNull(radiologyOrderSearchCriteria.getAccessionNumber());
+    }
+    
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithAfterAccessionNumberIfSet() throws Exception {
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().afterAccessionNumber("5")
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getAfterAccessionNumber(), is("5"));
+        assertNull(radiologyOrderSearchCriteria.getFirstResult());
+        assertNull(radiologyOrderSearchCriteria.getMaxResults());
+        assertNull(radiologyOrderSearchCriteria.getAccessionNumber());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailIfFirstResultIsNegative() throws Exception {
+        
+        new RadiologyOrderSearchCriteria.Builder().withFirstResult(-1);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailIfMaxResultsIsSmallerThanOne() throws Exception {
+        
+        new RadiologyOrderSearchCriteria.Builder().withMaxResults(0);
+    }
 }
@@ -24,14 +24,20 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Environment;
+import org.hibernate.stat.Statistics;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -40,6 +46,8 @@ import org.openmrs.Encounter;
 import org.openmrs.Order;
 import org.openmrs.Order.Urgency;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.PersonName;
 import org.openmrs.Provider;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.ConceptService;
@@ -47,7 +55,14 @@ import org.openmrs.api.EncounterService;
 import org.openmrs.api.PatientService;
 import org.openmrs.api.ProviderService;
 import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.report.RadiologyReport;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
 import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.turnaround.RadiologyLifecycleEvent;
+import org.openmrs.module.radiology.turnaround.RadiologyLifecycleEventType;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -84,6 +99,10 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
     
     private static final int PROVIDER_ID_WITH_TWO_ASSIGNED_RADIOLOGY_ORDERS = 2;
     
+    private static final int PATIENT_ID_WITH_EIGHT_RADIOLOGY_ORDERS_FROM_SAME_ORDERER = 70024;
+    
+    private static final int PROVIDER_ID_OF_ORDERER_WITH_EIGHT_RADIOLOGY_ORDERS_FOR_SAME_PATIENT = 1;
+    
     @Autowired
     private PatientService patientService;
     
@@ -103,6 +122,15 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
     @Autowired
     private RadiologyOrderService radiologyOrderService;
     
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    @Autowired
+    private RadiologyTurnaroundService radiologyTurnaroundService;
+    
+    @Autowired
+    private SessionFactory sessionFactory;
+    
     /**
      * Overriding following method is necessary to enable MVCC which is disabled by default in DB h2
      * used for the component tests. This prevents following exception:
@@ -132,6 +160,7 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
         executeDataSet(TEST_DATASET);
         getConnection().commit();
         Context.clearSession();
+        radiologyProperties.clearCache();
     }
     
     @After
@@ -156,6 +185,22 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
         assertNotNull(radiologyOrder.getEncounter());
     }
     
+    @Test
+    public void shouldRecordAnOrderedLifecycleEventOfGivenRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.placeRadiologyOrder(getUnsavedRadiologyOrder());
+        
+        List<RadiologyLifecycleEvent> radiologyLifecycleEvents =
+                radiologyTurnaroundService.getRadiologyLifecycleEvents(radiologyOrder);
+        assertThat(radiologyLifecycleEvents.size(), is(1));
+        assertThat(radiologyLifecycleEvents.get(0)
+                .getEventType(),
+            is(RadiologyLifecycleEventType.ORDERED));
+        assertThat(radiologyLifecycleEvents.get(0)
+                .getEventDate(),
+            is(radiologyOrder.getDateActivated()));
+    }
+    
     /**
      * Convenience method to get a RadiologyOrder object with all required values filled in but
      * which is not yet saved in the database
@@ -203,6 +248,23 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
         assertThat(matchingEncounters.size(), is(1));
     }
     
+    @Test
+    public void shouldPersistTheEffectiveStartDateWhenSavingARadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = getUnsavedRadiologyOrder();
+        
+        radiologyOrder = radiologyOrderService.placeRadiologyOrder(radiologyOrder);
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(radiologyOrder.getPatient())
+                        .fromEffectiveStartDate(radiologyOrder.getScheduledDate())
+                        .toEffectiveStartDate(radiologyOrder.getScheduledDate())
+                        .build();
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        assertThat(radiologyOrders.size(), is(1));
+        assertThat(radiologyOrders.get(0), is(radiologyOrder));
+    }
+    
     @Test
     public void shouldSetTheRadiologyOrderAccessionNumberWhenSavingARadiologyOrder() throws Exception {
         
@@ -250,6 +312,175 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
         Assert.assertEquals(N, uniqueAccessionNumbers.size());
     }
     
+    @Test
+    public void shouldCreateUniqueAccessionNumbersAndStudyInstanceUidsWhenCalledConcurrently() throws Exception {
+        
+        final int threads = 20;
+        final int ordersPerThread = 100;
+        final Set<String> accessionNumbers = Collections.synchronizedSet(new HashSet<String>());
+        final Set<String> studyInstanceUids = Collections.synchronizedSet(new HashSet<String>());
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executorService.execute(new Runnable() {
+                
+                
+                @Override
+                public void run() {
+                    try {
+                        Context.openSession();
+                        Context.authenticate("admin", "test");
+                        for (int j = 0; j < ordersPerThread; j++) {
+                            RadiologyOrder radiologyOrder =
+                                    radiologyOrderService.placeRadiologyOrder(getUnsavedRadiologyOrder());
+                            accessionNumbers.add(radiologyOrder.getAccessionNumber());
+                            studyInstanceUids.add(radiologyOrder.getStudy()
+                                    .getStudyInstanceUid());
+                            Context.clearSession();
+                        }
+                    }
+                    catch (Throwable t) {
+                        failures.add(t);
+                    }
+                    finally {
+                        Context.closeSession();
+                    }
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.MINUTES));
+        
+        assertThat(failures, is(empty()));
+        // since we used sets we should have the size as the number of orders indicating that there were no duplicates
+        assertThat(accessionNumbers.size(), is(threads * ordersPerThread));
+        assertThat(studyInstanceUids.size(), is(threads * ordersPerThread));
+    }
+    
+    @Test
+    public void shouldCreateNewRadiologyOrdersAndStudiesFromGivenRadiologyOrders() throws Exception {
+        
+        List<RadiologyOrderPlacementResult> results = radiologyOrderService
+                .placeRadiologyOrders(Arrays.asList(getUnsavedRadiologyOrder(), getUnsavedRadiologyOrder()));
+        
+        assertThat(results.size(), is(2));
+        Set<String> accessionNumbers = new HashSet<String>();
+        for (RadiologyOrderPlacementResult result : results) {
+            assertTrue(result.isPlaced());
+            assertNotNull(result.getRadiologyOrder()
+                    .getOrderId());
+            assertNotNull(result.getRadiologyOrder()
+                    .getStudy()
+                    .getStudyId());
+            accessionNumbers.add(result.getRadiologyOrder()
+                    .getAccessionNumber());
+        }
+        assertThat(accessionNumbers.size(), is(2));
+        // orders of the same patient and orderer share one encounter
+        assertThat(results.get(0)
+                .getRadiologyOrder()
+                .getEncounter(),
+            is(results.get(1)
+                    .getRadiologyOrder()
+                    .getEncounter()));
+    }
+    
+    @Test
+    public void shouldRecordAnOrderedLifecycleEventOfEachPlacedRadiologyOrder() throws Exception {
+        
+        List<RadiologyOrderPlacementResult> results = radiologyOrderService
+                .placeRadiologyOrders(Arrays.asList(getUnsavedRadiologyOrder(), getUnsavedRadiologyOrder()));
+        
+        for (RadiologyOrderPlacementResult result : results) {
+            List<RadiologyLifecycleEvent> radiologyLifecycleEvents =
+                    radiologyTurnaroundService.getRadiologyLifecycleEvents(result.getRadiologyOrder());
+            assertThat(radiologyLifecycleEvents.size(), is(1));
+            assertThat(radiologyLifecycleEvents.get(0)
+                    .getEventType(),
+                is(RadiologyLifecycleEventType.ORDERED));
+        }
+    }
+    
+    @Test
+    public void shouldReportRadiologyOrdersFailingValidationAndPlaceTheOthers() throws Exception {
+        
+        RadiologyOrder invalidRadiologyOrder = getUnsavedRadiologyOrder();
+        invalidRadiologyOrder.setConcept(null);
+        RadiologyOrder radiologyOrderWithoutStudy = getUnsavedRadiologyOrder();
+        radiologyOrderWithoutStudy.setStudy(null);
+        
+        List<RadiologyOrderPlacementResult> results = radiologyOrderService.placeRadiologyOrders(
+            Arrays.asList(invalidRadiologyOrder, getUnsavedRadiologyOrder(), radiologyOrderWithoutStudy));
+        
+        assertThat(results.size(), is(3));
+        assertThat(results.get(0)
+                .isPlaced(),
+            is(false));
+        assertTrue(results.get(0)
+                .getErrors()
+                .hasFieldErrors("concept"));
+        assertThat(results.get(0)
+                .getRadiologyOrder()
+                .getOrderId(),
+            is(nullValue()));
+        assertTrue(results.get(1)
+                .isPlaced());
+        assertNotNull(results.get(1)
+                .getRadiologyOrder()
+                .getOrderId());
+        assertThat(results.get(2)
+                .isPlaced(),
+            is(false));
+        assertTrue(results.get(2)
+                .getErrors()
+                .hasFieldErrors("study"));
+    }
+    
+    @Test
+    public void shouldReportRadiologyOrdersFailingToBeSavedAndKeepTheOthersPlaced() throws Exception {
+        
+        // passes validation but is rejected when its study is saved
+        RadiologyOrder radiologyOrderWithExistingStudy = getUnsavedRadiologyOrder();
+        radiologyOrderWithExistingStudy.getStudy()
+                .setStudyId(1);
+        
+        List<RadiologyOrderPlacementResult> results = radiologyOrderService.placeRadiologyOrders(
+            Arrays.asList(getUnsavedRadiologyOrder(), radiologyOrderWithExistingStudy, getUnsavedRadiologyOrder()));
+        
+        assertThat(results.size(), is(3));
+        assertTrue(results.get(0)
+                .isPlaced());
+        assertThat(results.get(1)
+                .isPlaced(),
+            is(false));
+        assertTrue(results.get(1)
+                .getErrors()
+                .hasGlobalErrors());
+        assertTrue(results.get(2)
+                .isPlaced());
+        assertNotNull(radiologyOrderService.getRadiologyOrder(results.get(0)
+                .getRadiologyOrder()
+                .getOrderId()));
+        assertNotNull(radiologyOrderService.getRadiologyOrder(results.get(2)
+                .getRadiologyOrder()
+                .getOrderId()));
+        // the order placed after the failed one still shares the encounter of the first order
+        Encounter encounter = encounterService.getEncounter(results.get(0)
+                .getRadiologyOrder()
+                .getEncounter()
+                .getEncounterId());
+        assertThat(results.get(2)
+                .getRadiologyOrder()
+                .getEncounter()
+                .getEncounterId(),
+            is(encounter.getEncounterId()));
+        assertThat(encounter.getOrders()
+                .size(),
+            is(2));
+        assertThat(encounter.getOrders(), not(hasItem((Order) radiologyOrderWithExistingStudy)));
+    }
+    
     @Test
     public void shouldCreateDiscontinuationOrderWhichDiscontinuesGivenRadiologyOrderThatIsNotInProgressOrCompleted()
             throws Exception {
@@ -563,4 +794,318 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
                 .getOrderId(),
             is(2006));
     }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldReturnRadiologyOrdersStartingAtFirstResultLimitedToMaxResultsOrderedByAccessionNumber()
+            throws Exception {
+        
+        List<RadiologyOrder> allRadiologyOrders =
+                radiologyOrderService.getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().build());
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withFirstResult(1)
+                        .withMaxResults(2)
+                        .build();
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrders, is(allRadiologyOrders.subList(1, 3)));
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldReturnRadiologyOrdersWithAccessionNumberAfterGivenAccessionNumber() throws Exception {
+        
+        List<RadiologyOrder> allRadiologyOrders =
+                radiologyOrderService.getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().build());
+        String afterAccessionNumber = allRadiologyOrders.get(1)
+                .getAccessionNumber();
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().afterAccessionNumber(afterAccessionNumber)
+                        .withMaxResults(2)
+                        .build();
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrders.size(), is(2));
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            assertThat(radiologyOrder.getAccessionNumber()
+                    .compareTo(afterAccessionNumber) > 0,
+                is(true));
+        }
+        assertThat(radiologyOrders.get(0)
+                .getAccessionNumber(),
+            is(allRadiologyOrders.get(2)
+                    .getAccessionNumber()));
+    }
+    
+    /**
+     * @see RadiologyOrderService#countRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldReturnTheNumberOfRadiologyOrdersMatchingGivenCriteriaIgnoringPagingParameters() throws Exception {
+        
+        Provider orderer = providerService.getProvider(PROVIDER_ID_WITH_TWO_ASSIGNED_RADIOLOGY_ORDERS);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withOrderer(orderer)
+                        .withFirstResult(1)
+                        .withMaxResults(1)
+                        .build();
+        
+        assertThat(radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria)
+                .size(),
+            is(1));
+        assertThat(radiologyOrderService.countRadiologyOrders(radiologyOrderSearchCriteria), is(2L));
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldLoadTheStudiesOfTheRadiologyOrdersWithoutAdditionalQueries() throws Exception {
+        
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_EIGHT_RADIOLOGY_ORDERS_FROM_SAME_ORDERER);
+        Provider orderer = providerService.getProvider(PROVIDER_ID_OF_ORDERER_WITH_EIGHT_RADIOLOGY_ORDERS_FOR_SAME_PATIENT);
+        RadiologyOrderSearchCriteria onePage = new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                .withOrderer(orderer)
+                .withMaxResults(1)
+                .build();
+        RadiologyOrderSearchCriteria eightPage = new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                .withOrderer(orderer)
+                .withMaxResults(8)
+                .build();
+        
+        Statistics statistics = sessionFactory.getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            long statementsForOneOrder = countStatementsToLoadAndInspect(statistics, onePage, 1);
+            long statementsForEightOrders = countStatementsToLoadAndInspect(statistics, eightPage, 8);
+            
+            assertThat(statementsForEightOrders, is(statementsForOneOrder));
+        }
+        finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldReturnTheWorklistItemsOfAllRadiologyOrdersMatchingGivenCriteria() throws Exception {
+        
+        Provider orderer = providerService.getProvider(PROVIDER_ID_WITH_TWO_ASSIGNED_RADIOLOGY_ORDERS);
+        List<RadiologyOrderSearchCriteria> radiologyOrderSearchCriterias = Arrays.asList(
+            new RadiologyOrderSearchCriteria.Builder().build(), new RadiologyOrderSearchCriteria.Builder().includeVoided()
+                    .build(),
+            new RadiologyOrderSearchCriteria.Builder().withOrderer(orderer)
+                    .build(),
+            new RadiologyOrderSearchCriteria.Builder().withUrgency(Urgency.STAT)
+                    .build());
+        
+        for (RadiologyOrderSearchCriteria radiologyOrderSearchCriteria : radiologyOrderSearchCriterias) {
+            List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+            List<RadiologyOrderWorklistItem> worklist =
+                    radiologyOrderService.getRadiologyOrderWorklist(radiologyOrderSearchCriteria);
+            
+            assertThat(getUuidsOfWorklistItems(worklist), is(getUuidsOfRadiologyOrders(radiologyOrders)));
+        }
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldReturnWorklistItemsHoldingTheWorklistColumnsOfTheRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withAccessionNumber(radiologyOrder.getAccessionNumber())
+                        .build();
+        
+        List<RadiologyOrderWorklistItem> worklist =
+                radiologyOrderService.getRadiologyOrderWorklist(radiologyOrderSearchCriteria);
+        
+        assertThat(worklist.size(), is(1));
+        RadiologyOrderWorklistItem worklistItem = worklist.get(0);
+        assertThat(worklistItem.getUuid(), is(EXISTING_RADIOLOGY_ORDER_UUID));
+        assertThat(worklistItem.getAccessionNumber(), is(EXISTING_RADIOLOGY_ORDER_ACCESSION_NUMBER));
+        assertThat(worklistItem.getPatientName(), is("John Francis Doe"));
+        assertThat(worklistItem.getPatientIdentifier(), is("4321"));
+        assertThat(worklistItem.getProcedureName(), is("FRACTURE"));
+        assertThat(worklistItem.getUrgency(), is(Urgency.ROUTINE));
+        assertThat(worklistItem.getEffectiveStartDate()
+                .getTime(),
+            is(radiologyOrder.getEffectiveStartDate()
+                    .getTime()));
+        assertThat(worklistItem.getPerformedStatus(), is(PerformedProcedureStepStatus.IN_PROGRESS));
+        assertNull(worklistItem.getReportStatus());
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldReturnOneWorklistItemPerRadiologyOrderIfThePatientHasSeveralPreferredNamesAndIdentifiers()
+            throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID);
+        Patient patient = radiologyOrder.getPatient();
+        PersonName personName = new PersonName("Jane", null, "Roe");
+        personName.setPreferred(true);
+        patient.addName(personName);
+        PatientIdentifier existingPatientIdentifier = patient.getPatientIdentifier();
+        PatientIdentifier patientIdentifier = new PatientIdentifier("9999",
+                existingPatientIdentifier.getIdentifierType(), existingPatientIdentifier.getLocation());
+        patientIdentifier.setPreferred(true);
+        patient.addIdentifier(patientIdentifier);
+        sessionFactory.getCurrentSession()
+                .saveOrUpdate(patient);
+        sessionFactory.getCurrentSession()
+                .flush();
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withAccessionNumber(radiologyOrder.getAccessionNumber())
+                        .build();
+        
+        List<RadiologyOrderWorklistItem> worklist =
+                radiologyOrderService.getRadiologyOrderWorklist(radiologyOrderSearchCriteria);
+        
+        assertThat(worklist.size(), is(1));
+        assertThat(worklist.get(0)
+                .getPatientName(),
+            is("John Francis Doe"));
+        assertThat(worklist.get(0)
+                .getPatientIdentifier(),
+            is("4321"));
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldReturnWorklistItemsHoldingTheStatusOfTheActiveRadiologyReport() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID);
+        radiologyOrder.getStudy()
+                .setPerformedStatus(PerformedProcedureStepStatus.COMPLETED);
+        sessionFactory.getCurrentSession()
+                .save(new RadiologyReport(radiologyOrder));
+        sessionFactory.getCurrentSession()
+                .flush();
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withAccessionNumber(radiologyOrder.getAccessionNumber())
+                        .build();
+        
+        List<RadiologyOrderWorklistItem> worklist =
+                radiologyOrderService.getRadiologyOrderWorklist(radiologyOrderSearchCriteria);
+        
+        assertThat(worklist.size(), is(1));
+        assertThat(worklist.get(0)
+                .getPerformedStatus(),
+            is(PerformedProcedureStepStatus.COMPLETED));
+        assertThat(worklist.get(0)
+                .getReportStatus(),
+            is(RadiologyReportStatus.DRAFT));
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldReturnWorklistItemsStartingAtFirstResultLimitedToMaxResultsOrderedByAccessionNumber()
+            throws Exception {
+        
+        List<RadiologyOrder> allRadiologyOrders =
+                radiologyOrderService.getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().build());
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withFirstResult(1)
+                        .withMaxResults(2)
+                        .build();
+        
+        List<RadiologyOrderWorklistItem> worklist =
+                radiologyOrderService.getRadiologyOrderWorklist(radiologyOrderSearchCriteria);
+        
+        assertThat(getUuidsOfWorklistItems(worklist), is(getUuidsOfRadiologyOrders(allRadiologyOrders.subList(1, 3))));
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrderWorklist(RadiologyOrderSearchCriteria)
+     */
+    @Test
+    public void shouldReturnWorklistItemsWithAccessionNumberAfterGivenAccessionNumber() throws Exception {
+        
+        List<RadiologyOrder> allRadiologyOrders =
+                radiologyOrderService.getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().build());
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().afterAccessionNumber(allRadiologyOrders.get(1)
+                        .getAccessionNumber())
+                        .withMaxResults(2)
+                        .build();
+        
+        List<RadiologyOrderWorklistItem> worklist =
+                radiologyOrderService.getRadiologyOrderWorklist(radiologyOrderSearchCriteria);
+        
+        assertThat(getUuidsOfWorklistItems(worklist), is(getUuidsOfRadiologyOrders(allRadiologyOrders.subList(2, 4))));
+    }
+    
+    /**
+     * @see RadiologyOrderService#scrollRadiologyOrderWorklist(RadiologyOrderSearchCriteria, java.util.function.Consumer)
+     */
+    @Test
+    public void shouldPassTheWorklistItemsOfAllRadiologyOrdersMatchingGivenCriteriaToGivenConsumer() throws Exception {
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withUrgency(Urgency.ROUTINE)
+                        .build();
+        List<RadiologyOrderWorklistItem> worklist = new ArrayList<RadiologyOrderWorklistItem>();
+        
+        long numberOfWorklistItems =
+                radiologyOrderService.scrollRadiologyOrderWorklist(radiologyOrderSearchCriteria, worklist::add);
+        
+        assertThat(getUuidsOfWorklistItems(worklist),
+            is(getUuidsOfRadiologyOrders(radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria))));
+        assertThat(numberOfWorklistItems, is((long) worklist.size()));
+    }
+    
+    private List<String> getUuidsOfWorklistItems(List<RadiologyOrderWorklistItem> worklist) {
+        
+        List<String> result = new ArrayList<String>();
+        for (RadiologyOrderWorklistItem worklistItem : worklist) {
+            result.add(worklistItem.getUuid());
+        }
+        return result;
+    }
+    
+    private List<String> getUuidsOfRadiologyOrders(List<RadiologyOrder> radiologyOrders) {
+        
+        List<String> result = new ArrayList<String>();
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            result.add(radiologyOrder.getUuid());
+        }
+        return result;
+    }
+    
+    /**
+     * Loads the radiology orders matching given criteria into an empty session, inspects the study of each order and
+     * returns the number of statements that were prepared to do so.
+     */
+    private long countStatementsToLoadAndInspect(Statistics statistics,
+            RadiologyOrderSearchCriteria radiologyOrderSearchCriteria, int expectedNumberOfOrders) {
+        
+        Context.clearSession();
+        statistics.clear();
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        assertThat(radiologyOrders.size(), is(expectedNumberOfOrders));
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            radiologyOrder.isInProgress();
+            radiologyOrder.isCompleted();
+        }
+        return statistics.getPrepareStatementCount();
+    }
 }
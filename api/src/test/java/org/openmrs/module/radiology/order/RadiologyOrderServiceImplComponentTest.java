@@ -101,6 +101,7 @@ public class RadiologyOrderServiceImplComponentTest extends BaseModuleContextSen
         saveRadiologyOrderEncounterMethod.setAccessible(true);
         
         executeDataSet(TEST_DATASET);
+        radiologyProperties.clearCache();
     }
     
     @Test
@@ -11,6 +11,7 @@ package org.openmrs.module.radiology.order;
 
 import static org.mockito.Mockito.when;
 
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -40,6 +41,22 @@ public class RadiologyOrderServiceTest extends BaseContextMockTest {
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
+    @Test
+    public void shouldFailToReserveAccessionNumberSeedBlockIfGivenBlockSizeIsSmallerThanOne() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("blockSize must be greater than 0");
+        radiologyOrderService.reserveAccessionNumberSeedBlock(0);
+    }
+    
+    @Test
+    public void shouldFailToGetNextAccessionNumberCounterValueIfGivenCounterKeyIsNullOrEmpty() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("counterKey cannot be null or empty");
+        radiologyOrderService.getNextAccessionNumberCounterValue(" ");
+    }
+    
     @Test
     public void shouldFailToSaveRadiologyOrderGivenNull() {
         
@@ -68,6 +85,14 @@ public class RadiologyOrderServiceTest extends BaseContextMockTest {
         radiologyOrderService.placeRadiologyOrder(radiologyOrder);
     }
     
+    @Test
+    public void shouldFailToPlaceRadiologyOrdersGivenNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrders cannot be null");
+        radiologyOrderService.placeRadiologyOrders(null);
+    }
+    
     @Test
     public void shouldFailToDiscontinueRadiologyOrderIfGivenNull() throws Exception {
         
@@ -150,4 +175,36 @@ public class RadiologyOrderServiceTest extends BaseContextMockTest {
         expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
         radiologyOrderService.getRadiologyOrders(null);
     }
+    
+    @Test
+    public void shouldFailToCountRadiologyOrdersIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
+        radiologyOrderService.countRadiologyOrders(null);
+    }
+    
+    @Test
+    public void shouldFailToGetRadiologyOrderWorklistIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
+        radiologyOrderService.getRadiologyOrderWorklist(null);
+    }
+    
+    @Test
+    public void shouldFailToScrollRadiologyOrderWorklistIfGivenRadiologyOrderSearchCriteriaIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
+        radiologyOrderService.scrollRadiologyOrderWorklist(null, worklistItem -> {});
+    }
+    
+    @Test
+    public void shouldFailToScrollRadiologyOrderWorklistIfGivenConsumerIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("consumer cannot be null");
+        radiologyOrderService.scrollRadiologyOrderWorklist(new RadiologyOrderSearchCriteria.Builder().build(), null);
+    }
 }
@@ -0,0 +1,40 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+/**
+ * Tests {@link SequenceAccessionNumberGenerator}.
+ */
+public class SequenceAccessionNumberGeneratorComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private SequenceAccessionNumberGenerator sequenceAccessionNumberGenerator = new SequenceAccessionNumberGenerator();
+    
+    /**
+     * @see SequenceAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnIncreasingNumericAccessionNumbers() throws Exception {
+        
+        String first = sequenceAccessionNumberGenerator.getNewAccessionNumber();
+        String second = sequenceAccessionNumberGenerator.getNewAccessionNumber();
+        
+        assertTrue(first.matches("\\d+"));
+        assertTrue(second.matches("\\d+"));
+        assertThat(Long.valueOf(second), greaterThan(Long.valueOf(first)));
+    }
+}
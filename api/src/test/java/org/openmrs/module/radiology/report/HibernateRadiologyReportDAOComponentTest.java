@@ -0,0 +1,76 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests {@link HibernateRadiologyReportDAO}.
+ */
+public class HibernateRadiologyReportDAOComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/RadiologyReportServiceComponentTestDataset.xml";
+    
+    private static final int RADIOLOGY_ORDER_ID_WITH_DRAFT_REPORT = 2006;
+    
+    private static final String EXISTING_RADIOLOGY_REPORT_UUID = "e699d90d-e230-4762-8747-d2d0059394b0";
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Autowired
+    private SessionFactory sessionFactory;
+    
+    @Autowired
+    private RadiologyOrderService radiologyOrderService;
+    
+    private HibernateRadiologyReportDAO hibernateRadiologyReportDAO;
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        executeDataSet(TEST_DATASET);
+        hibernateRadiologyReportDAO = new HibernateRadiologyReportDAO();
+        hibernateRadiologyReportDAO.setSessionFactory(sessionFactory);
+    }
+    
+    @Test
+    public void shouldFailToSaveASecondActiveReportOfARadiologyOrderWithAConflict() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_ID_WITH_DRAFT_REPORT);
+        
+        expectedException.expect(RadiologyReportConflictException.class);
+        expectedException.expectMessage("radiology.RadiologyReport.conflict.active");
+        hibernateRadiologyReportDAO.saveRadiologyReport(new RadiologyReport(radiologyOrder));
+    }
+    
+    @Test
+    public void shouldRethrowConstraintViolationsOtherThanASecondActiveReportOfARadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_ID_WITH_DRAFT_REPORT);
+        RadiologyReport radiologyReport = new RadiologyReport(radiologyOrder);
+        radiologyReport.setVoided(true);
+        radiologyReport.setUuid(EXISTING_RADIOLOGY_REPORT_UUID);
+        
+        expectedException.expect(ConstraintViolationException.class);
+        hibernateRadiologyReportDAO.saveRadiologyReport(radiologyReport);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests {@link RadiologyReportBodyCodec}.
+ */
+public class RadiologyReportBodyCodecTest {
+    
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    /**
+     * @see RadiologyReportBodyCodec#compress(String)
+     */
+    @Test
+    public void shouldReturnNullGivenNullToCompress() throws Exception {
+        
+        assertNull(RadiologyReportBodyCodec.compress(null));
+    }
+    
+    /**
+     * @see RadiologyReportBodyCodec#compress(String)
+     */
+    @Test
+    public void shouldCompressGivenBodySoThatItCanBeDecompressed() throws Exception {
+        
+        String body =
+                StringUtils.repeat("<section><header>Findings</header><p>No acute abnormality \u00e4\u00f6</p></section>", 100);
+        
+        byte[] compressedBody = RadiologyReportBodyCodec.compress(body);
+        
+        assertThat(compressedBody[0], is(RadiologyReportBodyCodec.FORMAT_DEFLATE));
+        assertTrue(compressedBody.length < body.length() / 10);
+        assertThat(RadiologyReportBodyCodec.decompress(compressedBody), is(body));
+    }
+    
+    /**
+     * @see RadiologyReportBodyCodec#decompress(byte[])
+     */
+    @Test
+    public void shouldReturnNullGivenNullToDecompress() throws Exception {
+        
+        assertNull(RadiologyReportBodyCodec.decompress(null));
+    }
+    
+    /**
+     * @see RadiologyReportBodyCodec#decompress(byte[])
+     */
+    @Test
+    public void shouldThrowIllegalStateExceptionGivenAnUnknownFormat() throws Exception {
+        
+        byte[] compressedBody = RadiologyReportBodyCodec.compress("some diagnosis");
+        compressedBody[0] = 42;
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Unknown format of compressed radiology report body");
+        RadiologyReportBodyCodec.decompress(compressedBody);
+    }
+    
+    /**
+     * @see RadiologyReportBodyCodec#decompress(byte[])
+     */
+    @Test
+    public void shouldThrowIllegalStateExceptionGivenACorruptBody() throws Exception {
+        
+        byte[] compressedBody = RadiologyReportBodyCodec.compress("some diagnosis");
+        
+        expectedException.expect(IllegalStateException.class);
+        RadiologyReportBodyCodec.decompress(Arrays.copyOf(compressedBody, compressedBody.length / 2));
+    }
+}
@@ -15,12 +15,15 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
 import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.Patient;
 import org.openmrs.Provider;
 
 /**
@@ -109,4 +112,36 @@ public class RadiologyReportSearchCriteriaTest {
         assertNull(radiologyReportSearchCriteria.getFromDate());
         assertNull(radiologyReportSearchCriteria.getPrincipalResultsInterpreter());
     }
+    
+    @Test
+    public void createANewRadiologyReportSearchCriteriaInstanceWithPatientAccessionNumberAndProcedureIfSet()
+            throws Exception {
+        
+        Patient patient = new Patient();
+        Concept procedure = new Concept();
+        
+        radiologyReportSearchCriteria = new RadiologyReportSearchCriteria.Builder().withPatient(patient)
+                .withAccessionNumber("1")
+                .withProcedure(procedure)
+                .build();
+        
+        assertThat(radiologyReportSearchCriteria.getPatient(), is(patient));
+        assertThat(radiologyReportSearchCriteria.getAccessionNumber(), is("1"));
+        assertThat(radiologyReportSearchCriteria.getProcedure(), is(procedure));
+        assertNull(radiologyReportSearchCriteria.getAfterRadiologyReport());
+    }
+    
+    @Test
+    public void createANewRadiologyReportSearchCriteriaInstanceWithAfterRadiologyReportIfSet() throws Exception {
+        
+        RadiologyReport radiologyReport = mock(RadiologyReport.class);
+        
+        radiologyReportSearchCriteria = new RadiologyReportSearchCriteria.Builder().afterRadiologyReport(radiologyReport)
+                .withMaxResults(10)
+                .build();
+        
+        assertThat(radiologyReportSearchCriteria.getAfterRadiologyReport(), is(radiologyReport));
+        assertThat(radiologyReportSearchCriteria.getMaxResults(), is(10));
+        assertNull(radiologyReportSearchCriteria.getFirstResult());
+    }
 }
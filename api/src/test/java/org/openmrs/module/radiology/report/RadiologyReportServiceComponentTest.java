@@ -17,27 +17,48 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.RAMDirectory;
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Environment;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.openmrs.GlobalProperty;
+import org.openmrs.Patient;
+import org.openmrs.Person;
+import org.openmrs.PersonName;
 import org.openmrs.Provider;
 import org.openmrs.api.APIException;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.PatientService;
 import org.openmrs.api.ProviderService;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
 import org.openmrs.module.radiology.order.RadiologyOrder;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.turnaround.RadiologyLifecycleEvent;
+import org.openmrs.module.radiology.turnaround.RadiologyLifecycleEventType;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Tests {@link RadiologyReportService}.
@@ -72,15 +93,47 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
     
     private static final String PROVIDER_WITHOUT_RADIOLOGY_REPORTS = "550e8400-e29b-11d4-a716-446655440000";
     
+    private static final int PATIENT_WITH_RADIOLOGY_REPORTS = 70022;
+    
+    private static final int PATIENT_WITHOUT_RADIOLOGY_REPORTS = 70021;
+    
+    private static final int RADIOLOGY_ORDER_CONCEPT = 178;
+    
+    private static final String COMPLETED_RADIOLOGY_REPORT_UUID = "82d3fb80-e403-4b9b-982c-22161ec29810";
+    
+    private static final String HTML_REPORT_BODY =
+            "<p>Findings: filling defect in the right pulmonary artery consistent with pulmonary <b>embolism</b>.</p>"
+                    + "<p>Impression: embolism confirmed, no other diagnosis.</p>";
+    
     @Autowired
     private ProviderService providerService;
     
+    @Autowired
+    private PatientService patientService;
+    
+    @Autowired
+    private ConceptService conceptService;
+    
     @Autowired
     private RadiologyOrderService radiologyOrderService;
     
     @Autowired
     private RadiologyReportService radiologyReportService;
     
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    @Autowired
+    private RadiologyReportSearchIndex radiologyReportSearchIndex;
+    
+    @Autowired
+    private SessionFactory sessionFactory;
+    
+    private RAMDirectory radiologyReportSearchIndexDirectory;
+    
+    @Autowired
+    private RadiologyTurnaroundService radiologyTurnaroundService;
+    
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
@@ -105,6 +158,35 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
     @Before
     public void setUp() throws Exception {
         executeDataSet(TEST_DATASET);
+        radiologyProperties.clearCache();
+        radiologyReportSearchIndexDirectory = new RAMDirectory();
+        radiologyReportSearchIndex.setDirectory(radiologyReportSearchIndexDirectory);
+    }
+    
+    /**
+     * Completes the draft radiology report with an html body and rebuilds the search index, so that it contains the
+     * completed radiology reports 1, 2 and 4 of which only 1 mentions an embolism.
+     */
+    private void indexCompletedRadiologyReports() {
+        
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        radiologyReport.setBody(HTML_REPORT_BODY);
+        radiologyReportService.saveRadiologyReport(radiologyReport);
+        assertThat(radiologyReportService.rebuildRadiologyReportSearchIndex(), is(3));
+    }
+    
+    /**
+     * Runs the search index updates registered for the current transaction as if it had been committed, since
+     * transactions of component tests are rolled back.
+     */
+    private void runSearchIndexUpdatesAfterCommit() {
+        
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization.getClass()
+                    .getEnclosingClass() == RadiologyReportSearchIndex.class) {
+                synchronization.afterCommit();
+            }
+        }
     }
     
     @Test
@@ -138,6 +220,46 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
             is("test - text"));
     }
     
+    @Test
+    public void shouldStoreTheBodyCompressedIfCompressReportBodiesIsEnabled() throws Exception {
+        
+        Context.getAdministrationService()
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_COMPRESS_REPORT_BODIES, "true"));
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        radiologyReport.setBody("<p>compressed diagnosis</p>");
+        
+        radiologyReportService.saveRadiologyReportDraft(radiologyReport);
+        
+        assertTrue(radiologyReport.isBodyCompressed());
+        List<List<Object>> rows = Context.getAdministrationService()
+                .executeSQL("SELECT report_body, report_body_compressed FROM radiology_report WHERE report_id = "
+                        + DRAFT_RADIOLOGY_REPORT, true);
+        assertNull(rows.get(0)
+                .get(0));
+        assertNotNull(rows.get(0)
+                .get(1));
+        Context.evictFromSession(radiologyReport);
+        assertThat(radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT)
+                .getBody(),
+            is("<p>compressed diagnosis</p>"));
+    }
+    
+    @Test
+    public void shouldFailToSaveAReportDraftIfTheReportWasModifiedSinceItWasRead() throws Exception {
+        
+        RadiologyReport staleRadiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        Context.evictFromSession(staleRadiologyReport);
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        radiologyReport.setBody("changed concurrently");
+        radiologyReportService.saveRadiologyReportDraft(radiologyReport);
+        Context.evictFromSession(radiologyReport);
+        staleRadiologyReport.setBody("stale change");
+        
+        expectedException.expect(RadiologyReportConflictException.class);
+        expectedException.expectMessage("radiology.RadiologyReport.conflict.modified");
+        radiologyReportService.saveRadiologyReportDraft(staleRadiologyReport);
+    }
+    
     @Test
     public void shouldVoidGivenReport() throws Exception {
         
@@ -178,6 +300,29 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
         assertThat(completedRadiologyReport.getStatus(), is(RadiologyReportStatus.COMPLETED));
     }
     
+    @Test
+    public void shouldRecordAReportedLifecycleEventOfTheRadiologyOrderOfGivenRadiologyReport() throws Exception {
+        
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        
+        RadiologyReport completedRadiologyReport = radiologyReportService.saveRadiologyReport(radiologyReport);
+        
+        List<RadiologyLifecycleEvent> radiologyLifecycleEvents =
+                radiologyTurnaroundService.getRadiologyLifecycleEvents(completedRadiologyReport.getRadiologyOrder());
+        assertThat(radiologyLifecycleEvents.size(), is(1));
+        assertThat(radiologyLifecycleEvents.get(0)
+                .getEventType(),
+            is(RadiologyLifecycleEventType.REPORTED));
+        assertThat(radiologyLifecycleEvents.get(0)
+                .getEventDate(),
+            is(completedRadiologyReport.getDate()));
+        assertThat(radiologyLifecycleEvents.get(0)
+                .getPrincipalResultsInterpreter(),
+            is(completedRadiologyReport.getPrincipalResultsInterpreter()));
+        assertFalse(radiologyLifecycleEvents.get(0)
+                .isRolledUp());
+    }
+    
     @Test
     public void shouldFailToSaveTheGivenReportIfItIsNotValid() throws Exception {
         
@@ -293,6 +438,51 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
             radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_AND_VOIDED_RADIOLOGY_REPORT)));
     }
     
+    @Test
+    public void shouldReturnTheActiveRadiologyReportsOfGivenRadiologyOrdersMappedByTheirRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrderWithDraftReport =
+                radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_AND_DRAFT_RADIOLOGY_REPORT);
+        RadiologyOrder radiologyOrderWithCompletedReport =
+                radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_AND_COMPLETED_RADIOLOGY_REPORT);
+        
+        Map<RadiologyOrder, RadiologyReport> activeReports = radiologyReportService
+                .getActiveRadiologyReportsByRadiologyOrders(
+                    Arrays.asList(radiologyOrderWithDraftReport, radiologyOrderWithCompletedReport));
+        
+        assertThat(activeReports.size(), is(2));
+        assertThat(activeReports.get(radiologyOrderWithDraftReport)
+                .getStatus(),
+            is(RadiologyReportStatus.DRAFT));
+        assertThat(activeReports.get(radiologyOrderWithCompletedReport)
+                .getStatus(),
+            is(RadiologyReportStatus.COMPLETED));
+    }
+    
+    @Test
+    public void shouldNotContainRadiologyOrdersWhichAreOnlyAssociatedWithAVoidedReport() throws Exception {
+        
+        RadiologyOrder radiologyOrderWithVoidedReport =
+                radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_AND_VOIDED_RADIOLOGY_REPORT);
+        RadiologyOrder radiologyOrderWithDraftReport =
+                radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_AND_DRAFT_RADIOLOGY_REPORT);
+        
+        Map<RadiologyOrder, RadiologyReport> activeReports = radiologyReportService
+                .getActiveRadiologyReportsByRadiologyOrders(
+                    Arrays.asList(radiologyOrderWithVoidedReport, radiologyOrderWithDraftReport));
+        
+        assertThat(activeReports.size(), is(1));
+        assertFalse(activeReports.containsKey(radiologyOrderWithVoidedReport));
+        assertTrue(activeReports.containsKey(radiologyOrderWithDraftReport));
+    }
+    
+    @Test
+    public void shouldReturnAnEmptyMapIfGivenAnEmptyList() throws Exception {
+        
+        assertTrue(radiologyReportService.getActiveRadiologyReportsByRadiologyOrders(new ArrayList<RadiologyOrder>())
+                .isEmpty());
+    }
+    
     @Test
     public void shouldGetAllReportsIncludingDiscontinuedOnesMatchingTheSearchQueryIfIncludeDiscontinuedIsSet()
             throws Exception {
@@ -476,4 +666,395 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
         
         assertTrue(radiologyReports.isEmpty());
     }
+    
+    @Test
+    public void shouldReturnAllRadiologyReportsOfGivenPatient() throws Exception {
+        
+        Patient patient = patientService.getPatient(PATIENT_WITH_RADIOLOGY_REPORTS);
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(
+            new RadiologyReportSearchCriteria.Builder().withPatient(patient)
+                    .build());
+        
+        assertThat(radiologyReports.size(), is(3));
+        for (RadiologyReport radiologyReport : radiologyReports) {
+            assertThat(radiologyReport.getRadiologyOrder()
+                    .getPatient()
+                    .getPatientId(),
+                is(PATIENT_WITH_RADIOLOGY_REPORTS));
+        }
+        assertTrue(radiologyReportService.getRadiologyReports(new RadiologyReportSearchCriteria.Builder()
+                .withPatient(patientService.getPatient(PATIENT_WITHOUT_RADIOLOGY_REPORTS))
+                .build())
+                .isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyReportsWithGivenAccessionNumber() throws Exception {
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withAccessionNumber("5")
+                        .build();
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+        
+        assertThat(radiologyReports.size(), is(1));
+        assertThat(radiologyReports.get(0)
+                .getUuid(),
+            is(COMPLETED_RADIOLOGY_REPORT_UUID));
+        assertThat(radiologyReportService.countRadiologyReports(radiologyReportSearchCriteria), is(1L));
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyReportsOfGivenProcedure() throws Exception {
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withProcedure(conceptService.getConcept(RADIOLOGY_ORDER_CONCEPT))
+                        .includeVoided()
+                        .build();
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+        
+        assertThat(radiologyReports.size(), is(4));
+        assertThat(radiologyReportService.countRadiologyReports(radiologyReportSearchCriteria), is(4L));
+    }
+    
+    @Test
+    public void shouldReturnTheRadiologyReportsOrderedAfterGivenAfterRadiologyReport() throws Exception {
+        
+        RadiologyReport firstRadiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(
+            new RadiologyReportSearchCriteria.Builder().afterRadiologyReport(firstRadiologyReport)
+                    .withMaxResults(1)
+                    .build());
+        
+        assertThat(radiologyReports.size(), is(1));
+        assertThat(radiologyReports.get(0)
+                .getUuid(),
+            is(COMPLETED_RADIOLOGY_REPORT_UUID));
+        
+        radiologyReports = radiologyReportService.getRadiologyReports(
+            new RadiologyReportSearchCriteria.Builder().afterRadiologyReport(radiologyReports.get(0))
+                    .withMaxResults(1)
+                    .build());
+        
+        assertThat(radiologyReports.size(), is(1));
+        assertThat(radiologyReports.get(0)
+                .getReportId(),
+            is(4));
+        
+        radiologyReports = radiologyReportService.getRadiologyReports(
+            new RadiologyReportSearchCriteria.Builder().afterRadiologyReport(radiologyReports.get(0))
+                    .build());
+        
+        assertTrue(radiologyReports.isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnListItemsOfTheRadiologyReportsOrderedAfterGivenAfterRadiologyReport() throws Exception {
+        
+        RadiologyReport afterRadiologyReport =
+                radiologyReportService.getRadiologyReportByUuid(COMPLETED_RADIOLOGY_REPORT_UUID);
+        
+        List<RadiologyReportListItem> radiologyReportListItems = radiologyReportService.getRadiologyReportListItems(
+            new RadiologyReportSearchCriteria.Builder().afterRadiologyReport(afterRadiologyReport)
+                    .build());
+        
+        assertThat(radiologyReportListItems.size(), is(1));
+        assertThat(radiologyReportListItems.get(0)
+                .getUuid(),
+            is("90765170-473f-11e6-beb8-9e71128cae77"));
+    }
+    
+    @Test
+    public void shouldCountAllReportsMatchingTheSearchQueryIgnoringPaging() throws Exception {
+        
+        Provider principalResultsInterpreter = providerService.getProviderByUuid(PROVIDER_WITH_RADIOLOGY_REPORTS);
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withPrincipalResultsInterpreter(principalResultsInterpreter)
+                        .includeVoided()
+                        .withFirstResult(1)
+                        .withMaxResults(2)
+                        .build();
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+        
+        assertThat(radiologyReports.size(), is(2));
+        assertThat(radiologyReportService.countRadiologyReports(radiologyReportSearchCriteria), is(4L));
+    }
+    
+    @Test
+    public void shouldReturnListItemsOfAllRadiologyReportsMatchingGivenCriteria() throws Exception {
+        
+        Provider principalResultsInterpreter = providerService.getProviderByUuid(PROVIDER_WITH_RADIOLOGY_REPORTS);
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withPrincipalResultsInterpreter(principalResultsInterpreter)
+                        .includeVoided()
+                        .build();
+        
+        List<RadiologyReportListItem> radiologyReportListItems =
+                radiologyReportService.getRadiologyReportListItems(radiologyReportSearchCriteria);
+        
+        List<String> expectedUuids = new ArrayList<String>();
+        for (RadiologyReport radiologyReport : radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria)) {
+            expectedUuids.add(radiologyReport.getUuid());
+        }
+        List<String> uuids = new ArrayList<String>();
+        for (RadiologyReportListItem radiologyReportListItem : radiologyReportListItems) {
+            uuids.add(radiologyReportListItem.getUuid());
+        }
+        assertThat(uuids, is(expectedUuids));
+    }
+    
+    @Test
+    public void shouldReturnListItemsWithThePrincipalResultsInterpretersNameAndTheRadiologyReportsOrder()
+            throws Exception {
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.DRAFT)
+                        .build();
+        
+        List<RadiologyReportListItem> radiologyReportListItems =
+                radiologyReportService.getRadiologyReportListItems(radiologyReportSearchCriteria);
+        
+        assertThat(radiologyReportListItems.size(), is(1));
+        RadiologyReportListItem radiologyReportListItem = radiologyReportListItems.get(0);
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        assertThat(radiologyReportListItem.getUuid(), is(radiologyReport.getUuid()));
+        assertThat(radiologyReportListItem.getAccessionNumber(), is(radiologyReport.getRadiologyOrder()
+                .getAccessionNumber()));
+        assertThat(radiologyReportListItem.getPrincipalResultsInterpreterName(), is("Radiology Technician"));
+        assertThat(radiologyReportListItem.getCreatorName(), is(radiologyReport.getCreator()
+                .getUsername()));
+        assertThat(radiologyReportListItem.getDateCreated(), is(radiologyReport.getDateCreated()));
+        assertThat(radiologyReportListItem.getStatus(), is(RadiologyReportStatus.DRAFT));
+        assertFalse(radiologyReportListItem.getVoided());
+    }
+    
+    @Test
+    public void shouldReturnOneListItemPerRadiologyReportIfThePrincipalResultsInterpreterHasSeveralPreferredNames()
+            throws Exception {
+        
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        Person person = Context.getPersonService()
+                .getPerson(1);
+        radiologyReport.getPrincipalResultsInterpreter()
+                .setPerson(person);
+        PersonName personName = new PersonName("Jane", null, "Roe");
+        personName.setPreferred(true);
+        person.addName(personName);
+        sessionFactory.getCurrentSession()
+                .saveOrUpdate(person);
+        sessionFactory.getCurrentSession()
+                .flush();
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.DRAFT)
+                        .build();
+        
+        List<RadiologyReportListItem> radiologyReportListItems =
+                radiologyReportService.getRadiologyReportListItems(radiologyReportSearchCriteria);
+        
+        assertThat(radiologyReportListItems.size(), is(1));
+        assertThat(radiologyReportListItems.get(0)
+                .getUuid(),
+            is(radiologyReport.getUuid()));
+    }
+    
+    @Test
+    public void shouldReturnListItemsOfVoidedRadiologyReportsIfIncludeVoidedIsSet() throws Exception {
+        
+        List<String> uuids = new ArrayList<String>();
+        for (RadiologyReportListItem radiologyReportListItem : radiologyReportService
+                .getRadiologyReportListItems(new RadiologyReportSearchCriteria.Builder().build())) {
+            uuids.add(radiologyReportListItem.getUuid());
+        }
+        List<String> uuidsIncludingVoided = new ArrayList<String>();
+        for (RadiologyReportListItem radiologyReportListItem : radiologyReportService
+                .getRadiologyReportListItems(new RadiologyReportSearchCriteria.Builder().includeVoided()
+                        .build())) {
+            uuidsIncludingVoided.add(radiologyReportListItem.getUuid());
+        }
+        
+        assertThat(uuids, not(hasItem(RADIOLOGY_REPORT_UUID_OF_VOIDED)));
+        assertThat(uuidsIncludingVoided, hasItem(RADIOLOGY_REPORT_UUID_OF_VOIDED));
+    }
+    
+    @Test
+    public void shouldCompressTheBodiesOfRadiologyReportsStoredUncompressed() throws Exception {
+        
+        Integer lastReportId = radiologyReportService.compressRadiologyReportBodies(null, 2);
+        assertThat(lastReportId, is(2));
+        lastReportId = radiologyReportService.compressRadiologyReportBodies(lastReportId, 2);
+        assertThat(lastReportId, is(4));
+        
+        List<List<Object>> rows = Context.getAdministrationService()
+                .executeSQL("SELECT report_id FROM radiology_report WHERE report_body IS NOT NULL", true);
+        assertTrue(rows.isEmpty());
+        Context.clearSession();
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        assertThat(radiologyReport.getBody(), is("some diagnosis"));
+    }
+    
+    @Test
+    public void shouldReturnNullIfThereIsNoRadiologyReportLeftToCompress() throws Exception {
+        
+        radiologyReportService.compressRadiologyReportBodies(null, 10);
+        
+        assertNull(radiologyReportService.compressRadiologyReportBodies(null, 10));
+    }
+    
+    @Test
+    public void shouldFailToCountReportsIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyReportSearchCriteria cannot be null");
+        radiologyReportService.countRadiologyReports(null);
+    }
+    
+    @Test
+    public void shouldReturnHitsOfCompletedRadiologyReportsMatchingGivenQueryOrderedByRelevance() throws Exception {
+        
+        indexCompletedRadiologyReports();
+        
+        List<RadiologyReportSearchHit> hits = radiologyReportService.searchRadiologyReports("embolism OR diagnosis",
+            new RadiologyReportSearchCriteria.Builder().build());
+        
+        assertThat(hits.size(), is(3));
+        assertThat(hits.get(0)
+                .getRadiologyReport()
+                .getUuid(),
+            is(EXISTING_RADIOLOGY_REPORT_UUID));
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1)
+                    .getScore() >= hits.get(i)
+                            .getScore());
+        }
+    }
+    
+    @Test
+    public void shouldReturnHitsWithTheMatchingTermsHighlighted() throws Exception {
+        
+        indexCompletedRadiologyReports();
+        
+        List<RadiologyReportSearchHit> hits = radiologyReportService.searchRadiologyReports("embolism",
+            new RadiologyReportSearchCriteria.Builder().build());
+        
+        assertThat(hits.size(), is(1));
+        assertThat(hits.get(0)
+                .getRadiologyReport()
+                .getUuid(),
+            is(EXISTING_RADIOLOGY_REPORT_UUID));
+        assertThat(hits.get(0)
+                .getHighlight(),
+            Matchers.containsString("<mark>embolism</mark>"));
+        assertThat(hits.get(0)
+                .getHighlight(),
+            not(Matchers.containsString("<b>")));
+    }
+    
+    @Test
+    public void shouldReturnHitsMatchingTheOrderMetadataOfRadiologyReports() throws Exception {
+        
+        indexCompletedRadiologyReports();
+        
+        List<RadiologyReportSearchHit> hits =
+                radiologyReportService.searchRadiologyReports("5", new RadiologyReportSearchCriteria.Builder().build());
+        
+        assertThat(hits.size(), is(1));
+        assertThat(hits.get(0)
+                .getRadiologyReport()
+                .getUuid(),
+            is(COMPLETED_RADIOLOGY_REPORT_UUID));
+    }
+    
+    @Test
+    public void shouldReturnNoHitsIfGivenCriteriaHasAStatusOtherThanCompleted() throws Exception {
+        
+        indexCompletedRadiologyReports();
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.DRAFT)
+                        .build();
+        
+        assertTrue(radiologyReportService.searchRadiologyReports("diagnosis", radiologyReportSearchCriteria)
+                .isEmpty());
+        assertThat(radiologyReportService.countRadiologyReportSearchHits("diagnosis", radiologyReportSearchCriteria),
+            is(0L));
+    }
+    
+    @Test
+    public void shouldReturnTheNumberOfRadiologyReportsMatchingGivenQueryAndCriteria() throws Exception {
+        
+        indexCompletedRadiologyReports();
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withMaxResults(1)
+                        .build();
+        
+        assertThat(radiologyReportService.countRadiologyReportSearchHits("diagnosis", radiologyReportSearchCriteria),
+            is(3L));
+        assertThat(radiologyReportService.countRadiologyReportSearchHits("diagnosis embolism",
+            radiologyReportSearchCriteria), is(1L));
+    }
+    
+    @Test
+    public void shouldFailToSearchRadiologyReportsGivenAQueryWhichCannotBeParsed() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("query cannot be parsed");
+        radiologyReportService.searchRadiologyReports("diagnosis AND (", new RadiologyReportSearchCriteria.Builder()
+                .build());
+    }
+    
+    @Test
+    public void shouldAddACompletedRadiologyReportToTheSearchIndexOnceTheTransactionCommits() throws Exception {
+        
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        radiologyReport.setBody(HTML_REPORT_BODY);
+        radiologyReportService.saveRadiologyReport(radiologyReport);
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria = new RadiologyReportSearchCriteria.Builder().build();
+        
+        assertThat(radiologyReportService.countRadiologyReportSearchHits("embolism", radiologyReportSearchCriteria),
+            is(0L));
+        runSearchIndexUpdatesAfterCommit();
+        assertThat(radiologyReportService.countRadiologyReportSearchHits("embolism", radiologyReportSearchCriteria),
+            is(1L));
+    }
+    
+    @Test
+    public void shouldCommitUpdatesOfTheSearchIndexToItsDirectory() throws Exception {
+        
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        radiologyReport.setBody(HTML_REPORT_BODY);
+        radiologyReportService.saveRadiologyReport(radiologyReport);
+        runSearchIndexUpdatesAfterCommit();
+        
+        radiologyReportSearchIndex.commit();
+        
+        try (DirectoryReader directoryReader = DirectoryReader.open(radiologyReportSearchIndexDirectory)) {
+            assertThat(directoryReader.numDocs(), is(1));
+        }
+    }
+    
+    /**
+     * @see RadiologyReportSearchIndex#rebuild(java.util.function.Function)
+     */
+    @Test
+    public void shouldKeepRadiologyReportsUpdatedDuringARebuildWhichFails() throws Exception {
+        
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(DRAFT_RADIOLOGY_REPORT);
+        radiologyReport.setBody(HTML_REPORT_BODY);
+        radiologyReportService.saveRadiologyReport(radiologyReport);
+        
+        try {
+            radiologyReportSearchIndex.rebuild(afterReportId -> {
+                runSearchIndexUpdatesAfterCommit();
+                throw new IllegalStateException("radiology reports cannot be loaded");
+            });
+            fail("expected an APIException");
+        }
+        catch (APIException e) {
+            assertThat(radiologyReportService.countRadiologyReportSearchHits("embolism",
+                new RadiologyReportSearchCriteria.Builder().build()), is(1L));
+        }
+    }
 }
@@ -97,6 +97,16 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
         radiologyReportService.saveRadiologyReportDraft(radiologyReport);
     }
     
+    @Test
+    public void shouldFailToSaveReportDraftGivenReportWithVersionNull() {
+        
+        when(radiologyReport.getVersion()).thenReturn(null);
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyReport.version cannot be null");
+        radiologyReportService.saveRadiologyReportDraft(radiologyReport);
+    }
+    
     @Test
     public void shouldFailToSaveReportDraftIfReportIsCompleted() {
         
@@ -146,6 +156,16 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
         radiologyReportService.voidRadiologyReport(radiologyReport, null);
     }
     
+    @Test
+    public void shouldFailToVoidIfGivenReportWithVersionNull() {
+        
+        when(radiologyReport.getVersion()).thenReturn(null);
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyReport.version cannot be null");
+        radiologyReportService.voidRadiologyReport(radiologyReport, "some reason");
+    }
+    
     @Test
     public void shouldFailToVoidReportIfGivenVoidReasonIsNullOrContainsOnlyWhitespaces() {
         
@@ -190,6 +210,16 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
         radiologyReportService.saveRadiologyReport(radiologyReport);
     }
     
+    @Test
+    public void shouldFailToSaveReportIfGivenReportWithVersionNull() {
+        
+        when(radiologyReport.getVersion()).thenReturn(null);
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyReport.version cannot be null");
+        radiologyReportService.saveRadiologyReport(radiologyReport);
+    }
+    
     @Test
     public void shouldFailToSaveReportIfGivenReportWithStatusNull() {
         
@@ -259,6 +289,30 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
         radiologyReportService.getActiveRadiologyReportByRadiologyOrder(null);
     }
     
+    @Test
+    public void shouldFailToGetActiveReportsByOrdersIfGivenNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrders cannot be null");
+        radiologyReportService.getActiveRadiologyReportsByRadiologyOrders(null);
+    }
+    
+    @Test
+    public void shouldFailToCompressReportBodiesIfGivenMaxResultsIsNotPositive() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("maxResults must be positive");
+        radiologyReportService.compressRadiologyReportBodies(null, 0);
+    }
+    
+    @Test
+    public void shouldFailToGetReportListItemsIfGivenNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyReportSearchCriteria cannot be null");
+        radiologyReportService.getRadiologyReportListItems(null);
+    }
+    
     @Test
     public void shouldFailToGetReportsIfGivenNull() {
         
@@ -267,5 +321,21 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
         radiologyReportService.getRadiologyReports(null);
     }
     
+    @Test
+    public void shouldFailToSearchReportsIfGivenABlankQuery() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("query cannot be empty");
+        radiologyReportService.searchRadiologyReports(" ", new RadiologyReportSearchCriteria.Builder().build());
+    }
+    
+    @Test
+    public void shouldFailToSearchReportsIfGivenNullCriteria() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyReportSearchCriteria cannot be null");
+        radiologyReportService.searchRadiologyReports("diagnosis", null);
+    }
+    
     public interface TestRadiologyReportDAO extends RadiologyReportDAO {}
 }
@@ -29,6 +29,7 @@ import org.openmrs.ConceptSource;
 import org.openmrs.api.context.Context;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.w3c.dom.Document;
 
 /**
  * Tests {@code MrrtReportTemplateFileParser}.
@@ -185,4 +186,72 @@ public class MrrtReportTemplateFileParserComponentTest extends BaseModuleContext
                 .contains(referenceTerm),
             is(true));
     }
+    
+    @Test
+    public void shouldStoreAllTermsOfAConceptSourceMatchingConceptReferenceTermsInOpenmrs() throws Exception {
+        
+        ConceptSource conceptSource = Context.getConceptService()
+                .getConceptSourceByName("RADLEX");
+        ConceptReferenceTerm abdomen = Context.getConceptService()
+                .saveConceptReferenceTerm(new ConceptReferenceTerm(conceptSource, "RID56", "abdomen"));
+        ConceptReferenceTerm thorax = Context.getConceptService()
+                .saveConceptReferenceTerm(new ConceptReferenceTerm(conceptSource, "RID1243", "thorax"));
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        MrrtReportTemplate template = parser.parse(templateContent);
+        
+        assertNotNull(template.getTerms());
+        assertThat(template.getTerms()
+                .size(),
+            is(3));
+        assertThat(template.getTerms()
+                .contains(Context.getConceptService()
+                        .getConceptReferenceTermByCode("RID10321", conceptSource)),
+            is(true));
+        assertThat(template.getTerms()
+                .contains(abdomen),
+            is(true));
+        assertThat(template.getTerms()
+                .contains(thorax),
+            is(true));
+    }
+    
+    @Test
+    public void shouldReturnTheParsedTemplateDocumentIfGivenTemplateIsValid() throws Exception {
+        
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        Document document = parser.validate(templateContent);
+        
+        assertNotNull(document);
+        assertThat(document.getDocumentElement()
+                .getTagName(),
+            is("html"));
+    }
+    
+    @Test
+    public void shouldThrowMrrtReportTemplateValidationExceptionIfGivenTemplateIsInvalid() throws Exception {
+        
+        String templateContent = getFileContent(
+            "mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-noMetaElementWithCharsetAttribute.html");
+        
+        expectedException.expect(MrrtReportTemplateValidationException.class);
+        parser.validate(templateContent);
+    }
+    
+    @Test
+    public void shouldReturnAnMrrtTemplateObjectIfGivenDocumentIsValid() throws Exception {
+        
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        MrrtReportTemplate template = parser.parse(parser.validate(templateContent));
+        
+        assertNotNull(template);
+        assertThat(template.getCharset(), is(CHARSET));
+        assertThat(template.getDcTermsTitle(), is(TEST_DCTERMS_TITLE));
+        assertThat(template.getDcTermsIdentifier(), is(TEST_DCTERMS_IDENTIFIER));
+        assertThat(template.getTerms()
+                .size(),
+            is(1));
+    }
 }
@@ -0,0 +1,183 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openmrs.module.radiology.RadiologyProperties;
+
+/**
+ * Tests {@link MrrtReportTemplateHtmlBodyCache}.
+ */
+public class MrrtReportTemplateHtmlBodyCacheTest {
+    
+    
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    private RadiologyProperties radiologyProperties;
+    
+    private MrrtReportTemplateHtmlBodyCache mrrtReportTemplateHtmlBodyCache;
+    
+    @Before
+    public void setUp() {
+        
+        radiologyProperties = mock(RadiologyProperties.class);
+        when(radiologyProperties.getMrrtReportTemplateCacheMaxEntries()).thenReturn(2);
+        when(radiologyProperties.getMrrtReportTemplateCacheMaxBytes()).thenReturn(1024);
+        mrrtReportTemplateHtmlBodyCache = new MrrtReportTemplateHtmlBodyCache();
+        mrrtReportTemplateHtmlBodyCache.setRadiologyProperties(radiologyProperties);
+    }
+    
+    /**
+     * Creates a template with given id whose file has given body.
+     */
+    private MrrtReportTemplate newTemplate(Integer templateId, String body) throws Exception {
+        
+        File templateFile = temporaryFolder.newFile();
+        FileUtils.writeStringToFile(templateFile,
+            "<html><head><title>Sample Template</title></head><body>" + body + "</body></html>");
+        MrrtReportTemplate template = new MrrtReportTemplate();
+        template.setTemplateId(templateId);
+        template.setPath(templateFile.getAbsolutePath());
+        return template;
+    }
+    
+    /**
+     * @see MrrtReportTemplateHtmlBodyCache#getHtmlBody(MrrtReportTemplate)
+     */
+    @Test
+    public void shouldReturnTheHtmlBodyOfTheTemplateFile() throws Exception {
+        
+        MrrtReportTemplate template = newTemplate(1, "<p>Sample Template</p>");
+        
+        assertThat(mrrtReportTemplateHtmlBodyCache.getHtmlBody(template), is("<p>Sample Template</p>"));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getMissCount(), is(1L));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEntryCount(), is(1));
+    }
+    
+    /**
+     * @see MrrtReportTemplateHtmlBodyCache#getHtmlBody(MrrtReportTemplate)
+     */
+    @Test
+    public void shouldReturnTheCachedHtmlBodyIfTheTemplateFileWasNotModified() throws Exception {
+        
+        MrrtReportTemplate template = newTemplate(1, "<p>Sample Template</p>");
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(template);
+        
+        assertThat(mrrtReportTemplateHtmlBodyCache.getHtmlBody(template), is("<p>Sample Template</p>"));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getHitCount(), is(1L));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getMissCount(), is(1L));
+    }
+    
+    /**
+     * @see MrrtReportTemplateHtmlBodyCache#getHtmlBody(MrrtReportTemplate)
+     */
+    @Test
+    public void shouldExtractTheHtmlBodyAgainIfTheTemplateFileWasModified() throws Exception {
+        
+        MrrtReportTemplate template = newTemplate(1, "<p>Sample Template</p>");
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(template);
+        File templateFile = new File(template.getPath());
+        FileUtils.writeStringToFile(templateFile, "<html><body><p>Modified Template</p></body></html>");
+        templateFile.setLastModified(templateFile.lastModified() + 1000);
+        
+        assertThat(mrrtReportTemplateHtmlBodyCache.getHtmlBody(template), is("<p>Modified Template</p>"));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getMissCount(), is(2L));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEntryCount(), is(1));
+    }
+    
+    /**
+     * @see MrrtReportTemplateHtmlBodyCache#getHtmlBody(MrrtReportTemplate)
+     */
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedHtmlBodiesIfTheMaxEntriesAreExceeded() throws Exception {
+        
+        MrrtReportTemplate first = newTemplate(1, "<p>1</p>");
+        MrrtReportTemplate second = newTemplate(2, "<p>2</p>");
+        MrrtReportTemplate third = newTemplate(3, "<p>3</p>");
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(first);
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(second);
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(first);
+        
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(third);
+        
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEntryCount(), is(2));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEvictionCount(), is(1L));
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(first);
+        assertThat(mrrtReportTemplateHtmlBodyCache.getHitCount(), is(2L));
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(second);
+        assertThat(mrrtReportTemplateHtmlBodyCache.getMissCount(), is(4L));
+    }
+    
+    /**
+     * @see MrrtReportTemplateHtmlBodyCache#getHtmlBody(MrrtReportTemplate)
+     */
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedHtmlBodiesIfTheMaxBytesAreExceeded() throws Exception {
+        
+        when(radiologyProperties.getMrrtReportTemplateCacheMaxEntries()).thenReturn(10);
+        String body = "<p>" + new String(new char[200]).replace('\0', 'x') + "</p>";
+        MrrtReportTemplate first = newTemplate(1, body);
+        MrrtReportTemplate second = newTemplate(2, body);
+        MrrtReportTemplate third = newTemplate(3, body);
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(first);
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(second);
+        
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(third);
+        
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEntryCount(), is(2));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getByteCount(), is(2L * 2 * body.length()));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEvictionCount(), is(1L));
+    }
+    
+    /**
+     * @see MrrtReportTemplateHtmlBodyCache#evict(Integer)
+     */
+    @Test
+    public void shouldEvictTheHtmlBodyOfTheTemplateWithGivenId() throws Exception {
+        
+        MrrtReportTemplate template = newTemplate(1, "<p>Sample Template</p>");
+        mrrtReportTemplateHtmlBodyCache.getHtmlBody(template);
+        
+        mrrtReportTemplateHtmlBodyCache.evict(1);
+        
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEntryCount(), is(0));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getByteCount(), is(0L));
+    }
+    
+    /**
+     * @see MrrtReportTemplateHtmlBodyCache#warm(java.util.Collection)
+     */
+    @Test
+    public void shouldCacheTheHtmlBodiesOfGivenTemplatesSkippingTemplatesWhoseFilesCannotBeRead() throws Exception {
+        
+        MrrtReportTemplate missing = new MrrtReportTemplate();
+        missing.setTemplateId(3);
+        missing.setPath(new File(temporaryFolder.getRoot(), "missing").getAbsolutePath());
+        
+        int warmed = mrrtReportTemplateHtmlBodyCache
+                .warm(Arrays.asList(newTemplate(1, "<p>1</p>"), missing, newTemplate(2, "<p>2</p>")));
+        
+        assertThat(warmed, is(2));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getEntryCount(), is(2));
+    }
+}
@@ -17,25 +17,42 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.cfg.Environment;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
+import org.openmrs.GlobalProperty;
 import org.openmrs.api.APIException;
 import org.openmrs.api.AdministrationService;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.radiology.RadiologyConstants;
 import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
@@ -93,14 +110,62 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
     
     private static final String UUID_FOR_TEMPLATE_TWO = "59273e52-33b1-4fcb-8c1f-9b670bb11259";
     
+    private static final String OTHER_TEMPLATE_IDENTIFIER = "1.3.6.1.4.1.21367.13.199.1016";
+    
+    private static final String VALID_TEMPLATE_PATH = "mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html";
+    
+    private static final String INVALID_TEMPLATE_PATH =
+            "mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-noMetaElementWithCharsetAttribute.html";
+    
     @Autowired
     private MrrtReportTemplateService mrrtReportTemplateService;
     
+    @Autowired
+    private MrrtReportTemplateHtmlBodyCache mrrtReportTemplateHtmlBodyCache;
+    
+    private boolean committedTestData;
+    
+    /**
+     * Overriding following method is necessary to enable MVCC which is disabled by default in DB h2
+     * used for the component tests. This prevents timeouts trying to lock tables holding the committed test data while
+     * templates are imported outside of the test transaction.
+     */
+    @Override
+    public Properties getRuntimeProperties() {
+        Properties result = super.getRuntimeProperties();
+        String url = result.getProperty(Environment.URL);
+        if (url.contains("jdbc:h2:") && !url.contains(";MVCC=TRUE")) {
+            result.setProperty(Environment.URL, url + ";MVCC=TRUE");
+        }
+        return result;
+    }
+    
     @Before
     public void setUp() throws Exception {
         executeDataSet(TEST_DATASET);
     }
     
+    @After
+    public void tearDown() throws Exception {
+        // We need to delete all data we committed otherwise this will influence other test classes and break isolation.
+        if (committedTestData) {
+            this.deleteAllData();
+        }
+    }
+    
+    /**
+     * Commits the test data and global properties set so far. This is necessary for imports of template archives since
+     * the MrrtReportTemplateServiceImpl.importMrrtReportTemplates() runs outside of the test transaction.
+     */
+    private void commitTestData() throws Exception {
+        
+        Context.flushSession();
+        getConnection().commit();
+        Context.clearSession();
+        radiologyProperties.clearCache();
+        committedTestData = true;
+    }
+    
     /**
      * Get a files content as string.
      *
@@ -151,6 +216,28 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
             tempFolder.getAbsolutePath());
     }
     
+    /**
+     * Get a zip archive containing given entries.
+     *
+     * @param entries the contents of the entries by entry name, a directory entry is given by a name ending with a slash
+     * @return the zip archive
+     */
+    private InputStream getZipArchive(Map<String, String> entries) throws IOException {
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(out)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
+                if (entry.getValue() != null) {
+                    zipOutputStream.write(entry.getValue()
+                            .getBytes(StandardCharsets.UTF_8));
+                }
+                zipOutputStream.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+    
     @Test
     public void shouldGetTemplateWithGivenTemplateId() throws Exception {
         
@@ -242,6 +329,26 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         assertThat(savedFile.exists(), is(false));
     }
     
+    @Test
+    public void shouldEvictTheHtmlBodyOfGivenTemplateFromTheCache() throws Exception {
+        
+        File tmpTemplateFile = temporaryFolder.newFile();
+        FileUtils.writeStringToFile(tmpTemplateFile, "<html><body><p>Sample Template</p></body></html>");
+        MrrtReportTemplate template = mrrtReportTemplateService.getMrrtReportTemplate(EXISTING_TEMPLATE_ID);
+        template.setPath(tmpTemplateFile.getAbsolutePath());
+        mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(template);
+        long lastModified = tmpTemplateFile.lastModified();
+        long missCount = mrrtReportTemplateHtmlBodyCache.getMissCount();
+        
+        mrrtReportTemplateService.purgeMrrtReportTemplate(template);
+        
+        FileUtils.writeStringToFile(tmpTemplateFile, "<html><body><p>Sample Template</p></body></html>");
+        tmpTemplateFile.setLastModified(lastModified);
+        mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(template);
+        
+        assertThat(mrrtReportTemplateHtmlBodyCache.getMissCount(), is(missCount + 1));
+    }
+    
     @Test
     public void shouldFailToPurgeTemplateIfGivenNull() throws Exception {
         
@@ -510,6 +617,23 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         assertThat(bodyContentReturned, is("<p>Sample Template</p>"));
     }
     
+    @Test
+    public void shouldReturnTheCachedBodyContentIfTheMrrtReportTemplateFileWasNotModified() throws Exception {
+        
+        File tmpTemplateFile = temporaryFolder.newFile();
+        FileUtils.writeStringToFile(tmpTemplateFile,
+            "<html>" + "<head><title>Sample Template</title></head>" + "<body><p>Sample Template</p></body>" + "</html>");
+        MrrtReportTemplate template = mrrtReportTemplateService.getMrrtReportTemplate(EXISTING_TEMPLATE_ID);
+        template.setPath(tmpTemplateFile.getAbsolutePath());
+        mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(template);
+        long hitCount = mrrtReportTemplateHtmlBodyCache.getHitCount();
+        
+        String bodyContentReturned = mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(template);
+        
+        assertThat(bodyContentReturned, is("<p>Sample Template</p>"));
+        assertThat(mrrtReportTemplateHtmlBodyCache.getHitCount(), is(hitCount + 1));
+    }
+    
     @Test
     public void shouldThrowIllegalArgumentExceptionIfGivenNull() throws Exception {
         
@@ -531,4 +655,313 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
                 .size(),
             is(1));
     }
+    
+    @Test
+    public void shouldCountAllTemplatesThatMatchGivenTitleSearchQueryIgnoringPaging() throws Exception {
+        
+        MrrtReportTemplateSearchCriteria searchCriteria =
+                new MrrtReportTemplateSearchCriteria.Builder().withTitle(EXISTING_TEMPLATE_TITLE)
+                        .withFirstResult(1)
+                        .withMaxResults(1)
+                        .build();
+        
+        List<MrrtReportTemplate> templates = mrrtReportTemplateService.getMrrtReportTemplates(searchCriteria);
+        
+        assertThat(templates.size(), is(1));
+        assertThat(templates.get(0)
+                .getDcTermsTitle(),
+            is("CT Chest Pulmonary Embolism"));
+        assertThat(mrrtReportTemplateService.countMrrtReportTemplates(searchCriteria), is(2L));
+    }
+    
+    @Test
+    public void shouldFailToCountTemplatesIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("mrrtReportTemplateSearchCriteria cannot be null");
+        mrrtReportTemplateService.countMrrtReportTemplates(null);
+    }
+    
+    @Test
+    public void shouldSaveGivenTemplates() throws Exception {
+        
+        MrrtReportTemplate first = new MrrtReportTemplate();
+        first.setDcTermsTitle("first title");
+        first.setDcTermsIdentifier("identifier3");
+        MrrtReportTemplate second = new MrrtReportTemplate();
+        second.setDcTermsTitle("second title");
+        second.setDcTermsIdentifier("identifier4");
+        
+        List<MrrtReportTemplate> saved = mrrtReportTemplateService.saveMrrtReportTemplates(Arrays.asList(first, second));
+        
+        assertThat(saved.size(), is(2));
+        assertThat(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier("identifier3")
+                .getDcTermsTitle(),
+            is("first title"));
+        assertThat(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier("identifier4")
+                .getDcTermsTitle(),
+            is("second title"));
+    }
+    
+    @Test
+    public void shouldFailToSaveTemplatesIfOneOfGivenTemplatesAlreadyExists() throws Exception {
+        
+        MrrtReportTemplate existing = mrrtReportTemplateService.getMrrtReportTemplate(EXISTING_TEMPLATE_ID);
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("Template already exist in the system.");
+        mrrtReportTemplateService.saveMrrtReportTemplates(Arrays.asList(existing));
+    }
+    
+    @Test
+    public void shouldFailToSaveTemplatesIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("templates cannot be null");
+        mrrtReportTemplateService.saveMrrtReportTemplates(null);
+    }
+    
+    @Test
+    public void shouldReturnTheConceptReferenceTermsOfGivenConceptSourceMatchingGivenCodes() throws Exception {
+        
+        ConceptSource conceptSource = Context.getConceptService()
+                .getConceptSourceByName("RADLEX");
+        ConceptReferenceTerm thorax = Context.getConceptService()
+                .saveConceptReferenceTerm(new ConceptReferenceTerm(conceptSource, "RID1243", "thorax"));
+        
+        List<ConceptReferenceTerm> terms = mrrtReportTemplateService.getConceptReferenceTerms(conceptSource,
+            Arrays.asList("RID10321", "RID1243", "RID56"));
+        
+        assertThat(terms.size(), is(2));
+        assertThat(terms, hasItem(Context.getConceptService()
+                .getConceptReferenceTermByCode("RID10321", conceptSource)));
+        assertThat(terms, hasItem(thorax));
+    }
+    
+    @Test
+    public void shouldReturnAnEmptyListIfGivenNoCodes() throws Exception {
+        
+        ConceptSource conceptSource = Context.getConceptService()
+                .getConceptSourceByName("RADLEX");
+        
+        assertTrue(mrrtReportTemplateService.getConceptReferenceTerms(conceptSource, new ArrayList<String>())
+                .isEmpty());
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenConceptSourceIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("conceptSource cannot be null");
+        mrrtReportTemplateService.getConceptReferenceTerms(null, Arrays.asList("RID10321"));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenCodesAreNull() throws Exception {
+        
+        ConceptSource conceptSource = Context.getConceptService()
+                .getConceptSourceByName("RADLEX");
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("codes cannot be null");
+        mrrtReportTemplateService.getConceptReferenceTerms(conceptSource, null);
+    }
+    
+    @Test
+    public void shouldImportAllValidTemplatesOfGivenArchive() throws Exception {
+        
+        setUpTemporaryFolder();
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_BATCH_SIZE, "1"));
+        String template = getFileContent(VALID_TEMPLATE_PATH);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("CTChestAbdomen.html", template);
+        entries.put("other/CTChestAbdomen.htm", template.replace(TEMPLATE_IDENTIFIER, OTHER_TEMPLATE_IDENTIFIER));
+        
+        commitTestData();
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(getZipArchive(entries));
+        
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0)
+                .getFileName(),
+            is("CTChestAbdomen.html"));
+        assertThat(results.get(0)
+                .getStatus(),
+            is(MrrtReportTemplateImportStatus.IMPORTED));
+        assertThat(results.get(1)
+                .getFileName(),
+            is("other/CTChestAbdomen.htm"));
+        assertThat(results.get(1)
+                .getStatus(),
+            is(MrrtReportTemplateImportStatus.IMPORTED));
+        
+        MrrtReportTemplate saved = mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER);
+        assertNotNull(saved);
+        assertThat(results.get(0)
+                .getTemplate(),
+            is(saved));
+        assertTrue(FileUtils.contentEquals(getFile(VALID_TEMPLATE_PATH), new File(saved.getPath())));
+        assertNotNull(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(OTHER_TEMPLATE_IDENTIFIER));
+    }
+    
+    @Test
+    public void shouldReportValidationErrorsOfInvalidTemplatesOfGivenArchive() throws Exception {
+        
+        setUpTemporaryFolder();
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("invalid.html", getFileContent(INVALID_TEMPLATE_PATH));
+        entries.put("CTChestAbdomen.html", getFileContent(VALID_TEMPLATE_PATH));
+        
+        commitTestData();
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(getZipArchive(entries));
+        
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0)
+                .getStatus(),
+            is(MrrtReportTemplateImportStatus.INVALID));
+        assertThat(results.get(0)
+                .getErrors()
+                .isEmpty(),
+            is(false));
+        assertNull(results.get(0)
+                .getTemplate());
+        assertThat(results.get(1)
+                .getStatus(),
+            is(MrrtReportTemplateImportStatus.IMPORTED));
+    }
+    
+    @Test
+    public void shouldReportTemplatesWithAnIdentifierWhichAlreadyExists() throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent(VALID_TEMPLATE_PATH);
+        mrrtReportTemplateService.importMrrtReportTemplate(template);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("CTChestAbdomen.html", template);
+        
+        commitTestData();
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(getZipArchive(entries));
+        
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0)
+                .getStatus(),
+            is(MrrtReportTemplateImportStatus.DUPLICATE_IDENTIFIER));
+        assertThat(results.get(0)
+                .getErrors()
+                .get(0)
+                .getDescription(),
+            containsString(TEMPLATE_IDENTIFIER));
+    }
+    
+    @Test
+    public void shouldReportTemplatesWithAnIdentifierWhichOccursEarlierInGivenArchive() throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent(VALID_TEMPLATE_PATH);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("CTChestAbdomen.html", template);
+        entries.put("copy/CTChestAbdomen.html", template);
+        
+        commitTestData();
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(getZipArchive(entries));
+        
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0)
+                .getStatus(),
+            is(MrrtReportTemplateImportStatus.IMPORTED));
+        assertThat(results.get(1)
+                .getStatus(),
+            is(MrrtReportTemplateImportStatus.DUPLICATE_IDENTIFIER));
+    }
+    
+    @Test
+    public void shouldSkipFilesOfGivenArchiveWhichAreNotHtmlFiles() throws Exception {
+        
+        setUpTemporaryFolder();
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("templates/", null);
+        entries.put("templates/IHE_Template_Style.css", "body { color: black; }");
+        entries.put("__MACOSX/templates/._CTChestAbdomen.html", "");
+        entries.put("templates/CTChestAbdomen.html", getFileContent(VALID_TEMPLATE_PATH));
+        
+        commitTestData();
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(getZipArchive(entries));
+        
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0)
+                .getFileName(),
+            is("templates/CTChestAbdomen.html"));
+        assertThat(results.get(0)
+                .getStatus(),
+            is(MrrtReportTemplateImportStatus.IMPORTED));
+    }
+    
+    @Test
+    public void shouldReportTemplatesOfGivenArchiveExceedingTheMaximumSizeAsInvalid() throws Exception {
+        
+        setUpTemporaryFolder();
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_ENTRY_BYTES, "100"));
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("CTChestAbdomen.html", getFileContent(VALID_TEMPLATE_PATH));
+        
+        commitTestData();
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(getZipArchive(entries));
+        
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0)
+                .getStatus(),
+            is(MrrtReportTemplateImportStatus.INVALID));
+        assertThat(results.get(0)
+                .getErrors()
+                .get(0)
+                .getDescription(),
+            containsString("maximum size of 100 bytes"));
+        assertNull(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER));
+    }
+    
+    @Test
+    public void shouldFailToImportTemplatesIfGivenArchiveExceedsTheMaximumUncompressedSizeAndDeleteUnsavedTemplateFiles()
+            throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent(VALID_TEMPLATE_PATH);
+        int templateBytes = template.getBytes(StandardCharsets.UTF_8).length;
+        // validate one template at a time so that the first template is stored before the archive exceeds its size
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_THREADS, "1"));
+        administrationService.saveGlobalProperty(new GlobalProperty(
+                RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_IMPORT_MAX_TOTAL_BYTES, String.valueOf(2 * templateBytes + 10)));
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("CTChestAbdomen.html", template);
+        entries.put("other/CTChestAbdomen.html", template.replace(TEMPLATE_IDENTIFIER, OTHER_TEMPLATE_IDENTIFIER));
+        entries.put("large.html", StringUtils.repeat("x", 100));
+        
+        commitTestData();
+        try {
+            mrrtReportTemplateService.importMrrtReportTemplates(getZipArchive(entries));
+            fail("expected an IOException");
+        }
+        catch (IOException ioException) {
+            assertThat(ioException.getMessage(), containsString("maximum uncompressed size"));
+        }
+        assertThat(radiologyProperties.getReportTemplateHome()
+                .list().length,
+            is(0));
+        assertNull(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER));
+    }
+    
+    @Test
+    public void shouldFailToImportTemplatesIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("zipArchive cannot be null");
+        mrrtReportTemplateService.importMrrtReportTemplates(null);
+    }
 }
@@ -10,6 +10,8 @@
 package org.openmrs.module.radiology.report.template;
 
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -18,6 +20,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
+import javax.xml.validation.Schema;
+
 import org.apache.commons.io.IOUtils;
 import org.junit.Rule;
 import org.junit.Test;
@@ -25,6 +29,7 @@ import org.junit.rules.ExpectedException;
 import org.openmrs.api.APIException;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.w3c.dom.Document;
 
 /**
  * Tests {@link MrrtReportTemplateValidator}.
@@ -311,4 +316,51 @@ public class MrrtReportTemplateValidatorComponentTest extends BaseModuleContextS
                 is(4));
         }
     }
+    
+    @Test
+    public void shouldCompileTheSchemaOnlyOnce() throws Exception {
+        
+        XsdMrrtReportTemplateValidator xsdMrrtReportTemplateValidator = new XsdMrrtReportTemplateValidator();
+        
+        Schema schema = xsdMrrtReportTemplateValidator.getSchema();
+        
+        assertNotNull(schema);
+        assertThat(xsdMrrtReportTemplateValidator.getSchema(), is(sameInstance(schema)));
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfTemplateIsNotWellFormed() throws Exception {
+        
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        expectedException.expect(APIException.class);
+        validator.validate(templateContent.replace("</head>", ""));
+    }
+    
+    @Test
+    public void shouldReturnTheParsedTemplateDocument() throws Exception {
+        
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        Document document = validator.validate(templateContent);
+        
+        assertNotNull(document);
+        assertThat(document.getDocumentElement()
+                .getTagName(),
+            is("html"));
+        assertThat(document.getElementsByTagName("term")
+                .getLength(),
+            is(3));
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfTemplateDeclaresADocumentTypeDefinition() throws Exception {
+        
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        expectedException.expect(APIException.class);
+        validator.validate(templateContent.replace("<!DOCTYPE html>",
+            "<!DOCTYPE html [<!ENTITY external SYSTEM \"file:///etc/hostname\">]>")
+                .replace("</title>", "&external;</title>"));
+    }
 }
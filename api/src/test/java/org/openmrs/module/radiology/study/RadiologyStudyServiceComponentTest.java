@@ -14,6 +14,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
+import java.util.List;
 import java.util.Properties;
 
 import org.hibernate.cfg.Environment;
@@ -22,8 +23,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.openmrs.api.APIException;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
 import org.openmrs.module.radiology.order.RadiologyOrder;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.turnaround.RadiologyLifecycleEvent;
+import org.openmrs.module.radiology.turnaround.RadiologyLifecycleEventType;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -56,6 +62,12 @@ public class RadiologyStudyServiceComponentTest extends BaseModuleContextSensiti
     @Autowired
     private RadiologyStudyService radiologyStudyService;
     
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    @Autowired
+    private RadiologyTurnaroundService radiologyTurnaroundService;
+    
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
@@ -80,6 +92,7 @@ public class RadiologyStudyServiceComponentTest extends BaseModuleContextSensiti
     @Before
     public void setUp() throws Exception {
         executeDataSet(TEST_DATASET);
+        radiologyProperties.clearCache();
     }
     
     /**
@@ -137,6 +150,94 @@ public class RadiologyStudyServiceComponentTest extends BaseModuleContextSensiti
         radiologyStudyService.saveRadiologyStudy(existingStudy);
     }
     
+    /**
+     * @see RadiologyStudyService#updateRadiologyStudyPerformedStatus(RadiologyStudy, PerformedProcedureStepStatus)
+     */
+    @Test
+    public void shouldUpdateThePerformedStatusOfGivenRadiologyStudy() throws Exception {
+        
+        RadiologyStudy radiologyStudy = radiologyStudyService.getRadiologyStudy(EXISTING_STUDY_ID);
+        
+        radiologyStudyService.updateRadiologyStudyPerformedStatus(radiologyStudy,
+            PerformedProcedureStepStatus.DISCONTINUED);
+        
+        assertThat(radiologyStudyService.getRadiologyStudy(EXISTING_STUDY_ID)
+                .getPerformedStatus(),
+            is(PerformedProcedureStepStatus.DISCONTINUED));
+        assertThat(radiologyTurnaroundService.getRadiologyLifecycleEvents(radiologyStudy.getRadiologyOrder())
+                .size(),
+            is(0));
+    }
+    
+    /**
+     * @see RadiologyStudyService#updateRadiologyStudyPerformedStatus(RadiologyStudy, PerformedProcedureStepStatus)
+     */
+    @Test
+    public void shouldRecordAPerformedLifecycleEventIfGivenRadiologyStudyIsCompleted() throws Exception {
+        
+        RadiologyStudy radiologyStudy = radiologyStudyService.getRadiologyStudy(EXISTING_STUDY_ID);
+        
+        radiologyStudyService.updateRadiologyStudyPerformedStatus(radiologyStudy, PerformedProcedureStepStatus.COMPLETED);
+        
+        List<RadiologyLifecycleEvent> radiologyLifecycleEvents =
+                radiologyTurnaroundService.getRadiologyLifecycleEvents(radiologyStudy.getRadiologyOrder());
+        assertThat(radiologyLifecycleEvents.size(), is(1));
+        assertThat(radiologyLifecycleEvents.get(0)
+                .getEventType(),
+            is(RadiologyLifecycleEventType.PERFORMED));
+    }
+    
+    /**
+     * @see RadiologyStudyService#updateRadiologyStudyPerformedStatus(RadiologyStudy, PerformedProcedureStepStatus)
+     */
+    @Test
+    public void shouldNotRecordAPerformedLifecycleEventIfGivenRadiologyStudyWasCompletedAlready() throws Exception {
+        
+        RadiologyStudy radiologyStudy = radiologyStudyService.getRadiologyStudy(EXISTING_STUDY_ID);
+        radiologyStudyService.updateRadiologyStudyPerformedStatus(radiologyStudy, PerformedProcedureStepStatus.COMPLETED);
+        
+        radiologyStudyService.updateRadiologyStudyPerformedStatus(radiologyStudy, PerformedProcedureStepStatus.COMPLETED);
+        
+        assertThat(radiologyTurnaroundService.getRadiologyLifecycleEvents(radiologyStudy.getRadiologyOrder())
+                .size(),
+            is(1));
+    }
+    
+    /**
+     * @see RadiologyStudyService#updateRadiologyStudyPerformedStatus(RadiologyStudy, PerformedProcedureStepStatus)
+     */
+    @Test
+    public void shouldFailToUpdateThePerformedStatusIfGivenRadiologyStudyIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyStudy cannot be null");
+        radiologyStudyService.updateRadiologyStudyPerformedStatus(null, PerformedProcedureStepStatus.COMPLETED);
+    }
+    
+    /**
+     * @see RadiologyStudyService#updateRadiologyStudyPerformedStatus(RadiologyStudy, PerformedProcedureStepStatus)
+     */
+    @Test
+    public void shouldFailToUpdateThePerformedStatusIfGivenRadiologyStudyHasNoStudyId() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyStudy.studyId cannot be null");
+        radiologyStudyService.updateRadiologyStudyPerformedStatus(new RadiologyStudy(),
+            PerformedProcedureStepStatus.COMPLETED);
+    }
+    
+    /**
+     * @see RadiologyStudyService#updateRadiologyStudyPerformedStatus(RadiologyStudy, PerformedProcedureStepStatus)
+     */
+    @Test
+    public void shouldFailToUpdateThePerformedStatusIfGivenPerformedStatusIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("performedStatus cannot be null");
+        radiologyStudyService.updateRadiologyStudyPerformedStatus(
+            radiologyStudyService.getRadiologyStudy(EXISTING_STUDY_ID), null);
+    }
+    
     /**
      * @see RadiologyStudyService#getRadiologyStudy(Integer)
      */
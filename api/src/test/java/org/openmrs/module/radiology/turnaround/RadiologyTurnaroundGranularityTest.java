@@ -0,0 +1,47 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link RadiologyTurnaroundGranularity}.
+ */
+public class RadiologyTurnaroundGranularityTest {
+    
+    
+    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    
+    /**
+     * @see RadiologyTurnaroundGranularity#getPeriodStart(java.util.Date)
+     */
+    @Test
+    public void shouldReturnTheStartOfTheHourGivenDateFallsIntoForHour() throws Exception {
+        
+        assertThat(RadiologyTurnaroundGranularity.HOUR.getPeriodStart(dateFormat.parse("2016-07-01 10:42:17")),
+            is(dateFormat.parse("2016-07-01 10:00:00")));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundGranularity#getPeriodStart(java.util.Date)
+     */
+    @Test
+    public void shouldReturnTheStartOfTheDayGivenDateFallsIntoForDay() throws Exception {
+        
+        assertThat(RadiologyTurnaroundGranularity.DAY.getPeriodStart(dateFormat.parse("2016-07-01 10:42:17")),
+            is(dateFormat.parse("2016-07-01 00:00:00")));
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link RadiologyTurnaroundInterval}.
+ */
+public class RadiologyTurnaroundIntervalTest {
+    
+    
+    /**
+     * @see RadiologyTurnaroundInterval#getIntervalEndedBy(RadiologyLifecycleEventType)
+     */
+    @Test
+    public void shouldReturnTheIntervalEndedByGivenLifecycleEventType() throws Exception {
+        
+        assertThat(RadiologyTurnaroundInterval.getIntervalEndedBy(RadiologyLifecycleEventType.PERFORMED),
+            is(RadiologyTurnaroundInterval.ORDER_TO_EXAM));
+        assertThat(RadiologyTurnaroundInterval.getIntervalEndedBy(RadiologyLifecycleEventType.REPORTED),
+            is(RadiologyTurnaroundInterval.EXAM_TO_REPORT));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundInterval#getIntervalEndedBy(RadiologyLifecycleEventType)
+     */
+    @Test
+    public void shouldReturnNullGivenALifecycleEventTypeNotEndingAnyInterval() throws Exception {
+        
+        assertNull(RadiologyTurnaroundInterval.getIntervalEndedBy(RadiologyLifecycleEventType.ORDERED));
+    }
+}
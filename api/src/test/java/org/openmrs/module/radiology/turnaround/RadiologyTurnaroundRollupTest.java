@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openmrs.Provider;
+
+/**
+ * Tests {@link RadiologyTurnaroundRollup}.
+ */
+public class RadiologyTurnaroundRollupTest {
+    
+    
+    /**
+     * @see RadiologyTurnaroundRollup#add(RadiologyTurnaroundSketch, long)
+     */
+    @Test
+    public void shouldAddGivenTurnaroundTimesToCountTotalSecondsAndSketch() throws Exception {
+        
+        RadiologyTurnaroundRollup radiologyTurnaroundRollup = new RadiologyTurnaroundRollup();
+        RadiologyTurnaroundSketch first = new RadiologyTurnaroundSketch();
+        first.add(0);
+        first.add(1);
+        RadiologyTurnaroundSketch second = new RadiologyTurnaroundSketch();
+        second.add(0);
+        
+        radiologyTurnaroundRollup.add(first, 1);
+        radiologyTurnaroundRollup.add(second, 0);
+        
+        assertThat(radiologyTurnaroundRollup.getCount(), is(3L));
+        assertThat(radiologyTurnaroundRollup.getTotalSeconds(), is(1L));
+        assertThat(radiologyTurnaroundRollup.getSketch()
+                .getCount(),
+            is(3L));
+        assertThat(radiologyTurnaroundRollup.getSketch()
+                .getQuantile(1),
+            is(1L));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundRollup#getPrincipalResultsInterpreterKey(Provider)
+     */
+    @Test
+    public void shouldReturnTheProviderIdOfGivenPrincipalResultsInterpreter() throws Exception {
+        
+        assertThat(RadiologyTurnaroundRollup.getPrincipalResultsInterpreterKey(new Provider(7)), is(7));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundRollup#getPrincipalResultsInterpreterKey(Provider)
+     */
+    @Test
+    public void shouldReturnNoPrincipalResultsInterpreterKeyIfGivenPrincipalResultsInterpreterIsNull() throws Exception {
+        
+        assertThat(RadiologyTurnaroundRollup.getPrincipalResultsInterpreterKey(null),
+            is(RadiologyTurnaroundRollup.NO_PRINCIPAL_RESULTS_INTERPRETER_KEY));
+    }
+}
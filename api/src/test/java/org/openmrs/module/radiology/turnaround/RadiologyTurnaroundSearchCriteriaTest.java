@@ -0,0 +1,84 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Provider;
+
+/**
+ * Tests {@link RadiologyTurnaroundSearchCriteria}.
+ */
+public class RadiologyTurnaroundSearchCriteriaTest {
+    
+    
+    /**
+     * @see RadiologyTurnaroundSearchCriteria.Builder#build()
+     */
+    @Test
+    public void shouldCreateANewRadiologyTurnaroundSearchCriteriaInstanceWithAllPropertiesIfSet() throws Exception {
+        
+        Date fromDate = new Date(0);
+        Date toDate = new Date();
+        Concept procedure = new Concept(178);
+        Provider provider = new Provider(1);
+        
+        RadiologyTurnaroundSearchCriteria radiologyTurnaroundSearchCriteria =
+                new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.EXAM_TO_REPORT)
+                        .withGranularity(RadiologyTurnaroundGranularity.HOUR)
+                        .fromDate(fromDate)
+                        .toDate(toDate)
+                        .withProcedure(procedure)
+                        .withUrgency(Urgency.STAT)
+                        .withPrincipalResultsInterpreter(provider)
+                        .groupBy(RadiologyTurnaroundDimension.PRINCIPAL_RESULTS_INTERPRETER, null,
+                            RadiologyTurnaroundDimension.PERIOD)
+                        .build();
+        
+        assertThat(radiologyTurnaroundSearchCriteria.getInterval(), is(RadiologyTurnaroundInterval.EXAM_TO_REPORT));
+        assertThat(radiologyTurnaroundSearchCriteria.getGranularity(), is(RadiologyTurnaroundGranularity.HOUR));
+        assertThat(radiologyTurnaroundSearchCriteria.getFromDate(), is(fromDate));
+        assertThat(radiologyTurnaroundSearchCriteria.getToDate(), is(toDate));
+        assertThat(radiologyTurnaroundSearchCriteria.getProcedure(), is(procedure));
+        assertThat(radiologyTurnaroundSearchCriteria.getUrgency(), is(Urgency.STAT));
+        assertThat(radiologyTurnaroundSearchCriteria.getPrincipalResultsInterpreter(), is(provider));
+        assertThat(radiologyTurnaroundSearchCriteria.getGroupBy(),
+            contains(RadiologyTurnaroundDimension.PERIOD, RadiologyTurnaroundDimension.PRINCIPAL_RESULTS_INTERPRETER));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSearchCriteria.Builder#build()
+     */
+    @Test
+    public void shouldCreateANewRadiologyTurnaroundSearchCriteriaInstanceWithGranularityDayIfNotSet() throws Exception {
+        
+        RadiologyTurnaroundSearchCriteria radiologyTurnaroundSearchCriteria =
+                new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                        .build();
+        
+        assertThat(radiologyTurnaroundSearchCriteria.getGranularity(), is(RadiologyTurnaroundGranularity.DAY));
+        assertNull(radiologyTurnaroundSearchCriteria.getFromDate());
+        assertNull(radiologyTurnaroundSearchCriteria.getToDate());
+        assertNull(radiologyTurnaroundSearchCriteria.getProcedure());
+        assertNull(radiologyTurnaroundSearchCriteria.getUrgency());
+        assertNull(radiologyTurnaroundSearchCriteria.getPrincipalResultsInterpreter());
+        assertTrue(radiologyTurnaroundSearchCriteria.getGroupBy()
+                .isEmpty());
+    }
+}
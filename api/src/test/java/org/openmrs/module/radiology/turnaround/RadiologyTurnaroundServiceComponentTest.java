@@ -0,0 +1,529 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Provider;
+import org.openmrs.api.ProviderService;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests {@link RadiologyTurnaroundService}.
+ */
+public class RadiologyTurnaroundServiceComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/RadiologyReportServiceComponentTestDataset.xml";
+    
+    private static final int RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS = 2001;
+    
+    private static final int OTHER_RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS = 2002;
+    
+    private static final int RADIOLOGY_ORDER_WITH_COMPLETED_STUDY = 2005;
+    
+    private static final String PROVIDER_WITH_RADIOLOGY_REPORTS = "c2299800-cca9-11e0-9572-0800200c9a66";
+    
+    private static final String PROVIDER_WITHOUT_RADIOLOGY_REPORTS = "550e8400-e29b-11d4-a716-446655440000";
+    
+    private static final int SECONDS_PER_HALF_HOUR = 1800;
+    
+    private static final int SECONDS_PER_HOUR = 3600;
+    
+    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    
+    @Autowired
+    private ProviderService providerService;
+    
+    @Autowired
+    private RadiologyOrderService radiologyOrderService;
+    
+    @Autowired
+    private RadiologyTurnaroundService radiologyTurnaroundService;
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Before
+    public void setUp() throws Exception {
+        executeDataSet(TEST_DATASET);
+    }
+    
+    /**
+     * Records the lifecycle events of radiology order 2001 ordered at 08:00, performed at 08:30 and reported at 10:30
+     * and of radiology order 2002 ordered at 08:10 and performed at 09:10 on the 1st of July 2016.
+     */
+    private void recordLifecycleEvents() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS);
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(radiologyOrder, RadiologyLifecycleEventType.ORDERED,
+            dateFormat.parse("2016-07-01 08:00:00"), null);
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(radiologyOrder, RadiologyLifecycleEventType.PERFORMED,
+            dateFormat.parse("2016-07-01 08:30:00"), null);
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(radiologyOrder, RadiologyLifecycleEventType.REPORTED,
+            dateFormat.parse("2016-07-01 10:30:00"), providerService.getProviderByUuid(PROVIDER_WITH_RADIOLOGY_REPORTS));
+        
+        RadiologyOrder otherRadiologyOrder =
+                radiologyOrderService.getRadiologyOrder(OTHER_RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS);
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(otherRadiologyOrder,
+            RadiologyLifecycleEventType.ORDERED, dateFormat.parse("2016-07-01 08:10:00"), null);
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(otherRadiologyOrder,
+            RadiologyLifecycleEventType.PERFORMED, dateFormat.parse("2016-07-01 09:10:00"), null);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#recordRadiologyLifecycleEvent(RadiologyOrder, RadiologyLifecycleEventType, Date,
+     *      Provider)
+     */
+    @Test
+    public void shouldRecordALifecycleEventOfGivenRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS);
+        Provider provider = providerService.getProviderByUuid(PROVIDER_WITH_RADIOLOGY_REPORTS);
+        Date eventDate = dateFormat.parse("2016-07-01 10:30:00");
+        
+        RadiologyLifecycleEvent radiologyLifecycleEvent = radiologyTurnaroundService
+                .recordRadiologyLifecycleEvent(radiologyOrder, RadiologyLifecycleEventType.REPORTED, eventDate, provider);
+        
+        assertNotNull(radiologyLifecycleEvent.getEventId());
+        assertThat(radiologyLifecycleEvent.getRadiologyOrder(), is(radiologyOrder));
+        assertThat(radiologyLifecycleEvent.getEventType(), is(RadiologyLifecycleEventType.REPORTED));
+        assertThat(radiologyLifecycleEvent.getEventDate(), is(eventDate));
+        assertThat(radiologyLifecycleEvent.getPrincipalResultsInterpreter(), is(provider));
+        assertFalse(radiologyLifecycleEvent.isRolledUp());
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#recordRadiologyLifecycleEvent(RadiologyOrder, RadiologyLifecycleEventType, Date,
+     *      Provider)
+     */
+    @Test
+    public void shouldRecordLifecycleEventsNotEndingATurnaroundIntervalAsRolledUp() throws Exception {
+        
+        RadiologyLifecycleEvent radiologyLifecycleEvent = radiologyTurnaroundService.recordRadiologyLifecycleEvent(
+            radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS),
+            RadiologyLifecycleEventType.ORDERED, new Date(), null);
+        
+        assertTrue(radiologyLifecycleEvent.isRolledUp());
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#recordRadiologyLifecycleEvent(RadiologyOrder, RadiologyLifecycleEventType, Date,
+     *      Provider)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenRadiologyOrderIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrder cannot be null");
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(null, RadiologyLifecycleEventType.ORDERED, new Date(),
+            null);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#recordRadiologyLifecycleEvent(RadiologyOrder, RadiologyLifecycleEventType, Date,
+     *      Provider)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenEventTypeIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("eventType cannot be null");
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(
+            radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS), null, new Date(), null);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#recordRadiologyLifecycleEvent(RadiologyOrder, RadiologyLifecycleEventType, Date,
+     *      Provider)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenEventDateIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("eventDate cannot be null");
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(
+            radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS),
+            RadiologyLifecycleEventType.ORDERED, null, null);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyLifecycleEvents(RadiologyOrder)
+     */
+    @Test
+    public void shouldReturnTheLifecycleEventsOfGivenRadiologyOrderOrderedByEventDate() throws Exception {
+        
+        recordLifecycleEvents();
+        
+        List<RadiologyLifecycleEvent> radiologyLifecycleEvents = radiologyTurnaroundService.getRadiologyLifecycleEvents(
+            radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS));
+        
+        assertThat(radiologyLifecycleEvents.size(), is(3));
+        assertThat(radiologyLifecycleEvents.get(0)
+                .getEventType(),
+            is(RadiologyLifecycleEventType.ORDERED));
+        assertThat(radiologyLifecycleEvents.get(1)
+                .getEventType(),
+            is(RadiologyLifecycleEventType.PERFORMED));
+        assertThat(radiologyLifecycleEvents.get(2)
+                .getEventType(),
+            is(RadiologyLifecycleEventType.REPORTED));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyLifecycleEvents(RadiologyOrder)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrder cannot be null");
+        radiologyTurnaroundService.getRadiologyLifecycleEvents(null);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#rollUpRadiologyLifecycleEvents(int)
+     */
+    @Test
+    public void shouldAddTheTurnaroundTimesEndedByTheLifecycleEventsToTheHourlyAndDailyRollups() throws Exception {
+        
+        recordLifecycleEvents();
+        
+        assertThat(radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100), is(3));
+        
+        List<RadiologyTurnaroundStatistics> daily = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                    .build());
+        assertThat(daily.size(), is(1));
+        assertThat(daily.get(0)
+                .getCount(),
+            is(2L));
+        assertThat(daily.get(0)
+                .getTotalSeconds(),
+            is((long) SECONDS_PER_HALF_HOUR + SECONDS_PER_HOUR));
+        
+        List<RadiologyTurnaroundStatistics> hourly = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                    .withGranularity(RadiologyTurnaroundGranularity.HOUR)
+                    .groupBy(RadiologyTurnaroundDimension.PERIOD)
+                    .build());
+        assertThat(hourly.size(), is(2));
+        assertThat(hourly.get(0)
+                .getPeriodStart(),
+            is(dateFormat.parse("2016-07-01 08:00:00")));
+        assertThat(hourly.get(0)
+                .getTotalSeconds(),
+            is((long) SECONDS_PER_HALF_HOUR));
+        assertThat(hourly.get(1)
+                .getPeriodStart(),
+            is(dateFormat.parse("2016-07-01 09:00:00")));
+        assertThat(hourly.get(1)
+                .getTotalSeconds(),
+            is((long) SECONDS_PER_HOUR));
+        
+        List<RadiologyTurnaroundStatistics> examToReport = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.EXAM_TO_REPORT)
+                    .build());
+        assertThat(examToReport.size(), is(1));
+        assertThat(examToReport.get(0)
+                .getCount(),
+            is(1L));
+        assertThat(examToReport.get(0)
+                .getMedianSeconds()
+                .doubleValue(),
+            is(closeTo(2 * SECONDS_PER_HOUR, 2 * SECONDS_PER_HOUR * RadiologyTurnaroundSketch.RELATIVE_ACCURACY)));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#rollUpRadiologyLifecycleEvents(int)
+     */
+    @Test
+    public void shouldAddToExistingRollupsOfTheSamePeriodAndDimensions() throws Exception {
+        
+        recordLifecycleEvents();
+        radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100);
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_COMPLETED_STUDY);
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(radiologyOrder, RadiologyLifecycleEventType.ORDERED,
+            dateFormat.parse("2016-07-01 07:00:00"), null);
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(radiologyOrder, RadiologyLifecycleEventType.PERFORMED,
+            dateFormat.parse("2016-07-01 09:40:00"), null);
+        
+        assertThat(radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100), is(1));
+        
+        List<RadiologyTurnaroundStatistics> hourly = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                    .withGranularity(RadiologyTurnaroundGranularity.HOUR)
+                    .fromDate(dateFormat.parse("2016-07-01 09:00:00"))
+                    .groupBy(RadiologyTurnaroundDimension.PERIOD)
+                    .build());
+        assertThat(hourly.size(), is(1));
+        assertThat(hourly.get(0)
+                .getCount(),
+            is(2L));
+        assertThat(hourly.get(0)
+                .getTotalSeconds(),
+            is((long) SECONDS_PER_HOUR + 2 * SECONDS_PER_HOUR + 40 * 60));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#rollUpRadiologyLifecycleEvents(int)
+     */
+    @Test
+    public void shouldNotRollUpLifecycleEventsUntilTheStartOfTheirIntervalIsRecorded() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_COMPLETED_STUDY);
+        RadiologyLifecycleEvent radiologyLifecycleEvent = radiologyTurnaroundService.recordRadiologyLifecycleEvent(
+            radiologyOrder, RadiologyLifecycleEventType.REPORTED, dateFormat.parse("2016-07-01 10:30:00"),
+            providerService.getProviderByUuid(PROVIDER_WITH_RADIOLOGY_REPORTS));
+        
+        assertThat(radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100), is(0));
+        
+        assertFalse(radiologyLifecycleEvent.isRolledUp());
+        assertThat(radiologyTurnaroundService
+                .getRadiologyTurnaroundStatistics(new RadiologyTurnaroundSearchCriteria.Builder()
+                        .withInterval(RadiologyTurnaroundInterval.EXAM_TO_REPORT)
+                        .build())
+                .size(),
+            is(0));
+        
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(radiologyOrder, RadiologyLifecycleEventType.PERFORMED,
+            dateFormat.parse("2016-07-01 10:00:00"), null);
+        
+        assertThat(radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100), is(1));
+        
+        assertTrue(radiologyLifecycleEvent.isRolledUp());
+        List<RadiologyTurnaroundStatistics> statistics = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.EXAM_TO_REPORT)
+                    .build());
+        assertThat(statistics.size(), is(1));
+        assertThat(statistics.get(0)
+                .getCount(),
+            is(1L));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#rollUpRadiologyLifecycleEvents(int)
+     */
+    @Test
+    public void shouldNotRollUpLifecycleEventsTwice() throws Exception {
+        
+        recordLifecycleEvents();
+        assertThat(radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(2), is(2));
+        assertThat(radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(2), is(1));
+        
+        assertThat(radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(2), is(0));
+        
+        List<RadiologyTurnaroundStatistics> daily = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                    .build());
+        assertThat(daily.get(0)
+                .getCount(),
+            is(2L));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#rollUpRadiologyLifecycleEvents(int)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenMaxResultsIsNotPositive() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("maxResults must be greater than 0");
+        radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(0);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria)
+     */
+    @Test
+    public void shouldReturnStatisticsMergedOverAllRollupsMatchingGivenSearchCriteria() throws Exception {
+        
+        recordLifecycleEvents();
+        radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100);
+        
+        List<RadiologyTurnaroundStatistics> statistics = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                    .withGranularity(RadiologyTurnaroundGranularity.HOUR)
+                    .fromDate(dateFormat.parse("2016-07-01 00:00:00"))
+                    .toDate(dateFormat.parse("2016-07-01 23:59:59"))
+                    .build());
+        
+        assertThat(statistics.size(), is(1));
+        assertNull(statistics.get(0)
+                .getPeriodStart());
+        assertNull(statistics.get(0)
+                .getProcedure());
+        assertThat(statistics.get(0)
+                .getCount(),
+            is(2L));
+        assertThat(statistics.get(0)
+                .getMeanSeconds(),
+            is((SECONDS_PER_HALF_HOUR + SECONDS_PER_HOUR) / 2.0));
+        assertThat(statistics.get(0)
+                .getPercentile95Seconds()
+                .doubleValue(),
+            is(closeTo(SECONDS_PER_HOUR, SECONDS_PER_HOUR * RadiologyTurnaroundSketch.RELATIVE_ACCURACY)));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria)
+     */
+    @Test
+    public void shouldReturnStatisticsGroupedByPeriod() throws Exception {
+        
+        recordLifecycleEvents();
+        radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100);
+        
+        List<RadiologyTurnaroundStatistics> statistics = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                    .withGranularity(RadiologyTurnaroundGranularity.DAY)
+                    .groupBy(RadiologyTurnaroundDimension.PERIOD, RadiologyTurnaroundDimension.PROCEDURE)
+                    .build());
+        
+        assertThat(statistics.size(), is(1));
+        assertThat(statistics.get(0)
+                .getPeriodStart(),
+            is(dateFormat.parse("2016-07-01 00:00:00")));
+        assertThat(statistics.get(0)
+                .getProcedure(),
+            is(radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS)
+                    .getConcept()));
+        assertThat(statistics.get(0)
+                .getCount(),
+            is(2L));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria)
+     */
+    @Test
+    public void shouldReturnStatisticsGroupedByPrincipalResultsInterpreter() throws Exception {
+        
+        recordLifecycleEvents();
+        RadiologyOrder otherRadiologyOrder =
+                radiologyOrderService.getRadiologyOrder(OTHER_RADIOLOGY_ORDER_WITH_STUDY_IN_PROGRESS);
+        radiologyTurnaroundService.recordRadiologyLifecycleEvent(otherRadiologyOrder,
+            RadiologyLifecycleEventType.REPORTED, dateFormat.parse("2016-07-01 09:40:00"),
+            providerService.getProviderByUuid(PROVIDER_WITHOUT_RADIOLOGY_REPORTS));
+        radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100);
+        
+        List<RadiologyTurnaroundStatistics> statistics = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.EXAM_TO_REPORT)
+                    .groupBy(RadiologyTurnaroundDimension.PRINCIPAL_RESULTS_INTERPRETER)
+                    .build());
+        
+        assertThat(statistics.size(), is(2));
+        assertThat(statistics.get(0)
+                .getPrincipalResultsInterpreter()
+                .getUuid(),
+            is(PROVIDER_WITH_RADIOLOGY_REPORTS));
+        assertThat(statistics.get(0)
+                .getTotalSeconds(),
+            is(2L * SECONDS_PER_HOUR));
+        assertThat(statistics.get(1)
+                .getPrincipalResultsInterpreter()
+                .getUuid(),
+            is(PROVIDER_WITHOUT_RADIOLOGY_REPORTS));
+        assertThat(statistics.get(1)
+                .getTotalSeconds(),
+            is((long) SECONDS_PER_HALF_HOUR));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria)
+     */
+    @Test
+    public void shouldReturnStatisticsOfTheRollupsMatchingGivenUrgency() throws Exception {
+        
+        recordLifecycleEvents();
+        radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100);
+        
+        List<RadiologyTurnaroundStatistics> statistics = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                    .withUrgency(Urgency.ROUTINE)
+                    .groupBy(RadiologyTurnaroundDimension.URGENCY)
+                    .build());
+        
+        assertThat(statistics.size(), is(1));
+        assertThat(statistics.get(0)
+                .getUrgency(),
+            is(Urgency.ROUTINE));
+        assertThat(statistics.get(0)
+                .getCount(),
+            is(2L));
+        assertThat(radiologyTurnaroundService
+                .getRadiologyTurnaroundStatistics(new RadiologyTurnaroundSearchCriteria.Builder()
+                        .withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                        .withUrgency(Urgency.STAT)
+                        .build())
+                .size(),
+            is(0));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria)
+     */
+    @Test
+    public void shouldReturnAnEmptyListIfNoRollupsMatchGivenSearchCriteria() throws Exception {
+        
+        recordLifecycleEvents();
+        radiologyTurnaroundService.rollUpRadiologyLifecycleEvents(100);
+        
+        List<RadiologyTurnaroundStatistics> statistics = radiologyTurnaroundService.getRadiologyTurnaroundStatistics(
+            new RadiologyTurnaroundSearchCriteria.Builder().withInterval(RadiologyTurnaroundInterval.ORDER_TO_EXAM)
+                    .fromDate(dateFormat.parse("2016-07-02 00:00:00"))
+                    .build());
+        
+        assertThat(statistics.size(), is(0));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenSearchCriteriaIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyTurnaroundSearchCriteria cannot be null");
+        radiologyTurnaroundService.getRadiologyTurnaroundStatistics(null);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundService#getRadiologyTurnaroundStatistics(RadiologyTurnaroundSearchCriteria)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenSearchCriteriaHasNoInterval() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyTurnaroundSearchCriteria.interval cannot be null");
+        radiologyTurnaroundService
+                .getRadiologyTurnaroundStatistics(new RadiologyTurnaroundSearchCriteria.Builder().build());
+    }
+}
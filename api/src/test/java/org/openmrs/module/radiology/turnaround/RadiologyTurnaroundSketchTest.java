@@ -0,0 +1,202 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests {@link RadiologyTurnaroundSketch}.
+ */
+public class RadiologyTurnaroundSketchTest {
+    
+    
+    private RadiologyTurnaroundSketch radiologyTurnaroundSketch;
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Before
+    public void setUp() {
+        
+        radiologyTurnaroundSketch = new RadiologyTurnaroundSketch();
+        for (long seconds = 1; seconds <= 1000; seconds++) {
+            radiologyTurnaroundSketch.add(seconds * 60);
+        }
+    }
+    
+    /**
+     * Asserts that actual is within the relative accuracy of expected, allowing for the rounding to whole seconds.
+     */
+    private static void assertWithinRelativeAccuracy(Long actual, long expected) {
+        
+        assertThat(actual.doubleValue(),
+            is(closeTo(expected, expected * RadiologyTurnaroundSketch.RELATIVE_ACCURACY + 1)));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#add(long)
+     */
+    @Test
+    public void shouldAddGivenTurnaroundTime() throws Exception {
+        
+        RadiologyTurnaroundSketch sketch = new RadiologyTurnaroundSketch();
+        
+        sketch.add(0);
+        sketch.add(3600);
+        
+        assertThat(sketch.getCount(), is(2L));
+        assertThat(sketch.getQuantile(0), is(0L));
+        assertWithinRelativeAccuracy(sketch.getQuantile(1), 3600);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#add(long)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenSecondsAreNegative() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("seconds cannot be negative");
+        radiologyTurnaroundSketch.add(-1);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#merge(RadiologyTurnaroundSketch)
+     */
+    @Test
+    public void shouldAddTheTurnaroundTimesOfGivenSketchToThisSketch() throws Exception {
+        
+        RadiologyTurnaroundSketch other = new RadiologyTurnaroundSketch();
+        for (long seconds = 1001; seconds <= 2000; seconds++) {
+            other.add(seconds * 60);
+        }
+        
+        radiologyTurnaroundSketch.merge(other);
+        
+        assertThat(radiologyTurnaroundSketch.getCount(), is(2000L));
+        assertWithinRelativeAccuracy(radiologyTurnaroundSketch.getQuantile(0.5), 1000 * 60);
+        assertWithinRelativeAccuracy(radiologyTurnaroundSketch.getQuantile(1), 2000 * 60);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#merge(RadiologyTurnaroundSketch)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("other cannot be null");
+        radiologyTurnaroundSketch.merge(null);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#getQuantile(double)
+     */
+    @Test
+    public void shouldReturnTheTurnaroundTimeAtGivenQuantileWithinTheRelativeAccuracy() throws Exception {
+        
+        assertWithinRelativeAccuracy(radiologyTurnaroundSketch.getQuantile(0), 60);
+        assertWithinRelativeAccuracy(radiologyTurnaroundSketch.getQuantile(0.5), 500 * 60);
+        assertWithinRelativeAccuracy(radiologyTurnaroundSketch.getQuantile(0.9), 900 * 60);
+        assertWithinRelativeAccuracy(radiologyTurnaroundSketch.getQuantile(0.95), 950 * 60);
+        assertWithinRelativeAccuracy(radiologyTurnaroundSketch.getQuantile(1), 1000 * 60);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#getQuantile(double)
+     */
+    @Test
+    public void shouldReturnNullIfThisSketchIsEmpty() throws Exception {
+        
+        assertNull(new RadiologyTurnaroundSketch().getQuantile(0.5));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#getQuantile(double)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenQuantileIsNotBetween0And1() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("quantile must be between 0 and 1");
+        radiologyTurnaroundSketch.getQuantile(1.5);
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#toByteArray()
+     */
+    @Test
+    public void shouldSerializeThisSketchSoThatItCanBeDeserialized() throws Exception {
+        
+        radiologyTurnaroundSketch.add(0);
+        
+        RadiologyTurnaroundSketch deserialized =
+                RadiologyTurnaroundSketch.fromByteArray(radiologyTurnaroundSketch.toByteArray());
+        
+        assertThat(deserialized.getCount(), is(radiologyTurnaroundSketch.getCount()));
+        assertThat(deserialized.getQuantile(0), is(0L));
+        assertThat(deserialized.getQuantile(0.5), is(radiologyTurnaroundSketch.getQuantile(0.5)));
+        assertThat(deserialized.getQuantile(1), is(radiologyTurnaroundSketch.getQuantile(1)));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#fromByteArray(byte[])
+     */
+    @Test
+    public void shouldDeserializeASerializedSketch() throws Exception {
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeLong(1);
+            output.writeInt(1);
+            output.writeInt(0);
+            output.writeLong(2);
+        }
+        
+        RadiologyTurnaroundSketch deserialized = RadiologyTurnaroundSketch.fromByteArray(bytes.toByteArray());
+        
+        assertThat(deserialized.getCount(), is(3L));
+        assertThat(deserialized.getQuantile(0), is(0L));
+        assertThat(deserialized.getQuantile(1), is(1L));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#fromByteArray(byte[])
+     */
+    @Test
+    public void shouldReturnAnEmptySketchIfGivenNull() throws Exception {
+        
+        assertThat(RadiologyTurnaroundSketch.fromByteArray(null)
+                .getCount(),
+            is(0L));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundSketch#fromByteArray(byte[])
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenBytesAreNotASerializedSketch() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("bytes are not a serialized radiology turnaround sketch");
+        RadiologyTurnaroundSketch.fromByteArray(new byte[] { 1, 2, 3 });
+    }
+}
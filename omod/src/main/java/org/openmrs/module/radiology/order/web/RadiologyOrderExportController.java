@@ -0,0 +1,185 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Patient;
+import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.order.RadiologyOrderWorklistItem;
+import org.openmrs.module.webservices.rest.web.ConversionUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Controller exporting {@code RadiologyOrders} as CSV or NDJSON.
+ * <p>
+ * The worklist items of the radiology orders are written to the response one by one while they are scrolled through,
+ * so exports of any size are possible without holding them in memory.
+ * </p>
+ */
+@Controller
+@RequestMapping(RadiologyOrderExportController.RADIOLOGY_ORDER_EXPORT_REQUEST_MAPPING)
+public class RadiologyOrderExportController {
+    
+    
+    public static final String RADIOLOGY_ORDER_EXPORT_REQUEST_MAPPING = "/module/radiology/radiologyOrderExport.htm";
+    
+    static final String FORMAT_CSV = "csv";
+    
+    static final String FORMAT_NDJSON = "ndjson";
+    
+    static final String[] EXPORT_COLUMNS = { "uuid", "accessionNumber", "patientName", "patientIdentifier",
+            "procedureName", "urgency", "effectiveStartDate", "performedStatus", "reportStatus" };
+    
+    private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+    
+    @Autowired
+    private RadiologyOrderService radiologyOrderService;
+    
+    /**
+     * Handles get requests exporting the radiology orders matching the given filters.
+     *
+     * @param response the response the export is written to
+     * @param format the export format, either csv or ndjson
+     * @param accessionNumber the accession number of the radiology orders to export
+     * @param patient the patient of the radiology orders to export
+     * @param fromEffectiveStartDate the effective start date the radiology orders to export start on or after
+     * @param toEffectiveStartDate the effective start date the radiology orders to export start on or before
+     * @param urgency the urgency of the radiology orders to export
+     * @throws IOException if the export cannot be written to the response
+     * @should write the radiology orders matching given filters as csv with a header line
+     * @should write the radiology orders matching given filters as ndjson
+     * @should send bad request given an unknown format
+     */
+    @RequestMapping(method = RequestMethod.GET)
+    protected void exportRadiologyOrders(HttpServletResponse response,
+            @RequestParam(value = "format", defaultValue = FORMAT_CSV) String format,
+            @RequestParam(value = "accessionNumber", required = false) String accessionNumber,
+            @RequestParam(value = "patient", required = false) Patient patient,
+            @RequestParam(value = "fromEffectiveStartDate", required = false) String fromEffectiveStartDate,
+            @RequestParam(value = "toEffectiveStartDate", required = false) String toEffectiveStartDate,
+            @RequestParam(value = "urgency", required = false) Urgency urgency) throws IOException {
+        
+        final boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+        if (!csv && !FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown export format " + format);
+            return;
+        }
+        
+        final RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withAccessionNumber(accessionNumber)
+                        .withPatient(patient)
+                        .fromEffectiveStartDate(parseDate(fromEffectiveStartDate))
+                        .toEffectiveStartDate(parseDate(toEffectiveStartDate))
+                        .withUrgency(urgency)
+                        .build();
+        
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition",
+            "attachment; filename=\"radiology-orders." + (csv ? FORMAT_CSV : FORMAT_NDJSON) + "\"");
+        
+        final Writer writer =
+                new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        final SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
+        try {
+            if (csv) {
+                writer.write(StringUtils.join(EXPORT_COLUMNS, ','));
+                writer.write('\n');
+            }
+            radiologyOrderService.scrollRadiologyOrderWorklist(radiologyOrderSearchCriteria, worklistItem -> {
+                try {
+                    final String[] values = getExportValues(worklistItem, dateFormat);
+                    writer.write(csv ? toCsvLine(values) : toJsonLine(values));
+                }
+                catch (IOException ioException) {
+                    throw new UncheckedIOException(ioException);
+                }
+            });
+        }
+        catch (UncheckedIOException uncheckedIOException) {
+            throw uncheckedIOException.getCause();
+        }
+        writer.flush();
+    }
+    
+    private static Date parseDate(String date) {
+        
+        return StringUtils.isBlank(date) ? null : (Date) ConversionUtil.convert(date, Date.class);
+    }
+    
+    private static String[] getExportValues(RadiologyOrderWorklistItem worklistItem, SimpleDateFormat dateFormat) {
+        
+        return new String[] { worklistItem.getUuid(), worklistItem.getAccessionNumber(), worklistItem.getPatientName(),
+                worklistItem.getPatientIdentifier(), worklistItem.getProcedureName(),
+                worklistItem.getUrgency() == null ? null : worklistItem.getUrgency()
+                        .name(),
+                worklistItem.getEffectiveStartDate() == null ? null
+                        : dateFormat.format(worklistItem.getEffectiveStartDate()),
+                worklistItem.getPerformedStatus() == null ? null : worklistItem.getPerformedStatus()
+                        .name(),
+                worklistItem.getReportStatus() == null ? null : worklistItem.getReportStatus()
+                        .name() };
+    }
+    
+    private static String toCsvLine(String[] values) {
+        
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            if (values[i] != null) {
+                result.append(StringEscapeUtils.escapeCsv(values[i]));
+            }
+        }
+        return result.append('\n')
+                .toString();
+    }
+    
+    private static String toJsonLine(String[] values) {
+        
+        final StringBuilder result = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append('"')
+                    .append(EXPORT_COLUMNS[i])
+                    .append("\":");
+            if (values[i] == null) {
+                result.append("null");
+            } else {
+                result.append('"')
+                        .append(StringEscapeUtils.escapeJson(values[i]))
+                        .append('"');
+            }
+        }
+        return result.append("}\n")
+                .toString();
+    }
+}
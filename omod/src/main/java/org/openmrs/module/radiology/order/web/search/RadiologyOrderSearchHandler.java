@@ -20,6 +20,7 @@ import org.openmrs.api.context.Context;
 import org.openmrs.module.radiology.order.RadiologyOrder;
 import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.web.KeysetPaged;
 import org.openmrs.module.webservices.rest.web.ConversionUtil;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
@@ -28,8 +29,8 @@ import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs1_9.PatientResource1_9;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,13 +55,15 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
     
     public static final String REQUEST_PARAM_TOTAL_COUNT = "totalCount";
     
+    public static final String REQUEST_PARAM_AFTER_ACCESSION_NUMBER = "afterAccessionNumber";
+    
     @Autowired
     RadiologyOrderService radiologyOrderService;
     
     SearchQuery searchQuery = new SearchQuery.Builder("Allows you to search for RadiologyOrder's by patient and urgency")
             .withOptionalParameters(REQUEST_PARAM_ACCESSION_NUMBER, REQUEST_PARAM_PATIENT,
                 REQUEST_PARAM_EFFECTIVE_START_DATE_FROM, REQUEST_PARAM_EFFECTIVE_START_DATE_TO, REQUEST_PARAM_URGENCY,
-                REQUEST_PARAM_TOTAL_COUNT)
+                REQUEST_PARAM_TOTAL_COUNT, REQUEST_PARAM_AFTER_ACCESSION_NUMBER)
             .build();
     
     private final SearchConfig searchConfig =
@@ -91,6 +94,11 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
      * @should throw illegal argument exception if urgency doesn't exist
      * @should return all radiology orders matching the search query and totalCount if
      *         requested
+     * @should return only the requested page of radiology orders and a next link if more radiology orders exist
+     * @should return radiology orders with accession number after given after accession number
+     * @should return a next link after the accession number of the last radiology order if given after accession number
+     * @should return a next link after the accession number of the last radiology order by default
+     * @should return a next link with the next start index if given start index
      */
     @Override
     public PageableResult search(RequestContext context) throws ResponseException {
@@ -106,6 +114,53 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
             }
         }
         
+        final RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                buildRadiologyOrderSearchCriteria(context, patient);
+        final List<RadiologyOrder> result = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        if (result.isEmpty()) {
+            return new EmptySearchResult();
+        }
+        final boolean hasMoreResults = result.size() > context.getLimit();
+        final List<RadiologyOrder> page = hasMoreResults ? result.subList(0, context.getLimit()) : result;
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getRequest()
+                .getParameter(REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = radiologyOrderService.countRadiologyOrders(radiologyOrderSearchCriteria);
+        }
+        if (isOffsetPagingRequested(context)) {
+            return new AlreadyPaged<RadiologyOrder>(context, page, hasMoreResults, totalCount);
+        }
+        return new KeysetPaged<RadiologyOrder>(context, page, hasMoreResults, totalCount,
+                REQUEST_PARAM_AFTER_ACCESSION_NUMBER, page.get(page.size() - 1)
+                        .getAccessionNumber());
+    }
+    
+    /**
+     * Check if the client explicitly asked for offset paging by passing a start index without an after accession
+     * number. All other requests are paged by seeking past the accession number of the last radiology order.
+     * 
+     * @param context the request context holding the request parameters
+     * @return true if the next link should page by start index, false if it should page by after accession number
+     */
+    static boolean isOffsetPagingRequested(RequestContext context) {
+        
+        return StringUtils.isBlank(context.getRequest()
+                .getParameter(REQUEST_PARAM_AFTER_ACCESSION_NUMBER))
+                && StringUtils.isNotBlank(context.getRequest()
+                        .getParameter(RestConstants.REQUEST_PROPERTY_FOR_START_INDEX));
+    }
+    
+    /**
+     * Build the search criteria from the filter and paging request parameters of given request context. One radiology
+     * order more than the requested limit is requested, so callers can find out if there is a next page.
+     * 
+     * @param context the request context holding the request parameters
+     * @param patient the patient given by the patient request parameter or null if none was given
+     * @return the search criteria matching the request parameters
+     */
+    static RadiologyOrderSearchCriteria buildRadiologyOrderSearchCriteria(RequestContext context, Patient patient) {
+        
         final String fromEffectiveStartDateString = context.getRequest()
                 .getParameter(REQUEST_PARAM_EFFECTIVE_START_DATE_FROM);
         Date fromEffectiveStartDate = null;
@@ -130,19 +185,23 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
         final String accessionNumber = context.getRequest()
                 .getParameter(REQUEST_PARAM_ACCESSION_NUMBER);
         
-        final RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+        final String afterAccessionNumber = context.getRequest()
+                .getParameter(REQUEST_PARAM_AFTER_ACCESSION_NUMBER);
+        
+        final RadiologyOrderSearchCriteria.Builder radiologyOrderSearchCriteriaBuilder =
                 new RadiologyOrderSearchCriteria.Builder().withAccessionNumber(accessionNumber)
                         .withPatient(patient)
                         .fromEffectiveStartDate(fromEffectiveStartDate)
                         .toEffectiveStartDate(toEffectiveStartDate)
                         .withUrgency(urgency)
-                        .build();
-        
-        final List<RadiologyOrder> result = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+                        .afterAccessionNumber(afterAccessionNumber);
         
-        if (result.isEmpty()) {
-            return new EmptySearchResult();
+        // fetch one radiology order more than requested to find out if there is a next page, the start index is not
+        // applied after an accession number since the next links of such pages carry no start index
+        if (StringUtils.isBlank(afterAccessionNumber)) {
+            radiologyOrderSearchCriteriaBuilder.withFirstResult(context.getStartIndex());
         }
-        return new NeedsPaging<RadiologyOrder>(result, context);
+        radiologyOrderSearchCriteriaBuilder.withMaxResults(context.getLimit() + 1);
+        return radiologyOrderSearchCriteriaBuilder.build();
     }
 }
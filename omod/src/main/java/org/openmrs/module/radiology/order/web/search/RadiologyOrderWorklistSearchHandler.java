@@ -0,0 +1,116 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.Patient;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.order.RadiologyOrderWorklistItem;
+import org.openmrs.module.radiology.web.KeysetPaged;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.api.RestService;
+import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
+import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
+import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
+import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
+import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
+import org.openmrs.module.webservices.rest.web.response.ResponseException;
+import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs1_9.PatientResource1_9;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Find RadiologyOrderWorklistItem's of the RadiologyOrder's that match the specified search phrase.
+ * <p>
+ * Supports the same request parameters as the {@link RadiologyOrderSearchHandler}.
+ * </p>
+ */
+@Component
+public class RadiologyOrderWorklistSearchHandler implements SearchHandler {
+    
+    
+    @Autowired
+    RadiologyOrderService radiologyOrderService;
+    
+    SearchQuery searchQuery =
+            new SearchQuery.Builder("Allows you to search for the worklist of RadiologyOrder's by patient and urgency")
+                    .withOptionalParameters(RadiologyOrderSearchHandler.REQUEST_PARAM_ACCESSION_NUMBER,
+                        RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT,
+                        RadiologyOrderSearchHandler.REQUEST_PARAM_EFFECTIVE_START_DATE_FROM,
+                        RadiologyOrderSearchHandler.REQUEST_PARAM_EFFECTIVE_START_DATE_TO,
+                        RadiologyOrderSearchHandler.REQUEST_PARAM_URGENCY,
+                        RadiologyOrderSearchHandler.REQUEST_PARAM_TOTAL_COUNT,
+                        RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER)
+                    .build();
+    
+    private final SearchConfig searchConfig = new SearchConfig("default",
+            RestConstants.VERSION_1 + "/radiologyorderworklist", Arrays.asList("2.0.*"), searchQuery);
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.api.SearchHandler#getSearchConfig()
+     */
+    @Override
+    public SearchConfig getSearchConfig() {
+        
+        return this.searchConfig;
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.api.SearchHandler#search(RequestContext)
+     * @should return worklist items of all radiology orders for given patient
+     * @should return empty search result if patient cannot be found
+     * @should return empty search result if no radiology order exists for given accession number
+     * @should return only the requested page of worklist items and totalCount if requested
+     * @should return a next link after the accession number of the last worklist item if given after accession number
+     */
+    @Override
+    public PageableResult search(RequestContext context) throws ResponseException {
+        
+        final String patientUuid = context.getRequest()
+                .getParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT);
+        Patient patient = null;
+        if (StringUtils.isNotBlank(patientUuid)) {
+            patient = ((PatientResource1_9) Context.getService(RestService.class)
+                    .getResourceBySupportedClass(Patient.class)).getByUniqueId(patientUuid);
+            if (patient == null) {
+                return new EmptySearchResult();
+            }
+        }
+        
+        final RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                RadiologyOrderSearchHandler.buildRadiologyOrderSearchCriteria(context, patient);
+        final List<RadiologyOrderWorklistItem> result =
+                radiologyOrderService.getRadiologyOrderWorklist(radiologyOrderSearchCriteria);
+        
+        if (result.isEmpty()) {
+            return new EmptySearchResult();
+        }
+        final boolean hasMoreResults = result.size() > context.getLimit();
+        final List<RadiologyOrderWorklistItem> page = hasMoreResults ? result.subList(0, context.getLimit()) : result;
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getRequest()
+                .getParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = radiologyOrderService.countRadiologyOrders(radiologyOrderSearchCriteria);
+        }
+        if (StringUtils.isNotBlank(radiologyOrderSearchCriteria.getAfterAccessionNumber())) {
+            return new KeysetPaged<RadiologyOrderWorklistItem>(context, page, hasMoreResults, totalCount,
+                    RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER, page.get(page.size() - 1)
+                            .getAccessionNumber());
+        }
+        return new AlreadyPaged<RadiologyOrderWorklistItem>(context, page, hasMoreResults, totalCount);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportResult;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
+import org.openmrs.module.radiology.report.template.ValidationError;
+import org.openmrs.module.radiology.web.RadiologyRestController;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * REST controller importing ZIP archives of {@code MrrtReportTemplate's}, for example by deployment scripts.
+ */
+@Controller
+@RequestMapping(MrrtReportTemplateImportController.MRRT_REPORT_TEMPLATE_IMPORT_REQUEST_MAPPING)
+public class MrrtReportTemplateImportController extends BaseRestController {
+    
+    
+    public static final String MRRT_REPORT_TEMPLATE_IMPORT_REQUEST_MAPPING = "/rest/" + RestConstants.VERSION_1
+            + RadiologyRestController.RADIOLOGY_REST_NAMESPACE + "/mrrtreporttemplateimport";
+    
+    @Autowired
+    private MrrtReportTemplateService mrrtReportTemplateService;
+    
+    /**
+     * Handles post requests importing all mrrt report templates of a zip archive.
+     * 
+     * @param file the zip archive of mrrt report templates
+     * @return the import results of the html files of the archive
+     * @throws IOException if the archive cannot be read or a template file cannot be stored
+     * @should return the import results of the html files of given archive
+     * @should throw illegal request exception if given archive is empty
+     */
+    @RequestMapping(method = RequestMethod.POST)
+    @ResponseBody
+    public SimpleObject importMrrtReportTemplates(@RequestParam("file") MultipartFile file) throws IOException {
+        
+        if (file.isEmpty()) {
+            throw new IllegalRequestException("Report template archive " + file.getOriginalFilename() + " is empty");
+        }
+        
+        final List<MrrtReportTemplateImportResult> importResults;
+        try (InputStream in = file.getInputStream()) {
+            importResults = mrrtReportTemplateService.importMrrtReportTemplates(in);
+        }
+        
+        final List<SimpleObject> results = new ArrayList<SimpleObject>();
+        for (final MrrtReportTemplateImportResult importResult : importResults) {
+            results.add(toSimpleObject(importResult));
+        }
+        return new SimpleObject().add("results", results);
+    }
+    
+    private static SimpleObject toSimpleObject(MrrtReportTemplateImportResult importResult) {
+        
+        final List<SimpleObject> errors = new ArrayList<SimpleObject>();
+        for (final ValidationError error : importResult.getErrors()) {
+            errors.add(new SimpleObject().add("description", error.getDescription())
+                    .add("messageCode", error.getMessageCode()));
+        }
+        return new SimpleObject().add("fileName", importResult.getFileName())
+                .add("status", importResult.getStatus())
+                .add("uuid", importResult.getTemplate() == null ? null : importResult.getTemplate()
+                        .getUuid())
+                .add("identifier", importResult.getTemplate() == null ? null : importResult.getTemplate()
+                        .getDcTermsIdentifier())
+                .add("errors", errors);
+    }
+}
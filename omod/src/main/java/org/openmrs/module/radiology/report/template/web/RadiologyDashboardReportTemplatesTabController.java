@@ -11,12 +11,14 @@ package org.openmrs.module.radiology.report.template.web;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.io.IOUtils;
 import org.openmrs.api.APIException;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportResult;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateValidationException;
 import org.openmrs.module.radiology.web.RadiologyWebConstants;
@@ -113,6 +115,47 @@ public class RadiologyDashboardReportTemplatesTabController {
         return modelAndView;
     }
     
+    /**
+     * Handle request for importing all {@code MrrtReportTemplate's} of a ZIP archive.
+     * 
+     * @param request the HttpServletRequest to import MrrtReportTemplates
+     * @param templateArchive the ZIP archive of MrrtReportTemplate files to be imported
+     * @return model and view of the radiology dashboard report templates page with the import results of the archive and
+     *         a success or failure message in session attribute
+     * @should give error message when template archive is empty
+     * @should add the import results of the archive to the model and give success message
+     * @should set error message in session when io exception is thrown
+     * @should set error message in session when api exception is thrown
+     */
+    @RequestMapping(method = RequestMethod.POST, params = "uploadReportTemplateArchive")
+    protected ModelAndView uploadReportTemplateArchive(HttpServletRequest request,
+            @RequestParam MultipartFile templateArchive) {
+        
+        final ModelAndView modelAndView = new ModelAndView(RADIOLOGY_REPORT_TEMPLATES_TAB_VIEW);
+        
+        if (templateArchive.isEmpty()) {
+            request.getSession()
+                    .setAttribute(WebConstants.OPENMRS_ERROR_ATTR,
+                        "radiology.MrrtReportTemplate.archive.not.imported.empty");
+            return modelAndView;
+        }
+        
+        try (InputStream in = templateArchive.getInputStream()) {
+            final List<MrrtReportTemplateImportResult> importResults =
+                    mrrtReportTemplateService.importMrrtReportTemplates(in);
+            modelAndView.addObject("mrrtReportTemplateImportResults", importResults);
+            request.getSession()
+                    .setAttribute(WebConstants.OPENMRS_MSG_ATTR, "radiology.MrrtReportTemplate.archive.imported");
+        }
+        catch (IOException | APIException exception) {
+            request.getSession()
+                    .setAttribute(WebConstants.OPENMRS_ERROR_ATTR,
+                        "Failed to import " + templateArchive.getOriginalFilename() + " => " + exception.getMessage());
+        }
+        
+        return modelAndView;
+    }
+    
     /**
      * Handles request for deleting {@code MrrtReportTemplate}
      * 
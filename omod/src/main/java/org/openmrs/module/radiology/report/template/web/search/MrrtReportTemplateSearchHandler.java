@@ -21,8 +21,8 @@ import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -74,6 +74,7 @@ public class MrrtReportTemplateSearchHandler implements SearchHandler {
      * @should return empty search result if license does not exist
      * @should return all report templates that match given creator
      * @should return empty search result if creator does not exist
+     * @should return only the requested page of templates and total count of all matching templates
      */
     @Override
     public PageableResult search(RequestContext context) throws ResponseException {
@@ -83,18 +84,26 @@ public class MrrtReportTemplateSearchHandler implements SearchHandler {
         final String templateLicense = context.getParameter("license");
         final String templateCreator = context.getParameter("creator");
         
+        // fetch one mrrt report template more than requested to find out if there is a next page
         final MrrtReportTemplateSearchCriteria searchCriteria =
                 new MrrtReportTemplateSearchCriteria.Builder().withTitle(templateTitle)
                         .withPublisher(publisher)
                         .withLicense(templateLicense)
                         .withCreator(templateCreator)
+                        .withFirstResult(context.getStartIndex())
+                        .withMaxResults(context.getLimit() + 1)
                         .build();
         
         final List<MrrtReportTemplate> result = mrrtReportTemplateService.getMrrtReportTemplates(searchCriteria);
         if (result.isEmpty()) {
             return new EmptySearchResult();
-        } else {
-            return new NeedsPaging<MrrtReportTemplate>(result, context);
         }
+        final boolean hasMoreResults = result.size() > context.getLimit();
+        final List<MrrtReportTemplate> page = hasMoreResults ? result.subList(0, context.getLimit()) : result;
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getParameter(REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = mrrtReportTemplateService.countMrrtReportTemplates(searchCriteria);
+        }
+        return new AlreadyPaged<MrrtReportTemplate>(context, page, hasMoreResults, totalCount);
     }
 }
@@ -0,0 +1,251 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyPrivileges;
+import org.openmrs.module.radiology.report.RadiologyReport;
+import org.openmrs.module.radiology.report.RadiologyReportService;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+import org.openmrs.web.WebConstants;
+
+/**
+ * Filter adding http caching headers to the responses of the radiology report resource and the radiology report form.
+ * <p>
+ * Completed radiology reports cannot change, so their responses get a strong {@code ETag}, {@code Last-Modified} and a
+ * {@code Cache-Control} header which lets browsers keep them but revalidate on every use. Requests with an
+ * {@code If-None-Match} header matching the current {@code ETag} are answered with 304 Not Modified from a small
+ * in-memory index of the completed radiology reports already served, without loading the radiology report. Responses
+ * for draft radiology reports are marked as not storable.
+ * </p>
+ * <p>
+ * The {@code ETag} is derived from the radiology report version, the requested url including its query string, the
+ * authenticated user and the locale, since the representation and the surrounding page depend on all of them.
+ * </p>
+ */
+public class RadiologyReportCacheFilter implements Filter {
+    
+    
+    static final String RADIOLOGY_REPORT_RESOURCE_PATH = "/ws/rest/v1/radiologyreport/";
+    
+    static final String RADIOLOGY_REPORT_FORM_PATH = "/module/radiology/radiologyReport.form";
+    
+    static final String CACHE_CONTROL_COMPLETED = "private, no-cache";
+    
+    static final String CACHE_CONTROL_DRAFT = "no-store";
+    
+    private static final int MAX_INDEXED_RADIOLOGY_REPORTS = 10000;
+    
+    private static final int ETAG_LENGTH = 32;
+    
+    /**
+     * The version of a completed radiology report as needed to answer conditional requests for it.
+     */
+    static class CompletedRadiologyReport {
+        
+        
+        private final String versionHash;
+        
+        private final long lastModified;
+        
+        CompletedRadiologyReport(String versionHash, long lastModified) {
+            this.versionHash = versionHash;
+            this.lastModified = lastModified;
+        }
+    }
+    
+    // completed radiology reports never change, so entries only need to be evicted to bound the memory used
+    private final Map<String, CompletedRadiologyReport> completedRadiologyReports =
+            Collections.synchronizedMap(new LinkedHashMap<String, CompletedRadiologyReport>(16, 0.75f, true) {
+                
+                
+                private static final long serialVersionUID = 1L;
+                
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletedRadiologyReport> eldest) {
+                    return size() > MAX_INDEXED_RADIOLOGY_REPORTS;
+                }
+            });
+    
+    /**
+     * @see javax.servlet.Filter#init(javax.servlet.FilterConfig)
+     */
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        
+        completedRadiologyReports.clear();
+    }
+    
+    /**
+     * @see javax.servlet.Filter#doFilter(javax.servlet.ServletRequest, javax.servlet.ServletResponse,
+     *      javax.servlet.FilterChain)
+     * @should set etag last modified and cache control headers for a completed radiology report
+     * @should answer not modified without loading the radiology report given a matching if none match header
+     * @should answer with the radiology report given an if none match header which does not match
+     * @should mark a draft radiology report as not storable
+     * @should pass requests through untouched if the user is not authenticated
+     * @should pass requests through untouched which do not request a single radiology report
+     */
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        
+        final HttpServletRequest request = (HttpServletRequest) servletRequest;
+        final HttpServletResponse response = (HttpServletResponse) servletResponse;
+        final String key = getRadiologyReportKey(request);
+        if (key == null || !Context.isAuthenticated() || !Context.hasPrivilege(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+                || hasPendingMessage(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        CompletedRadiologyReport completedRadiologyReport = completedRadiologyReports.get(key);
+        if (completedRadiologyReport == null) {
+            final RadiologyReport radiologyReport = getRadiologyReport(key);
+            if (radiologyReport != null && radiologyReport.getStatus() == RadiologyReportStatus.COMPLETED
+                    && !radiologyReport.getVoided()) {
+                final Date lastModified =
+                        radiologyReport.getDate() == null ? radiologyReport.getDateCreated() : radiologyReport.getDate();
+                completedRadiologyReport = new CompletedRadiologyReport(
+                        radiologyReport.getUuid() + ":" + radiologyReport.getVersion(), lastModified.getTime());
+                completedRadiologyReports.put(key, completedRadiologyReport);
+            } else if (radiologyReport != null) {
+                response.setHeader("Cache-Control", CACHE_CONTROL_DRAFT);
+            }
+        }
+        if (completedRadiologyReport == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        final String eTag = createETag(completedRadiologyReport, request);
+        response.setHeader("ETag", eTag);
+        response.setDateHeader("Last-Modified", completedRadiologyReport.lastModified);
+        response.setHeader("Cache-Control", CACHE_CONTROL_COMPLETED);
+        if (matchesIfNoneMatch(request, eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+    
+    /**
+     * @see javax.servlet.Filter#destroy()
+     */
+    @Override
+    public void destroy() {
+        
+        completedRadiologyReports.clear();
+    }
+    
+    /**
+     * Get the key of the radiology report requested by given request, which is the uuid in the path of radiology report
+     * resource requests and the report id parameter prefixed with {@code form:} for radiology report form requests.
+     * 
+     * @param request the request to get the key of the requested radiology report of
+     * @return the key of the requested radiology report or null if given request is no get request for a single
+     *         radiology report
+     */
+    static String getRadiologyReportKey(HttpServletRequest request) {
+        
+        if (!"GET".equals(request.getMethod())) {
+            return null;
+        }
+        final String path = request.getRequestURI()
+                .substring(request.getContextPath()
+                        .length());
+        if (path.startsWith(RADIOLOGY_REPORT_RESOURCE_PATH)) {
+            final String uuid = path.substring(RADIOLOGY_REPORT_RESOURCE_PATH.length());
+            return StringUtils.isBlank(uuid) || uuid.contains("/") ? null : uuid;
+        }
+        if (path.equals(RADIOLOGY_REPORT_FORM_PATH) && StringUtils.isNotBlank(request.getParameter("reportId"))) {
+            return "form:" + request.getParameter("reportId");
+        }
+        return null;
+    }
+    
+    private static RadiologyReport getRadiologyReport(String key) {
+        
+        final RadiologyReportService radiologyReportService = Context.getService(RadiologyReportService.class);
+        if (!key.startsWith("form:")) {
+            return radiologyReportService.getRadiologyReportByUuid(key);
+        }
+        // the report form accepts report ids as well as uuids
+        final String reportId = key.substring("form:".length());
+        return StringUtils.isNumeric(reportId) ? radiologyReportService.getRadiologyReport(Integer.valueOf(reportId))
+                : radiologyReportService.getRadiologyReportByUuid(reportId);
+    }
+    
+    /**
+     * A message waiting in the session is shown by the next page rendered, which a 304 would swallow.
+     */
+    private static boolean hasPendingMessage(HttpServletRequest request) {
+        
+        final HttpSession session = request.getSession(false);
+        return session != null && (session.getAttribute(WebConstants.OPENMRS_MSG_ATTR) != null
+                || session.getAttribute(WebConstants.OPENMRS_ERROR_ATTR) != null);
+    }
+    
+    private static String createETag(CompletedRadiologyReport completedRadiologyReport, HttpServletRequest request) {
+        
+        final String variant = completedRadiologyReport.versionHash + "|" + request.getRequestURI() + "?"
+                + StringUtils.defaultString(request.getQueryString()) + "|" + Context.getAuthenticatedUser()
+                        .getUuid()
+                + "|" + Context.getLocale();
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(variant.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder result = new StringBuilder("\"");
+            for (int i = 0; i < ETAG_LENGTH / 2; i++) {
+                result.append(String.format("%02x", digest[i]));
+            }
+            return result.append('"')
+                    .toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+    
+    private static boolean matchesIfNoneMatch(HttpServletRequest request, String eTag) {
+        
+        final String ifNoneMatch = request.getHeader("If-None-Match");
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            final String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.web.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openmrs.module.radiology.report.RadiologyReportListItem;
+import org.openmrs.module.radiology.report.RadiologyReportSearchCriteria;
+import org.openmrs.module.radiology.report.RadiologyReportService;
+import org.openmrs.module.radiology.web.KeysetPaged;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
+import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
+import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
+import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
+import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
+import org.openmrs.module.webservices.rest.web.response.ResponseException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Find RadiologyReportListItem's of the RadiologyReport's that match the specified search phrase.
+ * <p>
+ * Supports the same request parameters as the {@link RadiologyReportSearchHandler}.
+ * </p>
+ */
+@Component
+public class RadiologyReportListSearchHandler implements SearchHandler {
+    
+    
+    @Autowired
+    RadiologyReportService radiologyReportService;
+    
+    SearchQuery searchQuery = new SearchQuery.Builder("Allows you to search for the list of RadiologyReport's by from date, "
+            + "to date, principal results interpreter, patient, accession number and procedure")
+                    .withOptionalParameters(RestConstants.REQUEST_PROPERTY_FOR_INCLUDE_ALL,
+                        RadiologyReportSearchHandler.REQUEST_PARAM_DATE_FROM,
+                        RadiologyReportSearchHandler.REQUEST_PARAM_DATE_TO,
+                        RadiologyReportSearchHandler.REQUEST_PARAM_PRINCIPAL_RESULT_INTERPRETER,
+                        RadiologyReportSearchHandler.REQUEST_PARAM_STATUS,
+                        RadiologyReportSearchHandler.REQUEST_PARAM_TOTAL_COUNT,
+                        RadiologyReportSearchHandler.REQUEST_PARAM_PATIENT,
+                        RadiologyReportSearchHandler.REQUEST_PARAM_ACCESSION_NUMBER,
+                        RadiologyReportSearchHandler.REQUEST_PARAM_PROCEDURE,
+                        RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT)
+                    .build();
+    
+    private final SearchConfig searchConfig = new SearchConfig("default",
+            RestConstants.VERSION_1 + "/radiologyreportlist", Arrays.asList("2.0.*"), searchQuery);
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.api.SearchHandler#getSearchConfig()
+     */
+    @Override
+    public SearchConfig getSearchConfig() {
+        
+        return this.searchConfig;
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.api.SearchHandler#search(RequestContext)
+     * @throws IllegalArgumentException if report status doesn't exist
+     * @should return list items of all radiology reports for given principal results interpreter
+     * @should return list items of all radiology reports (including voided) if include all is set
+     * @should return empty search result if principal results interpreter cannot be found
+     * @should return only the requested page of list items and totalCount if requested
+     * @should return list items of the radiology reports ordered after given after report
+     * @should return a next link after the last list item if given after report
+     * @should return a next link after the last list item by default
+     */
+    @Override
+    public PageableResult search(RequestContext context) throws ResponseException {
+        
+        final RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                RadiologyReportSearchHandler.buildRadiologyReportSearchCriteria(context, radiologyReportService);
+        if (radiologyReportSearchCriteria == null) {
+            return new EmptySearchResult();
+        }
+        final List<RadiologyReportListItem> result =
+                radiologyReportService.getRadiologyReportListItems(radiologyReportSearchCriteria);
+        
+        if (result.isEmpty()) {
+            return new EmptySearchResult();
+        }
+        final boolean hasMoreResults = result.size() > context.getLimit();
+        final List<RadiologyReportListItem> page = hasMoreResults ? result.subList(0, context.getLimit()) : result;
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getRequest()
+                .getParameter(RadiologyReportSearchHandler.REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = radiologyReportService.countRadiologyReports(radiologyReportSearchCriteria);
+        }
+        if (RadiologyReportSearchHandler.isOffsetPagingRequested(context)) {
+            return new AlreadyPaged<RadiologyReportListItem>(context, page, hasMoreResults, totalCount);
+        }
+        return new KeysetPaged<RadiologyReportListItem>(context, page, hasMoreResults, totalCount,
+                RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT, page.get(page.size() - 1)
+                        .getUuid());
+    }
+}
@@ -14,12 +14,16 @@ import java.util.Date;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.openmrs.Concept;
+import org.openmrs.Patient;
 import org.openmrs.Provider;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.radiology.report.RadiologyReport;
 import org.openmrs.module.radiology.report.RadiologyReportSearchCriteria;
+import org.openmrs.module.radiology.report.RadiologyReportSearchHit;
 import org.openmrs.module.radiology.report.RadiologyReportService;
 import org.openmrs.module.radiology.report.RadiologyReportStatus;
+import org.openmrs.module.radiology.web.KeysetPaged;
 import org.openmrs.module.webservices.rest.web.ConversionUtil;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
@@ -28,15 +32,22 @@ import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
+import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs1_9.PatientResource1_9;
 import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs1_9.ProviderResource1_9;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
  * Find {@code RadiologyReport's} that match the specified search phrase.
+ * <p>
+ * If a full-text query is given via parameter q, completed radiology reports matching it are returned as
+ * {@code RadiologyReportSearchHit's} ordered by relevance, highlighting the matching parts of the report body. Such
+ * search hits are paged with a start index only, since they are not ordered by report date.
+ * </p>
  * 
  * @see org.openmrs.module.radiology.report.RadiologyReport
  */
@@ -54,14 +65,25 @@ public class RadiologyReportSearchHandler implements SearchHandler {
     
     public static final String REQUEST_PARAM_TOTAL_COUNT = "totalCount";
     
+    public static final String REQUEST_PARAM_QUERY = "q";
+    
+    public static final String REQUEST_PARAM_PATIENT = "patient";
+    
+    public static final String REQUEST_PARAM_ACCESSION_NUMBER = "accessionNumber";
+    
+    public static final String REQUEST_PARAM_PROCEDURE = "procedure";
+    
+    public static final String REQUEST_PARAM_AFTER_REPORT = "afterReport";
+    
     @Autowired
     RadiologyReportService radiologyReportService;
     
-    SearchQuery searchQuery = new SearchQuery.Builder(
-            "Allows you to search for RadiologyReport's by from date, to date and principal results interpreter")
+    SearchQuery searchQuery = new SearchQuery.Builder("Allows you to search for RadiologyReport's by full-text query, "
+            + "from date, to date, principal results interpreter, patient, accession number and procedure")
                     .withOptionalParameters(RestConstants.REQUEST_PROPERTY_FOR_INCLUDE_ALL, REQUEST_PARAM_DATE_FROM,
                         REQUEST_PARAM_DATE_TO, REQUEST_PARAM_PRINCIPAL_RESULT_INTERPRETER, REQUEST_PARAM_STATUS,
-                        REQUEST_PARAM_TOTAL_COUNT)
+                        REQUEST_PARAM_TOTAL_COUNT, REQUEST_PARAM_QUERY, REQUEST_PARAM_PATIENT,
+                        REQUEST_PARAM_ACCESSION_NUMBER, REQUEST_PARAM_PROCEDURE, REQUEST_PARAM_AFTER_REPORT)
                     .build();
     
     private final SearchConfig searchConfig =
@@ -91,10 +113,107 @@ public class RadiologyReportSearchHandler implements SearchHandler {
      * @should return empty search result if no report exists for given status
      * @should throw illegal argument exception if report status doesn't exist
      * @should return all radiology reports matching the search query and totalCount if requested
+     * @should return search hits of completed radiology reports matching given query ordered by relevance
+     * @should return empty search result if no completed radiology report matches given query
+     * @should return all radiology reports for given patient
+     * @should return empty search result if patient cannot be found
+     * @should return all radiology reports for given accession number
+     * @should return all radiology reports for given procedure
+     * @should return radiology reports ordered after given after report
+     * @should return a next link after the last radiology report if given after report
+     * @should return a next link after the last radiology report by default
+     * @should return a next link with the next start index if given start index
+     * @should return empty search result if after report cannot be found
+     * @should throw illegal request exception if after report is given with a query
      */
     @Override
     public PageableResult search(RequestContext context) throws ResponseException {
         
+        final String query = context.getRequest()
+                .getParameter(REQUEST_PARAM_QUERY);
+        if (StringUtils.isNotBlank(query) && StringUtils.isNotBlank(context.getRequest()
+                .getParameter(REQUEST_PARAM_AFTER_REPORT))) {
+            throw new IllegalRequestException(
+                    REQUEST_PARAM_AFTER_REPORT + " cannot be combined with " + REQUEST_PARAM_QUERY + ", use startIndex");
+        }
+        final RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                buildRadiologyReportSearchCriteria(context, radiologyReportService);
+        if (radiologyReportSearchCriteria == null) {
+            return new EmptySearchResult();
+        }
+        if (StringUtils.isNotBlank(query)) {
+            return searchRadiologyReports(context, query, radiologyReportSearchCriteria);
+        }
+        final List<RadiologyReport> result = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+        
+        if (result.isEmpty()) {
+            return new EmptySearchResult();
+        }
+        final boolean hasMoreResults = result.size() > context.getLimit();
+        final List<RadiologyReport> page = hasMoreResults ? result.subList(0, context.getLimit()) : result;
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getRequest()
+                .getParameter(REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = radiologyReportService.countRadiologyReports(radiologyReportSearchCriteria);
+        }
+        if (isOffsetPagingRequested(context)) {
+            return new AlreadyPaged<RadiologyReport>(context, page, hasMoreResults, totalCount);
+        }
+        return new KeysetPaged<RadiologyReport>(context, page, hasMoreResults, totalCount, REQUEST_PARAM_AFTER_REPORT,
+                page.get(page.size() - 1)
+                        .getUuid());
+    }
+    
+    /**
+     * Check if the client explicitly asked for offset paging by passing a start index without an after report. All
+     * other requests are paged by seeking past the last radiology report.
+     * 
+     * @param context the request context holding the request parameters
+     * @return true if the next link should page by start index, false if it should page by after report
+     */
+    static boolean isOffsetPagingRequested(RequestContext context) {
+        
+        return StringUtils.isBlank(context.getRequest()
+                .getParameter(REQUEST_PARAM_AFTER_REPORT))
+                && StringUtils.isNotBlank(context.getRequest()
+                        .getParameter(RestConstants.REQUEST_PROPERTY_FOR_START_INDEX));
+    }
+    
+    private PageableResult searchRadiologyReports(RequestContext context, String query,
+            RadiologyReportSearchCriteria radiologyReportSearchCriteria) {
+        
+        final List<RadiologyReportSearchHit> result =
+                radiologyReportService.searchRadiologyReports(query, radiologyReportSearchCriteria);
+        
+        if (result.isEmpty()) {
+            return new EmptySearchResult();
+        }
+        final boolean hasMoreResults = result.size() > context.getLimit();
+        final List<RadiologyReportSearchHit> page = hasMoreResults ? result.subList(0, context.getLimit()) : result;
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getRequest()
+                .getParameter(REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = radiologyReportService.countRadiologyReportSearchHits(query, radiologyReportSearchCriteria);
+        }
+        return new AlreadyPaged<RadiologyReportSearchHit>(context, page, hasMoreResults, totalCount);
+    }
+    
+    /**
+     * Build the search criteria from the filter and paging request parameters of given request context. One radiology
+     * report more than the requested limit is requested, so callers can find out if there is a next page. The start
+     * index is ignored if the request pages with an after report, which callers have to return as {@link KeysetPaged}
+     * so that the next link carries no start index.
+     * 
+     * @param context the request context holding the request parameters
+     * @param radiologyReportService the service the after report is looked up with
+     * @return the search criteria matching the request parameters or null if the principal results interpreter,
+     *         patient, procedure or after report given by the request parameters cannot be found, which no radiology
+     *         report can match
+     * @throws IllegalArgumentException if report status doesn't exist
+     */
+    static RadiologyReportSearchCriteria buildRadiologyReportSearchCriteria(RequestContext context,
+            RadiologyReportService radiologyReportService) {
+        
         final String principalResultsInterpreterUuid = context.getRequest()
                 .getParameter(REQUEST_PARAM_PRINCIPAL_RESULT_INTERPRETER);
         Provider principalResultsInterpreter = null;
@@ -102,7 +221,39 @@ public class RadiologyReportSearchHandler implements SearchHandler {
             principalResultsInterpreter = ((ProviderResource1_9) Context.getService(RestService.class)
                     .getResourceBySupportedClass(Provider.class)).getByUniqueId(principalResultsInterpreterUuid);
             if (principalResultsInterpreter == null) {
-                return new EmptySearchResult();
+                return null;
+            }
+        }
+        
+        final String patientUuid = context.getRequest()
+                .getParameter(REQUEST_PARAM_PATIENT);
+        Patient patient = null;
+        if (StringUtils.isNotBlank(patientUuid)) {
+            patient = ((PatientResource1_9) Context.getService(RestService.class)
+                    .getResourceBySupportedClass(Patient.class)).getByUniqueId(patientUuid);
+            if (patient == null) {
+                return null;
+            }
+        }
+        
+        final String procedureUuid = context.getRequest()
+                .getParameter(REQUEST_PARAM_PROCEDURE);
+        Concept procedure = null;
+        if (StringUtils.isNotBlank(procedureUuid)) {
+            procedure = Context.getConceptService()
+                    .getConceptByUuid(procedureUuid);
+            if (procedure == null) {
+                return null;
+            }
+        }
+        
+        final String afterReportUuid = context.getRequest()
+                .getParameter(REQUEST_PARAM_AFTER_REPORT);
+        RadiologyReport afterReport = null;
+        if (StringUtils.isNotBlank(afterReportUuid)) {
+            afterReport = radiologyReportService.getRadiologyReportByUuid(afterReportUuid);
+            if (afterReport == null) {
+                return null;
             }
         }
         
@@ -132,17 +283,21 @@ public class RadiologyReportSearchHandler implements SearchHandler {
         if (context.getIncludeAll()) {
             radiologyReportSearchCriteriaBuilder.includeVoided();
         }
-        RadiologyReportSearchCriteria radiologyReportSearchCriteria = radiologyReportSearchCriteriaBuilder.fromDate(fromDate)
+        radiologyReportSearchCriteriaBuilder.fromDate(fromDate)
                 .toDate(toDate)
                 .withPrincipalResultsInterpreter(principalResultsInterpreter)
                 .withStatus(status)
-                .build();
-        
-        final List<RadiologyReport> result = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+                .withPatient(patient)
+                .withAccessionNumber(context.getRequest()
+                        .getParameter(REQUEST_PARAM_ACCESSION_NUMBER))
+                .withProcedure(procedure)
+                .afterRadiologyReport(afterReport);
         
-        if (result.isEmpty()) {
-            return new EmptySearchResult();
+        // fetch one radiology report more than requested to find out if there is a next page
+        if (afterReport == null) {
+            radiologyReportSearchCriteriaBuilder.withFirstResult(context.getStartIndex());
         }
-        return new NeedsPaging<RadiologyReport>(result, context);
+        return radiologyReportSearchCriteriaBuilder.withMaxResults(context.getLimit() + 1)
+                .build();
     }
 }
@@ -0,0 +1,78 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.study.web;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.study.RadiologyStudyService;
+import org.openmrs.module.radiology.web.RadiologyRestController;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
+import org.openmrs.module.webservices.rest.web.response.ObjectNotFoundException;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * REST controller receiving the Performed Procedure Step Status of {@code RadiologyStudy's} from the modalities, which
+ * is sent by the DICOM Modality Performed Procedure Step (MPPS) gateway for every MPPS N-CREATE and N-SET it receives.
+ */
+@Controller
+@RequestMapping(RadiologyStudyPerformedStatusController.RADIOLOGY_STUDY_PERFORMED_STATUS_REQUEST_MAPPING)
+public class RadiologyStudyPerformedStatusController extends BaseRestController {
+    
+    
+    public static final String RADIOLOGY_STUDY_PERFORMED_STATUS_REQUEST_MAPPING = "/rest/" + RestConstants.VERSION_1
+            + RadiologyRestController.RADIOLOGY_REST_NAMESPACE + "/radiologystudyperformedstatus";
+    
+    @Autowired
+    private RadiologyStudyService radiologyStudyService;
+    
+    /**
+     * Handles post requests updating the performed status of the radiology study with given study instance uid.
+     * 
+     * @param studyInstanceUid the study instance uid of the radiology study the performed procedure step belongs to
+     * @param performedStatus the dicom performed procedure step status such as IN PROGRESS or COMPLETED
+     * @return the uuid, study instance uid and performed status of the updated radiology study
+     * @should update the performed status of the radiology study matching given study instance uid
+     * @should update the performed status given the dicom display name of a performed procedure step status
+     * @should throw illegal request exception if given performed status is not a dicom performed procedure step status
+     * @should throw object not found exception if no radiology study matches given study instance uid
+     */
+    @RequestMapping(method = RequestMethod.POST)
+    @ResponseBody
+    public SimpleObject updateRadiologyStudyPerformedStatus(@RequestParam("studyInstanceUid") String studyInstanceUid,
+            @RequestParam("performedStatus") String performedStatus) {
+        
+        final PerformedProcedureStepStatus performedProcedureStepStatus =
+                PerformedProcedureStepStatus.getMatchForDisplayName(StringUtils.replaceChars(performedStatus, '_', ' '));
+        if (performedProcedureStepStatus == null) {
+            throw new IllegalRequestException("Performed status " + performedStatus + " is not a valid DICOM "
+                    + "Performed Procedure Step Status");
+        }
+        
+        final RadiologyStudy radiologyStudy = radiologyStudyService.getRadiologyStudyByStudyInstanceUid(studyInstanceUid);
+        if (radiologyStudy == null) {
+            throw new ObjectNotFoundException();
+        }
+        
+        final RadiologyStudy result =
+                radiologyStudyService.updateRadiologyStudyPerformedStatus(radiologyStudy, performedProcedureStepStatus);
+        return new SimpleObject().add("uuid", result.getUuid())
+                .add("studyInstanceUid", result.getStudyInstanceUid())
+                .add("performedStatus", result.getPerformedStatus());
+    }
+}
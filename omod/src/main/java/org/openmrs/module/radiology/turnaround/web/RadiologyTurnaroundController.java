@@ -0,0 +1,124 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround.web;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.Concept;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Provider;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDimension;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundGranularity;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundInterval;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundSearchCriteria;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundStatistics;
+import org.openmrs.module.radiology.web.RadiologyRestController;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.ConversionUtil;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.representation.Representation;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * REST controller serving the turnaround time statistics of {@code RadiologyOrder's}.
+ * <p>
+ * Statistics are merged from the hourly or daily turnaround rollups only, so that they are answered without touching
+ * orders, studies or reports.
+ * </p>
+ */
+@Controller
+@RequestMapping(RadiologyTurnaroundController.RADIOLOGY_TURNAROUND_REQUEST_MAPPING)
+public class RadiologyTurnaroundController extends BaseRestController {
+    
+    
+    public static final String RADIOLOGY_TURNAROUND_REQUEST_MAPPING =
+            "/rest/" + RestConstants.VERSION_1 + RadiologyRestController.RADIOLOGY_REST_NAMESPACE + "/radiologyturnaround";
+    
+    @Autowired
+    private RadiologyTurnaroundService radiologyTurnaroundService;
+    
+    /**
+     * Handles get requests for the turnaround statistics matching the given filters.
+     * 
+     * @param interval the turnaround interval
+     * @param granularity the granularity of the rollups to read, defaults to DAY
+     * @param fromDate the minimum date (inclusive) the turnaround intervals ended
+     * @param toDate the maximum date (inclusive) the turnaround intervals ended
+     * @param procedure the imaging procedure ordered by the radiology orders
+     * @param urgency the urgency of the radiology orders
+     * @param principalResultsInterpreter the principal results interpreter of the reports
+     * @param groupBy the dimensions to group the statistics by
+     * @return the turnaround statistics matching the given filters
+     * @should return the turnaround statistics matching the given filters
+     * @should return an empty result if no turnaround statistics match the given filters
+     */
+    @RequestMapping(method = RequestMethod.GET)
+    @ResponseBody
+    public SimpleObject getRadiologyTurnaroundStatistics(@RequestParam("interval") RadiologyTurnaroundInterval interval,
+            @RequestParam(value = "granularity", required = false) RadiologyTurnaroundGranularity granularity,
+            @RequestParam(value = "fromdate", required = false) String fromDate,
+            @RequestParam(value = "todate", required = false) String toDate,
+            @RequestParam(value = "procedure", required = false) Concept procedure,
+            @RequestParam(value = "urgency", required = false) Urgency urgency,
+            @RequestParam(value = "principalResultsInterpreter",
+                    required = false) Provider principalResultsInterpreter,
+            @RequestParam(value = "groupBy", required = false) RadiologyTurnaroundDimension[] groupBy) {
+        
+        final RadiologyTurnaroundSearchCriteria radiologyTurnaroundSearchCriteria =
+                new RadiologyTurnaroundSearchCriteria.Builder().withInterval(interval)
+                        .withGranularity(granularity)
+                        .fromDate(parseDate(fromDate))
+                        .toDate(parseDate(toDate))
+                        .withProcedure(procedure)
+                        .withUrgency(urgency)
+                        .withPrincipalResultsInterpreter(principalResultsInterpreter)
+                        .groupBy(groupBy == null ? new RadiologyTurnaroundDimension[0] : groupBy)
+                        .build();
+        
+        final List<SimpleObject> results = new ArrayList<SimpleObject>();
+        for (final RadiologyTurnaroundStatistics radiologyTurnaroundStatistics : radiologyTurnaroundService
+                .getRadiologyTurnaroundStatistics(radiologyTurnaroundSearchCriteria)) {
+            results.add(toSimpleObject(radiologyTurnaroundStatistics));
+        }
+        return new SimpleObject().add("results", results);
+    }
+    
+    private static Date parseDate(String date) {
+        
+        return StringUtils.isBlank(date) ? null : (Date) ConversionUtil.convert(date, Date.class);
+    }
+    
+    private static SimpleObject toSimpleObject(RadiologyTurnaroundStatistics radiologyTurnaroundStatistics) {
+        
+        return new SimpleObject().add("periodStart", ConversionUtil.convertToRepresentation(
+            radiologyTurnaroundStatistics.getPeriodStart(), Representation.REF))
+                .add("procedure", ConversionUtil.convertToRepresentation(radiologyTurnaroundStatistics.getProcedure(),
+                    Representation.REF))
+                .add("urgency", radiologyTurnaroundStatistics.getUrgency())
+                .add("principalResultsInterpreter", ConversionUtil.convertToRepresentation(
+                    radiologyTurnaroundStatistics.getPrincipalResultsInterpreter(), Representation.REF))
+                .add("count", radiologyTurnaroundStatistics.getCount())
+                .add("totalSeconds", radiologyTurnaroundStatistics.getTotalSeconds())
+                .add("meanSeconds", radiologyTurnaroundStatistics.getMeanSeconds())
+                .add("medianSeconds", radiologyTurnaroundStatistics.getMedianSeconds())
+                .add("percentile90Seconds", radiologyTurnaroundStatistics.getPercentile90Seconds())
+                .add("percentile95Seconds", radiologyTurnaroundStatistics.getPercentile95Seconds());
+    }
+}
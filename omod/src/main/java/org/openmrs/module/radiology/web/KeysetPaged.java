@@ -0,0 +1,134 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.web;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.Hyperlink;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.resource.api.Converter;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
+import org.openmrs.module.webservices.rest.web.response.ResponseException;
+
+/**
+ * A page of search results fetched after a key, such as the accession number of the last result of the previous page,
+ * instead of from a start index.
+ * <p>
+ * The next link of {@link AlreadyPaged} keeps the key and increments the start index, which would fetch the same page
+ * again since the start index is not applied once a key is given. The next link of this page therefore carries the key
+ * of its last result and no start index.
+ * </p>
+ * 
+ * @param <T> the type of the search results
+ */
+public class KeysetPaged<T> extends AlreadyPaged<T> {
+    
+    
+    private final RequestContext context;
+    
+    private final String keyParameter;
+    
+    private final String nextKey;
+    
+    /**
+     * Creates a page of search results fetched after a key.
+     * 
+     * @param context the request context of the search
+     * @param results the search results of this page
+     * @param hasMoreResults true if there are search results after this page and false otherwise
+     * @param totalCount the total count of search results or null if it was not requested
+     * @param keyParameter the name of the request parameter holding the key the search results are fetched after
+     * @param nextKey the key of the last search result of this page the next page is fetched after
+     */
+    public KeysetPaged(RequestContext context, List<T> results, boolean hasMoreResults, Long totalCount,
+            String keyParameter, String nextKey) {
+        super(context, results, hasMoreResults, totalCount);
+        this.context = context;
+        this.keyParameter = keyParameter;
+        this.nextKey = nextKey;
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.BasePageableResult#toSimpleObject(Converter)
+     */
+    @SuppressWarnings("rawtypes")
+    @Override
+    public SimpleObject toSimpleObject(Converter preferredConverter) throws ResponseException {
+        
+        final SimpleObject result = super.toSimpleObject(preferredConverter);
+        if (!hasMoreResults()) {
+            return result;
+        }
+        
+        final List<Object> links = new ArrayList<Object>();
+        links.add(new Hyperlink("next", getNextUri()));
+        if (result.get("links") instanceof List) {
+            for (final Object link : (List<?>) result.get("links")) {
+                if (!(link instanceof Hyperlink) || !"next".equals(((Hyperlink) link).getRel())) {
+                    links.add(link);
+                }
+            }
+        }
+        result.put("links", links);
+        return result;
+    }
+    
+    /**
+     * Get the uri of the next page, which is the uri of this page with the key parameter set to the key of the last
+     * search result of this page and without start index.
+     * 
+     * @return the uri of the next page
+     */
+    @SuppressWarnings("unchecked")
+    String getNextUri() {
+        
+        final HttpServletRequest request = context.getRequest();
+        final StringBuilder result = new StringBuilder(request.getRequestURL());
+        for (final Map.Entry<String, String[]> parameter : ((Map<String, String[]>) request.getParameterMap())
+                .entrySet()) {
+            if (keyParameter.equals(parameter.getKey())
+                    || RestConstants.REQUEST_PROPERTY_FOR_START_INDEX.equals(parameter.getKey())) {
+                continue;
+            }
+            for (final String value : parameter.getValue()) {
+                appendParameter(result, parameter.getKey(), value);
+            }
+        }
+        appendParameter(result, keyParameter, nextKey);
+        return result.toString();
+    }
+    
+    private static void appendParameter(StringBuilder uri, String name, String value) {
+        
+        uri.append(uri.indexOf("?") < 0 ? '?' : '&')
+                .append(encode(name))
+                .append('=')
+                .append(encode(value));
+    }
+    
+    private static String encode(String value) {
+        
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.web;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyCacheStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Controller for the page showing the statistics of the caches of the radiology module.
+ */
+@Controller
+@RequestMapping(RadiologyCacheStatisticsController.RADIOLOGY_CACHE_STATISTICS_REQUEST_MAPPING)
+public class RadiologyCacheStatisticsController {
+    
+    
+    public static final String RADIOLOGY_CACHE_STATISTICS_REQUEST_MAPPING = "/module/radiology/radiologyCacheStatistics.htm";
+    
+    static final String RADIOLOGY_CACHE_STATISTICS_VIEW = "/module/radiology/radiologyCacheStatistics";
+    
+    static final String VIEW_ADMINISTRATION_FUNCTIONS = "View Administration Functions";
+    
+    @Autowired
+    private RadiologyCacheStatistics radiologyCacheStatistics;
+    
+    /**
+     * Handles get requests for the radiology cache statistics page.
+     * 
+     * @return model and view of the radiology cache statistics page
+     * @should return model and view of the radiology cache statistics page populated with the cache statistics
+     * @should throw api authentication exception if the user cannot view administration functions
+     */
+    @RequestMapping(method = RequestMethod.GET)
+    protected ModelAndView getRadiologyCacheStatistics() {
+        
+        Context.requirePrivilege(VIEW_ADMINISTRATION_FUNCTIONS);
+        final ModelAndView modelAndView = new ModelAndView(RADIOLOGY_CACHE_STATISTICS_VIEW);
+        modelAndView.addObject("statisticsEnabled", radiologyCacheStatistics.isStatisticsEnabled());
+        modelAndView.addObject("cacheRegionStatistics", radiologyCacheStatistics.getCacheRegionStatistics());
+        modelAndView.addObject("queryCacheStatistics", radiologyCacheStatistics.getQueryCacheStatistics());
+        modelAndView.addObject("globalPropertyCacheStatistics",
+            radiologyCacheStatistics.getGlobalPropertyCacheStatistics());
+        modelAndView.addObject("mrrtReportTemplateCacheStatistics",
+            radiologyCacheStatistics.getMrrtReportTemplateCacheStatistics());
+        modelAndView.addObject("mrrtReportTemplateCacheAverageLoadTimeMillis",
+            radiologyCacheStatistics.getMrrtReportTemplateCacheAverageLoadTimeMillis());
+        modelAndView.addObject("mrrtReportTemplateCacheByteCount",
+            radiologyCacheStatistics.getMrrtReportTemplateCacheByteCount());
+        return modelAndView;
+    }
+    
+    /**
+     * Handles post requests enabling or disabling the collection of cache statistics.
+     * 
+     * @param statisticsEnabled true to collect cache statistics and false otherwise
+     * @return model and view redirecting to the radiology cache statistics page
+     * @should enable or disable the collection of cache statistics and redirect to the radiology cache statistics page
+     */
+    @RequestMapping(method = RequestMethod.POST)
+    protected ModelAndView setStatisticsEnabled(@RequestParam("statisticsEnabled") boolean statisticsEnabled) {
+        
+        Context.requirePrivilege(VIEW_ADMINISTRATION_FUNCTIONS);
+        radiologyCacheStatistics.setStatisticsEnabled(statisticsEnabled);
+        return new ModelAndView("redirect:" + RADIOLOGY_CACHE_STATISTICS_REQUEST_MAPPING);
+    }
+}
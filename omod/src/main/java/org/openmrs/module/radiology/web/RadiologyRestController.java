@@ -9,10 +9,19 @@
  */
 package org.openmrs.module.radiology.web;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.openmrs.module.radiology.report.RadiologyReportConflictException;
+import org.openmrs.module.webservices.rest.SimpleObject;
 import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.RestUtil;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.MainResourceController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 /**
  * Controller for Radiology Rest Services.
@@ -22,6 +31,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 public class RadiologyRestController extends MainResourceController {
     
     
+    private static final Logger log = LoggerFactory.getLogger(RadiologyRestController.class);
+    
     public static final String RADIOLOGY_REST_NAMESPACE = "/radiology";
     
     /**
@@ -31,4 +42,24 @@ public class RadiologyRestController extends MainResourceController {
     public String getNamespace() {
         return RestConstants.VERSION_1 + RADIOLOGY_REST_NAMESPACE;
     }
+    
+    /**
+     * Answers requests failing because a radiology report conflicts with a concurrent change with status 409 (Conflict)
+     * instead of the status 500 the base controller answers api exceptions with, so that clients know to reload the
+     * radiology report and try again.
+     * 
+     * @param radiologyReportConflictException the exception signaling the conflict
+     * @param response the response to set the status of
+     * @return the error response describing the conflict
+     * @should set status conflict and return an error response
+     */
+    @ExceptionHandler(RadiologyReportConflictException.class)
+    @ResponseBody
+    public SimpleObject handleRadiologyReportConflictException(
+            RadiologyReportConflictException radiologyReportConflictException, HttpServletResponse response) {
+        
+        log.debug(radiologyReportConflictException.getMessage(), radiologyReportConflictException);
+        response.setStatus(HttpServletResponse.SC_CONFLICT);
+        return RestUtil.wrapErrorResponse(radiologyReportConflictException, null);
+    }
 }
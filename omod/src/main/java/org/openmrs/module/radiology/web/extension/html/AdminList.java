@@ -15,6 +15,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.openmrs.module.Extension;
+import org.openmrs.module.radiology.web.RadiologyCacheStatisticsController;
 import org.openmrs.module.web.extension.AdministrationSectionExt;
 
 public class AdminList extends AdministrationSectionExt {
@@ -36,6 +37,8 @@ public class AdminList extends AdministrationSectionExt {
         final Map<String, String> map = new HashMap<String, String>();
         
         map.put(RADIOLOGY_ORDERS_TAB_REQUEST_MAPPING, "radiology.administrationSection.links.dashboard");
+        map.put(RadiologyCacheStatisticsController.RADIOLOGY_CACHE_STATISTICS_REQUEST_MAPPING,
+            "radiology.administrationSection.links.cacheStatistics");
         
         return map;
     }
@@ -0,0 +1,85 @@
+<%@ include file="/WEB-INF/template/include.jsp"%>
+<%@ include file="/WEB-INF/template/header.jsp"%>
+
+<openmrs:require privilege="View Administration Functions" otherwise="/login.htm"
+  redirect="/module/radiology/radiologyCacheStatistics.htm" />
+
+<h2>
+  <spring:message code="radiology.cacheStatistics.title" />
+</h2>
+
+<form method="post">
+  <c:choose>
+    <c:when test="${statisticsEnabled}">
+      <spring:message code="radiology.cacheStatistics.enabled" />
+      <input type="hidden" name="statisticsEnabled" value="false" />
+      <input type="submit" value="<spring:message code="radiology.cacheStatistics.disable"/>" />
+    </c:when>
+    <c:otherwise>
+      <spring:message code="radiology.cacheStatistics.disabled" />
+      <input type="hidden" name="statisticsEnabled" value="true" />
+      <input type="submit" value="<spring:message code="radiology.cacheStatistics.enable"/>" />
+    </c:otherwise>
+  </c:choose>
+</form>
+<br />
+
+<div class="boxHeader">
+  <spring:message code="radiology.cacheStatistics.regions" />
+</div>
+<div class="box">
+  <table cellpadding="4" cellspacing="0">
+    <tr>
+      <th><spring:message code="radiology.cacheStatistics.region" /></th>
+      <th><spring:message code="radiology.cacheStatistics.hitCount" /></th>
+      <th><spring:message code="radiology.cacheStatistics.missCount" /></th>
+      <th><spring:message code="radiology.cacheStatistics.putCount" /></th>
+      <th><spring:message code="radiology.cacheStatistics.elementCountInMemory" /></th>
+      <th><spring:message code="radiology.cacheStatistics.hitRatio" /></th>
+    </tr>
+    <c:forEach var="regionStatistics" items="${cacheRegionStatistics}">
+      <tr>
+        <td><c:out value="${regionStatistics.regionName}" /></td>
+        <td>${regionStatistics.hitCount}</td>
+        <td>${regionStatistics.missCount}</td>
+        <td>${regionStatistics.putCount}</td>
+        <td>${regionStatistics.elementCountInMemory}</td>
+        <td><fmt:formatNumber type="percent" maxFractionDigits="1" value="${regionStatistics.hitRatio}" /></td>
+      </tr>
+    </c:forEach>
+    <c:if test="${not empty queryCacheStatistics}">
+      <tr>
+        <td><spring:message code="radiology.cacheStatistics.queryCache" /></td>
+        <td>${queryCacheStatistics.hitCount}</td>
+        <td>${queryCacheStatistics.missCount}</td>
+        <td>${queryCacheStatistics.putCount}</td>
+        <td>${queryCacheStatistics.elementCountInMemory}</td>
+        <td><fmt:formatNumber type="percent" maxFractionDigits="1" value="${queryCacheStatistics.hitRatio}" /></td>
+      </tr>
+    </c:if>
+    <tr>
+      <td><spring:message code="radiology.cacheStatistics.globalPropertyCache" /></td>
+      <td>${globalPropertyCacheStatistics.hitCount}</td>
+      <td>${globalPropertyCacheStatistics.missCount}</td>
+      <td></td>
+      <td></td>
+      <td><fmt:formatNumber type="percent" maxFractionDigits="1" value="${globalPropertyCacheStatistics.hitRatio}" /></td>
+    </tr>
+    <tr>
+      <td><spring:message code="radiology.cacheStatistics.reportTemplateCache" /></td>
+      <td>${mrrtReportTemplateCacheStatistics.hitCount}</td>
+      <td>${mrrtReportTemplateCacheStatistics.missCount}</td>
+      <td>${mrrtReportTemplateCacheStatistics.putCount}</td>
+      <td>${mrrtReportTemplateCacheStatistics.elementCountInMemory}</td>
+      <td><fmt:formatNumber type="percent" maxFractionDigits="1" value="${mrrtReportTemplateCacheStatistics.hitRatio}" /></td>
+    </tr>
+  </table>
+  <p>
+    <spring:message code="radiology.cacheStatistics.reportTemplateCacheAverageLoadTime" />:
+    <fmt:formatNumber maxFractionDigits="2" value="${mrrtReportTemplateCacheAverageLoadTimeMillis}" /> ms,
+    <spring:message code="radiology.cacheStatistics.reportTemplateCacheByteCount" />:
+    ${mrrtReportTemplateCacheByteCount}
+  </p>
+</div>
+
+<%@ include file="/WEB-INF/template/footer.jsp"%>
@@ -44,12 +44,11 @@
                                         cache: true,
                                         dataType: "json",
                                         url: Radiology.getRestRootEndpoint()
-                                                + "/radiologyorder/",
+                                                + "/radiologyorderworklist/",
                                         data: function(data) {
                                           return {
                                             startIndex: data.start,
                                             limit: data.length,
-                                            v: "full",
                                             accessionNumber: accessionNumber
                                                     .val(),
                                             patient: patientUuid.val(),
@@ -116,10 +115,18 @@
                                             }
                                           },
                                           {
-                                            "name": "patient",
+                                            "name": "patientName",
                                             "render": function(data, type,
                                                     full, meta) {
-                                              return full.patient.display;
+                                              return full.patientName;
+                                            }
+                                          },
+                                          {
+                                            "name": "patientIdentifier",
+                                            "render": function(data, type,
+                                                    full, meta) {
+                                              return Radiology.getProperty(
+                                                      full, "patientIdentifier");
                                             }
                                           },
                                           {
@@ -137,89 +144,53 @@
                                             }
                                           },
                                           {
-                                            "name": "concept",
-                                            "render": function(data, type,
-                                                    full, meta) {
-                                              return full.concept.display;
-                                            }
-                                          },
-                                          {
-                                            "name": "orderer",
-                                            "responsivePriority": 11000,
+                                            "name": "procedureName",
                                             "render": function(data, type,
                                                     full, meta) {
-                                              return full.orderer.display;
+                                              return Radiology.getProperty(
+                                                      full, "procedureName");
                                             }
                                           },
                                           {
-                                            "name": "scheduledDate",
+                                            "name": "effectiveStartDate",
                                             "render": function(data, type,
                                                     full, meta) {
                                               var result = "";
-                                              if (full.scheduledDate) {
+                                              if (full.effectiveStartDate) {
 
                                                 result = moment(
-                                                        full.scheduledDate)
+                                                        full.effectiveStartDate)
                                                         .format("LLL");
                                               }
                                               return result;
                                             }
                                           },
                                           {
-                                            "name": "dateActivated",
+                                            "name": "performedStatus",
                                             "render": function(data, type,
                                                     full, meta) {
-                                              var result = "";
-                                              if (full.dateActivated) {
-
-                                                result = moment(
-                                                        full.dateActivated)
-                                                        .format("LLL");
+                                              switch (full.performedStatus) {
+                                              case "IN_PROGRESS":
+                                                return '<spring:message code="radiology.IN_PROGRESS"/>';
+                                              case "DISCONTINUED":
+                                                return '<spring:message code="radiology.DISCONTINUED"/>';
+                                              case "COMPLETED":
+                                                return '<spring:message code="radiology.COMPLETED"/>';
                                               }
-                                              return result;
+                                              return "";
                                             }
                                           },
                                           {
-                                            "name": "dateStopped",
+                                            "name": "reportStatus",
                                             "render": function(data, type,
                                                     full, meta) {
-                                              var result = "";
-                                              if (full.dateStopped) {
-
-                                                result = moment(
-                                                        full.dateStopped)
-                                                        .format("LLL");
+                                              switch (full.reportStatus) {
+                                              case "COMPLETED":
+                                                return '<spring:message code="radiology.report.status.COMPLETED"/>';
+                                              case "DRAFT":
+                                                return '<spring:message code="radiology.report.status.DRAFT"/>';
                                               }
-                                              return result;
-                                            }
-                                          },
-                                          {
-                                            "name": "orderReason",
-                                            "className": "none",
-                                            "render": function(data, type,
-                                                    full, meta) {
-                                              return Radiology.getProperty(
-                                                      full,
-                                                      "orderReason.display");
-                                            }
-                                          },
-                                          {
-                                            "name": "orderReasonNonCoded",
-                                            "className": "none",
-                                            "render": function(data, type,
-                                                    full, meta) {
-                                              return Radiology.getProperty(
-                                                      full,
-                                                      "orderReasonNonCoded");
-                                            }
-                                          },
-                                          {
-                                            "name": "instructions",
-                                            "className": "none",
-                                            "render": function(data, type,
-                                                    full, meta) {
-                                              return Radiology.getProperty(
-                                                      full, "instructions");
+                                              return "";
                                             }
                                           },
                                           {
@@ -366,15 +337,12 @@
               <th></th>
               <th><spring:message code="radiology.datatables.column.order.accessionNumber" /></th>
               <th><spring:message code="radiology.datatables.column.order.patient" /></th>
+              <th><spring:message code="radiology.datatables.column.order.patientIdentifier" /></th>
               <th><spring:message code="radiology.datatables.column.order.urgency" /></th>
               <th><spring:message code="radiology.datatables.column.order.imagingProcedure" /></th>
-              <th><spring:message code="radiology.datatables.column.order.referringPhysician" /></th>
-              <th><spring:message code="radiology.datatables.column.order.scheduledDate" /></th>
-              <th><spring:message code="radiology.datatables.column.order.dateActivated" /></th>
-              <th><spring:message code="radiology.datatables.column.order.dateStopped" /></th>
-              <th><spring:message code="radiology.datatables.column.order.reason" /></th>
-              <th><spring:message code="radiology.datatables.column.order.reasonNonCoded" /></th>
-              <th><spring:message code="radiology.datatables.column.order.instructions" /></th>
+              <th><spring:message code="radiology.datatables.column.order.effectiveStartDate" /></th>
+              <th><spring:message code="radiology.datatables.column.order.performedStatus" /></th>
+              <th><spring:message code="radiology.datatables.column.order.reportStatus" /></th>
               <th><spring:message code="radiology.datatables.column.action" /></th>
             </tr>
           </thead>
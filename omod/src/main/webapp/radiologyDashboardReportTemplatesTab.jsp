@@ -197,6 +197,30 @@
         </ul>
     </div>
 </c:if>
+<c:if test="${not empty mrrtReportTemplateImportResults}" >
+    </br>
+    <div class="box">
+        <spring:message code="radiology.reportTemplates.import.archive.results.header" />
+        <table cellspacing="5">
+            <tr>
+                <th><spring:message code="radiology.reportTemplates.import.archive.results.file" /></th>
+                <th><spring:message code="radiology.reportTemplates.import.archive.results.status" /></th>
+                <th><spring:message code="radiology.reportTemplates.import.archive.results.errors" /></th>
+            </tr>
+            <c:forEach items="${mrrtReportTemplateImportResults}" var="importResult">
+            <tr>
+                <td><c:out value="${importResult.fileName}" /></td>
+                <td><spring:message code="radiology.reportTemplates.import.archive.status.${importResult.status}" /></td>
+                <td>
+                <c:forEach items="${importResult.errors}" var="importError">
+                    <spring:message code="${importError.messageCode}" text="${importError.description}" htmlEscape="true" /><br />
+                </c:forEach>
+                </td>
+            </tr>
+            </c:forEach>
+        </table>
+    </div>
+</c:if>
 
 <openmrs:hasPrivilege privilege="View Radiology Report Templates">
   <div id="radiologyReportTemplates">
@@ -213,6 +237,13 @@
               <input type="file" name="templateFile" size="40" /> <input type="submit" name="uploadReportTemplate"
                 value='<openmrs:message code="radiology.reportTemplates.import.popup.upload"/>' />
             </form>
+            <form id="templateArchiveAddForm" action="radiologyDashboardReportTemplatesTab.htm" method="post"
+              enctype="multipart/form-data">
+              <label><openmrs:message code="radiology.reportTemplates.import.popup.archive" /></label>
+              <input type="file" name="templateArchive" accept=".zip" size="40" /> <input type="submit"
+                name="uploadReportTemplateArchive"
+                value='<openmrs:message code="radiology.reportTemplates.import.popup.upload"/>' />
+            </form>
           </div>
           <br />
         </div>
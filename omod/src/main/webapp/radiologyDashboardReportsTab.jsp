@@ -94,7 +94,7 @@
                                         cache: true,
                                         dataType: "json",
                                         url: Radiology.getRestRootEndpoint()
-                                                + "/radiologyreport/",
+                                                + "/radiologyreportlist/",
                                         data: function(data) {
                                           return {
                                             startIndex: data.start,
@@ -155,7 +155,7 @@
                                             "responsivePriority": 1,
                                             "render": function(data, type,
                                                     full, meta) {
-                                              return full.radiologyOrder.display;
+                                              return full.accessionNumber;
                                             }
                                           },
                                           {
@@ -163,9 +163,7 @@
                                             "render": function(data, type,
                                                     full, meta) {
 
-                                              return Radiology
-                                                      .getProperty(full,
-                                                              "principalResultsInterpreter.display");
+                                              return full.principalResultsInterpreterName;
                                             }
                                           },
                                           {
@@ -186,9 +184,9 @@
                                             "render": function(data, type,
                                                     full, meta) {
                                               var result = "";
-                                              if (full.auditInfo.dateCreated) {
+                                              if (full.dateCreated) {
                                                 result = moment(
-                                                        full.auditInfo.dateCreated)
+                                                        full.dateCreated)
                                                         .format("LLL");
                                               }
                                               return result;
@@ -199,7 +197,7 @@
                                             "responsivePriority": 11000,
                                             "render": function(data, type,
                                                     full, meta) {
-                                              return full.auditInfo.creator.display;
+                                              return full.creatorName;
                                             }
                                           },
                                           {
@@ -107,6 +107,8 @@
         <form:hidden path="voided" />
         <form:hidden path="voidedBy" />
         <form:hidden path="dateVoided" />
+        <%-- version is needed so that saving a report which was changed by someone else in the meantime fails --%>
+        <form:hidden path="version" />
         <%-- dateChanged and changedBy do not need to be bound  --%>
       </tr>
       <tr>
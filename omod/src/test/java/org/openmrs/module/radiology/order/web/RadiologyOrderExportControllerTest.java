@@ -0,0 +1,119 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.function.Consumer;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openmrs.Order.Urgency;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.order.RadiologyOrderWorklistItem;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+import org.openmrs.test.BaseContextMockTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests {@link RadiologyOrderExportController}.
+ */
+public class RadiologyOrderExportControllerTest extends BaseContextMockTest {
+    
+    
+    @Mock
+    private RadiologyOrderService radiologyOrderService;
+    
+    @InjectMocks
+    private RadiologyOrderExportController radiologyOrderExportController = new RadiologyOrderExportController();
+    
+    private ArgumentCaptor<RadiologyOrderSearchCriteria> radiologyOrderSearchCriteriaCaptor =
+            ArgumentCaptor.forClass(RadiologyOrderSearchCriteria.class);
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            Consumer<RadiologyOrderWorklistItem> consumer =
+                    (Consumer<RadiologyOrderWorklistItem>) invocation.getArguments()[1];
+            consumer.accept(new RadiologyOrderWorklistItem("1bae735a-fca0-11e5-9e59-08002719a237", "1", "John", null,
+                    "Doe, Jr.", "4321", "CT \"ABDOMEN\"", Urgency.STAT, null, PerformedProcedureStepStatus.COMPLETED,
+                    RadiologyReportStatus.DRAFT));
+            consumer.accept(new RadiologyOrderWorklistItem("30a57ce7-fca0-11e5-9e59-08002719a237", "2", "Jane", null,
+                    "Doe", "1234", "MR Left Knee", Urgency.ROUTINE, null, PerformedProcedureStepStatus.IN_PROGRESS,
+                    null));
+            return 2L;
+        }).when(radiologyOrderService)
+                .scrollRadiologyOrderWorklist(radiologyOrderSearchCriteriaCaptor.capture(), any(Consumer.class));
+    }
+    
+    @Test
+    public void shouldWriteTheRadiologyOrdersMatchingGivenFiltersAsCsvWithAHeaderLine() throws Exception {
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        radiologyOrderExportController.exportRadiologyOrders(response, "csv", "1", null, null, null, Urgency.STAT);
+        
+        assertThat(response.getContentType(), is("text/csv;charset=UTF-8"));
+        assertThat(response.getContentAsString(),
+            is("uuid,accessionNumber,patientName,patientIdentifier,procedureName,urgency,effectiveStartDate,"
+                    + "performedStatus,reportStatus\n"
+                    + "1bae735a-fca0-11e5-9e59-08002719a237,1,\"John Doe, Jr.\",4321,\"CT \"\"ABDOMEN\"\"\",STAT,,"
+                    + "COMPLETED,DRAFT\n"
+                    + "30a57ce7-fca0-11e5-9e59-08002719a237,2,Jane Doe,1234,MR Left Knee,ROUTINE,,IN_PROGRESS,\n"));
+        assertThat(radiologyOrderSearchCriteriaCaptor.getValue()
+                .getAccessionNumber(),
+            is("1"));
+        assertThat(radiologyOrderSearchCriteriaCaptor.getValue()
+                .getUrgency(),
+            is(Urgency.STAT));
+    }
+    
+    @Test
+    public void shouldWriteTheRadiologyOrdersMatchingGivenFiltersAsNdjson() throws Exception {
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        radiologyOrderExportController.exportRadiologyOrders(response, "ndjson", null, null, null, null, null);
+        
+        assertThat(response.getContentType(), is("application/x-ndjson;charset=UTF-8"));
+        String[] lines = response.getContentAsString()
+                .split("\n");
+        assertThat(lines.length, is(2));
+        assertThat(lines[0], is("{\"uuid\":\"1bae735a-fca0-11e5-9e59-08002719a237\",\"accessionNumber\":\"1\","
+                + "\"patientName\":\"John Doe, Jr.\",\"patientIdentifier\":\"4321\","
+                + "\"procedureName\":\"CT \\\"ABDOMEN\\\"\","
+                + "\"urgency\":\"STAT\",\"effectiveStartDate\":null,\"performedStatus\":\"COMPLETED\","
+                + "\"reportStatus\":\"DRAFT\"}"));
+    }
+    
+    @Test
+    public void shouldSendBadRequestGivenAnUnknownFormat() throws Exception {
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        radiologyOrderExportController.exportRadiologyOrders(response, "xml", null, null, null, null, null);
+        
+        assertThat(response.getStatus(), is(HttpServletResponse.SC_BAD_REQUEST));
+        verifyZeroInteractions(radiologyOrderService);
+    }
+}
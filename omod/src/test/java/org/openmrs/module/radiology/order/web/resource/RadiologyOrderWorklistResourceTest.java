@@ -0,0 +1,94 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web.resource;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openmrs.module.radiology.order.RadiologyOrderWorklistItem;
+import org.openmrs.module.webservices.rest.web.representation.CustomRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.DefaultRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.FullRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.RefRepresentation;
+import org.openmrs.module.webservices.rest.web.resource.impl.DelegatingResourceDescription;
+import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
+import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs2_0.RestConstants2_0;
+
+/**
+ * Tests {@link RadiologyOrderWorklistResource}.
+ */
+public class RadiologyOrderWorklistResourceTest {
+    
+    
+    RadiologyOrderWorklistResource radiologyOrderWorklistResource = new RadiologyOrderWorklistResource();
+    
+    @Test
+    public void shouldReturnDefaultRepresentationGivenInstanceOfDefaultrepresentation() throws Exception {
+        
+        DelegatingResourceDescription resourceDescription =
+                radiologyOrderWorklistResource.getRepresentationDescription(new DefaultRepresentation());
+        
+        assertThat(resourceDescription.getProperties()
+                .keySet(),
+            contains("uuid", "accessionNumber", "patientName", "patientIdentifier", "procedureName", "urgency",
+                "effectiveStartDate", "performedStatus", "reportStatus"));
+    }
+    
+    @Test
+    public void shouldReturnDefaultRepresentationGivenInstanceOfFullrepresentation() throws Exception {
+        
+        DelegatingResourceDescription resourceDescription =
+                radiologyOrderWorklistResource.getRepresentationDescription(new FullRepresentation());
+        
+        assertThat(resourceDescription.getProperties()
+                .keySet(),
+            contains("uuid", "accessionNumber", "patientName", "patientIdentifier", "procedureName", "urgency",
+                "effectiveStartDate", "performedStatus", "reportStatus"));
+    }
+    
+    @Test
+    public void shouldReturnNullForRepresentationOtherThenDefaultOrFull() throws Exception {
+        
+        assertThat(radiologyOrderWorklistResource.getRepresentationDescription(new CustomRepresentation("some")),
+            is(nullValue()));
+        assertThat(radiologyOrderWorklistResource.getRepresentationDescription(new RefRepresentation()), is(nullValue()));
+    }
+    
+    /**
+     * @see RadiologyOrderWorklistResource#getResourceVersion()
+     */
+    @Test
+    public void shouldReturnSupportedResourceVersion() throws Exception {
+        
+        assertThat(radiologyOrderWorklistResource.getResourceVersion(), is(RestConstants2_0.RESOURCE_VERSION));
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldThrowResourceDoesNotSupportOperationExceptionGivenUuid() throws Exception {
+        
+        radiologyOrderWorklistResource.getByUniqueId("1bae735a-fca0-11e5-9e59-08002719a237");
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldThrowResourceDoesNotSupportOperationExceptionForNewDelegate() throws Exception {
+        
+        radiologyOrderWorklistResource.newDelegate();
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldThrowResourceDoesNotSupportOperationExceptionForSave() throws Exception {
+        
+        radiologyOrderWorklistResource.save(new RadiologyOrderWorklistItem("1bae735a-fca0-11e5-9e59-08002719a237", "1",
+                null, null, null, null, null, null, null, null, null));
+    }
+}
@@ -9,7 +9,9 @@
  */
 package org.openmrs.module.radiology.order.web.search;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -465,4 +467,122 @@ public class RadiologyOrderSearchHandlerComponentTest extends MainResourceContro
         assertNotNull(resultPatientAndUrgencyWithTwoOrders);
         assertThat(PropertyUtils.getProperty(resultPatientAndUrgencyWithTwoOrders, "totalCount"), is(2));
     }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnOnlyTheRequestedPageOfRadiologyOrdersAndANextLinkIfMoreRadiologyOrdersExist()
+            throws Exception {
+        
+        MockHttpServletRequest requestFirstPage = request(RequestMethod.GET, getURI());
+        requestFirstPage.setParameter("limit", "2");
+        
+        SimpleObject resultFirstPage = deserialize(handle(requestFirstPage));
+        
+        assertNotNull(resultFirstPage);
+        List<Object> hits = (List<Object>) resultFirstPage.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("1"));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("2"));
+        assertThat(Util.getByPath(resultFirstPage, "links[0]/rel"), is("next"));
+        
+        MockHttpServletRequest requestLastPage = request(RequestMethod.GET, getURI());
+        requestLastPage.setParameter("limit", "2");
+        requestLastPage.setParameter("startIndex", "2");
+        
+        SimpleObject resultLastPage = deserialize(handle(requestLastPage));
+        
+        assertNotNull(resultLastPage);
+        hits = (List<Object>) resultLastPage.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("3"));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("4"));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnRadiologyOrdersWithAccessionNumberAfterGivenAfterAccessionNumber() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER, "2");
+        request.setParameter("limit", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("3"));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnANextLinkAfterTheAccessionNumberOfTheLastRadiologyOrderIfGivenAfterAccessionNumber()
+            throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER, "1");
+        request.setParameter("limit", "2");
+        request.setParameter("startIndex", "2");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("2"));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("3"));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        String nextUri = (String) Util.getByPath(result, "links[0]/uri");
+        assertThat(nextUri, containsString(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER + "=3"));
+        assertThat(nextUri, not(containsString("startIndex")));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnANextLinkAfterTheAccessionNumberOfTheLastRadiologyOrderByDefault() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter("limit", "2");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("2"));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        String nextUri = (String) Util.getByPath(result, "links[0]/uri");
+        assertThat(nextUri, containsString(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER + "=2"));
+        assertThat(nextUri, not(containsString("startIndex")));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnANextLinkWithTheNextStartIndexIfGivenStartIndex() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter("limit", "1");
+        request.setParameter("startIndex", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("2"));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        String nextUri = (String) Util.getByPath(result, "links[0]/uri");
+        assertThat(nextUri, containsString("startIndex=2"));
+        assertThat(nextUri, not(containsString(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER)));
+    }
 }
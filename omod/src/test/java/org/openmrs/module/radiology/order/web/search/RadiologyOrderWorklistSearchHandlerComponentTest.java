@@ -0,0 +1,228 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web.search;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.apache.commons.beanutils.PropertyUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.test.Util;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.MainResourceControllerTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * Tests {@link RadiologyOrderWorklistSearchHandler}.
+ */
+public class RadiologyOrderWorklistSearchHandlerComponentTest extends MainResourceControllerTest {
+    
+    
+    protected static final String TEST_DATASET = "RadiologyOrderSearchHandlerComponentTestDataset.xml";
+    
+    private static final String ACCESSION_NUMBER_WITH_NO_ORDER = "6";
+    
+    private static final String UNKNOWN_PATIENT = "99999999-9999-9999-9999-9999999999999";
+    
+    private static final String PATIENT_WITH_TWO_ORDERS = "5631b434-78aa-102b-91a0-001e378eb67e";
+    
+    private static final String RADIOLOGY_ORDER_UUID = "1bae735a-fca0-11e5-9e59-08002719a237";
+    
+    @Autowired
+    RadiologyOrderService radiologyOrderService;
+    
+    @Before
+    public void setUp() throws Exception {
+        executeDataSet(TEST_DATASET);
+    }
+    
+    /**
+     * @see MainResourceControllerTest#getURI()
+     */
+    @Override
+    public String getURI() {
+        
+        return "radiologyorderworklist";
+    }
+    
+    /**
+     * @see MainResourceControllerTest#getAllCount()
+     */
+    @Override
+    public long getAllCount() {
+        
+        return 0;
+    }
+    
+    /**
+     * @see MainResourceControllerTest#getUuid()
+     */
+    @Override
+    public String getUuid() {
+        
+        return RADIOLOGY_ORDER_UUID;
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetAll()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetAll() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI())));
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetDefaultByUuid()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetDefaultByUuid() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI() + "/" + getUuid())));
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetRefByUuid()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetRefByUuid() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI() + "/" + getUuid())));
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetFullByUuid()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetFullByUuid() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI() + "/" + getUuid())));
+    }
+    
+    /**
+     * @see RadiologyOrderWorklistSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnWorklistItemsOfAllRadiologyOrdersForGivenPatient() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("1"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "patientName"), is("John Francis Doe"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "patientIdentifier"), is("4321"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "procedureName"), is("FRACTURE"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "urgency"), is("ROUTINE"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "performedStatus"), is("IN_PROGRESS"));
+        assertNull(PropertyUtils.getProperty(hits.get(0), "reportStatus"));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("2"));
+        assertNull(PropertyUtils.getProperty(result, "totalCount"));
+    }
+    
+    /**
+     * @see RadiologyOrderWorklistSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnEmptySearchResultIfPatientCannotBeFound() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, UNKNOWN_PATIENT);
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(0));
+    }
+    
+    /**
+     * @see RadiologyOrderWorklistSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnEmptySearchResultIfNoRadiologyOrderExistsForGivenAccessionNumber() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_ACCESSION_NUMBER, ACCESSION_NUMBER_WITH_NO_ORDER);
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(0));
+    }
+    
+    /**
+     * @see RadiologyOrderWorklistSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnOnlyTheRequestedPageOfWorklistItemsAndTotalCountIfRequested() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        request.setParameter("limit", "2");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("1"));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("2"));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        assertThat(((Number) PropertyUtils.getProperty(result, "totalCount")).longValue(),
+            is(radiologyOrderService.countRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().build())));
+    }
+    
+    /**
+     * @see RadiologyOrderWorklistSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnANextLinkAfterTheAccessionNumberOfTheLastWorklistItemIfGivenAfterAccessionNumber()
+            throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER, "1");
+        request.setParameter("limit", "1");
+        request.setParameter("startIndex", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("2"));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        String nextUri = (String) Util.getByPath(result, "links[0]/uri");
+        assertThat(nextUri, containsString(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER + "=2"));
+        assertThat(nextUri, not(containsString("startIndex")));
+    }
+}
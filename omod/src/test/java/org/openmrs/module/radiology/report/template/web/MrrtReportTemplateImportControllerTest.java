@@ -0,0 +1,124 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template.web;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportResult;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportStatus;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
+import org.openmrs.module.radiology.report.template.ValidationError;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
+import org.openmrs.test.BaseContextMockTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Tests {@link MrrtReportTemplateImportController}.
+ */
+public class MrrtReportTemplateImportControllerTest extends BaseContextMockTest {
+    
+    
+    @Mock
+    private MrrtReportTemplateService mrrtReportTemplateService;
+    
+    @InjectMocks
+    private MrrtReportTemplateImportController mrrtReportTemplateImportController =
+            new MrrtReportTemplateImportController();
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    /**
+     * @see MrrtReportTemplateImportController#importMrrtReportTemplates(org.springframework.web.multipart.MultipartFile)
+     */
+    @Test
+    public void shouldReturnTheImportResultsOfTheHtmlFilesOfGivenArchive() throws Exception {
+        
+        MrrtReportTemplate template = new MrrtReportTemplate();
+        template.setDcTermsIdentifier("1.3.6.1.4.1.21367.13.199.1015");
+        when(mrrtReportTemplateService.importMrrtReportTemplates(any(InputStream.class))).thenReturn(Arrays.asList(
+            new MrrtReportTemplateImportResult("CTChestAbdomen.html", MrrtReportTemplateImportStatus.IMPORTED, template,
+                    Collections.<ValidationError> emptyList()),
+            new MrrtReportTemplateImportResult("invalid.html", MrrtReportTemplateImportStatus.INVALID, null,
+                    Arrays.asList(new ValidationError("Missing header", "err.missing.header")))));
+        MockMultipartFile archive =
+                new MockMultipartFile("file", "templates.zip", "application/zip", new byte[] { 1, 2, 3 });
+        
+        SimpleObject result = mrrtReportTemplateImportController.importMrrtReportTemplates(archive);
+        
+        verify(mrrtReportTemplateService).importMrrtReportTemplates(any(InputStream.class));
+        List<SimpleObject> results = (List<SimpleObject>) result.get("results");
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0)
+                .get("fileName"),
+            is("CTChestAbdomen.html"));
+        assertThat(results.get(0)
+                .get("status"),
+            is(MrrtReportTemplateImportStatus.IMPORTED));
+        assertThat(results.get(0)
+                .get("uuid"),
+            is(template.getUuid()));
+        assertThat(results.get(0)
+                .get("identifier"),
+            is("1.3.6.1.4.1.21367.13.199.1015"));
+        assertThat(((List<SimpleObject>) results.get(0)
+                .get("errors")).isEmpty(),
+            is(true));
+        assertThat(results.get(1)
+                .get("status"),
+            is(MrrtReportTemplateImportStatus.INVALID));
+        assertNull(results.get(1)
+                .get("uuid"));
+        List<SimpleObject> errors = (List<SimpleObject>) results.get(1)
+                .get("errors");
+        assertThat(errors.size(), is(1));
+        assertThat(errors.get(0)
+                .get("description"),
+            is("Missing header"));
+        assertThat(errors.get(0)
+                .get("messageCode"),
+            is("err.missing.header"));
+    }
+    
+    /**
+     * @see MrrtReportTemplateImportController#importMrrtReportTemplates(org.springframework.web.multipart.MultipartFile)
+     */
+    @Test
+    public void shouldThrowIllegalRequestExceptionIfGivenArchiveIsEmpty() throws Exception {
+        
+        MockMultipartFile archive = new MockMultipartFile("file", "templates.zip", "application/zip", new byte[0]);
+        
+        expectedException.expect(IllegalRequestException.class);
+        try {
+            mrrtReportTemplateImportController.importMrrtReportTemplates(archive);
+        }
+        finally {
+            verifyZeroInteractions(mrrtReportTemplateService);
+        }
+    }
+}
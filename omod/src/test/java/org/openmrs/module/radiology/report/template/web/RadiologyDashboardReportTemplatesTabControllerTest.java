@@ -12,6 +12,7 @@ package org.openmrs.module.radiology.report.template.web;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -21,6 +22,9 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -31,6 +35,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.openmrs.api.APIException;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportResult;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportStatus;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateValidationException;
 import org.openmrs.module.radiology.report.template.ValidationError;
@@ -241,4 +247,82 @@ public class RadiologyDashboardReportTemplatesTabControllerTest extends BaseCont
         assertNotNull(errorMessage);
         assertThat(errorMessage, is("Failed to delete template file => File could not be deleted."));
     }
+    
+    @Test
+    public void shouldGiveErrorMessageWhenTemplateArchiveIsEmpty() throws Exception {
+        
+        MockMultipartFile emptyArchive = new MockMultipartFile("templateArchive", "templates.zip", "application/zip",
+                new byte[0]);
+        
+        ModelAndView modelAndView =
+                radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, emptyArchive);
+        
+        verifyZeroInteractions(mrrtReportTemplateService);
+        assertThat(modelAndView.getViewName(),
+            is(RadiologyDashboardReportTemplatesTabController.RADIOLOGY_REPORT_TEMPLATES_TAB_VIEW));
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_ERROR_ATTR),
+            is("radiology.MrrtReportTemplate.archive.not.imported.empty"));
+    }
+    
+    @Test
+    public void shouldAddTheImportResultsOfTheArchiveToTheModelAndGiveSuccessMessage() throws Exception {
+        
+        List<MrrtReportTemplateImportResult> importResults = Arrays.asList(
+            new MrrtReportTemplateImportResult("CTChestAbdomen.html", MrrtReportTemplateImportStatus.IMPORTED,
+                    new MrrtReportTemplate(), Collections.<ValidationError> emptyList()),
+            new MrrtReportTemplateImportResult("invalid.html", MrrtReportTemplateImportStatus.INVALID, null,
+                    Arrays.asList(new ValidationError("Missing header", "err.missing.header"))));
+        when(mrrtReportTemplateService.importMrrtReportTemplates(any(InputStream.class))).thenReturn(importResults);
+        MockMultipartFile archive = new MockMultipartFile("templateArchive", "templates.zip", "application/zip",
+                new byte[] { 1, 2, 3 });
+        
+        ModelAndView modelAndView =
+                radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, archive);
+        
+        verify(mrrtReportTemplateService).importMrrtReportTemplates(any(InputStream.class));
+        verifyNoMoreInteractions(mrrtReportTemplateService);
+        assertThat(modelAndView.getViewName(),
+            is(RadiologyDashboardReportTemplatesTabController.RADIOLOGY_REPORT_TEMPLATES_TAB_VIEW));
+        assertThat(modelAndView.getModelMap()
+                .get("mrrtReportTemplateImportResults"),
+            is(importResults));
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_MSG_ATTR),
+            is("radiology.MrrtReportTemplate.archive.imported"));
+    }
+    
+    @Test
+    public void shouldSetErrorMessageInSessionWhenIoExceptionIsThrownDuringArchiveImport() throws Exception {
+        
+        when(mrrtReportTemplateService.importMrrtReportTemplates(any(InputStream.class)))
+                .thenThrow(new IOException("invalid zip"));
+        MockMultipartFile archive = new MockMultipartFile("templateArchive", "templates.zip", "application/zip",
+                new byte[] { 1, 2, 3 });
+        
+        ModelAndView modelAndView =
+                radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, archive);
+        
+        assertThat(modelAndView.getModelMap()
+                .containsKey("mrrtReportTemplateImportResults"),
+            is(false));
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_ERROR_ATTR),
+            is("Failed to import templates.zip => invalid zip"));
+    }
+    
+    @Test
+    public void shouldSetErrorMessageInSessionWhenApiExceptionIsThrownDuringArchiveImport() throws Exception {
+        
+        when(mrrtReportTemplateService.importMrrtReportTemplates(any(InputStream.class)))
+                .thenThrow(new APIException("not allowed"));
+        MockMultipartFile archive = new MockMultipartFile("templateArchive", "templates.zip", "application/zip",
+                new byte[] { 1, 2, 3 });
+        
+        radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, archive);
+        
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_ERROR_ATTR),
+            is("Failed to import templates.zip => not allowed"));
+    }
 }
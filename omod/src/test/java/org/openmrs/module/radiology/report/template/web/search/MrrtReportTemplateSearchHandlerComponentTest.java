@@ -235,4 +235,19 @@ public class MrrtReportTemplateSearchHandlerComponentTest extends MainResourceCo
         List<Object> hits = (List<Object>) resultMrrtReportTemplate.get("results");
         assertThat(hits.size(), is(0));
     }
+    
+    @Test
+    public void shouldReturnOnlyTheRequestedPageOfTemplatesAndTotalCountOfAllMatchingTemplates() throws Exception {
+        
+        MockHttpServletRequest requestMrrtReportTemplate = request(RequestMethod.GET, getURI());
+        requestMrrtReportTemplate.setParameter(MrrtReportTemplateSearchHandler.REQUEST_PARAM_TITLE, TITLE_QUERY);
+        requestMrrtReportTemplate.setParameter(MrrtReportTemplateSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        requestMrrtReportTemplate.setParameter("limit", "1");
+        SimpleObject resultMrrtReportTemplate = deserialize(handle(requestMrrtReportTemplate));
+        
+        assertNotNull(resultMrrtReportTemplate);
+        List<Object> hits = (List<Object>) resultMrrtReportTemplate.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(resultMrrtReportTemplate, "totalCount"), is(2));
+    }
 }
@@ -31,8 +31,8 @@ import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestUtil;
 import org.openmrs.module.webservices.rest.web.api.RestService;
 import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -120,7 +120,7 @@ public class MrrtReportTemplateSearchHandlerTest {
         
         PageableResult pageableResult = mrrtReportTemplateSearchHandler.search(requestContext);
         
-        assertThat(pageableResult, is(instanceOf(NeedsPaging.class)));
+        assertThat(pageableResult, is(instanceOf(AlreadyPaged.class)));
     }
     
     @Test
@@ -132,7 +132,7 @@ public class MrrtReportTemplateSearchHandlerTest {
         
         PageableResult pageableResult = mrrtReportTemplateSearchHandler.search(requestContext);
         
-        assertThat(pageableResult, is(instanceOf(NeedsPaging.class)));
+        assertThat(pageableResult, is(instanceOf(AlreadyPaged.class)));
     }
     
     @Test
@@ -154,7 +154,7 @@ public class MrrtReportTemplateSearchHandlerTest {
         
         PageableResult pageableResult = mrrtReportTemplateSearchHandler.search(requestContext);
         
-        assertThat(pageableResult, is(instanceOf(NeedsPaging.class)));
+        assertThat(pageableResult, is(instanceOf(AlreadyPaged.class)));
     }
     
     @Test
@@ -176,7 +176,7 @@ public class MrrtReportTemplateSearchHandlerTest {
         
         PageableResult pageableResult = mrrtReportTemplateSearchHandler.search(requestContext);
         
-        assertThat(pageableResult, is(instanceOf(NeedsPaging.class)));
+        assertThat(pageableResult, is(instanceOf(AlreadyPaged.class)));
     }
     
     @Test
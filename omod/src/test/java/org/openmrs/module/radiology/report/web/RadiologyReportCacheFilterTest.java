@@ -0,0 +1,196 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.web;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.openmrs.User;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyPrivileges;
+import org.openmrs.module.radiology.report.RadiologyReport;
+import org.openmrs.module.radiology.report.RadiologyReportService;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests {@link RadiologyReportCacheFilter}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Context.class)
+public class RadiologyReportCacheFilterTest {
+    
+    
+    private static final String COMPLETED_RADIOLOGY_REPORT_UUID = "82d3fb80-e403-4b9b-982c-22161ec29810";
+    
+    private static final String DRAFT_RADIOLOGY_REPORT_UUID = "e699d90d-e230-4762-8747-d2d0059394b0";
+    
+    @Mock
+    private RadiologyReportService radiologyReportService;
+    
+    @Mock
+    private RadiologyReport completedRadiologyReport;
+    
+    @Mock
+    private RadiologyReport draftRadiologyReport;
+    
+    private RadiologyReportCacheFilter radiologyReportCacheFilter = new RadiologyReportCacheFilter();
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        User user = new User();
+        user.setUuid("c98a1558-e131-11de-babe-001e378eb67e");
+        PowerMockito.mockStatic(Context.class);
+        when(Context.isAuthenticated()).thenReturn(true);
+        when(Context.hasPrivilege(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)).thenReturn(true);
+        when(Context.getAuthenticatedUser()).thenReturn(user);
+        when(Context.getLocale()).thenReturn(Locale.ENGLISH);
+        when(Context.getService(RadiologyReportService.class)).thenReturn(radiologyReportService);
+        
+        when(completedRadiologyReport.getUuid()).thenReturn(COMPLETED_RADIOLOGY_REPORT_UUID);
+        when(completedRadiologyReport.getVersion()).thenReturn(1);
+        when(completedRadiologyReport.getStatus()).thenReturn(RadiologyReportStatus.COMPLETED);
+        when(completedRadiologyReport.getVoided()).thenReturn(false);
+        when(completedRadiologyReport.getDate()).thenReturn(new Date(1467331200000L));
+        when(radiologyReportService.getRadiologyReportByUuid(COMPLETED_RADIOLOGY_REPORT_UUID))
+                .thenReturn(completedRadiologyReport);
+        
+        when(draftRadiologyReport.getUuid()).thenReturn(DRAFT_RADIOLOGY_REPORT_UUID);
+        when(draftRadiologyReport.getStatus()).thenReturn(RadiologyReportStatus.DRAFT);
+        when(draftRadiologyReport.getVoided()).thenReturn(false);
+        when(radiologyReportService.getRadiologyReportByUuid(DRAFT_RADIOLOGY_REPORT_UUID)).thenReturn(draftRadiologyReport);
+        when(radiologyReportService.getRadiologyReport(1)).thenReturn(draftRadiologyReport);
+    }
+    
+    private MockHttpServletRequest createRadiologyReportRequest(String uuid) {
+        
+        MockHttpServletRequest request = new MockHttpServletRequest("GET",
+                "/openmrs" + RadiologyReportCacheFilter.RADIOLOGY_REPORT_RESOURCE_PATH + uuid);
+        request.setContextPath("/openmrs");
+        request.setQueryString("v=full");
+        return request;
+    }
+    
+    @Test
+    public void shouldSetEtagLastModifiedAndCacheControlHeadersForACompletedRadiologyReport() throws Exception {
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        radiologyReportCacheFilter.doFilter(createRadiologyReportRequest(COMPLETED_RADIOLOGY_REPORT_UUID), response, chain);
+        
+        assertNotNull(chain.getRequest());
+        assertThat(response.getStatus(), is(HttpServletResponse.SC_OK));
+        assertNotNull(response.getHeader("ETag"));
+        assertNotNull(response.getHeader("Last-Modified"));
+        assertThat(response.getHeader("Cache-Control"), is(RadiologyReportCacheFilter.CACHE_CONTROL_COMPLETED));
+    }
+    
+    @Test
+    public void shouldAnswerNotModifiedWithoutLoadingTheRadiologyReportGivenAMatchingIfNoneMatchHeader()
+            throws Exception {
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        radiologyReportCacheFilter.doFilter(createRadiologyReportRequest(COMPLETED_RADIOLOGY_REPORT_UUID), response,
+            new MockFilterChain());
+        MockHttpServletRequest conditionalRequest = createRadiologyReportRequest(COMPLETED_RADIOLOGY_REPORT_UUID);
+        conditionalRequest.addHeader("If-None-Match", response.getHeader("ETag"));
+        MockHttpServletResponse conditionalResponse = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        radiologyReportCacheFilter.doFilter(conditionalRequest, conditionalResponse, chain);
+        
+        assertNull(chain.getRequest());
+        assertThat(conditionalResponse.getStatus(), is(HttpServletResponse.SC_NOT_MODIFIED));
+        assertThat(conditionalResponse.getHeader("ETag"), is(response.getHeader("ETag")));
+        verify(radiologyReportService, times(1)).getRadiologyReportByUuid(COMPLETED_RADIOLOGY_REPORT_UUID);
+    }
+    
+    @Test
+    public void shouldAnswerWithTheRadiologyReportGivenAnIfNoneMatchHeaderWhichDoesNotMatch() throws Exception {
+        
+        MockHttpServletRequest request = createRadiologyReportRequest(COMPLETED_RADIOLOGY_REPORT_UUID);
+        request.addHeader("If-None-Match", "\"0123456789abcdef0123456789abcdef\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        radiologyReportCacheFilter.doFilter(request, response, chain);
+        
+        assertNotNull(chain.getRequest());
+        assertThat(response.getStatus(), is(HttpServletResponse.SC_OK));
+        assertNotNull(response.getHeader("ETag"));
+    }
+    
+    @Test
+    public void shouldMarkADraftRadiologyReportAsNotStorable() throws Exception {
+        
+        MockHttpServletRequest request = new MockHttpServletRequest("GET",
+                "/openmrs" + RadiologyReportCacheFilter.RADIOLOGY_REPORT_FORM_PATH);
+        request.setContextPath("/openmrs");
+        request.setParameter("reportId", "1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        radiologyReportCacheFilter.doFilter(request, response, chain);
+        
+        assertNotNull(chain.getRequest());
+        assertNull(response.getHeader("ETag"));
+        assertThat(response.getHeader("Cache-Control"), is(RadiologyReportCacheFilter.CACHE_CONTROL_DRAFT));
+    }
+    
+    @Test
+    public void shouldPassRequestsThroughUntouchedIfTheUserIsNotAuthenticated() throws Exception {
+        
+        when(Context.isAuthenticated()).thenReturn(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        radiologyReportCacheFilter.doFilter(createRadiologyReportRequest(COMPLETED_RADIOLOGY_REPORT_UUID), response, chain);
+        
+        assertNotNull(chain.getRequest());
+        assertNull(response.getHeader("ETag"));
+        verify(radiologyReportService, never()).getRadiologyReportByUuid(COMPLETED_RADIOLOGY_REPORT_UUID);
+    }
+    
+    @Test
+    public void shouldPassRequestsThroughUntouchedWhichDoNotRequestASingleRadiologyReport() throws Exception {
+        
+        MockHttpServletRequest searchRequest = createRadiologyReportRequest("");
+        searchRequest.setQueryString("status=COMPLETED");
+        MockHttpServletRequest postRequest = createRadiologyReportRequest(COMPLETED_RADIOLOGY_REPORT_UUID);
+        postRequest.setMethod("POST");
+        
+        assertNull(RadiologyReportCacheFilter.getRadiologyReportKey(searchRequest));
+        assertNull(RadiologyReportCacheFilter.getRadiologyReportKey(postRequest));
+        assertThat(RadiologyReportCacheFilter.getRadiologyReportKey(
+            createRadiologyReportRequest(COMPLETED_RADIOLOGY_REPORT_UUID)), is(COMPLETED_RADIOLOGY_REPORT_UUID));
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.web.resource;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.openmrs.module.radiology.report.RadiologyReport;
+import org.openmrs.module.radiology.report.RadiologyReportSearchHit;
+import org.openmrs.module.webservices.rest.web.representation.CustomRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.DefaultRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.FullRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.RefRepresentation;
+import org.openmrs.module.webservices.rest.web.resource.impl.DelegatingResourceDescription;
+import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
+import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs2_0.RestConstants2_0;
+
+/**
+ * Tests {@link RadiologyReportSearchHitResource}.
+ */
+public class RadiologyReportSearchHitResourceTest {
+    
+    
+    RadiologyReportSearchHitResource radiologyReportSearchHitResource = new RadiologyReportSearchHitResource();
+    
+    @Test
+    public void shouldReturnDefaultRepresentationGivenInstanceOfDefaultrepresentation() throws Exception {
+        
+        DelegatingResourceDescription resourceDescription =
+                radiologyReportSearchHitResource.getRepresentationDescription(new DefaultRepresentation());
+        
+        assertThat(resourceDescription.getProperties()
+                .keySet(),
+            contains("radiologyReport", "score", "highlight"));
+    }
+    
+    @Test
+    public void shouldReturnFullRepresentationGivenInstanceOfFullrepresentation() throws Exception {
+        
+        DelegatingResourceDescription resourceDescription =
+                radiologyReportSearchHitResource.getRepresentationDescription(new FullRepresentation());
+        
+        assertThat(resourceDescription.getProperties()
+                .keySet(),
+            contains("radiologyReport", "score", "highlight"));
+    }
+    
+    @Test
+    public void shouldReturnNullForRepresentationOtherThenDefaultOrFull() throws Exception {
+        
+        assertThat(radiologyReportSearchHitResource.getRepresentationDescription(new CustomRepresentation("some")),
+            is(nullValue()));
+        assertThat(radiologyReportSearchHitResource.getRepresentationDescription(new RefRepresentation()), is(nullValue()));
+    }
+    
+    /**
+     * @see RadiologyReportSearchHitResource#getResourceVersion()
+     */
+    @Test
+    public void shouldReturnSupportedResourceVersion() throws Exception {
+        
+        assertThat(radiologyReportSearchHitResource.getResourceVersion(), is(RestConstants2_0.RESOURCE_VERSION));
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldThrowResourceDoesNotSupportOperationExceptionGivenUuid() throws Exception {
+        
+        radiologyReportSearchHitResource.getByUniqueId("82d3fb80-e403-4b9b-982c-22161ec29811");
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldThrowResourceDoesNotSupportOperationExceptionForNewDelegate() throws Exception {
+        
+        radiologyReportSearchHitResource.newDelegate();
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldThrowResourceDoesNotSupportOperationExceptionForSave() throws Exception {
+        
+        radiologyReportSearchHitResource.save(new RadiologyReportSearchHit(mock(RadiologyReport.class), 1.0f, null));
+    }
+    
+    @Test
+    public void shouldReturnTheUuidOfTheRadiologyReportOfGivenSearchHit() throws Exception {
+        
+        RadiologyReport radiologyReport = mock(RadiologyReport.class);
+        when(radiologyReport.getUuid()).thenReturn("82d3fb80-e403-4b9b-982c-22161ec29811");
+        
+        assertThat(radiologyReportSearchHitResource.getUniqueId(new RadiologyReportSearchHit(radiologyReport, 1.0f, null)),
+            is("82d3fb80-e403-4b9b-982c-22161ec29811"));
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.web.search;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.apache.commons.beanutils.PropertyUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.module.radiology.report.RadiologyReportSearchCriteria;
+import org.openmrs.module.radiology.report.RadiologyReportService;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.test.Util;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.MainResourceControllerTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * Tests {@link RadiologyReportListSearchHandler}.
+ */
+public class RadiologyReportListSearchHandlerComponentTest extends MainResourceControllerTest {
+    
+    
+    protected static final String TEST_DATASET = "RadiologyReportSearchHandlerComponentTestDataset.xml";
+    
+    private static final String RADIOLOGY_REPORT_UUID_OF_VOIDED = "90765170-473f-11e6-beb8-9e71128cae77";
+    
+    private static final String PROVIDER_WITH_RADIOLOGY_REPORTS = "c2299800-cca9-11e0-9572-0800200c9a66";
+    
+    private static final String UNKNOWN_PROVIDER = "99999999-9999-9999-9999-9999999999999";
+    
+    private static final String RADIOLOGY_REPORT_UUID = "82d3fb80-e403-4b9b-982c-22161ec29811";
+    
+    @Autowired
+    RadiologyReportService radiologyReportService;
+    
+    @Before
+    public void setUp() throws Exception {
+        executeDataSet(TEST_DATASET);
+    }
+    
+    /**
+     * @see MainResourceControllerTest#getURI()
+     */
+    @Override
+    public String getURI() {
+        
+        return "radiologyreportlist";
+    }
+    
+    /**
+     * @see MainResourceControllerTest#getAllCount()
+     */
+    @Override
+    public long getAllCount() {
+        
+        return 0;
+    }
+    
+    /**
+     * @see MainResourceControllerTest#getUuid()
+     */
+    @Override
+    public String getUuid() {
+        
+        return RADIOLOGY_REPORT_UUID;
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetAll()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetAll() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI())));
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetDefaultByUuid()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetDefaultByUuid() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI() + "/" + getUuid())));
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetRefByUuid()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetRefByUuid() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI() + "/" + getUuid())));
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetFullByUuid()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetFullByUuid() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI() + "/" + getUuid())));
+    }
+    
+    /**
+     * @see RadiologyReportListSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnListItemsOfAllRadiologyReportsForGivenPrincipalResultsInterpreter() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_PRINCIPAL_RESULT_INTERPRETER,
+            PROVIDER_WITH_RADIOLOGY_REPORTS);
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is(RADIOLOGY_REPORT_UUID));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("2"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "principalResultsInterpreterName"), is("Karl Karlsson"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "creatorName"), is("admin"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "status"), is("COMPLETED"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "voided"), is(false));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("1"));
+        assertNull(PropertyUtils.getProperty(result, "totalCount"));
+    }
+    
+    /**
+     * @see RadiologyReportListSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnListItemsOfAllRadiologyReportsIncludingVoidedIfIncludeAllIsSet() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RestConstants.REQUEST_PROPERTY_FOR_INCLUDE_ALL, "true");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(3));
+        assertThat(PropertyUtils.getProperty(hits.get(2), "uuid"), is(RADIOLOGY_REPORT_UUID_OF_VOIDED));
+        assertThat(PropertyUtils.getProperty(hits.get(2), "voided"), is(true));
+    }
+    
+    /**
+     * @see RadiologyReportListSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnEmptySearchResultIfPrincipalResultsInterpreterCannotBeFound() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_PRINCIPAL_RESULT_INTERPRETER, UNKNOWN_PROVIDER);
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(0));
+    }
+    
+    /**
+     * @see RadiologyReportListSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnOnlyTheRequestedPageOfListItemsAndTotalCountIfRequested() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        request.setParameter("limit", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is(RADIOLOGY_REPORT_UUID));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        assertThat(((Number) PropertyUtils.getProperty(result, "totalCount")).longValue(),
+            is(radiologyReportService.countRadiologyReports(new RadiologyReportSearchCriteria.Builder().build())));
+    }
+    
+    /**
+     * @see RadiologyReportListSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnListItemsOfTheRadiologyReportsOrderedAfterGivenAfterReport() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT, RADIOLOGY_REPORT_UUID);
+        request.setParameter("limit", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is("82d3fb80-e403-4b9b-982c-22161ec29810"));
+    }
+    
+    /**
+     * @see RadiologyReportListSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnANextLinkAfterTheLastListItemIfGivenAfterReport() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT, RADIOLOGY_REPORT_UUID);
+        request.setParameter(RestConstants.REQUEST_PROPERTY_FOR_INCLUDE_ALL, "true");
+        request.setParameter("limit", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is("82d3fb80-e403-4b9b-982c-22161ec29810"));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        String nextUri = (String) Util.getByPath(result, "links[0]/uri");
+        assertThat(nextUri, containsString(
+            RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT + "=82d3fb80-e403-4b9b-982c-22161ec29810"));
+        assertThat(nextUri, not(containsString("startIndex")));
+    }
+    
+    /**
+     * @see RadiologyReportListSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnANextLinkAfterTheLastListItemByDefault() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter("limit", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is(RADIOLOGY_REPORT_UUID));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        String nextUri = (String) Util.getByPath(result, "links[0]/uri");
+        assertThat(nextUri,
+            containsString(RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT + "=" + RADIOLOGY_REPORT_UUID));
+        assertThat(nextUri, not(containsString("startIndex")));
+    }
+}
@@ -9,7 +9,9 @@
  */
 package org.openmrs.module.radiology.report.web.search;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -30,9 +32,11 @@ import org.openmrs.module.radiology.report.RadiologyReportSearchCriteria;
 import org.openmrs.module.radiology.report.RadiologyReportService;
 import org.openmrs.module.radiology.report.RadiologyReportStatus;
 import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.test.Util;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
 import org.openmrs.module.webservices.rest.web.representation.Representation;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
 import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.MainResourceControllerTest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -61,6 +65,8 @@ public class RadiologyReportSearchHandlerComponentTest extends MainResourceContr
     
     private static final String RADIOLOGY_REPORT_UUID = "82d3fb80-e403-4b9b-982c-22161ec29811";
     
+    private static final String PROCEDURE_WITH_RADIOLOGY_REPORTS = "1565b6e6-df81-11e4-98ec-08002798a7ad";
+    
     @Autowired
     RadiologyReportService radiologyReportService;
     
@@ -344,4 +350,193 @@ public class RadiologyReportSearchHandlerComponentTest extends MainResourceContr
         assertNotNull(resultDateRangeWithTwoReport);
         assertThat(PropertyUtils.getProperty(resultDateRangeWithTwoReport, "totalCount"), is(2));
     }
+    
+    @Test
+    public void shouldReturnSearchHitsOfCompletedRadiologyReportsMatchingGivenQueryOrderedByRelevance() throws Exception {
+        
+        radiologyReportService.rebuildRadiologyReportSearchIndex();
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_QUERY, "technician");
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(result, "totalCount"), is(2));
+        assertNotNull(PropertyUtils.getProperty(hits.get(0), "score"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "radiologyReport.status"),
+            is(RadiologyReportStatus.COMPLETED.toString()));
+        
+        request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_QUERY, "technician");
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_DATE_FROM, DATE_BETWEEN_REPORT_DATES);
+        
+        result = deserialize(handle(request));
+        
+        hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "radiologyReport.uuid"),
+            is("82d3fb80-e403-4b9b-982c-22161ec29810"));
+    }
+    
+    @Test
+    public void shouldReturnEmptySearchResultIfNoCompletedRadiologyReportMatchesGivenQuery() throws Exception {
+        
+        radiologyReportService.rebuildRadiologyReportSearchIndex();
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_QUERY, "mammography");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertTrue(hits.isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnEmptySearchResultIfPatientCannotBeFound() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_PATIENT, "99999999-9999-9999-9999-999999999999");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertTrue(hits.isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyReportsForGivenAccessionNumber() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_ACCESSION_NUMBER, "2");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is(RADIOLOGY_REPORT_UUID));
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyReportsForGivenProcedure() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_PROCEDURE, PROCEDURE_WITH_RADIOLOGY_REPORTS);
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(2));
+    }
+    
+    @Test
+    public void shouldReturnRadiologyReportsOrderedAfterGivenAfterReport() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT, RADIOLOGY_REPORT_UUID);
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is("82d3fb80-e403-4b9b-982c-22161ec29810"));
+    }
+    
+    @Test
+    public void shouldReturnEmptySearchResultIfAfterReportCannotBeFound() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT,
+            "99999999-9999-9999-9999-999999999999");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertTrue(hits.isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnANextLinkAfterTheLastRadiologyReportIfGivenAfterReport() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT, RADIOLOGY_REPORT_UUID);
+        request.setParameter(RestConstants.REQUEST_PROPERTY_FOR_INCLUDE_ALL, "true");
+        request.setParameter("limit", "1");
+        request.setParameter("startIndex", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is("82d3fb80-e403-4b9b-982c-22161ec29810"));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        String nextUri = (String) Util.getByPath(result, "links[0]/uri");
+        assertThat(nextUri, containsString(
+            RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT + "=82d3fb80-e403-4b9b-982c-22161ec29810"));
+        assertThat(nextUri, not(containsString("startIndex")));
+    }
+    
+    @Test
+    public void shouldThrowIllegalRequestExceptionIfAfterReportIsGivenWithAQuery() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_QUERY, "technician");
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT, RADIOLOGY_REPORT_UUID);
+        
+        expectedException.expect(IllegalRequestException.class);
+        handle(request);
+    }
+    
+    /**
+     * @see RadiologyReportSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnANextLinkAfterTheLastRadiologyReportByDefault() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter("limit", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is(RADIOLOGY_REPORT_UUID));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        String nextUri = (String) Util.getByPath(result, "links[0]/uri");
+        assertThat(nextUri,
+            containsString(RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT + "=" + RADIOLOGY_REPORT_UUID));
+        assertThat(nextUri, not(containsString("startIndex")));
+    }
+    
+    /**
+     * @see RadiologyReportSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnANextLinkWithTheNextStartIndexIfGivenStartIndex() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RestConstants.REQUEST_PROPERTY_FOR_INCLUDE_ALL, "true");
+        request.setParameter("limit", "1");
+        request.setParameter("startIndex", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(Util.getByPath(result, "links[0]/rel"), is("next"));
+        String nextUri = (String) Util.getByPath(result, "links[0]/uri");
+        assertThat(nextUri, containsString("startIndex=2"));
+        assertThat(nextUri, not(containsString(RadiologyReportSearchHandler.REQUEST_PARAM_AFTER_REPORT)));
+    }
 }
@@ -0,0 +1,117 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.study.web;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.study.RadiologyStudyService;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
+import org.openmrs.module.webservices.rest.web.response.ObjectNotFoundException;
+import org.openmrs.test.BaseContextMockTest;
+
+/**
+ * Tests {@link RadiologyStudyPerformedStatusController}.
+ */
+public class RadiologyStudyPerformedStatusControllerTest extends BaseContextMockTest {
+    
+    
+    private static final String STUDY_INSTANCE_UID = "1.2.826.0.1.3680043.8.2186.1.1";
+    
+    @Mock
+    private RadiologyStudyService radiologyStudyService;
+    
+    @InjectMocks
+    private RadiologyStudyPerformedStatusController radiologyStudyPerformedStatusController =
+            new RadiologyStudyPerformedStatusController();
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    /**
+     * @see RadiologyStudyPerformedStatusController#updateRadiologyStudyPerformedStatus(String, String)
+     */
+    @Test
+    public void shouldUpdateThePerformedStatusOfTheRadiologyStudyMatchingGivenStudyInstanceUid() throws Exception {
+        
+        RadiologyStudy radiologyStudy = new RadiologyStudy();
+        radiologyStudy.setStudyInstanceUid(STUDY_INSTANCE_UID);
+        RadiologyStudy completedStudy = new RadiologyStudy();
+        completedStudy.setStudyInstanceUid(STUDY_INSTANCE_UID);
+        completedStudy.setPerformedStatus(PerformedProcedureStepStatus.COMPLETED);
+        when(radiologyStudyService.getRadiologyStudyByStudyInstanceUid(STUDY_INSTANCE_UID)).thenReturn(radiologyStudy);
+        when(radiologyStudyService.updateRadiologyStudyPerformedStatus(radiologyStudy,
+            PerformedProcedureStepStatus.COMPLETED)).thenReturn(completedStudy);
+        
+        SimpleObject result =
+                radiologyStudyPerformedStatusController.updateRadiologyStudyPerformedStatus(STUDY_INSTANCE_UID, "COMPLETED");
+        
+        verify(radiologyStudyService).updateRadiologyStudyPerformedStatus(radiologyStudy,
+            PerformedProcedureStepStatus.COMPLETED);
+        assertThat(result.get("uuid"), is(completedStudy.getUuid()));
+        assertThat(result.get("studyInstanceUid"), is(STUDY_INSTANCE_UID));
+        assertThat(result.get("performedStatus"), is(PerformedProcedureStepStatus.COMPLETED));
+    }
+    
+    /**
+     * @see RadiologyStudyPerformedStatusController#updateRadiologyStudyPerformedStatus(String, String)
+     */
+    @Test
+    public void shouldUpdateThePerformedStatusGivenTheDicomDisplayNameOfAPerformedProcedureStepStatus() throws Exception {
+        
+        RadiologyStudy radiologyStudy = new RadiologyStudy();
+        radiologyStudy.setStudyInstanceUid(STUDY_INSTANCE_UID);
+        when(radiologyStudyService.getRadiologyStudyByStudyInstanceUid(STUDY_INSTANCE_UID)).thenReturn(radiologyStudy);
+        when(radiologyStudyService.updateRadiologyStudyPerformedStatus(radiologyStudy,
+            PerformedProcedureStepStatus.IN_PROGRESS)).thenReturn(radiologyStudy);
+        
+        radiologyStudyPerformedStatusController.updateRadiologyStudyPerformedStatus(STUDY_INSTANCE_UID, "IN PROGRESS");
+        
+        verify(radiologyStudyService).updateRadiologyStudyPerformedStatus(radiologyStudy,
+            PerformedProcedureStepStatus.IN_PROGRESS);
+    }
+    
+    /**
+     * @see RadiologyStudyPerformedStatusController#updateRadiologyStudyPerformedStatus(String, String)
+     */
+    @Test
+    public void shouldThrowIllegalRequestExceptionIfGivenPerformedStatusIsNotADicomPerformedProcedureStepStatus()
+            throws Exception {
+        
+        expectedException.expect(IllegalRequestException.class);
+        try {
+            radiologyStudyPerformedStatusController.updateRadiologyStudyPerformedStatus(STUDY_INSTANCE_UID, "SCHEDULED");
+        }
+        finally {
+            verifyZeroInteractions(radiologyStudyService);
+        }
+    }
+    
+    /**
+     * @see RadiologyStudyPerformedStatusController#updateRadiologyStudyPerformedStatus(String, String)
+     */
+    @Test
+    public void shouldThrowObjectNotFoundExceptionIfNoRadiologyStudyMatchesGivenStudyInstanceUid() throws Exception {
+        
+        expectedException.expect(ObjectNotFoundException.class);
+        radiologyStudyPerformedStatusController.updateRadiologyStudyPerformedStatus(STUDY_INSTANCE_UID, "COMPLETED");
+    }
+}
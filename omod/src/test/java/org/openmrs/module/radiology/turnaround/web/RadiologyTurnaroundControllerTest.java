@@ -0,0 +1,130 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.turnaround.web;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openmrs.Order.Urgency;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundDimension;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundGranularity;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundInterval;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundSearchCriteria;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundService;
+import org.openmrs.module.radiology.turnaround.RadiologyTurnaroundStatistics;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.test.BaseContextMockTest;
+
+/**
+ * Tests {@link RadiologyTurnaroundController}.
+ */
+public class RadiologyTurnaroundControllerTest extends BaseContextMockTest {
+    
+    
+    @Mock
+    private RadiologyTurnaroundService radiologyTurnaroundService;
+    
+    @InjectMocks
+    private RadiologyTurnaroundController radiologyTurnaroundController = new RadiologyTurnaroundController();
+    
+    /**
+     * @see RadiologyTurnaroundController#getRadiologyTurnaroundStatistics(RadiologyTurnaroundInterval,
+     *      RadiologyTurnaroundGranularity, String, String, org.openmrs.Concept, Urgency, org.openmrs.Provider,
+     *      RadiologyTurnaroundDimension[])
+     */
+    @Test
+    public void shouldReturnTheTurnaroundStatisticsMatchingTheGivenFilters() throws Exception {
+        
+        RadiologyTurnaroundStatistics radiologyTurnaroundStatistics = mock(RadiologyTurnaroundStatistics.class);
+        when(radiologyTurnaroundStatistics.getUrgency()).thenReturn(Urgency.STAT);
+        when(radiologyTurnaroundStatistics.getCount()).thenReturn(2L);
+        when(radiologyTurnaroundStatistics.getTotalSeconds()).thenReturn(5400L);
+        when(radiologyTurnaroundStatistics.getMeanSeconds()).thenReturn(2700.0);
+        when(radiologyTurnaroundStatistics.getMedianSeconds()).thenReturn(1800L);
+        when(radiologyTurnaroundStatistics.getPercentile90Seconds()).thenReturn(3600L);
+        when(radiologyTurnaroundStatistics.getPercentile95Seconds()).thenReturn(3600L);
+        when(radiologyTurnaroundService.getRadiologyTurnaroundStatistics(any(RadiologyTurnaroundSearchCriteria.class)))
+                .thenReturn(Arrays.asList(radiologyTurnaroundStatistics));
+        
+        SimpleObject result = radiologyTurnaroundController.getRadiologyTurnaroundStatistics(
+            RadiologyTurnaroundInterval.ORDER_TO_EXAM, RadiologyTurnaroundGranularity.HOUR, null, null, null,
+            Urgency.STAT, null, new RadiologyTurnaroundDimension[] { RadiologyTurnaroundDimension.URGENCY });
+        
+        ArgumentCaptor<RadiologyTurnaroundSearchCriteria> argument =
+                ArgumentCaptor.forClass(RadiologyTurnaroundSearchCriteria.class);
+        verify(radiologyTurnaroundService).getRadiologyTurnaroundStatistics(argument.capture());
+        assertThat(argument.getValue()
+                .getInterval(),
+            is(RadiologyTurnaroundInterval.ORDER_TO_EXAM));
+        assertThat(argument.getValue()
+                .getGranularity(),
+            is(RadiologyTurnaroundGranularity.HOUR));
+        assertThat(argument.getValue()
+                .getUrgency(),
+            is(Urgency.STAT));
+        assertNull(argument.getValue()
+                .getFromDate());
+        assertThat(argument.getValue()
+                .getGroupBy(),
+            contains(RadiologyTurnaroundDimension.URGENCY));
+        
+        List<SimpleObject> results = (List<SimpleObject>) result.get("results");
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0)
+                .get("urgency"),
+            is(Urgency.STAT));
+        assertThat(results.get(0)
+                .get("count"),
+            is(2L));
+        assertThat(results.get(0)
+                .get("totalSeconds"),
+            is(5400L));
+        assertThat(results.get(0)
+                .get("meanSeconds"),
+            is(2700.0));
+        assertThat(results.get(0)
+                .get("medianSeconds"),
+            is(1800L));
+        assertThat(results.get(0)
+                .get("percentile95Seconds"),
+            is(3600L));
+    }
+    
+    /**
+     * @see RadiologyTurnaroundController#getRadiologyTurnaroundStatistics(RadiologyTurnaroundInterval,
+     *      RadiologyTurnaroundGranularity, String, String, org.openmrs.Concept, Urgency, org.openmrs.Provider,
+     *      RadiologyTurnaroundDimension[])
+     */
+    @Test
+    public void shouldReturnAnEmptyResultIfNoTurnaroundStatisticsMatchTheGivenFilters() throws Exception {
+        
+        when(radiologyTurnaroundService.getRadiologyTurnaroundStatistics(any(RadiologyTurnaroundSearchCriteria.class)))
+                .thenReturn(new ArrayList<RadiologyTurnaroundStatistics>());
+        
+        SimpleObject result = radiologyTurnaroundController.getRadiologyTurnaroundStatistics(
+            RadiologyTurnaroundInterval.EXAM_TO_REPORT, null, null, null, null, null, null, null);
+        
+        assertThat(((List<SimpleObject>) result.get("results")).size(), is(0));
+    }
+}
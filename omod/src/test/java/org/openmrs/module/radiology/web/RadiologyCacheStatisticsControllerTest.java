@@ -0,0 +1,130 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.web;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.openmrs.api.APIAuthenticationException;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyCacheRegionStatistics;
+import org.openmrs.module.radiology.RadiologyCacheStatistics;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Tests {@link RadiologyCacheStatisticsController}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(Context.class)
+public class RadiologyCacheStatisticsControllerTest {
+    
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Mock
+    private RadiologyCacheStatistics radiologyCacheStatistics;
+    
+    private RadiologyCacheStatisticsController radiologyCacheStatisticsController =
+            new RadiologyCacheStatisticsController();
+    
+    @Before
+    public void setUp() {
+        
+        PowerMockito.mockStatic(Context.class);
+        Whitebox.setInternalState(radiologyCacheStatisticsController, radiologyCacheStatistics);
+    }
+    
+    @Test
+    public void shouldReturnModelAndViewOfTheRadiologyCacheStatisticsPagePopulatedWithTheCacheStatistics()
+            throws Exception {
+        
+        List<RadiologyCacheRegionStatistics> cacheRegionStatistics = Arrays.asList(
+            new RadiologyCacheRegionStatistics("org.openmrs.module.radiology.modality.RadiologyModality", 4, 1, 1, 1));
+        RadiologyCacheRegionStatistics queryCacheStatistics =
+                new RadiologyCacheRegionStatistics("org.hibernate.cache.internal.StandardQueryCache", 2, 1, 1, 1);
+        RadiologyCacheRegionStatistics globalPropertyCacheStatistics =
+                new RadiologyCacheRegionStatistics("org.openmrs.module.radiology.RadiologyProperties", 9, 1, 0, 0);
+        when(radiologyCacheStatistics.isStatisticsEnabled()).thenReturn(true);
+        when(radiologyCacheStatistics.getCacheRegionStatistics()).thenReturn(cacheRegionStatistics);
+        when(radiologyCacheStatistics.getQueryCacheStatistics()).thenReturn(queryCacheStatistics);
+        when(radiologyCacheStatistics.getGlobalPropertyCacheStatistics()).thenReturn(globalPropertyCacheStatistics);
+        RadiologyCacheRegionStatistics mrrtReportTemplateCacheStatistics = new RadiologyCacheRegionStatistics(
+                "org.openmrs.module.radiology.report.template.MrrtReportTemplateHtmlBodyCache", 7, 2, 2, 2);
+        when(radiologyCacheStatistics.getMrrtReportTemplateCacheStatistics())
+                .thenReturn(mrrtReportTemplateCacheStatistics);
+        when(radiologyCacheStatistics.getMrrtReportTemplateCacheAverageLoadTimeMillis()).thenReturn(3.5);
+        when(radiologyCacheStatistics.getMrrtReportTemplateCacheByteCount()).thenReturn(2048L);
+        
+        ModelAndView modelAndView = radiologyCacheStatisticsController.getRadiologyCacheStatistics();
+        
+        assertNotNull(modelAndView);
+        assertThat(modelAndView.getViewName(), is(RadiologyCacheStatisticsController.RADIOLOGY_CACHE_STATISTICS_VIEW));
+        assertThat(modelAndView.getModelMap()
+                .get("statisticsEnabled"),
+            is(true));
+        assertThat(modelAndView.getModelMap()
+                .get("cacheRegionStatistics"),
+            is(cacheRegionStatistics));
+        assertThat(modelAndView.getModelMap()
+                .get("queryCacheStatistics"),
+            is(queryCacheStatistics));
+        assertThat(modelAndView.getModelMap()
+                .get("globalPropertyCacheStatistics"),
+            is(globalPropertyCacheStatistics));
+        assertThat(modelAndView.getModelMap()
+                .get("mrrtReportTemplateCacheStatistics"),
+            is(mrrtReportTemplateCacheStatistics));
+        assertThat(modelAndView.getModelMap()
+                .get("mrrtReportTemplateCacheAverageLoadTimeMillis"),
+            is(3.5));
+        assertThat(modelAndView.getModelMap()
+                .get("mrrtReportTemplateCacheByteCount"),
+            is(2048L));
+    }
+    
+    @Test
+    public void shouldThrowApiAuthenticationExceptionIfTheUserCannotViewAdministrationFunctions() throws Exception {
+        
+        PowerMockito.doThrow(new APIAuthenticationException("Privilege required: View Administration Functions"))
+                .when(Context.class);
+        Context.requirePrivilege(RadiologyCacheStatisticsController.VIEW_ADMINISTRATION_FUNCTIONS);
+        
+        expectedException.expect(APIAuthenticationException.class);
+        radiologyCacheStatisticsController.getRadiologyCacheStatistics();
+    }
+    
+    @Test
+    public void shouldEnableOrDisableTheCollectionOfCacheStatisticsAndRedirectToTheRadiologyCacheStatisticsPage()
+            throws Exception {
+        
+        ModelAndView modelAndView = radiologyCacheStatisticsController.setStatisticsEnabled(true);
+        
+        verify(radiologyCacheStatistics).setStatisticsEnabled(true);
+        assertThat(modelAndView.getViewName(),
+            is("redirect:" + RadiologyCacheStatisticsController.RADIOLOGY_CACHE_STATISTICS_REQUEST_MAPPING));
+    }
+}
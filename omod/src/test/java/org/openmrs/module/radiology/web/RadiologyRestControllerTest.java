@@ -0,0 +1,49 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.web;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.openmrs.module.radiology.report.RadiologyReportConflictException;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Tests {@link RadiologyRestController}.
+ */
+public class RadiologyRestControllerTest {
+    
+    
+    private RadiologyRestController radiologyRestController = new RadiologyRestController();
+    
+    /**
+     * @see RadiologyRestController#handleRadiologyReportConflictException(RadiologyReportConflictException,
+     *      HttpServletResponse)
+     */
+    @Test
+    public void shouldSetStatusConflictAndReturnAnErrorResponse() throws Exception {
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        SimpleObject result = radiologyRestController.handleRadiologyReportConflictException(
+            new RadiologyReportConflictException("radiology.RadiologyReport.conflict.modified", null), response);
+        
+        assertThat(response.getStatus(), is(HttpServletResponse.SC_CONFLICT));
+        assertTrue(((String) ((Map<?, ?>) result.get("error")).get("message"))
+                .contains("radiology.RadiologyReport.conflict.modified"));
+    }
+}
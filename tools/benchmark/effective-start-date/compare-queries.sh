@@ -0,0 +1,101 @@
+#!/usr/bin/env bash
+#
+# Compares the query plans and timings of filtering radiology orders by effective start date before and after changeSets
+# radiology-50 to radiology-52, on the database generated by generate-orders.sh. See README.md.
+#
+# Usage: compare-queries.sh [from date] [to date]
+
+set -euo pipefail
+
+FROM_DATE="${1:-2014-06-01 00:00:00}"
+TO_DATE="${2:-2014-06-07 23:59:59}"
+RUNS="${RUNS:-5}"
+MYSQL_HOST="${MYSQL_HOST:-127.0.0.1}"
+MYSQL_PORT="${MYSQL_PORT:-3306}"
+MYSQL_USER="${MYSQL_USER:-root}"
+MYSQL_PASSWORD="${MYSQL_PASSWORD:-openmrs}"
+BENCHMARK_DATABASE="${BENCHMARK_DATABASE:-radiology_benchmark}"
+
+mysql_cmd() {
+    MYSQL_PWD="$MYSQL_PASSWORD" mysql --host="$MYSQL_HOST" --port="$MYSQL_PORT" --user="$MYSQL_USER" \
+        --database="$BENCHMARK_DATABASE" "$@"
+}
+
+# the predicate of the search before radiology-50, an OR of two conjunctions over urgency, scheduled date and date
+# activated
+OR_PREDICATE="o.voided = 0
+    AND ((o.urgency = 'ON_SCHEDULED_DATE' AND o.scheduled_date >= '$FROM_DATE')
+        OR (o.urgency <> 'ON_SCHEDULED_DATE' AND o.date_activated >= '$FROM_DATE'))
+    AND ((o.urgency = 'ON_SCHEDULED_DATE' AND o.scheduled_date <= '$TO_DATE')
+        OR (o.urgency <> 'ON_SCHEDULED_DATE' AND o.date_activated <= '$TO_DATE'))"
+
+# the predicate of the search after radiology-50, a range on the persisted effective start date
+RANGE_PREDICATE="o.voided = 0
+    AND r.effective_start_date >= '$FROM_DATE' AND r.effective_start_date <= '$TO_DATE'"
+
+# the count and the first page of the search as issued by HibernateRadiologyOrderDAO
+count_query() {
+    echo "SELECT SQL_NO_CACHE COUNT(*) FROM radiology_order r INNER JOIN orders o ON o.order_id = r.order_id
+WHERE $1"
+}
+
+page_query() {
+    echo "SELECT SQL_NO_CACHE r.order_id FROM radiology_order r INNER JOIN orders o ON o.order_id = r.order_id
+WHERE $1 ORDER BY o.accession_number LIMIT 51"
+}
+
+# prints the fastest of $RUNS runs of given query in milliseconds, including the connection overhead of the client
+time_query() {
+    local fastest=""
+    local run start end elapsed
+    for ((run = 0; run < RUNS; run++)); do
+        start=$(date +%s%N)
+        mysql_cmd --batch --skip-column-names -e "$1" > /dev/null
+        end=$(date +%s%N)
+        elapsed=$(((end - start) / 1000000))
+        if [ -z "$fastest" ] || [ "$elapsed" -lt "$fastest" ]; then
+            fastest=$elapsed
+        fi
+    done
+    echo "$fastest"
+}
+
+compare() {
+    local title=$1
+    local predicate=$2
+    local count page
+    count=$(count_query "$predicate")
+    page=$(page_query "$predicate")
+    echo
+    echo "== $title"
+    echo
+    echo "-- EXPLAIN count"
+    mysql_cmd --table -e "EXPLAIN $count"
+    echo "-- EXPLAIN page"
+    mysql_cmd --table -e "EXPLAIN $page"
+    echo "matching orders: $(mysql_cmd --batch --skip-column-names -e "$count")"
+    echo "count: $(time_query "$count") ms, page: $(time_query "$page") ms (fastest of $RUNS runs)"
+}
+
+index_exists() {
+    mysql_cmd --batch --skip-column-names -e "SELECT COUNT(*) FROM information_schema.statistics
+WHERE table_schema = DATABASE() AND table_name = 'radiology_order'
+AND index_name = 'radiology_order_effective_start_date_index'"
+}
+
+if [ "$(index_exists)" != "0" ]; then
+    mysql_cmd -e "DROP INDEX radiology_order_effective_start_date_index ON radiology_order"
+fi
+
+echo "orders: $(mysql_cmd --batch --skip-column-names -e "SELECT COUNT(*) FROM radiology_order")"
+echo "effective start date range: $FROM_DATE to $TO_DATE"
+echo "client round trip: $(time_query "SELECT 1") ms"
+
+compare "before radiology-50: OR of urgency, scheduled date and date activated" "$OR_PREDICATE"
+compare "after radiology-51: range on effective_start_date without index" "$RANGE_PREDICATE"
+
+# changeSet radiology-52
+mysql_cmd -e "CREATE INDEX radiology_order_effective_start_date_index ON radiology_order (effective_start_date);
+ANALYZE TABLE radiology_order;" > /dev/null
+
+compare "after radiology-52: range on effective_start_date with index" "$RANGE_PREDICATE"
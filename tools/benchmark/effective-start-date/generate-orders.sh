@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+#
+# Generates a scratch MySQL database holding the columns of the orders and radiology_order tables which the filter of
+# radiology orders by effective start date reads. See README.md.
+#
+# Usage: generate-orders.sh [number of orders]
+
+set -euo pipefail
+
+ROWS="${1:-1000000}"
+MYSQL_HOST="${MYSQL_HOST:-127.0.0.1}"
+MYSQL_PORT="${MYSQL_PORT:-3306}"
+MYSQL_USER="${MYSQL_USER:-root}"
+MYSQL_PASSWORD="${MYSQL_PASSWORD:-openmrs}"
+BENCHMARK_DATABASE="${BENCHMARK_DATABASE:-radiology_benchmark}"
+
+if ! [[ "$ROWS" =~ ^[1-9][0-9]*$ ]] || [ "$ROWS" -gt 10000000 ]; then
+    echo "number of orders must be between 1 and 10000000" >&2
+    exit 1
+fi
+
+mysql_cmd() {
+    MYSQL_PWD="$MYSQL_PASSWORD" mysql --host="$MYSQL_HOST" --port="$MYSQL_PORT" --user="$MYSQL_USER" "$@"
+}
+
+echo "generating $ROWS orders in database $BENCHMARK_DATABASE"
+
+mysql_cmd <<SQL
+DROP DATABASE IF EXISTS \`$BENCHMARK_DATABASE\`;
+CREATE DATABASE \`$BENCHMARK_DATABASE\`;
+USE \`$BENCHMARK_DATABASE\`;
+
+-- the orders columns read by the radiology order search, which are not indexed on the core orders table either
+CREATE TABLE orders (
+    order_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    urgency VARCHAR(50) NOT NULL,
+    scheduled_date DATETIME NULL,
+    date_activated DATETIME NOT NULL,
+    accession_number VARCHAR(255) NULL,
+    voided TINYINT(1) NOT NULL DEFAULT 0
+) ENGINE=InnoDB;
+
+-- radiology_order as after changeSets radiology-50 and radiology-51, without the index of radiology-52
+CREATE TABLE radiology_order (
+    order_id INT NOT NULL PRIMARY KEY,
+    effective_start_date DATETIME NULL,
+    CONSTRAINT radiology_order_order_id_fk FOREIGN KEY (order_id) REFERENCES orders (order_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE digits (digit INT NOT NULL PRIMARY KEY) ENGINE=InnoDB;
+INSERT INTO digits VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9);
+
+-- orders are activated uniformly over five years, a fifth is scheduled up to 30 days after activation and 2 percent
+-- are voided, the draws hash the order number so that every run generates the same orders
+INSERT INTO orders (urgency, scheduled_date, date_activated, accession_number, voided)
+SELECT CASE WHEN r.urgency_draw < 0.2 THEN 'ON_SCHEDULED_DATE' WHEN r.urgency_draw < 0.3 THEN 'STAT' ELSE 'ROUTINE' END,
+    CASE WHEN r.urgency_draw < 0.2 THEN r.date_activated + INTERVAL FLOOR(r.schedule_draw * 30 * 24) HOUR END,
+    r.date_activated, LPAD(r.n, 10, '0'), r.void_draw < 0.02
+FROM (SELECT n, CRC32(CONCAT('urgency', n)) / 4294967296 AS urgency_draw,
+        CRC32(CONCAT('schedule', n)) / 4294967296 AS schedule_draw, CRC32(CONCAT('void', n)) / 4294967296 AS void_draw,
+        TIMESTAMP('2012-01-01')
+            + INTERVAL FLOOR(CRC32(CONCAT('activation', n)) / 4294967296 * 5 * 365 * 24 * 3600) SECOND AS date_activated
+    FROM (SELECT d1.digit + 10 * d2.digit + 100 * d3.digit + 1000 * d4.digit + 10000 * d5.digit
+            + 100000 * d6.digit + 1000000 * d7.digit AS n
+        FROM digits d1, digits d2, digits d3, digits d4, digits d5, digits d6, digits d7) numbers
+    WHERE n < $ROWS) r
+ORDER BY r.n;
+
+-- the effective start date as backfilled by changeSet radiology-51
+INSERT INTO radiology_order (order_id, effective_start_date)
+SELECT o.order_id, CASE WHEN o.urgency = 'ON_SCHEDULED_DATE' THEN o.scheduled_date ELSE o.date_activated END
+FROM orders o;
+
+DROP TABLE digits;
+ANALYZE TABLE orders, radiology_order;
+SQL
+
+echo "done"
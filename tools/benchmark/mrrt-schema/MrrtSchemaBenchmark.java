@@ -0,0 +1,166 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.w3c.dom.Document;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Compares the time the schema validation of an mrrt report template takes when the schema is compiled for every
+ * validation, as XsdMrrtReportTemplateValidator did before, with the time it takes when a compiled schema is shared by
+ * all validations, as it does now.
+ * <p>
+ * Only depends on the jdk, see README.md for how to run it.
+ * </p>
+ */
+public class MrrtSchemaBenchmark {
+    
+    
+    private static final Pattern HTML5_DOCTYPE =
+            Pattern.compile("^(\\s*(?:<\\?xml[^>]*\\?>)?\\s*)<!DOCTYPE\\s+html\\s*>", Pattern.CASE_INSENSITIVE);
+    
+    private static final ErrorHandler IGNORING_ERROR_HANDLER = new ErrorHandler() {
+        
+        
+        @Override
+        public void warning(SAXParseException exception) {
+        }
+        
+        @Override
+        public void error(SAXParseException exception) {
+        }
+        
+        @Override
+        public void fatalError(SAXParseException exception) {
+        }
+    };
+    
+    private final File schemaFile;
+    
+    private final Document template;
+    
+    private final Schema sharedSchema;
+    
+    private MrrtSchemaBenchmark(File schemaFile, Document template) throws Exception {
+        this.schemaFile = schemaFile;
+        this.template = template;
+        this.sharedSchema = compileSchema();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        
+        final File schemaFile = new File(args.length > 0 ? args[0] : "api/src/main/resources/MrrtReportTemplateSchema.xsd");
+        final File templateFile = new File(args.length > 1 ? args[1]
+                : "api/src/test/resources/mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        final int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        final int validationsPerRound = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        
+        final MrrtSchemaBenchmark benchmark = new MrrtSchemaBenchmark(schemaFile, parseTemplate(templateFile));
+        System.out.println("schema: " + schemaFile);
+        System.out.println("template: " + templateFile);
+        System.out.println("java: " + System.getProperty("java.version") + " " + System.getProperty("java.vm.name"));
+        
+        // warm up both variants so that the jit compiled the parser and validator before measuring
+        for (int i = 0; i < 3; i++) {
+            benchmark.validateCompilingSchema(validationsPerRound);
+            benchmark.validateWithSharedSchema(validationsPerRound);
+        }
+        
+        // the variants are measured in alternating rounds so that both are equally affected by gc and other load
+        final double[] compilingSchema = new double[rounds];
+        final double[] sharedSchema = new double[rounds];
+        for (int round = 0; round < rounds; round++) {
+            compilingSchema[round] = benchmark.validateCompilingSchema(validationsPerRound);
+            sharedSchema[round] = benchmark.validateWithSharedSchema(validationsPerRound);
+        }
+        
+        final double compilingSchemaMedian = median(compilingSchema);
+        final double sharedSchemaMedian = median(sharedSchema);
+        System.out.printf("%d rounds of %d validations, median per validation%n", rounds, validationsPerRound);
+        System.out.printf("schema compiled per validation: %10.1f us%n", compilingSchemaMedian / 1000);
+        System.out.printf("shared compiled schema:         %10.1f us%n", sharedSchemaMedian / 1000);
+        System.out.printf("speedup:                        %10.1f x%n", compilingSchemaMedian / sharedSchemaMedian);
+    }
+    
+    /**
+     * @return the average nanoseconds of the given number of validations compiling the schema for each of them
+     */
+    private double validateCompilingSchema(int validations) throws Exception {
+        
+        final long start = System.nanoTime();
+        for (int i = 0; i < validations; i++) {
+            validate(compileSchema());
+        }
+        return (System.nanoTime() - start) / (double) validations;
+    }
+    
+    /**
+     * @return the average nanoseconds of the given number of validations sharing one compiled schema
+     */
+    private double validateWithSharedSchema(int validations) throws Exception {
+        
+        final long start = System.nanoTime();
+        for (int i = 0; i < validations; i++) {
+            validate(sharedSchema);
+        }
+        return (System.nanoTime() - start) / (double) validations;
+    }
+    
+    private void validate(Schema schema) throws Exception {
+        
+        final Validator validator = schema.newValidator();
+        validator.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        validator.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        validator.setErrorHandler(IGNORING_ERROR_HANDLER);
+        validator.validate(new DOMSource(template));
+    }
+    
+    private Schema compileSchema() throws Exception {
+        return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                .newSchema(schemaFile);
+    }
+    
+    /**
+     * Parses given template like XsdMrrtReportTemplateValidator, so that only the schema validation is measured.
+     */
+    private static Document parseTemplate(File templateFile) throws Exception {
+        
+        final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setNamespaceAware(true);
+        documentBuilderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        final String template = new String(Files.readAllBytes(templateFile.toPath()), StandardCharsets.UTF_8);
+        return documentBuilderFactory.newDocumentBuilder()
+                .parse(new InputSource(new StringReader(HTML5_DOCTYPE.matcher(template)
+                        .replaceFirst("$1"))));
+    }
+    
+    private static double median(double[] values) {
+        
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted.length % 2 == 1 ? sorted[sorted.length / 2]
+                : (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2;
+    }
+}